@@ -0,0 +1,50 @@
+package com.pdfgenerator.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Template snapshot store for a single node.
+ *
+ * Nothing is shared, since the node's own cache already holds every template it read; notices
+ * go straight to this node's listeners. Deployments with several API nodes should use the Redis
+ * store, or edits on one node are only seen by the others once their copies expire.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.template.store", havingValue = "local", matchIfMissing = true)
+public class LocalTemplateSnapshotStore implements TemplateSnapshotStore {
+
+    private final List<Consumer<TemplateInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public TemplateSnapshot get(String templateId) {
+        return null;
+    }
+
+    @Override
+    public void put(TemplateSnapshot snapshot, Duration ttl) {
+    }
+
+    @Override
+    public void remove(TemplateInvalidation invalidation, Duration ttl) {
+    }
+
+    @Override
+    public void publish(TemplateInvalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<TemplateInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void ping() {
+    }
+}
\ No newline at end of file
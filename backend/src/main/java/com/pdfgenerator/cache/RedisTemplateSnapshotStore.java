@@ -0,0 +1,201 @@
+package com.pdfgenerator.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Template snapshot store shared by all nodes through Redis.
+ *
+ * Each template is one string value under {@code template:<id>}: a header line with version and
+ * update time, followed by the snapshot as JSON, or nothing for a marker left by an invalidation.
+ * Writes go through a script that keeps the newer state, and expire after the given TTL. Notices
+ * are published on the {@code template-invalidations} channel as "id version updatedAtMillis".
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.template.store", havingValue = "redis")
+public class RedisTemplateSnapshotStore implements TemplateSnapshotStore, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTemplateSnapshotStore.class);
+
+    static final String CHANNEL = "template-invalidations";
+    private static final String KEY_PREFIX = "template:";
+    private static final String SEPARATOR = " ";
+    private static final byte END_OF_HEADER = '\n';
+
+    // Set ARGV[1] unless the key holds a newer state; at the same state only a snapshot replaces a marker
+    private static final byte[] PUT_SCRIPT = ("local current = redis.call('get', KEYS[1]) "
+        + "if current then "
+        + "local version, updated = string.match(current, '^(%d+) (%d+)') "
+        + "version = tonumber(version) updated = tonumber(updated) "
+        + "local newVersion = tonumber(ARGV[2]) local newUpdated = tonumber(ARGV[3]) "
+        + "if version > newVersion or (version == newVersion and updated > newUpdated) then return 0 end "
+        + "if version == newVersion and updated == newUpdated "
+        + "and (ARGV[5] == '0' or string.sub(current, -1) ~= '\\n') then return 0 end "
+        + "end "
+        + "redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[4]) return 1").getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    public RedisTemplateSnapshotStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        listenerContainer.afterPropertiesSet();
+    }
+
+    @Override
+    public TemplateSnapshot get(String templateId) {
+        byte[] key = redisKey(templateId);
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(key));
+        if (value == null) {
+            return null;
+        }
+        try {
+            return decode(value, objectMapper);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable snapshot of template {}: {}", templateId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(TemplateSnapshot snapshot, Duration ttl) {
+        write(snapshot.getId(), encode(snapshot, objectMapper), snapshot.getVersionOrZero(),
+            snapshot.getUpdatedAtMillis(), ttl, true);
+    }
+
+    @Override
+    public void remove(TemplateInvalidation invalidation, Duration ttl) {
+        byte[] marker = header(invalidation.getVersion(), invalidation.getUpdatedAtMillis());
+        write(invalidation.getTemplateId(), marker, invalidation.getVersion(), invalidation.getUpdatedAtMillis(),
+            ttl, false);
+    }
+
+    @Override
+    public void publish(TemplateInvalidation invalidation) {
+        redisTemplate.convertAndSend(CHANNEL, encode(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<TemplateInvalidation> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                listener.accept(decode(body));
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring template invalidation \"{}\": {}", body, e.getMessage());
+            }
+        }, new ChannelTopic(CHANNEL));
+        try {
+            listen();
+        } catch (RuntimeException e) {
+            logger.warn("Cannot subscribe to template invalidations yet: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check Redis can be reached and this node receives notices, subscribing again if needed
+     */
+    @Override
+    public void ping() {
+        redisTemplate.execute((RedisCallback<String>) connection -> connection.ping());
+        listen();
+        if (!listenerContainer.isListening()) {
+            throw new IllegalStateException("Not subscribed to template invalidations");
+        }
+    }
+
+    private void listen() {
+        if (listenerContainer.isListening()) {
+            return;
+        }
+        // The container does not retry a subscription that failed on start
+        if (listenerContainer.isRunning()) {
+            listenerContainer.stop();
+        }
+        listenerContainer.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    private void write(String templateId, byte[] value, int version, long updatedAtMillis, Duration ttl,
+                       boolean snapshot) {
+        byte[] key = redisKey(templateId);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands().eval(
+            PUT_SCRIPT, ReturnType.INTEGER, 1, key, value, bytes(String.valueOf(version)),
+            bytes(String.valueOf(updatedAtMillis)), bytes(String.valueOf(ttl.toMillis())), bytes(snapshot ? "1" : "0")));
+    }
+
+    private static byte[] redisKey(String templateId) {
+        return bytes(KEY_PREFIX + templateId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] header(int version, long updatedAtMillis) {
+        return bytes(version + SEPARATOR + updatedAtMillis + (char) END_OF_HEADER);
+    }
+
+    static byte[] encode(TemplateSnapshot snapshot, ObjectMapper objectMapper) {
+        byte[] header = header(snapshot.getVersionOrZero(), snapshot.getUpdatedAtMillis());
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Template " + snapshot.getId() + " cannot be serialized", e);
+        }
+        byte[] value = Arrays.copyOf(header, header.length + json.length);
+        System.arraycopy(json, 0, value, header.length, json.length);
+        return value;
+    }
+
+    /**
+     * @return the snapshot, or null for an invalidation marker
+     */
+    static TemplateSnapshot decode(byte[] value, ObjectMapper objectMapper) throws IOException {
+        int end = 0;
+        while (value[end] != END_OF_HEADER) {
+            end++;
+        }
+        if (end == value.length - 1) {
+            return null;
+        }
+        return objectMapper.readValue(value, end + 1, value.length - end - 1, TemplateSnapshot.class);
+    }
+
+    static String encode(TemplateInvalidation invalidation) {
+        return invalidation.getTemplateId() + SEPARATOR + invalidation.getVersion() + SEPARATOR
+            + invalidation.getUpdatedAtMillis();
+    }
+
+    static TemplateInvalidation decode(String message) {
+        String[] fields = message.split(SEPARATOR, 3);
+        return new TemplateInvalidation(fields[0], Integer.parseInt(fields[1]), Long.parseLong(fields[2]));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.pdfgenerator.cache;
+
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.repository.TemplateRepository;
+import com.pdfgenerator.template.TemplateCompiler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of the templates read by rendering.
+ *
+ * Each node keeps the templates it rendered in memory for the local TTL, in front of a
+ * {@link TemplateSnapshotStore} shared by all nodes, in front of the database. Edits committed on
+ * any node are published as {@link TemplateInvalidation} notices; every node drops its older copy
+ * and compiled plan when one arrives, and publishes a {@link TemplateChangedEvent} for other views
+ * of the template, such as the search index. Compiled plans are not shared, as each node compiles a
+ * template version once.
+ *
+ * While the shared store cannot be reached, nodes read the database and keep their copies only
+ * for the fallback TTL, since notices from other nodes are lost meanwhile. Notices of edits made
+ * in that time are resent once the store is back, and local copies are dropped.
+ */
+@Component
+public class TemplateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateCache.class);
+
+    private final TemplateRepository templateRepository;
+    private final TemplateSnapshotStore sharedStore;
+    private final TemplateCompiler templateCompiler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration sharedTtl;
+    private final long sharedTtlNanos;
+    private final long localTtlNanos;
+    private final long fallbackTtlNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Newest notice seen per template, so a copy read before it is not cached after it; kept for
+    // the shared TTL, after which copies older than the notice have expired from the shared store
+    private final Map<String, Notice> invalidations = new ConcurrentHashMap<>();
+    // Notices not shared while the store was down, per template
+    private final Map<String, TemplateInvalidation> pending = new ConcurrentHashMap<>();
+    private final Counter localHits;
+    private final Counter sharedHits;
+    private final Counter databaseReads;
+    private volatile boolean sharedAvailable = true;
+
+    @Autowired
+    public TemplateCache(TemplateRepository templateRepository,
+                         TemplateSnapshotStore sharedStore,
+                         TemplateCompiler templateCompiler,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.cache.template.ttl:1h}") Duration sharedTtl,
+                         @Value("${app.cache.template.local-ttl:5m}") Duration localTtl,
+                         @Value("${app.cache.template.fallback-ttl:5s}") Duration fallbackTtl) {
+        this.templateRepository = templateRepository;
+        this.sharedStore = sharedStore;
+        this.templateCompiler = templateCompiler;
+        this.eventPublisher = eventPublisher;
+        this.sharedTtl = sharedTtl;
+        this.sharedTtlNanos = sharedTtl.toNanos();
+        this.localTtlNanos = localTtl.toNanos();
+        this.fallbackTtlNanos = fallbackTtl.toNanos();
+        this.localHits = requests(meterRegistry, "local");
+        this.sharedHits = requests(meterRegistry, "shared");
+        this.databaseReads = requests(meterRegistry, "database");
+        sharedStore.subscribe(this::onNotice);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("pdf.template.cache.requests")
+            .description("Template reads for rendering, by the tier that served them")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Template for rendering; shared between callers, so it must not be modified
+     */
+    public Optional<Template> get(String templateId) {
+        Entry entry = entries.get(templateId);
+        long maxAge = sharedAvailable ? localTtlNanos : fallbackTtlNanos;
+        if (entry != null && System.nanoTime() - entry.loadedAt < maxAge) {
+            localHits.increment();
+            return Optional.of(entry.template);
+        }
+
+        TemplateSnapshot snapshot = shared(() -> sharedStore.get(templateId));
+        if (snapshot != null && !isInvalidated(snapshot)) {
+            sharedHits.increment();
+        } else {
+            Optional<Template> stored = templateRepository.findById(templateId);
+            databaseReads.increment();
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+            TemplateSnapshot loaded = TemplateSnapshot.of(stored.get());
+            shared(() -> {
+                sharedStore.put(loaded, sharedTtl);
+                return null;
+            });
+            snapshot = loaded;
+        }
+        return Optional.of(cache(snapshot).template);
+    }
+
+    /**
+     * Share a committed edit of a template with every node
+     */
+    public void updated(Template template) {
+        TemplateSnapshot snapshot = TemplateSnapshot.of(template);
+        TemplateInvalidation invalidation = TemplateInvalidation.of(snapshot);
+        onInvalidation(invalidation);
+        cache(snapshot);
+        share(invalidation, () -> {
+            sharedStore.put(snapshot, sharedTtl);
+            sharedStore.publish(invalidation);
+        });
+    }
+
+    /**
+     * Drop a deleted template on every node
+     */
+    public void removed(String templateId) {
+        TemplateInvalidation invalidation = TemplateInvalidation.removed(templateId);
+        onInvalidation(invalidation);
+        share(invalidation, () -> {
+            sharedStore.remove(invalidation, sharedTtl);
+            sharedStore.publish(invalidation);
+        });
+    }
+
+    /**
+     * Check the shared store, and resend the notices it missed once it is back
+     */
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public void checkSharedStore() {
+        long now = System.nanoTime();
+        invalidations.values().removeIf(notice -> now - notice.receivedAt > sharedTtlNanos);
+        try {
+            sharedStore.ping();
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+            return;
+        }
+        if (!sharedAvailable) {
+            // Notices published by other nodes meanwhile were lost
+            entries.clear();
+            eventPublisher.publishEvent(TemplateChangedEvent.missed());
+        }
+        for (TemplateInvalidation invalidation : pending.values()) {
+            try {
+                sharedStore.remove(invalidation, sharedTtl);
+                sharedStore.publish(invalidation);
+            } catch (RuntimeException e) {
+                markUnavailable(e);
+                return;
+            }
+            pending.remove(invalidation.getTemplateId(), invalidation);
+        }
+        if (!sharedAvailable) {
+            sharedAvailable = true;
+            logger.info("Shared template cache is reachable again");
+        }
+    }
+
+    public boolean isSharedAvailable() {
+        return sharedAvailable;
+    }
+
+    private void onNotice(TemplateInvalidation invalidation) {
+        onInvalidation(invalidation);
+        eventPublisher.publishEvent(TemplateChangedEvent.of(invalidation.getTemplateId()));
+    }
+
+    void onInvalidation(TemplateInvalidation invalidation) {
+        String templateId = invalidation.getTemplateId();
+        invalidations.merge(templateId, new Notice(invalidation),
+            (current, next) -> current.invalidation.isNewerThan(next.invalidation) ? current : next);
+        Entry entry = entries.get(templateId);
+        if (entry == null || invalidation.supersedes(entry.snapshot)) {
+            if (entry != null) {
+                entries.remove(templateId, entry);
+            }
+            templateCompiler.evict(templateId);
+        }
+    }
+
+    private boolean isInvalidated(TemplateSnapshot snapshot) {
+        Notice notice = invalidations.get(snapshot.getId());
+        return notice != null && notice.invalidation.supersedes(snapshot);
+    }
+
+    private Entry cache(TemplateSnapshot snapshot) {
+        Entry loaded = new Entry(snapshot);
+        if (isInvalidated(snapshot)) {
+            return loaded;
+        }
+        Entry cached = entries.merge(snapshot.getId(), loaded,
+            (current, next) -> current.snapshot.isNewerThan(next.snapshot) ? current : next);
+        // A notice that arrived meanwhile may have missed the new entry
+        if (isInvalidated(cached.snapshot)) {
+            entries.remove(snapshot.getId(), cached);
+        }
+        return cached;
+    }
+
+    private <T> T shared(Supplier<T> call) {
+        if (!sharedAvailable) {
+            return null;
+        }
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+            return null;
+        }
+    }
+
+    private void share(TemplateInvalidation invalidation, Runnable call) {
+        if (sharedAvailable) {
+            try {
+                call.run();
+                return;
+            } catch (RuntimeException e) {
+                markUnavailable(e);
+            }
+        }
+        pending.merge(invalidation.getTemplateId(), invalidation,
+            (current, next) -> next.isNewerThan(current) ? next : current);
+    }
+
+    private void markUnavailable(RuntimeException e) {
+        if (sharedAvailable) {
+            sharedAvailable = false;
+            logger.warn("Shared template cache unavailable, reading templates from the database: {}", e.getMessage());
+        }
+    }
+
+    private static final class Notice {
+        private final TemplateInvalidation invalidation;
+        private final long receivedAt = System.nanoTime();
+
+        private Notice(TemplateInvalidation invalidation) {
+            this.invalidation = invalidation;
+        }
+    }
+
+    private static final class Entry {
+        private final TemplateSnapshot snapshot;
+        private final Template template;
+        private final long loadedAt = System.nanoTime();
+
+        private Entry(TemplateSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.template = snapshot.toTemplate();
+        }
+    }
+}
\ No newline at end of file
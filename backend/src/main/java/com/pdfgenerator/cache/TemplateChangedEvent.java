@@ -0,0 +1,30 @@
+package com.pdfgenerator.cache;
+
+/**
+ * Published on every node when a {@link TemplateInvalidation} notice arrives, the writing node
+ * included, so components holding other views of templates can reload them. An event without a
+ * template id means notices may have been lost while the shared store was unreachable.
+ */
+public final class TemplateChangedEvent {
+
+    private final String templateId;
+
+    private TemplateChangedEvent(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public static TemplateChangedEvent of(String templateId) {
+        return new TemplateChangedEvent(templateId);
+    }
+
+    public static TemplateChangedEvent missed() {
+        return new TemplateChangedEvent(null);
+    }
+
+    /**
+     * Changed template, or null if any template may have changed
+     */
+    public String getTemplateId() {
+        return templateId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.pdfgenerator.cache;
+
+/**
+ * Notice to every node that a template changed or was deleted.
+ *
+ * Carries the version and update time of the template's new state, so nodes keep copies that are
+ * already that new and drop older ones. A deleted template gets a version above any real one.
+ */
+public final class TemplateInvalidation {
+
+    private static final int REMOVED = Integer.MAX_VALUE;
+
+    private final String templateId;
+    private final int version;
+    private final long updatedAtMillis;
+
+    public TemplateInvalidation(String templateId, int version, long updatedAtMillis) {
+        this.templateId = templateId;
+        this.version = version;
+        this.updatedAtMillis = updatedAtMillis;
+    }
+
+    public static TemplateInvalidation of(TemplateSnapshot snapshot) {
+        return new TemplateInvalidation(snapshot.getId(), snapshot.getVersionOrZero(), snapshot.getUpdatedAtMillis());
+    }
+
+    public static TemplateInvalidation removed(String templateId) {
+        return new TemplateInvalidation(templateId, REMOVED, 0);
+    }
+
+    /**
+     * Whether the snapshot is older than the state this notice announces
+     */
+    public boolean supersedes(TemplateSnapshot snapshot) {
+        return TemplateSnapshot.compare(version, updatedAtMillis,
+            snapshot.getVersionOrZero(), snapshot.getUpdatedAtMillis()) > 0;
+    }
+
+    /**
+     * Whether this notice announces a later state than the other one
+     */
+    public boolean isNewerThan(TemplateInvalidation other) {
+        return TemplateSnapshot.compare(version, updatedAtMillis, other.version, other.updatedAtMillis) > 0;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return templateId + " v" + (version == REMOVED ? "removed" : version) + " @" + updatedAtMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.pdfgenerator.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.enums.TemplateCategory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * The fields of a template that rendering reads, as cached on the nodes and shared between them.
+ *
+ * Snapshots of a template are ordered by version, then by update time, since coalesced edits
+ * keep the version number.
+ */
+public class TemplateSnapshot {
+
+    private String id;
+    private String name;
+    private TemplateCategory category;
+    private Map<String, Object> schema;
+    private Integer version;
+    private LocalDateTime updatedAt;
+    private Boolean active;
+
+    // Constructors
+    public TemplateSnapshot() {}
+
+    public static TemplateSnapshot of(Template template) {
+        TemplateSnapshot snapshot = new TemplateSnapshot();
+        snapshot.setId(template.getId());
+        snapshot.setName(template.getName());
+        snapshot.setCategory(template.getCategory());
+        snapshot.setSchema(template.getSchema());
+        snapshot.setVersion(template.getVersion());
+        snapshot.setUpdatedAt(template.getUpdatedAt());
+        snapshot.setActive(template.getActive());
+        return snapshot;
+    }
+
+    /**
+     * Detached template with the snapshot's fields
+     */
+    public Template toTemplate() {
+        Template template = new Template(id, name, category, schema);
+        template.setVersion(version);
+        template.setUpdatedAt(updatedAt);
+        template.setActive(active);
+        return template;
+    }
+
+    /**
+     * Update time in epoch milliseconds (UTC), 0 if unknown
+     */
+    @JsonIgnore
+    public long getUpdatedAtMillis() {
+        return updatedAt != null ? updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+    }
+
+    /**
+     * Compare two states of a template by version, then update time
+     */
+    static int compare(int version, long updatedAtMillis, int otherVersion, long otherUpdatedAtMillis) {
+        int byVersion = Integer.compare(version, otherVersion);
+        return byVersion != 0 ? byVersion : Long.compare(updatedAtMillis, otherUpdatedAtMillis);
+    }
+
+    /**
+     * Whether this is a later state of the template than the other snapshot
+     */
+    public boolean isNewerThan(TemplateSnapshot other) {
+        return compare(getVersionOrZero(), getUpdatedAtMillis(), other.getVersionOrZero(), other.getUpdatedAtMillis()) > 0;
+    }
+
+    @JsonIgnore
+    int getVersionOrZero() {
+        return version != null ? version : 0;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public TemplateCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(TemplateCategory category) {
+        this.category = category;
+    }
+
+    public Map<String, Object> getSchema() {
+        return schema;
+    }
+
+    public void setSchema(Map<String, Object> schema) {
+        this.schema = schema;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
\ No newline at end of file
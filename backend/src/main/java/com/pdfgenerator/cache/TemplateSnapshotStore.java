@@ -0,0 +1,47 @@
+package com.pdfgenerator.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Second cache tier for templates, shared by all nodes, with the channel that tells them about
+ * template changes.
+ *
+ * Writes never replace a newer state of a template with an older one, so a node that read the
+ * database before an edit committed cannot store its stale copy afterwards. Implementations
+ * throw runtime exceptions when the store cannot be reached; the caller decides how to go on.
+ */
+public interface TemplateSnapshotStore {
+
+    /**
+     * Shared snapshot of a template
+     *
+     * @return the snapshot, or null if none is stored or the template was invalidated since
+     */
+    TemplateSnapshot get(String templateId);
+
+    /**
+     * Store a snapshot, unless a newer state of the template is already stored
+     */
+    void put(TemplateSnapshot snapshot, Duration ttl);
+
+    /**
+     * Replace stored snapshots older than the notice with a marker, so no node stores them again
+     */
+    void remove(TemplateInvalidation invalidation, Duration ttl);
+
+    /**
+     * Send a notice to every subscribed node, this one included
+     */
+    void publish(TemplateInvalidation invalidation);
+
+    /**
+     * Receive the notices published by any node
+     */
+    void subscribe(Consumer<TemplateInvalidation> listener);
+
+    /**
+     * Check the store can be reached
+     */
+    void ping();
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.pdfgenerator.controller;
+
+import com.pdfgenerator.dto.CursorPage;
+import com.pdfgenerator.dto.GenerationLogSummary;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.service.GenerationLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST controller for PDF generation log searches
+ */
+@RestController
+@RequestMapping("/api/pdf/logs")
+@Tag(name = "PDF Generation Logs", description = "PDF generation log search")
+public class GenerationLogController {
+    
+    @Autowired
+    private GenerationLogService generationLogService;
+    
+    /**
+     * Search generation logs, newest first
+     * 
+     * @param cursor nextCursor of the previous page, omitted for the first page
+     */
+    @GetMapping
+    @Operation(summary = "Search generation logs",
+               description = "Filter logs by template, status, user and time range with cursor pagination")
+    public ResponseEntity<CursorPage<GenerationLogSummary>> searchLogs(
+            @Parameter(description = "Template ID") @RequestParam(required = false) String templateId,
+            @Parameter(description = "Generation status") @RequestParam(required = false) PDFGenerationStatus status,
+            @Parameter(description = "User ID") @RequestParam(required = false) String createdBy,
+            @Parameter(description = "Earliest creation time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest creation time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            @Parameter(description = "Page cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "" + GenerationLogService.DEFAULT_PAGE_SIZE) int size) {
+        
+        return ResponseEntity.ok(generationLogService.searchLogs(templateId, status, createdBy, from, until, cursor, size));
+    }
+}
\ No newline at end of file
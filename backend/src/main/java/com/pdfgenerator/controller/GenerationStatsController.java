@@ -0,0 +1,70 @@
+package com.pdfgenerator.controller;
+
+import com.pdfgenerator.dto.GenerationStatsResponse;
+import com.pdfgenerator.dto.LatencyStats;
+import com.pdfgenerator.service.GenerationStatsService;
+import com.pdfgenerator.stats.GenerationStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST controller for PDF generation latency and throughput stats
+ */
+@RestController
+@RequestMapping("/api/pdf/stats")
+@Tag(name = "PDF Generation Stats", description = "Render latency percentiles, success rate and throughput")
+public class GenerationStatsController {
+
+    @Autowired
+    private GenerationStats generationStats;
+
+    @Autowired
+    private GenerationStatsService generationStatsService;
+
+    /**
+     * Rolling 1m, 5m and 1h stats of this node, over all templates or of one template
+     */
+    @GetMapping
+    @Operation(summary = "Get generation stats",
+               description = "p50/p95/p99/max latency, success rate and throughput from memory, refreshed every 10 seconds")
+    public ResponseEntity<GenerationStatsResponse> getStats(
+            @Parameter(description = "Template ID, omitted for all templates") @RequestParam(required = false) String templateId) {
+
+        return ResponseEntity.ok(templateId != null ? generationStats.getStats(templateId) : generationStats.getStats());
+    }
+
+    /**
+     * Rolling stats of every template rendered on this node within the last hour
+     */
+    @GetMapping("/templates")
+    @Operation(summary = "Get generation stats per template",
+               description = "Stats of every template with renders within the last hour")
+    public ResponseEntity<List<GenerationStatsResponse>> getTemplateStats() {
+        return ResponseEntity.ok(generationStats.getTemplateStats());
+    }
+
+    /**
+     * Persisted snapshots, one per node and snapshot period
+     */
+    @GetMapping("/history")
+    @Operation(summary = "Get generation stats history",
+               description = "Persisted stats snapshots starting within the time range, oldest first")
+    public ResponseEntity<List<LatencyStats>> getHistory(
+            @Parameter(description = "Template ID, omitted for all templates") @RequestParam(required = false) String templateId,
+            @Parameter(description = "Earliest period start (ISO-8601)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest period start (ISO-8601), defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+
+        return ResponseEntity.ok(generationStatsService.getHistory(templateId, from,
+            until != null ? until : LocalDateTime.now()));
+    }
+}
\ No newline at end of file
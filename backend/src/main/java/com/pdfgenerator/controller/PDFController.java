@@ -1,6 +1,20 @@
 package com.pdfgenerator.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfgenerator.dto.RenderJobResponse;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import com.pdfgenerator.idempotency.IdempotencyClaim;
+import com.pdfgenerator.idempotency.IdempotencyRecord;
+import com.pdfgenerator.render.OutputProfile;
+import com.pdfgenerator.render.RenderCost;
+import com.pdfgenerator.render.RenderLane;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.service.IdempotencyService;
 import com.pdfgenerator.service.PDFGenerationService;
+import com.pdfgenerator.service.RenderJobService;
+import com.pdfgenerator.util.SampleData;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -8,14 +22,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.DisconnectedClientHelper;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,48 +49,108 @@ public class PDFController {
     
     private static final Logger logger = LoggerFactory.getLogger(PDFController.class);
     
+    private static final String LANE_HEADER = "X-Render-Lane";
+    
     @Autowired
     private PDFGenerationService pdfGenerationService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private RenderJobService renderJobService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     /**
      * Generate PDF from template and data
      * 
      * @param templateId Template identifier
      * @param data Dynamic data to populate in template
-     * @return PDF file as byte array
+     * @param profile Output profile (fast, balanced, archival-small), defaults to the template setting
+     * @param idempotencyKey Optional key; retries with the same key get the stored PDF back
+     * @param lane Render lane (interactive, standard, bulk), defaults to standard
+     * @param response Response the PDF is written to
      */
     @PostMapping("/generate/{templateId}")
     @Operation(summary = "Generate PDF from template", 
                description = "Generate a PDF document using the specified template and provided data")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "PDF generated successfully"),
+        @ApiResponse(responseCode = "202", description = "Render too expensive to wait for; queued as a job"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "404", description = "Template not found"),
-        @ApiResponse(responseCode = "500", description = "PDF generation failed")
+        @ApiResponse(responseCode = "409", description = "Request with the same idempotency key still in progress"),
+        @ApiResponse(responseCode = "422", description = "Idempotency key used for a different request"),
+        @ApiResponse(responseCode = "500", description = "PDF generation failed"),
+        @ApiResponse(responseCode = "503", description = "Render queue of the lane is full"),
+        @ApiResponse(responseCode = "504", description = "PDF generation timed out")
     })
-    public ResponseEntity<byte[]> generatePDF(
+    public void generatePDF(
             @Parameter(description = "Template ID", required = true)
             @PathVariable String templateId,
             @Parameter(description = "Dynamic data for template", required = true)
-            @RequestBody Map<String, Object> data) {
+            @RequestBody Map<String, Object> data,
+            @Parameter(description = "Output profile: fast, balanced or archival-small")
+            @RequestParam(required = false) String profile,
+            @Parameter(description = "Key that makes retries of this request return the first result")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Parameter(description = "Render lane: interactive, standard or bulk")
+            @RequestHeader(value = LANE_HEADER, required = false) String lane,
+            HttpServletResponse response) throws IOException {
         
         logger.info("PDF generation request received for template: {}", templateId);
         
+        OutputProfile outputProfile = parseOutputProfile(profile);
+        RenderLane renderLane = parseRenderLane(lane, RenderLane.STANDARD);
+        IdempotencyClaim claim = idempotencyService.claim("generate", idempotencyKey,
+            Arrays.asList(templateId, outputProfile, data));
+        if (claim != null && claim.isReplay()) {
+            IdempotencyRecord stored = claim.getReplay();
+            if (stored.getJobId() != null) {
+                writeJob(response, withLinks(renderJobService.getJob(stored.getJobId())), true);
+                logger.info("Returned job {} for repeated request on template: {}", stored.getJobId(), templateId);
+                return;
+            }
+            writePdfHeaders(response, stored.getContentType(), stored.getBody().length);
+            response.setHeader(IdempotencyService.REPLAYED_HEADER, "true");
+            response.getOutputStream().write(stored.getBody());
+            logger.info("Returned stored PDF for repeated request on template: {}", templateId);
+            return;
+        }
+        
         try {
-            // Generate PDF
-            byte[] pdfBytes = pdfGenerationService.generatePDF(templateId, data);
-            
-            // Prepare response headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "document.pdf");
-            headers.setContentLength(pdfBytes.length);
-            
-            logger.info("PDF generation completed successfully for template: {}", templateId);
+            RenderCost cost = pdfGenerationService.estimateCost(templateId, data);
+            if (cost.isAboveSyncLimit()) {
+                // Too expensive to render while the client waits; it polls the job instead
+                RenderJobResponse job = withLinks(renderJobService.submit(templateId, data, outputProfile, cost));
+                // Retries with the same idempotency key get this job rather than queue another
+                idempotencyService.completeWithJob(claim, job.getId());
+                writeJob(response, job, false);
+                logger.info("Queued PDF generation for template {} as job {}: {}", templateId, job.getId(), cost);
+                return;
+            }
             
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            try (RenderedPdf pdf = pdfGenerationService.renderPDF(templateId, data, outputProfile, renderLane)) {
+                // Stored before sending, so a client that drops the connection can still retry for it
+                idempotencyService.complete(claim, MediaType.APPLICATION_PDF_VALUE, pdf);
+                writePdfHeaders(response, MediaType.APPLICATION_PDF_VALUE, pdf.getSize());
+                
+                // Send from the pooled buffer or spilled file without building a byte array
+                pdf.transferTo(Channels.newChannel(response.getOutputStream()));
+                
+                logger.info("PDF generation completed successfully for template: {}", templateId);
+            }
             
         } catch (Exception e) {
+            idempotencyService.release(claim);
+            if (DisconnectedClientHelper.isClientDisconnectedException(e)) {
+                // The render already completed and was logged; a retry with the same idempotency
+                // key gets the stored PDF
+                logger.info("Client disconnected while receiving PDF for template: {}", templateId);
+                return;
+            }
             logger.error("PDF generation failed for template: {}", templateId, e);
             throw e; // Let GlobalExceptionHandler handle it
         }
@@ -80,6 +161,7 @@ public class PDFController {
      * 
      * @param templateId Template identifier
      * @param data Dynamic data to populate in template
+     * @param lane Render lane, defaults to interactive
      * @return PDF preview as byte array
      */
     @PostMapping("/preview/{templateId}")
@@ -89,24 +171,29 @@ public class PDFController {
         @ApiResponse(responseCode = "200", description = "PDF preview generated successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "404", description = "Template not found"),
-        @ApiResponse(responseCode = "500", description = "PDF preview generation failed")
+        @ApiResponse(responseCode = "500", description = "PDF preview generation failed"),
+        @ApiResponse(responseCode = "503", description = "Render queue of the lane is full"),
+        @ApiResponse(responseCode = "504", description = "PDF preview generation timed out")
     })
     public ResponseEntity<byte[]> generatePreview(
             @Parameter(description = "Template ID", required = true)
             @PathVariable String templateId,
             @Parameter(description = "Sample data for preview", required = false)
-            @RequestBody(required = false) Map<String, Object> data) {
+            @RequestBody(required = false) Map<String, Object> data,
+            @Parameter(description = "Render lane: interactive, standard or bulk")
+            @RequestHeader(value = LANE_HEADER, required = false) String lane) {
         
         logger.info("PDF preview request received for template: {}", templateId);
         
         try {
             // Use sample data if none provided
             if (data == null || data.isEmpty()) {
-                data = createSampleData();
+                data = SampleData.create();
             }
             
             // Generate PDF (for now, same as regular generation - will be enhanced later)
-            byte[] pdfBytes = pdfGenerationService.generatePDF(templateId, data);
+            byte[] pdfBytes = pdfGenerationService.generatePDF(templateId, data, null,
+                parseRenderLane(lane, RenderLane.INTERACTIVE));
             
             // Prepare response headers
             HttpHeaders headers = new HttpHeaders();
@@ -125,25 +212,168 @@ public class PDFController {
     }
     
     /**
-     * Create sample data for preview
+     * Queue PDF generation as an asynchronous job
+     * 
+     * @param templateId Template identifier
+     * @param data Dynamic data to populate in template
+     * @param profile Output profile: fast, balanced or archival-small
+     * @param idempotencyKey Optional key; retries with the same key get the same job back
+     * @return job state; poll the Location header until the status is COMPLETED
+     */
+    @PostMapping("/jobs/{templateId}")
+    @Operation(summary = "Submit PDF generation job",
+               description = "Queue PDF generation and return at once; poll the job and download its result when completed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job queued"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "404", description = "Template not found"),
+        @ApiResponse(responseCode = "409", description = "Request with the same idempotency key still in progress"),
+        @ApiResponse(responseCode = "422", description = "Idempotency key used for a different request"),
+        @ApiResponse(responseCode = "503", description = "Too many jobs waiting")
+    })
+    public ResponseEntity<RenderJobResponse> submitJob(
+            @Parameter(description = "Template ID", required = true)
+            @PathVariable String templateId,
+            @Parameter(description = "Dynamic data for template", required = true)
+            @RequestBody Map<String, Object> data,
+            @Parameter(description = "Output profile: fast, balanced or archival-small")
+            @RequestParam(required = false) String profile,
+            @Parameter(description = "Key that makes retries of this request return the first job")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        
+        OutputProfile outputProfile = parseOutputProfile(profile);
+        IdempotencyClaim claim = idempotencyService.claim("jobs", idempotencyKey,
+            Arrays.asList(templateId, outputProfile, data));
+        if (claim != null && claim.isReplay()) {
+            RenderJobResponse job = withLinks(renderJobService.getJob(claim.getReplay().getJobId()));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, jobUrl(job.getId()))
+                .header(IdempotencyService.REPLAYED_HEADER, "true")
+                .body(job);
+        }
+        
+        RenderJobResponse job;
+        try {
+            RenderCost cost = pdfGenerationService.estimateCost(templateId, data);
+            job = withLinks(renderJobService.submit(templateId, data, outputProfile, cost));
+        } catch (RuntimeException e) {
+            idempotencyService.release(claim);
+            throw e;
+        }
+        idempotencyService.completeWithJob(claim, job.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .header(HttpHeaders.LOCATION, jobUrl(job.getId()))
+            .body(job);
+    }
+    
+    /**
+     * List running jobs whose worker stopped sending heartbeats
+     */
+    @GetMapping("/jobs/stuck")
+    @Operation(summary = "List stuck PDF generation jobs",
+               description = "Running jobs whose worker missed two heartbeats; they are re-queued once their lease expires")
+    @ApiResponse(responseCode = "200", description = "Stuck jobs, longest silent first")
+    public ResponseEntity<List<RenderJobResponse>> getStuckJobs() {
+        return ResponseEntity.ok(renderJobService.getStuckJobs());
+    }
+    
+    /**
+     * Get the state of a PDF generation job
+     */
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get PDF generation job", description = "Status, estimated cost and result link of a job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job found"),
+        @ApiResponse(responseCode = "404", description = "Job not found or expired")
+    })
+    public ResponseEntity<RenderJobResponse> getJob(
+            @Parameter(description = "Job ID", required = true) @PathVariable String jobId) {
+        return ResponseEntity.ok(withLinks(renderJobService.getJob(jobId)));
+    }
+    
+    /**
+     * Download the PDF of a completed job
+     */
+    @GetMapping("/jobs/{jobId}/result")
+    @Operation(summary = "Download PDF generation job result", description = "PDF of a completed job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "PDF returned"),
+        @ApiResponse(responseCode = "404", description = "Job not found or expired"),
+        @ApiResponse(responseCode = "409", description = "Job has not completed, or failed")
+    })
+    public void getJobResult(
+            @Parameter(description = "Job ID", required = true) @PathVariable String jobId,
+            HttpServletResponse response) throws IOException {
+        try (RenderedPdf pdf = renderJobService.openResult(jobId)) {
+            writePdfHeaders(response, MediaType.APPLICATION_PDF_VALUE, pdf.getSize());
+            pdf.transferTo(Channels.newChannel(response.getOutputStream()));
+        }
+    }
+    
+    /**
+     * Write a queued job as the 202 response of a generate request
+     */
+    private void writeJob(HttpServletResponse response, RenderJobResponse job, boolean replayed) throws IOException {
+        response.setStatus(HttpStatus.ACCEPTED.value());
+        response.setHeader(HttpHeaders.LOCATION, jobUrl(job.getId()));
+        if (replayed) {
+            response.setHeader(IdempotencyService.REPLAYED_HEADER, "true");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), job);
+    }
+    
+    /**
+     * Add the result link to a completed job
      */
-    private Map<String, Object> createSampleData() {
-        Map<String, Object> sampleData = new HashMap<>();
-        sampleData.put("title", "Örnek Belge");
-        sampleData.put("customer_name", "Ahmet Yılmaz");
-        sampleData.put("customer_id", "12345678901");
-        sampleData.put("card_number", "**** **** **** 1234");
-        sampleData.put("policy_number", "POL-2025-001");
-        sampleData.put("insured_name", "Mehmet Demir");
-        sampleData.put("premium_amount", "2.500,00 TL");
-        sampleData.put("account_number", "TR12 3456 7890 1234 5678 90");
-        sampleData.put("account_holder", "Ayşe Kaya");
-        sampleData.put("balance", "15.750,50 TL");
-        sampleData.put("receipt_number", "RCP-2025-001");
-        sampleData.put("payer_name", "Fatma Özkan");
-        sampleData.put("amount", "1.250,00 TL");
-        sampleData.put("payment_date", "15/01/2025");
-        sampleData.put("transactions", "sample_transactions");
-        return sampleData;
+    private static RenderJobResponse withLinks(RenderJobResponse job) {
+        if (job.getStatus() == PDFGenerationStatus.COMPLETED) {
+            job.setResultUrl(jobUrl(job.getId()) + "/result");
+        }
+        return job;
+    }
+    
+    /**
+     * URL of a job, servlet context path included
+     */
+    private static String jobUrl(String jobId) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/pdf/jobs/{jobId}")
+            .buildAndExpand(jobId)
+            .toUriString();
+    }
+    
+    /**
+     * Prepare response headers for a PDF download
+     */
+    private static void writePdfHeaders(HttpServletResponse response, String contentType, long size) {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("document.pdf").build().toString());
+        response.setContentLengthLong(size);
+    }
+    
+    /**
+     * Parse render lane header, falling back to the endpoint's lane
+     */
+    private RenderLane parseRenderLane(String lane, RenderLane endpointDefault) {
+        try {
+            RenderLane parsed = RenderLane.fromValue(lane);
+            return parsed != null ? parsed : endpointDefault;
+        } catch (IllegalArgumentException e) {
+            throw new PDFGenerationException(ErrorCode.INVALID_DATA_FORMAT, e.getMessage(), Map.of("lane", lane));
+        }
+    }
+    
+    /**
+     * Parse output profile request parameter
+     */
+    private OutputProfile parseOutputProfile(String profile) {
+        try {
+            return OutputProfile.fromValue(profile);
+        } catch (IllegalArgumentException e) {
+            throw new PDFGenerationException(ErrorCode.INVALID_DATA_FORMAT, e.getMessage(), Map.of("profile", profile));
+        }
     }
-}
\ No newline at end of file
+}
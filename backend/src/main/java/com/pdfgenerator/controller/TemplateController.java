@@ -1,20 +1,30 @@
 package com.pdfgenerator.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfgenerator.dto.CursorPage;
 import com.pdfgenerator.dto.TemplateRequest;
 import com.pdfgenerator.dto.TemplateResponse;
-import com.pdfgenerator.entity.TemplateVersion;
+import com.pdfgenerator.dto.TemplateSummary;
+import com.pdfgenerator.dto.TemplateVersionResponse;
+import com.pdfgenerator.dto.TemplateVersionSummary;
 import com.pdfgenerator.enums.TemplateCategory;
 import com.pdfgenerator.service.TemplateService;
+import com.pdfgenerator.service.TemplateVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
 
 @RestController
@@ -23,10 +33,12 @@ import java.util.Map;
 public class TemplateController {
     
     private final TemplateService templateService;
+    private final ObjectMapper objectMapper;
     
     @Autowired
-    public TemplateController(TemplateService templateService) {
+    public TemplateController(TemplateService templateService, ObjectMapper objectMapper) {
         this.templateService = templateService;
+        this.objectMapper = objectMapper;
     }
     
     @PostMapping
@@ -42,45 +54,76 @@ public class TemplateController {
     }
     
     @GetMapping
-    public ResponseEntity<List<TemplateResponse>> getAllTemplates(
+    public ResponseEntity<CursorPage<TemplateSummary>> getAllTemplates(
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) TemplateCategory category) {
+            @RequestParam(required = false) TemplateCategory category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TemplateService.DEFAULT_PAGE_SIZE) int size) {
         
-        List<TemplateResponse> templates;
+        CursorPage<TemplateSummary> templates;
         
         if (search != null && !search.trim().isEmpty()) {
-            templates = templateService.searchTemplates(search.trim());
+            templates = templateService.searchTemplates(search.trim(), cursor, size);
         } else if (category != null) {
-            templates = templateService.getTemplatesByCategory(category);
+            templates = templateService.getTemplatesByCategory(category, cursor, size);
         } else {
-            templates = templateService.getAllTemplates();
+            templates = templateService.getAllTemplates(cursor, size);
         }
         
         return ResponseEntity.ok(templates);
     }
     
+    /**
+     * Offset pagination, kept for existing clients; use GET /api/templates with a cursor instead
+     */
+    @Deprecated
     @GetMapping("/paginated")
-    public ResponseEntity<Page<TemplateResponse>> getTemplatesPaginated(
+    public ResponseEntity<Page<TemplateSummary>> getTemplatesPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<TemplateResponse> templates = templateService.getTemplatesPaginated(pageable);
+        Page<TemplateSummary> templates = templateService.getTemplatesPaginated(pageable);
         return ResponseEntity.ok(templates);
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<TemplateResponse>> getTemplatesByCategory(@PathVariable TemplateCategory category) {
-        List<TemplateResponse> templates = templateService.getTemplatesByCategory(category);
+    public ResponseEntity<CursorPage<TemplateSummary>> getTemplatesByCategory(
+            @PathVariable TemplateCategory category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TemplateService.DEFAULT_PAGE_SIZE) int size) {
+        CursorPage<TemplateSummary> templates = templateService.getTemplatesByCategory(category, cursor, size);
         return ResponseEntity.ok(templates);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<TemplateResponse>> searchTemplates(@RequestParam String q) {
-        List<TemplateResponse> templates = templateService.searchTemplates(q);
+    public ResponseEntity<CursorPage<TemplateSummary>> searchTemplates(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TemplateService.DEFAULT_PAGE_SIZE) int size) {
+        CursorPage<TemplateSummary> templates = templateService.searchTemplates(q, cursor, size);
         return ResponseEntity.ok(templates);
     }
     
+    /**
+     * Export all active templates, including schemas, as one JSON array. The array is
+     * written while rows stream from the database and sent with chunked encoding.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTemplates() {
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.createGenerator(out);
+            generator.writeStartArray();
+            templateService.exportTemplates(template -> writeExported(generator, template));
+            generator.writeEndArray();
+            generator.flush();
+        };
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=templates.json")
+            .body(body);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<TemplateResponse> updateTemplate(
             @PathVariable String id,
@@ -103,11 +146,22 @@ public class TemplateController {
     }
     
     @GetMapping("/{id}/versions")
-    public ResponseEntity<List<TemplateVersion>> getTemplateVersions(@PathVariable String id) {
-        List<TemplateVersion> versions = templateService.getTemplateVersions(id);
+    public ResponseEntity<CursorPage<TemplateVersionSummary>> getTemplateVersions(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TemplateVersionService.DEFAULT_PAGE_SIZE) int size) {
+        CursorPage<TemplateVersionSummary> versions = templateService.getTemplateVersions(id, cursor, size);
         return ResponseEntity.ok(versions);
     }
     
+    @GetMapping("/{id}/versions/{version}")
+    public ResponseEntity<TemplateVersionResponse> getTemplateVersion(
+            @PathVariable String id,
+            @PathVariable Integer version) {
+        TemplateVersionResponse response = templateService.getTemplateVersion(id, version);
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/{id}/versions/{version}/restore")
     public ResponseEntity<TemplateResponse> restoreTemplateVersion(
             @PathVariable String id,
@@ -139,4 +193,14 @@ public class TemplateController {
     public ResponseEntity<TemplateCategory[]> getTemplateCategories() {
         return ResponseEntity.ok(TemplateCategory.values());
     }
+    
+    private static void writeExported(JsonGenerator generator, TemplateResponse template) {
+        try {
+            generator.writeObject(template);
+            // Hand each template to the servlet stream so the response goes out in chunks
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write exported template " + template.getId(), e);
+        }
+    }
 }
\ No newline at end of file
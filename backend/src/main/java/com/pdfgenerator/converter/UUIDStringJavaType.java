@@ -0,0 +1,31 @@
+package com.pdfgenerator.converter;
+
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.StringJavaType;
+
+import java.util.UUID;
+
+/**
+ * String ids stored in native uuid columns: 16 bytes instead of 37, and compared as uuids.
+ *
+ * Used with {@code @JdbcTypeCode(SqlTypes.UUID)}; an AttributeConverter would not be applied
+ * to an {@code @Id}. Query parameters compared with such an id are converted the same way.
+ */
+public class UUIDStringJavaType extends StringJavaType {
+
+    @Override
+    public <X> X unwrap(String value, Class<X> type, WrapperOptions options) {
+        if (value != null && UUID.class.isAssignableFrom(type)) {
+            return type.cast(UUID.fromString(value));
+        }
+        return super.unwrap(value, type, options);
+    }
+
+    @Override
+    public <X> String wrap(X value, WrapperOptions options) {
+        if (value instanceof UUID uuid) {
+            return uuid.toString();
+        }
+        return super.wrap(value, options);
+    }
+}
\ No newline at end of file
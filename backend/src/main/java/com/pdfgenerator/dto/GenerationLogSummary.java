@@ -0,0 +1,102 @@
+package com.pdfgenerator.dto;
+
+import com.pdfgenerator.enums.PDFGenerationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * PDF generation log entry without the request data document.
+ *
+ * Built by a Criteria constructor selection, so log searches never read request_data.
+ */
+public class GenerationLogSummary {
+    
+    private String id;
+    private String templateId;
+    private PDFGenerationStatus status;
+    private Integer processingTimeMs;
+    private String errorMessage;
+    private String filePath;
+    private LocalDateTime createdAt;
+    private String createdBy;
+    
+    // Constructors
+    public GenerationLogSummary() {}
+    
+    public GenerationLogSummary(String id, String templateId, PDFGenerationStatus status, Integer processingTimeMs,
+                                String errorMessage, String filePath, LocalDateTime createdAt, String createdBy) {
+        this.id = id;
+        this.templateId = templateId;
+        this.status = status;
+        this.processingTimeMs = processingTimeMs;
+        this.errorMessage = errorMessage;
+        this.filePath = filePath;
+        this.createdAt = createdAt;
+        this.createdBy = createdBy;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTemplateId() {
+        return templateId;
+    }
+    
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+    
+    public PDFGenerationStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PDFGenerationStatus status) {
+        this.status = status;
+    }
+    
+    public Integer getProcessingTimeMs() {
+        return processingTimeMs;
+    }
+    
+    public void setProcessingTimeMs(Integer processingTimeMs) {
+        this.processingTimeMs = processingTimeMs;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+}
\ No newline at end of file
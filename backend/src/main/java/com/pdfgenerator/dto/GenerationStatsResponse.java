@@ -0,0 +1,38 @@
+package com.pdfgenerator.dto;
+
+import java.util.Map;
+
+/**
+ * Rolling generation stats of one template, or of all templates when templateId is null,
+ * keyed by window ("1m", "5m", "1h")
+ */
+public class GenerationStatsResponse {
+
+    private String templateId;
+    private Map<String, LatencyStats> windows;
+
+    // Constructors
+    public GenerationStatsResponse() {}
+
+    public GenerationStatsResponse(String templateId, Map<String, LatencyStats> windows) {
+        this.templateId = templateId;
+        this.windows = windows;
+    }
+
+    // Getters and Setters
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public Map<String, LatencyStats> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(Map<String, LatencyStats> windows) {
+        this.windows = windows;
+    }
+}
\ No newline at end of file
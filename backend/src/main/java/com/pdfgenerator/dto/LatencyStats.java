@@ -0,0 +1,114 @@
+package com.pdfgenerator.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Render latency percentiles, success rate and throughput over one time window.
+ *
+ * Latencies are of completed renders only, in milliseconds with 1% precision. Rates and
+ * percentiles are null when the window has no renders.
+ */
+public class LatencyStats {
+
+    private LocalDateTime from;
+    private LocalDateTime until;
+    private long completed;
+    private long failed;
+    private Double successRate;
+    private double throughputPerSecond;
+    private Double p50Ms;
+    private Double p95Ms;
+    private Double p99Ms;
+    private Double maxMs;
+
+    // Constructors
+    public LatencyStats() {}
+
+    public LatencyStats(LocalDateTime from, LocalDateTime until, long completed, long failed) {
+        this.from = from;
+        this.until = until;
+        this.completed = completed;
+        this.failed = failed;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDateTime until) {
+        this.until = until;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public Double getSuccessRate() {
+        return successRate;
+    }
+
+    public void setSuccessRate(Double successRate) {
+        this.successRate = successRate;
+    }
+
+    public double getThroughputPerSecond() {
+        return throughputPerSecond;
+    }
+
+    public void setThroughputPerSecond(double throughputPerSecond) {
+        this.throughputPerSecond = throughputPerSecond;
+    }
+
+    public Double getP50Ms() {
+        return p50Ms;
+    }
+
+    public void setP50Ms(Double p50Ms) {
+        this.p50Ms = p50Ms;
+    }
+
+    public Double getP95Ms() {
+        return p95Ms;
+    }
+
+    public void setP95Ms(Double p95Ms) {
+        this.p95Ms = p95Ms;
+    }
+
+    public Double getP99Ms() {
+        return p99Ms;
+    }
+
+    public void setP99Ms(Double p99Ms) {
+        this.p99Ms = p99Ms;
+    }
+
+    public Double getMaxMs() {
+        return maxMs;
+    }
+
+    public void setMaxMs(Double maxMs) {
+        this.maxMs = maxMs;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.pdfgenerator.dto;
+
+import com.pdfgenerator.enums.PDFGenerationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an asynchronous render job; the document is downloaded from resultUrl once the
+ * status is COMPLETED
+ */
+public class RenderJobResponse {
+    
+    private String id;
+    private String templateId;
+    private PDFGenerationStatus status;
+    private long estimatedRenderMs;
+    private long estimatedMemoryBytes;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private int attempts;
+    private String workerId;
+    private LocalDateTime heartbeatAt;
+    private String errorMessage;
+    private Long resultSize;
+    private String resultUrl;
+    
+    // Constructors
+    public RenderJobResponse() {}
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTemplateId() {
+        return templateId;
+    }
+    
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+    
+    public PDFGenerationStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PDFGenerationStatus status) {
+        this.status = status;
+    }
+    
+    public long getEstimatedRenderMs() {
+        return estimatedRenderMs;
+    }
+    
+    public void setEstimatedRenderMs(long estimatedRenderMs) {
+        this.estimatedRenderMs = estimatedRenderMs;
+    }
+    
+    public long getEstimatedMemoryBytes() {
+        return estimatedMemoryBytes;
+    }
+    
+    public void setEstimatedMemoryBytes(long estimatedMemoryBytes) {
+        this.estimatedMemoryBytes = estimatedMemoryBytes;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public String getWorkerId() {
+        return workerId;
+    }
+    
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+    
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+    
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public Long getResultSize() {
+        return resultSize;
+    }
+    
+    public void setResultSize(Long resultSize) {
+        this.resultSize = resultSize;
+    }
+    
+    public String getResultUrl() {
+        return resultUrl;
+    }
+    
+    public void setResultUrl(String resultUrl) {
+        this.resultUrl = resultUrl;
+    }
+}
\ No newline at end of file
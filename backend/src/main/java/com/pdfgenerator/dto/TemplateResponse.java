@@ -31,6 +31,19 @@ public class TemplateResponse {
         this.createdAt = createdAt;
     }
     
+    public TemplateResponse(String id, String name, TemplateCategory category,
+                           Map<String, Object> schema, Map<String, Object> metadata, String description,
+                           LocalDateTime createdAt, LocalDateTime updatedAt, String createdBy,
+                           Boolean active, Integer version) {
+        this(id, name, category, schema, createdAt);
+        this.metadata = metadata;
+        this.description = description;
+        this.updatedAt = updatedAt;
+        this.createdBy = createdBy;
+        this.active = Boolean.TRUE.equals(active);
+        this.version = version;
+    }
+    
     // Getters and Setters
     public String getId() {
         return id;
@@ -0,0 +1,114 @@
+package com.pdfgenerator.dto;
+
+import com.pdfgenerator.enums.TemplateCategory;
+
+import java.time.LocalDateTime;
+
+/**
+ * Template list item without the schema and metadata documents.
+ *
+ * Built directly by JPQL constructor expressions in TemplateRepository, so list queries
+ * never read the jsonb columns; the full template is returned by GET /api/templates/{id}.
+ */
+public class TemplateSummary {
+    
+    private String id;
+    private String name;
+    private TemplateCategory category;
+    private String description;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String createdBy;
+    private boolean active;
+    private Integer version;
+    
+    // Constructors
+    public TemplateSummary() {}
+    
+    public TemplateSummary(String id, String name, TemplateCategory category, String description,
+                           LocalDateTime createdAt, LocalDateTime updatedAt, String createdBy,
+                           Boolean active, Integer version) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.createdBy = createdBy;
+        this.active = Boolean.TRUE.equals(active);
+        this.version = version;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public TemplateCategory getCategory() {
+        return category;
+    }
+    
+    public void setCategory(TemplateCategory category) {
+        this.category = category;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+    
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
\ No newline at end of file
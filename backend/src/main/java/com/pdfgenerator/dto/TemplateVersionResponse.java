@@ -0,0 +1,69 @@
+package com.pdfgenerator.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One template version with its schema reconstructed from the version history
+ */
+public class TemplateVersionResponse {
+    
+    private String templateId;
+    private Integer version;
+    private Map<String, Object> schema;
+    private LocalDateTime createdAt;
+    private String createdBy;
+    
+    // Constructors
+    public TemplateVersionResponse() {}
+    
+    public TemplateVersionResponse(String templateId, Integer version, Map<String, Object> schema,
+                                   LocalDateTime createdAt, String createdBy) {
+        this.templateId = templateId;
+        this.version = version;
+        this.schema = schema;
+        this.createdAt = createdAt;
+        this.createdBy = createdBy;
+    }
+    
+    // Getters and Setters
+    public String getTemplateId() {
+        return templateId;
+    }
+    
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+    
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+    
+    public Map<String, Object> getSchema() {
+        return schema;
+    }
+    
+    public void setSchema(Map<String, Object> schema) {
+        this.schema = schema;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+}
\ No newline at end of file
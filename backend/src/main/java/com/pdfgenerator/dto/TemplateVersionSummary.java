@@ -0,0 +1,82 @@
+package com.pdfgenerator.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version history item without the schema.
+ *
+ * Built by a JPQL constructor expression in TemplateVersionRepository, so listings never read
+ * the snapshot or patch documents; GET /api/templates/{id}/versions/{version} returns the
+ * reconstructed schema of one version.
+ */
+public class TemplateVersionSummary {
+    
+    private String id;
+    private String templateId;
+    private Integer version;
+    private boolean snapshot;
+    private LocalDateTime createdAt;
+    private String createdBy;
+    
+    // Constructors
+    public TemplateVersionSummary() {}
+    
+    public TemplateVersionSummary(String id, String templateId, Integer version, Boolean snapshot,
+                                  LocalDateTime createdAt, String createdBy) {
+        this.id = id;
+        this.templateId = templateId;
+        this.version = version;
+        this.snapshot = Boolean.TRUE.equals(snapshot);
+        this.createdAt = createdAt;
+        this.createdBy = createdBy;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTemplateId() {
+        return templateId;
+    }
+    
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+    
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+    
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+    
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+}
\ No newline at end of file
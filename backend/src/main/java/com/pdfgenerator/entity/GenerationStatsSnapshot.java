@@ -0,0 +1,181 @@
+package com.pdfgenerator.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pdfgenerator.converter.UUIDStringJavaType;
+import com.pdfgenerator.util.UUIDGenerator;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Generation stats of one template, or of all templates when templateId is null, over one
+ * snapshot period of one node
+ */
+@Entity
+@Table(name = "generation_stats_snapshots", indexes = {
+    @Index(name = "idx_generation_stats_template_period", columnList = "template_id, period_start")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class GenerationStatsSnapshot {
+
+    // Time-ordered v7 UUID in a native uuid column
+    @Id
+    @JavaType(UUIDStringJavaType.class)
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "template_id", length = 36)
+    private String templateId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDateTime periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDateTime periodEnd;
+
+    @Column(name = "completed", nullable = false)
+    private long completed;
+
+    @Column(name = "failed", nullable = false)
+    private long failed;
+
+    @Column(name = "p50_ms")
+    private Double p50Ms;
+
+    @Column(name = "p95_ms")
+    private Double p95Ms;
+
+    @Column(name = "p99_ms")
+    private Double p99Ms;
+
+    @Column(name = "max_ms")
+    private Double maxMs;
+
+    // Completed render latencies in microseconds, HdrHistogram compressed encoding, so periods can be merged
+    @Column(name = "histogram")
+    private byte[] histogram;
+
+    // Default constructor
+    public GenerationStatsSnapshot() {}
+
+    @PrePersist
+    public void prePersist() {
+        if (this.id == null) {
+            this.id = UUIDGenerator.generateUUIDv7();
+        }
+    }
+
+    // Constructor with required fields
+    public GenerationStatsSnapshot(String templateId, LocalDateTime periodStart, LocalDateTime periodEnd,
+                                   long completed, long failed) {
+        this.templateId = templateId;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.completed = completed;
+        this.failed = failed;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public LocalDateTime getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDateTime periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public LocalDateTime getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(LocalDateTime periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public Double getP50Ms() {
+        return p50Ms;
+    }
+
+    public void setP50Ms(Double p50Ms) {
+        this.p50Ms = p50Ms;
+    }
+
+    public Double getP95Ms() {
+        return p95Ms;
+    }
+
+    public void setP95Ms(Double p95Ms) {
+        this.p95Ms = p95Ms;
+    }
+
+    public Double getP99Ms() {
+        return p99Ms;
+    }
+
+    public void setP99Ms(Double p99Ms) {
+        this.p99Ms = p99Ms;
+    }
+
+    public Double getMaxMs() {
+        return maxMs;
+    }
+
+    public void setMaxMs(Double maxMs) {
+        this.maxMs = maxMs;
+    }
+
+    public byte[] getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(byte[] histogram) {
+        this.histogram = histogram;
+    }
+
+    @Override
+    public String toString() {
+        return "GenerationStatsSnapshot{" +
+                "templateId='" + templateId + '\'' +
+                ", periodStart=" + periodStart +
+                ", periodEnd=" + periodEnd +
+                ", completed=" + completed +
+                ", failed=" + failed +
+                '}';
+    }
+}
\ No newline at end of file
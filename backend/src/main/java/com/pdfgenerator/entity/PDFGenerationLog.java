@@ -1,10 +1,12 @@
 package com.pdfgenerator.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pdfgenerator.converter.UUIDStringJavaType;
 import com.pdfgenerator.enums.PDFGenerationStatus;
 import com.pdfgenerator.util.UUIDGenerator;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JavaType;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -12,12 +14,21 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Entity
-@Table(name = "pdf_generation_logs")
+@Table(name = "pdf_generation_logs", indexes = {
+    @Index(name = "idx_pdf_logs_created_at", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_pdf_logs_template_created_at", columnList = "template_id, created_at DESC, id DESC"),
+    @Index(name = "idx_pdf_logs_template_status_created_at", columnList = "template_id, status, created_at DESC, id DESC"),
+    @Index(name = "idx_pdf_logs_status_created_at", columnList = "status, created_at DESC, id DESC"),
+    @Index(name = "idx_pdf_logs_created_by_created_at", columnList = "created_by, created_at DESC, id DESC")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class PDFGenerationLog {
 
+    // Time-ordered v7 UUID in a native uuid column
     @Id
-    @Column(name = "id", length = 36)
+    @JavaType(UUIDStringJavaType.class)
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "id")
     private String id;
 
     @Column(name = "template_id", nullable = false, length = 36)
@@ -58,7 +69,7 @@ public class PDFGenerationLog {
     @PrePersist
     public void prePersist() {
         if (this.id == null) {
-            this.id = UUIDGenerator.generateUUID();
+            this.id = UUIDGenerator.generateUUIDv7();
         }
     }
 
@@ -0,0 +1,243 @@
+package com.pdfgenerator.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pdfgenerator.converter.UUIDStringJavaType;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.render.OutputProfile;
+import com.pdfgenerator.util.UUIDGenerator;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Asynchronous render queued in the render_jobs table.
+ *
+ * Moves from PENDING through PROCESSING to COMPLETED, FAILED or CANCELLED. A worker claiming a
+ * PENDING job holds a lease on it until leaseExpiresAt and extends it with heartbeats; a job whose
+ * lease expires goes back to PENDING. The request data is dropped once the job finishes, and the
+ * rendered document is kept in render_job_results.
+ */
+@Entity
+@Table(name = "render_jobs", indexes = {
+    @Index(name = "idx_render_jobs_status_created_at", columnList = "status, created_at"),
+    @Index(name = "idx_render_jobs_status_lease", columnList = "status, lease_expires_at"),
+    @Index(name = "idx_render_jobs_completed_at", columnList = "completed_at")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class RenderJob {
+
+    // Time-ordered v7 UUID in a native uuid column
+    @Id
+    @JavaType(UUIDStringJavaType.class)
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "template_id", nullable = false, length = 36)
+    private String templateId;
+
+    // Null for the template default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "profile", length = 20)
+    private OutputProfile profile;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "request_data", columnDefinition = "jsonb")
+    private Map<String, Object> requestData;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PDFGenerationStatus status;
+
+    @Column(name = "estimated_render_ms", nullable = false)
+    private long estimatedRenderMs;
+
+    @Column(name = "estimated_memory_bytes", nullable = false)
+    private long estimatedMemoryBytes;
+
+    // Claims so far, including the current one
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Worker holding or last holding the lease
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "result_size")
+    private Long resultSize;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Default constructor
+    public RenderJob() {}
+
+    @PrePersist
+    public void prePersist() {
+        if (this.id == null) {
+            this.id = UUIDGenerator.generateUUIDv7();
+        }
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Constructor with required fields
+    public RenderJob(String templateId, Map<String, Object> requestData, OutputProfile profile,
+                     long estimatedRenderMs, long estimatedMemoryBytes) {
+        this.templateId = templateId;
+        this.requestData = requestData;
+        this.profile = profile;
+        this.estimatedRenderMs = estimatedRenderMs;
+        this.estimatedMemoryBytes = estimatedMemoryBytes;
+        this.status = PDFGenerationStatus.PENDING;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public OutputProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(OutputProfile profile) {
+        this.profile = profile;
+    }
+
+    public Map<String, Object> getRequestData() {
+        return requestData;
+    }
+
+    public void setRequestData(Map<String, Object> requestData) {
+        this.requestData = requestData;
+    }
+
+    public PDFGenerationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PDFGenerationStatus status) {
+        this.status = status;
+    }
+
+    public long getEstimatedRenderMs() {
+        return estimatedRenderMs;
+    }
+
+    public void setEstimatedRenderMs(long estimatedRenderMs) {
+        this.estimatedRenderMs = estimatedRenderMs;
+    }
+
+    public long getEstimatedMemoryBytes() {
+        return estimatedMemoryBytes;
+    }
+
+    public void setEstimatedMemoryBytes(long estimatedMemoryBytes) {
+        this.estimatedMemoryBytes = estimatedMemoryBytes;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Long getResultSize() {
+        return resultSize;
+    }
+
+    public void setResultSize(Long resultSize) {
+        this.resultSize = resultSize;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
\ No newline at end of file
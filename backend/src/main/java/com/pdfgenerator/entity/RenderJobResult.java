@@ -0,0 +1,51 @@
+package com.pdfgenerator.entity;
+
+import com.pdfgenerator.converter.UUIDStringJavaType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Rendered document of a completed render job, kept apart from render_jobs so that claiming and
+ * polling jobs never reads it
+ */
+@Entity
+@Table(name = "render_job_results")
+public class RenderJobResult {
+
+    @Id
+    @JavaType(UUIDStringJavaType.class)
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "job_id")
+    private String jobId;
+
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+    // Default constructor
+    public RenderJobResult() {}
+
+    // Constructor with required fields
+    public RenderJobResult(String jobId, byte[] content) {
+        this.jobId = jobId;
+        this.content = content;
+    }
+
+    // Getters and Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+}
\ No newline at end of file
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Entity
-@Table(name = "templates")
+@Table(name = "templates", indexes = {
+    @Index(name = "idx_templates_active_created_at", columnList = "active, created_at DESC, id DESC"),
+    @Index(name = "idx_templates_category_created_at", columnList = "category, active, created_at DESC, id DESC")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Template {
 
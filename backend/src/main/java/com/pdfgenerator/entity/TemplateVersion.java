@@ -1,22 +1,34 @@
 package com.pdfgenerator.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pdfgenerator.converter.UUIDStringJavaType;
 import com.pdfgenerator.util.UUIDGenerator;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JavaType;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * One version of a template's schema: a full snapshot, or a JSON Patch (RFC 6902) delta
+ * against the previous version
+ */
 @Entity
-@Table(name = "template_versions")
+@Table(name = "template_versions", indexes = {
+    @Index(name = "idx_template_versions_template_version", columnList = "template_id, version DESC")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class TemplateVersion {
 
+    // Time-ordered v7 UUID in a native uuid column
     @Id
-    @Column(name = "id", length = 36)
+    @JavaType(UUIDStringJavaType.class)
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "id")
     private String id;
 
     @Column(name = "template_id", nullable = false, length = 36)
@@ -25,14 +37,27 @@ public class TemplateVersion {
     @Column(name = "version", nullable = false)
     private Integer version;
 
+    @Column(name = "snapshot", nullable = false)
+    private boolean snapshot = true;
+
+    // Full schema, set for snapshots only
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "schema", nullable = false, columnDefinition = "jsonb")
+    @Column(name = "schema", columnDefinition = "jsonb")
     private Map<String, Object> schema;
 
+    // Operations turning the previous version's schema into this one, set for deltas only
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "patch", columnDefinition = "jsonb")
+    private List<Map<String, Object>> patch;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Last save folded into this version by edit coalescing
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @Column(name = "created_by", length = 36)
     private String createdBy;
 
@@ -47,7 +72,7 @@ public class TemplateVersion {
     @PrePersist
     public void prePersist() {
         if (this.id == null) {
-            this.id = UUIDGenerator.generateUUID();
+            this.id = UUIDGenerator.generateUUIDv7();
         }
     }
 
@@ -84,6 +109,14 @@ public class TemplateVersion {
         this.version = version;
     }
 
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
     public Map<String, Object> getSchema() {
         return schema;
     }
@@ -92,6 +125,14 @@ public class TemplateVersion {
         this.schema = schema;
     }
 
+    public List<Map<String, Object>> getPatch() {
+        return patch;
+    }
+
+    public void setPatch(List<Map<String, Object>> patch) {
+        this.patch = patch;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -100,6 +141,14 @@ public class TemplateVersion {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getCreatedBy() {
         return createdBy;
     }
@@ -122,6 +171,7 @@ public class TemplateVersion {
                 "id='" + id + '\'' +
                 ", templateId='" + templateId + '\'' +
                 ", version=" + version +
+                ", snapshot=" + snapshot +
                 ", createdAt=" + createdAt +
                 '}';
     }
@@ -15,6 +15,19 @@ public enum ErrorCode {
     PDF_GENERATION_FAILED("PDF_001", "PDF generation failed"),
     INVALID_DATA_FORMAT("PDF_002", "Invalid data format for PDF generation"),
     TEMPLATE_RENDERING_FAILED("PDF_003", "Template rendering failed"),
+    RENDER_QUEUE_FULL("PDF_004", "Too many renders waiting"),
+    RENDER_CANCELLED("PDF_005", "PDF generation was cancelled"),
+    
+    // Render job errors
+    JOB_NOT_FOUND("JOB_001", "Render job not found"),
+    JOB_NOT_COMPLETED("JOB_002", "Render job has no result yet"),
+    
+    // Idempotency errors
+    IDEMPOTENCY_KEY_REUSED("IDEM_001", "Idempotency key was used for a different request"),
+    IDEMPOTENCY_KEY_IN_PROGRESS("IDEM_002", "Request with this idempotency key is still in progress"),
+    
+    // Rate limiting errors
+    RATE_LIMIT_EXCEEDED("RATE_001", "Rate limit exceeded"),
     
     // General validation errors
     VALIDATION_FAILED("VAL_001", "Validation failed"),
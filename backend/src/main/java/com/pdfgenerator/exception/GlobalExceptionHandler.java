@@ -1,5 +1,6 @@
 package com.pdfgenerator.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -65,9 +66,20 @@ public class GlobalExceptionHandler {
         HttpStatus status = switch (ex.getErrorCode()) {
             case TEMPLATE_NOT_FOUND -> HttpStatus.NOT_FOUND;
             case INVALID_DATA_FORMAT -> HttpStatus.BAD_REQUEST;
+            case IDEMPOTENCY_KEY_REUSED -> HttpStatus.UNPROCESSABLE_ENTITY;
+            case IDEMPOTENCY_KEY_IN_PROGRESS -> HttpStatus.CONFLICT;
+            case RENDER_QUEUE_FULL -> HttpStatus.SERVICE_UNAVAILABLE;
+            case RENDER_CANCELLED -> HttpStatus.GATEWAY_TIMEOUT;
+            case JOB_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case JOB_NOT_COMPLETED -> HttpStatus.CONFLICT;
             default -> HttpStatus.INTERNAL_SERVER_ERROR;
         };
         
+        if (ex.getErrorCode() == ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS
+                || ex.getErrorCode() == ErrorCode.RENDER_QUEUE_FULL) {
+            // The first request is still running, or render threads are busy; retrying shortly can succeed
+            return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
+        }
         return ResponseEntity.status(status).body(errorResponse);
     }
     
@@ -0,0 +1,40 @@
+package com.pdfgenerator.idempotency;
+
+/**
+ * A request's hold on an idempotency key: either the key is now reserved for it, or an earlier
+ * identical request has finished and its stored response is to be replayed.
+ */
+public final class IdempotencyClaim {
+
+    private final String key;
+    private final String fingerprint;
+    private final IdempotencyRecord replay;
+
+    public IdempotencyClaim(String key, String fingerprint, IdempotencyRecord replay) {
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.replay = replay;
+    }
+
+    /**
+     * Store key, scoped to the operation and the caller
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public boolean isReplay() {
+        return replay != null;
+    }
+
+    /**
+     * Stored response of the earlier request, or null if this request is to run
+     */
+    public IdempotencyRecord getReplay() {
+        return replay;
+    }
+}
\ No newline at end of file
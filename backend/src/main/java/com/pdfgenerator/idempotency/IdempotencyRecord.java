@@ -0,0 +1,77 @@
+package com.pdfgenerator.idempotency;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * What an idempotency store holds for a key: the fingerprint of the request that claimed it and,
+ * once that request has finished, the response to replay. A request that was queued as a render
+ * job stores the job's id instead, so a replay reports the job's current state.
+ */
+public final class IdempotencyRecord {
+
+    // Content type of a body holding a render job id
+    public static final String JOB_CONTENT_TYPE = "application/x-render-job-id";
+
+    public enum State {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    private final State state;
+    private final String fingerprint;
+    private final String contentType;
+    private final byte[] body;
+
+    private IdempotencyRecord(State state, String fingerprint, String contentType, byte[] body) {
+        this.state = state;
+        this.fingerprint = fingerprint;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public static IdempotencyRecord inProgress(String fingerprint) {
+        return new IdempotencyRecord(State.IN_PROGRESS, fingerprint, null, null);
+    }
+
+    public static IdempotencyRecord completed(String fingerprint, String contentType, byte[] body) {
+        return new IdempotencyRecord(State.COMPLETED, fingerprint, contentType, body);
+    }
+
+    public static IdempotencyRecord job(String fingerprint, String jobId) {
+        return completed(fingerprint, JOB_CONTENT_TYPE, jobId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isCompleted() {
+        return state == State.COMPLETED;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Id of the render job the request was queued as, or null if the body is the response itself
+     */
+    public String getJobId() {
+        return isCompleted() && JOB_CONTENT_TYPE.equals(contentType) ? new String(body, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Bytes held for this record, used to bound local stores
+     */
+    public long getSize() {
+        return body == null ? 0 : body.length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.pdfgenerator.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Storage for idempotency keys.
+ *
+ * A key is reserved by the first request that uses it and holds that request's result for the
+ * retention period afterwards. Implementations must make {@link #reserve} atomic, so two
+ * concurrent requests with the same key never both get to run.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserve the key for a request
+     *
+     * @param lease how long the reservation lasts if the request never completes or releases it
+     * @return null if the caller now holds the key, otherwise the record already stored under it
+     */
+    IdempotencyRecord reserve(String key, String fingerprint, Duration lease);
+
+    /**
+     * Store the finished request's response under its key
+     */
+    void complete(String key, IdempotencyRecord record, Duration retention);
+
+    /**
+     * Drop the reservation of a request that did not complete, so a retry runs again.
+     * Does nothing once the key holds a completed response or another request's reservation.
+     */
+    void release(String key, String fingerprint);
+}
\ No newline at end of file
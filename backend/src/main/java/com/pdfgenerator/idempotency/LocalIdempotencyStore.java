@@ -0,0 +1,112 @@
+package com.pdfgenerator.idempotency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory idempotency store for a single node.
+ *
+ * Bounded by entry count and by the bytes of stored responses; when either is exceeded the
+ * least recently written keys are evicted first, expired or not. Keys only protect retries that
+ * reach the same node, so deployments behind a load balancer should use the Redis store.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "local", matchIfMissing = true)
+public class LocalIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Clock clock;
+    private long bytes;
+
+    @Autowired
+    public LocalIdempotencyStore(@Value("${app.idempotency.local.max-entries:10000}") int maxEntries,
+                                 @Value("${app.idempotency.local.max-size:64MB}") DataSize maxSize) {
+        this(maxEntries, maxSize.toBytes(), Clock.systemUTC());
+    }
+
+    LocalIdempotencyStore(int maxEntries, long maxBytes, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized IdempotencyRecord reserve(String key, String fingerprint, Duration lease) {
+        long now = clock.millis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.record;
+        }
+        put(key, IdempotencyRecord.inProgress(fingerprint), now + lease.toMillis());
+        return null;
+    }
+
+    @Override
+    public synchronized void complete(String key, IdempotencyRecord record, Duration retention) {
+        put(key, record, clock.millis() + retention.toMillis());
+    }
+
+    @Override
+    public synchronized void release(String key, String fingerprint) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.record.isCompleted() && entry.record.getFingerprint().equals(fingerprint)) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Number of keys held, including expired ones not yet evicted
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void put(String key, IdempotencyRecord record, long expiresAt) {
+        // Re-inserted so the map stays in write order
+        remove(key);
+        entries.put(key, new Entry(record, expiresAt));
+        bytes += record.getSize();
+        evict(clock.millis());
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.record.getSize();
+        }
+    }
+
+    private void evict(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext()) {
+            Entry entry = oldest.next();
+            if (entries.size() <= maxEntries && bytes <= maxBytes && entry.expiresAt > now) {
+                return;
+            }
+            oldest.remove();
+            bytes -= entry.record.getSize();
+        }
+    }
+
+    private static final class Entry {
+
+        private final IdempotencyRecord record;
+        private final long expiresAt;
+
+        Entry(IdempotencyRecord record, long expiresAt) {
+            this.record = record;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.pdfgenerator.idempotency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Idempotency store shared by all nodes through Redis.
+ *
+ * Reservations are a SET NX with the lease as expiry, and completed responses replace them with
+ * the retention as expiry, so Redis evicts keys on its own. Each key is one string value: a
+ * header line with state, fingerprint and content type, followed by the response body.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "redis")
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String SEPARATOR = " ";
+    private static final byte END_OF_HEADER = '\n';
+
+    // Delete only while the value is still the caller's reservation
+    private static final byte[] RELEASE_SCRIPT = ("if redis.call('get', KEYS[1]) == ARGV[1] then "
+        + "return redis.call('del', KEYS[1]) end return 0").getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Autowired
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public IdempotencyRecord reserve(String key, String fingerprint, Duration lease) {
+        byte[] redisKey = redisKey(key);
+        byte[] reservation = encode(IdempotencyRecord.inProgress(fingerprint));
+        return redisTemplate.execute((RedisCallback<IdempotencyRecord>) connection -> {
+            while (true) {
+                if (Boolean.TRUE.equals(connection.stringCommands()
+                        .set(redisKey, reservation, Expiration.from(lease), SetOption.SET_IF_ABSENT))) {
+                    return null;
+                }
+                byte[] existing = connection.stringCommands().get(redisKey);
+                if (existing != null) {
+                    return decode(existing);
+                }
+                // Expired between the two calls; try to reserve again
+            }
+        });
+    }
+
+    @Override
+    public void complete(String key, IdempotencyRecord record, Duration retention) {
+        byte[] redisKey = redisKey(key);
+        byte[] value = encode(record);
+        redisTemplate.execute((RedisCallback<Boolean>) connection ->
+            connection.stringCommands().set(redisKey, value, Expiration.from(retention), SetOption.UPSERT));
+    }
+
+    @Override
+    public void release(String key, String fingerprint) {
+        byte[] redisKey = redisKey(key);
+        byte[] reservation = encode(IdempotencyRecord.inProgress(fingerprint));
+        redisTemplate.execute((RedisCallback<Long>) connection ->
+            connection.scriptingCommands().eval(RELEASE_SCRIPT, ReturnType.INTEGER, 1, redisKey, reservation));
+    }
+
+    private static byte[] redisKey(String key) {
+        return (KEY_PREFIX + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] encode(IdempotencyRecord record) {
+        String header = record.getState() + SEPARATOR + record.getFingerprint()
+            + (record.isCompleted() ? SEPARATOR + record.getContentType() : "") + (char) END_OF_HEADER;
+        byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
+        if (record.getBody() == null) {
+            return headerBytes;
+        }
+        byte[] value = Arrays.copyOf(headerBytes, headerBytes.length + record.getBody().length);
+        System.arraycopy(record.getBody(), 0, value, headerBytes.length, record.getBody().length);
+        return value;
+    }
+
+    static IdempotencyRecord decode(byte[] value) {
+        int end = 0;
+        while (value[end] != END_OF_HEADER) {
+            end++;
+        }
+        String[] header = new String(value, 0, end, StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        if (IdempotencyRecord.State.valueOf(header[0]) == IdempotencyRecord.State.IN_PROGRESS) {
+            return IdempotencyRecord.inProgress(header[1]);
+        }
+        return IdempotencyRecord.completed(header[1], header[2], Arrays.copyOfRange(value, end + 1, value.length));
+    }
+}
\ No newline at end of file
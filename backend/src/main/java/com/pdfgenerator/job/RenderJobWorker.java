@@ -0,0 +1,235 @@
+package com.pdfgenerator.job;
+
+import com.pdfgenerator.entity.RenderJob;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.exception.PDFGenerationException;
+import com.pdfgenerator.render.RenderCancellation;
+import com.pdfgenerator.render.RenderLane;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.service.PDFGenerationService;
+import com.pdfgenerator.service.RenderJobService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consumes render jobs from the render_jobs queue.
+ *
+ * Each of {@code app.pdf.jobs.workers} threads claims the oldest pending job, renders it in the
+ * bulk lane with the job timeout and stores the document, and polls every
+ * {@code poll-interval} while the queue is empty. A heartbeat thread extends the leases of the
+ * running jobs; a job whose lease was lost, because this node missed heartbeats until the job was
+ * re-queued, is cancelled at its next check and its result dropped. On shutdown running jobs are
+ * cancelled and put back in the queue. With 0 workers the node only queues jobs.
+ */
+@Component
+public class RenderJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderJobWorker.class);
+
+    private final RenderJobService renderJobService;
+    private final PDFGenerationService pdfGenerationService;
+    private final int workers;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final Duration pollInterval;
+    private final String workerId;
+    // Running jobs of this node and their cancellation tokens
+    private final ConcurrentMap<String, RenderCancellation> running = new ConcurrentHashMap<>();
+    // Jobs whose render stopped for shutdown, to put back in the queue
+    private final Set<String> abandoned = ConcurrentHashMap.newKeySet();
+    private ExecutorService threads;
+    private ScheduledExecutorService heartbeats;
+    private volatile boolean stopped;
+
+    @Autowired
+    public RenderJobWorker(RenderJobService renderJobService,
+                           PDFGenerationService pdfGenerationService,
+                           @Value("${app.pdf.jobs.workers:2}") int workers,
+                           @Value("${app.pdf.jobs.timeout:10m}") Duration timeout,
+                           @Value("${app.pdf.jobs.heartbeat:15s}") Duration heartbeat,
+                           @Value("${app.pdf.jobs.poll-interval:1s}") Duration pollInterval,
+                           @Value("${app.pdf.jobs.worker-id:}") String workerId) {
+        this.renderJobService = renderJobService;
+        this.pdfGenerationService = pdfGenerationService;
+        this.workers = workers;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.pollInterval = pollInterval;
+        // pid@host, so several workers on one machine are told apart
+        this.workerId = workerId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : workerId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (workers < 1) {
+            logger.info("No render job workers on this node; jobs are rendered by worker nodes");
+            return;
+        }
+        AtomicInteger count = new AtomicInteger();
+        threads = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "render-job-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            threads.execute(this::poll);
+        }
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "render-job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Render job worker {} started with {} threads", workerId, workers);
+    }
+
+    /**
+     * Claim and render the next pending job on the calling thread
+     *
+     * @return false if no job was waiting
+     */
+    public boolean runNext() {
+        RenderJob job = renderJobService.claimNext(workerId);
+        if (job == null) {
+            return false;
+        }
+        RenderCancellation cancellation = RenderCancellation.withTimeout(timeout);
+        running.put(job.getId(), cancellation);
+        if (stopped) {
+            // Claimed while shutting down
+            cancellation.cancel(RenderCancellation.Reason.ABANDONED);
+        }
+        try {
+            logger.info("Worker {} rendering job {} for template {}, attempt {}",
+                workerId, job.getId(), job.getTemplateId(), job.getAttempts());
+            try (RenderedPdf pdf = pdfGenerationService.renderPDF(job.getTemplateId(), job.getRequestData(),
+                    job.getProfile(), RenderLane.BULK, cancellation)) {
+                if (renderJobService.complete(job.getId(), workerId, job.getAttempts(), pdf)) {
+                    logger.info("Render job {} completed, {} bytes", job.getId(), pdf.getSize());
+                } else {
+                    logger.warn("Worker {} lost the lease of job {}; dropping its result", workerId, job.getId());
+                }
+            }
+        } catch (PDFGenerationException e) {
+            RenderCancellation.Reason reason = cancellation.getReason();
+            if (reason == RenderCancellation.Reason.ABANDONED) {
+                abandoned.add(job.getId());
+            }
+            if (reason == RenderCancellation.Reason.LEASE_LOST || reason == RenderCancellation.Reason.ABANDONED) {
+                // Another worker has the job, or it goes back to the queue on shutdown
+                logger.warn("Render job {} stopped on worker {}: {}", job.getId(), workerId, reason.getValue());
+            } else {
+                renderJobService.fail(job.getId(), workerId, job.getAttempts(),
+                    RenderCancellation.isCancellation(e) ? PDFGenerationStatus.CANCELLED : PDFGenerationStatus.FAILED,
+                    e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Render job {} failed", job.getId(), e);
+            renderJobService.fail(job.getId(), workerId, job.getAttempts(), PDFGenerationStatus.FAILED, e.getMessage());
+        } finally {
+            running.remove(job.getId());
+        }
+        return true;
+    }
+
+    /**
+     * Extend the leases of the running jobs; renders of jobs whose lease was lost are cancelled
+     */
+    public void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> jobIds = List.copyOf(running.keySet());
+            Set<String> held = renderJobService.extendLeases(workerId, jobIds);
+            // Only the jobs asked about; jobs claimed meanwhile have fresh leases
+            for (String jobId : jobIds) {
+                RenderCancellation cancellation = running.get(jobId);
+                if (!held.contains(jobId) && cancellation != null) {
+                    logger.warn("Worker {} lost the lease of job {}; cancelling its render", workerId, jobId);
+                    cancellation.cancel(RenderCancellation.Reason.LEASE_LOST);
+                }
+            }
+        } catch (RuntimeException e) {
+            // The leases run out unless a later heartbeat gets through
+            logger.warn("Render job heartbeat of worker {} failed: {}", workerId, e.getMessage());
+        }
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * Number of jobs this node is rendering
+     */
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (threads == null) {
+            return;
+        }
+        heartbeats.shutdownNow();
+        running.values().forEach(cancellation -> cancellation.cancel(RenderCancellation.Reason.ABANDONED));
+        threads.shutdownNow();
+        try {
+            // Renders stop at their next cancellation check
+            threads.awaitTermination(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Set<String> jobIds = new HashSet<>(abandoned);
+        jobIds.addAll(running.keySet());
+        try {
+            int released = renderJobService.release(workerId, jobIds);
+            if (released > 0) {
+                logger.info("Worker {} put {} running render jobs back in the queue", workerId, released);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Worker {} could not release its render jobs; they are re-queued when their leases expire: {}",
+                workerId, e.getMessage());
+        }
+    }
+
+    private void poll() {
+        while (!stopped) {
+            try {
+                if (runNext()) {
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                // Database unavailable or similar; try again after the poll interval
+                logger.warn("Worker {} could not claim a render job: {}", workerId, e.getMessage());
+            }
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
\ No newline at end of file
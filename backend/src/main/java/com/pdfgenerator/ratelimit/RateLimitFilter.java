@@ -0,0 +1,185 @@
+package com.pdfgenerator.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfgenerator.enums.UserRole;
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-caller rate limiting of the configured endpoints.
+ *
+ * Runs after authentication and before any controller, so rejected requests never reach
+ * rendering or the database. Each caller, the user name or the client address when not signed
+ * in, has a {@link TokenBucket} per endpoint sized by its highest {@link UserRole}. Responses
+ * carry {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset} headers;
+ * rejected ones are 429 with {@code Retry-After}. Buckets that have been full for
+ * {@code idle-eviction} are dropped, which is the same as keeping them.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final Map<String, UserRole> ROLES = Arrays.stream(UserRole.values())
+        .collect(Collectors.toUnmodifiableMap(role -> "ROLE_" + role.name(), role -> role));
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        validate(properties);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, RateLimitProperties.Endpoint> endpoint : properties.getEndpoints().entrySet()) {
+            if (endpoint.getValue().matches(request.getMethod(), path)) {
+                if (!tryAcquire(endpoint.getKey(), endpoint.getValue(), request, response)) {
+                    return;
+                }
+                break;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Drop buckets that have been full for the idle period
+     */
+    @Scheduled(fixedDelay = 60, timeUnit = TimeUnit.SECONDS)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleEviction().toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        if (buckets.size() < before) {
+            logger.debug("Evicted {} idle rate limit buckets", before - buckets.size());
+        }
+    }
+
+    /**
+     * Number of callers currently tracked
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private boolean tryAcquire(String endpointName, RateLimitProperties.Endpoint endpoint,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean signedIn = authentication != null && authentication.isAuthenticated()
+            && !(authentication instanceof AnonymousAuthenticationToken);
+        RateLimitProperties.Limit limit = endpoint.limitFor(signedIn ? roleOf(authentication) : null);
+        if (limit == null) {
+            return true;
+        }
+
+        String caller = signedIn ? "user:" + authentication.getName() : "ip:" + request.getRemoteAddr();
+        String key = endpointName + ":" + caller;
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+        TokenBucket.Result result = bucket.tryAcquire(limit, now);
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(limit.getCapacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(result.getRemaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(toSeconds(result.getResetNanos())));
+        if (result.isAllowed()) {
+            return true;
+        }
+
+        logger.debug("Rate limit of {} exceeded by {}", endpointName, caller);
+        ErrorResponse errorResponse = ErrorResponse.builder()
+            .code(ErrorCode.RATE_LIMIT_EXCEEDED.getCode())
+            .message("Too many requests, retry later")
+            .timestamp(LocalDateTime.now())
+            .build();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, toSeconds(result.getRetryAfterNanos()))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+        return false;
+    }
+
+    /**
+     * Highest role among the caller's authorities; signed-in callers without one count as users
+     */
+    private static UserRole roleOf(Authentication authentication) {
+        UserRole role = null;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            UserRole granted = ROLES.get(authority.getAuthority());
+            // Declared from most to least privileged
+            if (granted != null && (role == null || granted.ordinal() < role.ordinal())) {
+                role = granted;
+            }
+        }
+        return role == null ? UserRole.USER : role;
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static void validate(RateLimitProperties properties) {
+        properties.getEndpoints().forEach((name, endpoint) -> {
+            if (endpoint.getPath() == null) {
+                throw new IllegalStateException("app.rate-limit.endpoints." + name + ".path is required");
+            }
+            endpoint.getRoles().values().forEach(limit -> validate(name, limit));
+            if (endpoint.getAnonymous() != null) {
+                validate(name, endpoint.getAnonymous());
+            }
+        });
+    }
+
+    private static void validate(String name, RateLimitProperties.Limit limit) {
+        if (limit.getCapacity() < 1 || !(limit.getRefillPerSecond() > 0)) {
+            throw new IllegalStateException("Rate limits of " + name + " need a capacity and refill rate above 0");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.pdfgenerator.ratelimit;
+
+import com.pdfgenerator.enums.UserRole;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limits per endpoint and caller role, bound from {@code app.rate-limit}
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Duration idleEviction = Duration.ofMinutes(10);
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Requests under a path prefix, limited separately from other endpoints
+     */
+    public static class Endpoint {
+
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        private Limit anonymous;
+        private Map<UserRole, Limit> roles = new EnumMap<>(UserRole.class);
+
+        // Constructors
+        public Endpoint() {
+        }
+
+        public Endpoint(String path, List<String> methods) {
+            this.path = path;
+            this.methods = methods;
+        }
+
+        /**
+         * True if the request falls under this endpoint; any method matches when none are listed
+         */
+        public boolean matches(String method, String requestPath) {
+            return requestPath.startsWith(path) && (methods.isEmpty() || methods.contains(method));
+        }
+
+        /**
+         * Limit for a caller, or null if the caller is not limited here
+         *
+         * @param role role of the caller, null for unauthenticated callers
+         */
+        public Limit limitFor(UserRole role) {
+            return role == null ? anonymous : roles.get(role);
+        }
+
+        // Getters and Setters
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public Limit getAnonymous() {
+            return anonymous;
+        }
+
+        public void setAnonymous(Limit anonymous) {
+            this.anonymous = anonymous;
+        }
+
+        public Map<UserRole, Limit> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(Map<UserRole, Limit> roles) {
+            this.roles = roles;
+        }
+    }
+
+    /**
+     * Token bucket size and refill rate
+     */
+    public static class Limit {
+
+        private int capacity;
+        private double refillPerSecond;
+        private long intervalNanos;
+
+        // Constructors
+        public Limit() {
+        }
+
+        public Limit(int capacity, double refillPerSecond) {
+            setCapacity(capacity);
+            setRefillPerSecond(refillPerSecond);
+        }
+
+        // Getters and Setters
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Requests allowed in a burst
+         */
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        /**
+         * Sustained requests per second
+         */
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+            this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / refillPerSecond));
+        }
+
+        /**
+         * Time it takes to refill one token
+         */
+        public long getIntervalNanos() {
+            return intervalNanos;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.pdfgenerator.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Kept as a single timestamp, the time at which the bucket would be full again (the generic cell
+ * rate algorithm), so taking a token is one compare-and-set and the bucket needs no refill task.
+ * A request takes one token worth {@code interval} nanoseconds; it is allowed while the bucket
+ * holds at least that, i.e. while the full time stays within {@code capacity} intervals of now.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Take a token if one is available
+     *
+     * @param now current {@link System#nanoTime()}
+     * @return outcome with the tokens left; never null
+     */
+    Result tryAcquire(RateLimitProperties.Limit limit, long now) {
+        long interval = limit.getIntervalNanos();
+        long burst = interval * limit.getCapacity();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            if (next - now > burst) {
+                return new Result(false, 0, current - now, next - burst - now);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return new Result(true, (burst - (next - now)) / interval, next - now, 0);
+            }
+        }
+    }
+
+    /**
+     * True if the bucket has been full for at least the given time, so dropping it loses nothing
+     */
+    boolean isIdle(long now, long idleNanos) {
+        return now - fullAt.get() >= idleNanos;
+    }
+
+    /**
+     * Outcome of taking a token
+     */
+    static final class Result {
+
+        private final boolean allowed;
+        private final long remaining;
+        private final long resetNanos;
+        private final long retryAfterNanos;
+
+        Result(boolean allowed, long remaining, long resetNanos, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.resetNanos = resetNanos;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * Requests that could still be made right now
+         */
+        long getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * Time until the bucket is full again
+         */
+        long getResetNanos() {
+            return resetNanos;
+        }
+
+        /**
+         * Time until the next token, for rejected requests
+         */
+        long getRetryAfterNanos() {
+            return retryAfterNanos;
+        }
+    }
+}
\ No newline at end of file
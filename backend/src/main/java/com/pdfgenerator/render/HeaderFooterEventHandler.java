@@ -0,0 +1,255 @@
+package com.pdfgenerator.render;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.kernel.events.Event;
+import com.itextpdf.kernel.events.IEventHandler;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Canvas;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.VerticalAlignment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Page event handler that stamps running headers and footers on every page.
+ *
+ * The header is laid out once per document into a form XObject and reused on each page.
+ * The footer's total page count ("Sayfa X / Y") is drawn into a shared placeholder XObject
+ * that is only filled by {@link #writeTotalPages()} right before the document is closed,
+ * so the body never needs a second layout pass.
+ */
+public class HeaderFooterEventHandler implements IEventHandler {
+
+    public static final String PAGE_NUMBER_TOKEN = "{{page}}";
+    public static final String TOTAL_PAGES_TOKEN = "{{pages}}";
+
+    // Width reserved for the total page count, wide enough for "999"
+    private static final String TOTAL_PAGES_SAMPLE = "999";
+
+    private final PdfDocument pdfDocument;
+    private final Section header;
+    private final Section footer;
+    private final float marginTop;
+    private final float marginRight;
+    private final float marginBottom;
+    private final float marginLeft;
+
+    private final PdfFont font;
+    private final PdfFormXObject headerXObject;
+    private final PdfFormXObject totalPagesXObject;
+    private final String footerPrefix;
+    private final String footerSuffix;
+
+    /**
+     * @param pdfDocument document the handler is registered on
+     * @param header header section, or null for no header
+     * @param footer footer section, or null for no footer
+     * @param margins page margins outside the header/footer bands (top, right, bottom, left)
+     */
+    public HeaderFooterEventHandler(PdfDocument pdfDocument, Section header, Section footer, float[] margins) {
+        this.pdfDocument = pdfDocument;
+        this.header = header;
+        this.footer = footer;
+        this.marginTop = margins[0];
+        this.marginRight = margins[1];
+        this.marginBottom = margins[2];
+        this.marginLeft = margins[3];
+
+        try {
+            this.font = PdfFontFactory.createFont();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load header/footer font", e);
+        }
+
+        float bandWidth = getBandWidth(pdfDocument.getDefaultPageSize());
+        this.headerXObject = header != null ? layoutHeader(header, bandWidth) : null;
+
+        if (footer != null && footer.getText().contains(TOTAL_PAGES_TOKEN)) {
+            int tokenIndex = footer.getText().indexOf(TOTAL_PAGES_TOKEN);
+            this.footerPrefix = footer.getText().substring(0, tokenIndex);
+            this.footerSuffix = footer.getText().substring(tokenIndex + TOTAL_PAGES_TOKEN.length());
+            float placeholderWidth = font.getWidth(TOTAL_PAGES_SAMPLE, footer.getFontSize());
+            // Bounding box starts below the baseline so descenders are not clipped
+            this.totalPagesXObject = new PdfFormXObject(new Rectangle(
+                0, -footer.getFontSize() / 2, placeholderWidth * 2, footer.getFontSize() * 2));
+        } else {
+            this.footerPrefix = footer != null ? footer.getText() : "";
+            this.footerSuffix = "";
+            this.totalPagesXObject = null;
+        }
+    }
+
+    /**
+     * Top margin the body content must keep clear of
+     */
+    public float getContentTopMargin() {
+        return marginTop + (header != null ? header.getHeight() : 0);
+    }
+
+    /**
+     * Bottom margin the body content must keep clear of
+     */
+    public float getContentBottomMargin() {
+        return marginBottom + (footer != null ? footer.getHeight() : 0);
+    }
+
+    @Override
+    public void handleEvent(Event event) {
+        PdfDocumentEvent documentEvent = (PdfDocumentEvent) event;
+        PdfPage page = documentEvent.getPage();
+        Rectangle pageSize = page.getPageSize();
+        PdfCanvas pdfCanvas = new PdfCanvas(page.newContentStreamAfter(), page.getResources(), pdfDocument);
+
+        if (headerXObject != null) {
+            float y = pageSize.getTop() - marginTop - header.getHeight();
+            pdfCanvas.addXObjectAt(headerXObject, pageSize.getLeft() + marginLeft, y);
+        }
+
+        if (footer != null) {
+            drawFooter(pdfCanvas, pageSize, pdfDocument.getPageNumber(page));
+        }
+
+        pdfCanvas.release();
+    }
+
+    /**
+     * Fill the shared total page count placeholder. Must be called once, after all
+     * content has been added and before the document is closed.
+     */
+    public void writeTotalPages() {
+        if (totalPagesXObject == null) {
+            return;
+        }
+
+        new PdfCanvas(totalPagesXObject, pdfDocument)
+            .beginText()
+            .setFontAndSize(font, footer.getFontSize())
+            .moveText(0, 0)
+            .showText(String.valueOf(pdfDocument.getNumberOfPages()))
+            .endText()
+            .release();
+    }
+
+    private PdfFormXObject layoutHeader(Section section, float width) {
+        PdfFormXObject xObject = new PdfFormXObject(new Rectangle(0, 0, width, section.getHeight()));
+
+        try (Canvas canvas = new Canvas(xObject, pdfDocument)) {
+            float textStart = 0;
+
+            if (section.getLogo() != null) {
+                Image logo = new Image(section.getLogo()).scaleToFit(width / 4, section.getHeight());
+                float logoHeight = logo.getImageScaledHeight();
+                logo.setFixedPosition(0, (section.getHeight() - logoHeight) / 2);
+                canvas.add(logo);
+                textStart = logo.getImageScaledWidth() + 8;
+            }
+
+            if (!section.getText().isEmpty()) {
+                Paragraph paragraph = new Paragraph(section.getText())
+                    .setFontSize(section.getFontSize())
+                    .setMargin(0);
+                float x = switch (section.getAlignment()) {
+                    case CENTER -> width / 2;
+                    case RIGHT -> width;
+                    default -> textStart;
+                };
+                canvas.showTextAligned(paragraph, x, section.getHeight() / 2,
+                    section.getAlignment(), VerticalAlignment.MIDDLE);
+            }
+        }
+
+        return xObject;
+    }
+
+    private void drawFooter(PdfCanvas pdfCanvas, Rectangle pageSize, int pageNumber) {
+        float fontSize = footer.getFontSize();
+        String prefix = footerPrefix.replace(PAGE_NUMBER_TOKEN, String.valueOf(pageNumber));
+        String suffix = footerSuffix.replace(PAGE_NUMBER_TOKEN, String.valueOf(pageNumber));
+
+        float prefixWidth = font.getWidth(prefix, fontSize);
+        float placeholderWidth = totalPagesXObject != null ? font.getWidth(TOTAL_PAGES_SAMPLE, fontSize) : 0;
+        float totalWidth = prefixWidth + placeholderWidth + font.getWidth(suffix, fontSize);
+
+        float left = pageSize.getLeft() + marginLeft;
+        float bandWidth = getBandWidth(pageSize);
+        float x = switch (footer.getAlignment()) {
+            case CENTER -> left + (bandWidth - totalWidth) / 2;
+            case RIGHT -> left + bandWidth - totalWidth;
+            default -> left;
+        };
+        float y = pageSize.getBottom() + marginBottom + (footer.getHeight() - fontSize) / 2;
+
+        pdfCanvas.beginText()
+            .setFontAndSize(font, fontSize)
+            .moveText(x, y)
+            .showText(prefix)
+            .endText();
+
+        if (totalPagesXObject != null) {
+            // Bounding box lower-left is mapped to the given point, so offset by its bottom
+            pdfCanvas.addXObjectAt(totalPagesXObject, x + prefixWidth, y - fontSize / 2);
+
+            if (!suffix.isEmpty()) {
+                pdfCanvas.beginText()
+                    .setFontAndSize(font, fontSize)
+                    .moveText(x + prefixWidth + placeholderWidth, y)
+                    .showText(suffix)
+                    .endText();
+            }
+        }
+    }
+
+    private float getBandWidth(Rectangle pageSize) {
+        return pageSize.getWidth() - marginLeft - marginRight;
+    }
+
+    /**
+     * Resolved header or footer definition for a single document
+     */
+    public static class Section {
+
+        private final String text;
+        private final ImageData logo;
+        private final float height;
+        private final float fontSize;
+        private final TextAlignment alignment;
+
+        public Section(String text, ImageData logo, float height, float fontSize, TextAlignment alignment) {
+            this.text = text != null ? text : "";
+            this.logo = logo;
+            this.height = height;
+            this.fontSize = fontSize;
+            this.alignment = alignment;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public ImageData getLogo() {
+            return logo;
+        }
+
+        public float getHeight() {
+            return height;
+        }
+
+        public float getFontSize() {
+            return fontSize;
+        }
+
+        public TextAlignment getAlignment() {
+            return alignment;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.pdfgenerator.render;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of decoded image assets (logos, stamps) referenced by templates.
+ * Supported sources are {@code classpath:} resources and base64 {@code data:} URIs.
+ * Sources come from saved templates, never from request data; the cache still keeps only
+ * the most recently used assets.
+ */
+public final class ImageAssets {
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+    private static final String DATA_URI_PREFIX = "data:";
+
+    private static final int MAX_ENTRIES = 256;
+
+    private static final Map<String, ImageData> cache = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImageData> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        });
+
+    private ImageAssets() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Get decoded image data for a source, loading it on first use
+     * @param src image source
+     * @return decoded image data
+     * @throws IllegalArgumentException if the source is unsupported or cannot be read
+     */
+    public static ImageData get(String src) {
+        ImageData data = cache.get(src);
+        if (data == null) {
+            // Loaded outside the lock; concurrent first uses may decode the same asset twice
+            data = load(src);
+            cache.put(src, data);
+        }
+        return data;
+    }
+
+    /**
+     * Number of cached assets
+     */
+    public static int size() {
+        return cache.size();
+    }
+
+    private static ImageData load(String src) {
+        if (src.startsWith(DATA_URI_PREFIX)) {
+            int comma = src.indexOf(',');
+            if (comma < 0 || !src.substring(0, comma).endsWith(";base64")) {
+                throw new IllegalArgumentException("Only base64 data URIs are supported for images");
+            }
+            return ImageDataFactory.create(Base64.getDecoder().decode(src.substring(comma + 1)));
+        }
+
+        if (src.startsWith(CLASSPATH_PREFIX)) {
+            String path = src.substring(CLASSPATH_PREFIX.length());
+            if (path.startsWith("/")) {
+                path = path.substring(1);
+            }
+            try (InputStream in = ImageAssets.class.getClassLoader().getResourceAsStream(path)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Image resource not found: " + src);
+                }
+                return ImageDataFactory.create(in.readAllBytes());
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to read image resource: " + src, e);
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported image source: " + src);
+    }
+}
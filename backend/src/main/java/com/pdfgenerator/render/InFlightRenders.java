@@ -0,0 +1,178 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-flight coalescing of identical concurrent renders.
+ *
+ * The first request for a key renders; requests for the same key that arrive while it runs wait
+ * for it and get their own {@link RenderedPdf#retain() handle} on the same document, so retries
+ * and double submits cost one render. A failed render fails all of its waiters with the same
+ * exception; a cancelled one does not, as its deadline belonged to the leading request only, and
+ * the waiters render again. Waiters wait no longer than their own deadline. Renders are removed
+ * from the map before their result is published, so a finished render is never handed to later
+ * requests, and the shared document is released once every waiter has taken its handle or given
+ * up waiting.
+ */
+@Component
+public class InFlightRenders {
+
+    private static final Logger logger = LoggerFactory.getLogger(InFlightRenders.class);
+
+    private final ConcurrentMap<RenderKey, Flight> flights = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    public InFlightRenders() {
+        this(true);
+    }
+
+    @Autowired
+    public InFlightRenders(@Value("${app.pdf.generation.coalesce:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Run the render, or wait for the running one with the same key, without a deadline
+     *
+     * @param key render identity, or null to render without coalescing
+     * @return rendered PDF; the caller must close it
+     */
+    public RenderedPdf render(RenderKey key, Callable<RenderedPdf> renderer) throws Exception {
+        return render(key, RenderCancellation.none(), renderer);
+    }
+
+    /**
+     * Run the render, or wait for the running one with the same key until this request's deadline
+     *
+     * @param key render identity, or null to render without coalescing
+     * @param cancellation this request's deadline; a waiter gives up when it passes, and does not
+     *        render again if it has passed by the time the leading render is cancelled
+     * @return rendered PDF; the caller must close it
+     * @throws PDFGenerationException with {@link ErrorCode#RENDER_CANCELLED} if the deadline passes
+     *         while waiting
+     */
+    public RenderedPdf render(RenderKey key, RenderCancellation cancellation, Callable<RenderedPdf> renderer)
+            throws Exception {
+        if (!enabled || key == null) {
+            return renderer.call();
+        }
+
+        while (true) {
+            Flight flight = new Flight();
+            Flight running = flights.putIfAbsent(key, flight);
+            if (running == null) {
+                return lead(key, flight, renderer);
+            }
+            if (running.join()) {
+                logger.debug("Waiting for identical render of template {}", key.getTemplateId());
+                try {
+                    return running.await(cancellation);
+                } catch (Exception e) {
+                    if (!RenderCancellation.isCancellation(e)) {
+                        throw e;
+                    }
+                    // Render again only while this request may still go on
+                    cancellation.check();
+                    logger.debug("Identical render of template {} was cancelled; rendering again", key.getTemplateId());
+                    continue;
+                }
+            }
+            // That render has handed out its result and left the map; start a new one
+        }
+    }
+
+    /**
+     * Number of renders currently running
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    private RenderedPdf lead(RenderKey key, Flight flight, Callable<RenderedPdf> renderer) throws Exception {
+        RenderedPdf pdf;
+        try {
+            pdf = renderer.call();
+        } catch (Throwable e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            flight.leave(null);
+            throw e;
+        }
+        flights.remove(key, flight);
+        flight.result.complete(pdf);
+        return flight.await(RenderCancellation.none());
+    }
+
+    /**
+     * One running render and the requests waiting for it
+     */
+    private static final class Flight {
+
+        private final CompletableFuture<RenderedPdf> result = new CompletableFuture<>();
+        // Leader plus waiters that have not taken their handle yet; 0 once the document is released
+        private final AtomicInteger participants = new AtomicInteger(1);
+
+        /**
+         * Register a waiter; false if the result has already been released
+         */
+        boolean join() {
+            int current;
+            do {
+                current = participants.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!participants.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        RenderedPdf await(RenderCancellation cancellation) throws Exception {
+            RenderedPdf shared;
+            try {
+                long remaining = cancellation.remainingNanos();
+                shared = remaining == Long.MAX_VALUE ? result.get() : result.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // Leave once the render finishes, so the document is still released
+                result.whenComplete((pdf, error) -> leave(pdf));
+                Thread.currentThread().interrupt();
+                throw e;
+            } catch (TimeoutException e) {
+                result.whenComplete((pdf, error) -> leave(pdf));
+                throw cancellation.cancelled(RenderCancellation.Reason.DEADLINE_EXCEEDED);
+            } catch (ExecutionException e) {
+                leave(null);
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw (Exception) e.getCause();
+            }
+
+            try {
+                return shared.retain();
+            } finally {
+                leave(shared);
+            }
+        }
+
+        private void leave(RenderedPdf shared) {
+            if (participants.decrementAndGet() == 0 && shared != null) {
+                shared.close();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.pdfgenerator.render;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Heap budget shared by all running renders.
+ *
+ * A render reserves its {@link RenderCost#getMemoryBytes() predicted peak heap} before it starts
+ * and waits while the reservation would exceed the budget. Waiters are admitted in arrival order,
+ * so a large render is not starved by a stream of small ones; a render predicted above the whole
+ * budget reserves all of it and runs alone. Reserved bytes are reported as
+ * {@code pdf.render.memory.reserved}.
+ */
+@Component
+public class MemoryBudget {
+
+    private final long capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final ArrayDeque<Object> waiters = new ArrayDeque<>();
+    private long reserved;
+
+    public MemoryBudget() {
+        this(DataSize.ofMegabytes(512), new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public MemoryBudget(@Value("${app.pdf.generation.memory-budget:512MB}") DataSize capacity,
+                        MeterRegistry meterRegistry) {
+        if (capacity.toBytes() < 1) {
+            throw new IllegalStateException("app.pdf.generation.memory-budget must be above 0");
+        }
+        this.capacity = capacity.toBytes();
+        Gauge.builder("pdf.render.memory.reserved", this, MemoryBudget::getReserved)
+            .description("Predicted heap reserved by running renders")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserve heap for a render, waiting until it fits in the budget or the render's deadline passes
+     *
+     * @return reservation to close when the render is done
+     * @throws com.pdfgenerator.exception.PDFGenerationException with RENDER_CANCELLED if the
+     *         deadline passes while waiting
+     */
+    public Reservation reserve(long bytes, RenderCancellation cancellation) throws InterruptedException {
+        long amount = Math.min(Math.max(bytes, 0), capacity);
+        Object ticket = new Object();
+        lock.lock();
+        try {
+            waiters.add(ticket);
+            try {
+                while (waiters.peek() != ticket || reserved + amount > capacity) {
+                    cancellation.check();
+                    long remaining = cancellation.remainingNanos();
+                    if (remaining == Long.MAX_VALUE) {
+                        changed.await();
+                    } else {
+                        changed.awaitNanos(remaining);
+                    }
+                }
+                reserved += amount;
+            } finally {
+                // The next waiter may fit now, or is at the head after a cancelled one
+                waiters.remove(ticket);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new Reservation(amount);
+    }
+
+    /**
+     * Bytes reserved by running renders
+     */
+    public long getReserved() {
+        lock.lock();
+        try {
+            return reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private void release(long amount) {
+        lock.lock();
+        try {
+            reserved -= amount;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Heap reserved by one render
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private final long amount;
+        private boolean released;
+
+        private Reservation(long amount) {
+            this.amount = amount;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(amount);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.pdfgenerator.render;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Pool of reusable heap buffers in power-of-two size classes.
+ *
+ * Buffers larger than the largest class are allocated on demand and never pooled;
+ * each class retains a bounded number of idle buffers.
+ */
+public final class OutputBufferPool {
+
+    static final int MIN_BUFFER_SIZE = 16 * 1024;
+
+    private final int maxBufferSize;
+    private final Queue<byte[]>[] classes;
+
+    /**
+     * @param maxBufferSize largest pooled buffer, rounded up to a power of two
+     * @param buffersPerClass idle buffers kept per size class
+     */
+    @SuppressWarnings("unchecked")
+    public OutputBufferPool(int maxBufferSize, int buffersPerClass) {
+        this.maxBufferSize = roundUp(Math.max(maxBufferSize, MIN_BUFFER_SIZE));
+        int classCount = Integer.numberOfTrailingZeros(this.maxBufferSize) - Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE) + 1;
+        this.classes = new Queue[classCount];
+        for (int i = 0; i < classCount; i++) {
+            classes[i] = new ArrayBlockingQueue<>(Math.max(buffersPerClass, 1));
+        }
+    }
+
+    /**
+     * Buffer with at least the given capacity
+     */
+    public byte[] acquire(int minCapacity) {
+        int capacity = roundUp(Math.max(minCapacity, MIN_BUFFER_SIZE));
+        if (capacity > maxBufferSize || capacity <= 0) {
+            return new byte[minCapacity];
+        }
+
+        byte[] buffer = classes[classIndex(capacity)].poll();
+        return buffer != null ? buffer : new byte[capacity];
+    }
+
+    /**
+     * Return a buffer for reuse; buffers of other sizes or beyond the pool limit are dropped
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int length = buffer.length;
+        if (length < MIN_BUFFER_SIZE || length > maxBufferSize || Integer.bitCount(length) != 1) {
+            return;
+        }
+        classes[classIndex(length)].offer(buffer);
+    }
+
+    /**
+     * Idle buffers currently pooled
+     */
+    public int idleCount() {
+        int idle = 0;
+        for (Queue<byte[]> queue : classes) {
+            idle += queue.size();
+        }
+        return idle;
+    }
+
+    private static int classIndex(int capacity) {
+        return Integer.numberOfTrailingZeros(capacity) - Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    }
+
+    private static int roundUp(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.pdfgenerator.render;
+
+import com.itextpdf.kernel.pdf.CompressionConstants;
+import com.itextpdf.kernel.pdf.PdfVersion;
+import com.itextpdf.kernel.pdf.WriterProperties;
+
+import java.util.Locale;
+
+/**
+ * PDF writer settings trading output size against CPU time.
+ *
+ * <ul>
+ *   <li>FAST - deflate level 1, classic xref table; lowest latency for interactive calls</li>
+ *   <li>BALANCED - default deflate level with object and xref streams (full compression)</li>
+ *   <li>ARCHIVAL_SMALL - deflate level 9, full compression and resource de-duplication;
+ *       smallest files for storage-bound batch runs</li>
+ * </ul>
+ * Templates choose a default with {@code layout.outputProfile}; requests may override it.
+ */
+public enum OutputProfile {
+    FAST(CompressionConstants.BEST_SPEED, false, false, PdfVersion.PDF_1_4),
+    BALANCED(CompressionConstants.DEFAULT_COMPRESSION, true, false, PdfVersion.PDF_1_7),
+    ARCHIVAL_SMALL(CompressionConstants.BEST_COMPRESSION, true, true, PdfVersion.PDF_1_7);
+
+    public static final OutputProfile DEFAULT = BALANCED;
+
+    private final int compressionLevel;
+    private final boolean fullCompression;
+    private final boolean smartMode;
+    private final PdfVersion pdfVersion;
+
+    OutputProfile(int compressionLevel, boolean fullCompression, boolean smartMode, PdfVersion pdfVersion) {
+        this.compressionLevel = compressionLevel;
+        this.fullCompression = fullCompression;
+        this.smartMode = smartMode;
+        this.pdfVersion = pdfVersion;
+    }
+
+    /**
+     * New writer properties for this profile (WriterProperties is mutable, so never shared)
+     */
+    public WriterProperties toWriterProperties() {
+        WriterProperties properties = new WriterProperties()
+            .setCompressionLevel(compressionLevel)
+            .setFullCompressionMode(fullCompression)
+            .setPdfVersion(pdfVersion);
+        if (smartMode) {
+            properties.useSmartMode();
+        }
+        return properties;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public boolean isFullCompression() {
+        return fullCompression;
+    }
+
+    /**
+     * Parse a profile name such as "fast", "balanced" or "archival-small"
+     * @return profile, or null for a null or blank value
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static OutputProfile fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String name = value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+        for (OutputProfile profile : values()) {
+            if (profile.name().equals(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown output profile: " + value + ". Supported: fast, balanced, archival-small");
+    }
+}
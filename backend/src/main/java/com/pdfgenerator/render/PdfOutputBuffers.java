@@ -0,0 +1,85 @@
+package com.pdfgenerator.render;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Output buffers for PDF rendering.
+ *
+ * Keeps a running size estimate per template (exponentially weighted moving average)
+ * so each document starts with a buffer close to its final size, and hands out sinks
+ * that spill to disk above the memory threshold. Keep the threshold below half the G1
+ * region size so in-memory buffers are never humongous allocations.
+ */
+@Component
+public class PdfOutputBuffers {
+
+    static final int DEFAULT_MEMORY_THRESHOLD = 512 * 1024;
+    static final int DEFAULT_INITIAL_CAPACITY = 32 * 1024;
+
+    // Weight of the newest sample in the running estimate
+    private static final double ESTIMATE_WEIGHT = 0.2;
+    // Head room over the estimate so most documents never grow their buffer
+    private static final double ESTIMATE_HEADROOM = 1.25;
+
+    private final int memoryThreshold;
+    private final Path spillDirectory;
+    private final OutputBufferPool pool;
+    private final Map<String, Double> sizeEstimates = new ConcurrentHashMap<>();
+
+    public PdfOutputBuffers() {
+        this(DEFAULT_MEMORY_THRESHOLD, 16, System.getProperty("java.io.tmpdir"));
+    }
+
+    @Autowired
+    public PdfOutputBuffers(@Value("${app.pdf.output.memory-threshold:524288}") int memoryThreshold,
+                            @Value("${app.pdf.output.pooled-buffers-per-size:16}") int buffersPerSize,
+                            @Value("${app.pdf.output.spill-directory:${java.io.tmpdir}}") String spillDirectory) {
+        this.memoryThreshold = memoryThreshold;
+        this.spillDirectory = Paths.get(spillDirectory);
+        this.pool = new OutputBufferPool(memoryThreshold, buffersPerSize);
+    }
+
+    /**
+     * Open a sink pre-sized for the template's expected output
+     */
+    public PdfOutputSink open(String templateId) {
+        return new PdfOutputSink(pool, estimateSize(templateId), memoryThreshold, spillDirectory);
+    }
+
+    /**
+     * Record the final size of a document to refine the template's estimate
+     */
+    public void recordSize(String templateId, long size) {
+        sizeEstimates.merge(templateId, (double) size,
+            (previous, sample) -> previous + ESTIMATE_WEIGHT * (sample - previous));
+    }
+
+    /**
+     * Initial buffer capacity for a template
+     */
+    public int estimateSize(String templateId) {
+        Double estimate = sizeEstimates.get(templateId);
+        if (estimate == null) {
+            return DEFAULT_INITIAL_CAPACITY;
+        }
+        return (int) Math.min(estimate * ESTIMATE_HEADROOM, memoryThreshold);
+    }
+
+    public int getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /**
+     * Idle pooled buffers, for monitoring and tests
+     */
+    public int getIdleBufferCount() {
+        return pool.idleCount();
+    }
+}
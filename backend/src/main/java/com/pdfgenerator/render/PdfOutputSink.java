@@ -0,0 +1,150 @@
+package com.pdfgenerator.render;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Output stream for one PDF: a pooled heap buffer that spills to a temp file.
+ *
+ * Writes go to a buffer pre-sized from the template's size estimate. When the document
+ * would outgrow the memory threshold, the buffered bytes are moved to a temp file and
+ * writing continues there, so large documents never need one large contiguous array.
+ * Closing the stream (as PdfWriter does) only flushes; {@link #finish()} hands over the result.
+ */
+public final class PdfOutputSink extends OutputStream {
+
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    private final OutputBufferPool pool;
+    private final int memoryThreshold;
+    private final Path spillDirectory;
+
+    private byte[] buffer;
+    // Usable part of the buffer; pooled buffers may be larger than the threshold
+    private int capacity;
+    private int count;
+    private Path file;
+    private OutputStream fileOut;
+    private long size;
+    private boolean done;
+
+    PdfOutputSink(OutputBufferPool pool, int initialCapacity, int memoryThreshold, Path spillDirectory) {
+        this.pool = pool;
+        this.memoryThreshold = memoryThreshold;
+        this.spillDirectory = spillDirectory;
+        this.buffer = pool.acquire(Math.min(initialCapacity, memoryThreshold));
+        this.capacity = Math.min(buffer.length, memoryThreshold);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (fileOut == null && count == capacity) {
+            ensureCapacity(1);
+        }
+        if (fileOut != null) {
+            fileOut.write(b);
+        } else {
+            buffer[count++] = (byte) b;
+        }
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (fileOut == null && length > capacity - count) {
+            ensureCapacity(length);
+        }
+        if (fileOut != null) {
+            fileOut.write(bytes, offset, length);
+        } else {
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+        size += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileOut != null) {
+            fileOut.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileOut != null) {
+            fileOut.close();
+        }
+    }
+
+    /**
+     * Bytes written so far
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Hand over the finished document; the sink must not be used afterwards
+     */
+    public RenderedPdf finish() throws IOException {
+        close();
+        done = true;
+        if (file != null) {
+            return RenderedPdf.spilled(file, size);
+        }
+        return RenderedPdf.inMemory(buffer, count, pool::release);
+    }
+
+    /**
+     * Release the buffer or temp file of a failed render
+     */
+    public void discard() {
+        if (done) {
+            return;
+        }
+        done = true;
+        if (file == null) {
+            pool.release(buffer);
+            return;
+        }
+        try {
+            if (fileOut != null) {
+                fileOut.close();
+            }
+        } catch (IOException e) {
+            // Nothing to recover, the file is deleted below
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Temp directory cleanup will remove it
+        }
+    }
+
+    private void ensureCapacity(int additional) throws IOException {
+        long required = (long) count + additional;
+        if (required > memoryThreshold) {
+            spill();
+            return;
+        }
+
+        byte[] larger = pool.acquire((int) Math.min(Math.max(required, (long) buffer.length * 2), memoryThreshold));
+        System.arraycopy(buffer, 0, larger, 0, count);
+        pool.release(buffer);
+        buffer = larger;
+        capacity = Math.min(buffer.length, memoryThreshold);
+    }
+
+    private void spill() throws IOException {
+        file = Files.createTempFile(spillDirectory, "pdf-", ".pdf");
+        fileOut = new BufferedOutputStream(Files.newOutputStream(file), FILE_BUFFER_SIZE);
+        fileOut.write(buffer, 0, count);
+        pool.release(buffer);
+        buffer = null;
+        count = 0;
+    }
+}
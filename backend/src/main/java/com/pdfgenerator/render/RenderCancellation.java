@@ -0,0 +1,123 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Deadline and cancellation flag of one render.
+ *
+ * Render loops call {@link #check()} between elements, table rows and records; it reads a
+ * volatile field and the clock, so it is cheap enough for every row. Once the deadline passes or
+ * {@link #cancel(Reason)} is called, the next check throws a {@link ErrorCode#RENDER_CANCELLED}
+ * exception and the render unwinds, releasing its output buffer.
+ */
+public final class RenderCancellation {
+
+    /**
+     * Why a render stopped
+     */
+    public enum Reason {
+        DEADLINE_EXCEEDED,
+        ABANDONED,
+        // A render job's lease expired and the job went back to the queue
+        LEASE_LOST;
+
+        /**
+         * Lowercase name used in error context and generation logs
+         */
+        public String getValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Duration timeout;
+    private final long deadline;
+    private volatile Reason reason;
+
+    private RenderCancellation(Duration timeout) {
+        this.timeout = timeout;
+        this.deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : 0;
+    }
+
+    /**
+     * Token that expires after the timeout; a null, zero or negative timeout means no deadline
+     */
+    public static RenderCancellation withTimeout(Duration timeout) {
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+            return none();
+        }
+        return new RenderCancellation(timeout);
+    }
+
+    /**
+     * Token without a deadline, cancelled only explicitly
+     */
+    public static RenderCancellation none() {
+        return new RenderCancellation(null);
+    }
+
+    /**
+     * Ask the render to stop at its next check; the first reason wins
+     */
+    public void cancel(Reason reason) {
+        if (this.reason == null) {
+            this.reason = reason;
+        }
+    }
+
+    public boolean isCancelled() {
+        return getReason() != null;
+    }
+
+    /**
+     * Reason the render was cancelled, or null if it may go on
+     */
+    public Reason getReason() {
+        Reason cancelled = reason;
+        if (cancelled == null && timeout != null && System.nanoTime() - deadline >= 0) {
+            return Reason.DEADLINE_EXCEEDED;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Nanoseconds until the deadline, or Long.MAX_VALUE without one
+     */
+    public long remainingNanos() {
+        return timeout != null ? deadline - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Throw if the render should stop
+     *
+     * @throws PDFGenerationException with {@link ErrorCode#RENDER_CANCELLED} once cancelled
+     */
+    public void check() {
+        Reason cancelled = getReason();
+        if (cancelled != null) {
+            throw cancelled(cancelled);
+        }
+    }
+
+    /**
+     * Exception reporting that this render stopped for the given reason
+     */
+    public PDFGenerationException cancelled(Reason cancelled) {
+        String message = cancelled == Reason.DEADLINE_EXCEEDED
+            ? "PDF generation exceeded its timeout of " + timeout.toMillis() + " ms"
+            : "PDF generation was cancelled: " + cancelled.getValue();
+        return new PDFGenerationException(ErrorCode.RENDER_CANCELLED, message, Map.of("reason", cancelled.getValue()));
+    }
+
+    /**
+     * Whether an exception reports a cancelled render
+     */
+    public static boolean isCancellation(Throwable e) {
+        return e instanceof PDFGenerationException
+            && ((PDFGenerationException) e).getErrorCode() == ErrorCode.RENDER_CANCELLED;
+    }
+}
\ No newline at end of file
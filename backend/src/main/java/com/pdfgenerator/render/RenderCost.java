@@ -0,0 +1,56 @@
+package com.pdfgenerator.render;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Predicted cost of one render.
+ *
+ * Units count the layout work of the document: one per text or image element, one per table
+ * cell including the header row. CPU time and peak heap are derived from them by
+ * {@link RenderCostModel}.
+ */
+public final class RenderCost {
+
+    private final long units;
+    private final long cpuNanos;
+    private final long memoryBytes;
+    private final boolean aboveSyncLimit;
+
+    public RenderCost(long units, long cpuNanos, long memoryBytes, boolean aboveSyncLimit) {
+        this.units = units;
+        this.cpuNanos = cpuNanos;
+        this.memoryBytes = memoryBytes;
+        this.aboveSyncLimit = aboveSyncLimit;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getCpuMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(cpuNanos);
+    }
+
+    /**
+     * Predicted peak heap of the render, output buffer included
+     */
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Whether the render is too expensive for a synchronous request and should run as a job
+     */
+    public boolean isAboveSyncLimit() {
+        return aboveSyncLimit;
+    }
+
+    @Override
+    public String toString() {
+        return units + " units, ~" + getCpuMillis() + " ms, ~" + (memoryBytes >> 10) + " KB";
+    }
+}
\ No newline at end of file
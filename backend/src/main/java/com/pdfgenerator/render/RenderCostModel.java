@@ -0,0 +1,178 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.template.CompiledElement;
+import com.pdfgenerator.template.CompiledTemplate;
+import com.pdfgenerator.template.RenderScope;
+import com.pdfgenerator.template.TemplateCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Predicts the CPU time and peak heap of a render before it runs.
+ *
+ * The document is measured in units from the compiled template and the request data: elements,
+ * table cells and text lines with {@code each} lists sized from the data, and images at a fixed
+ * weight. CPU time
+ * per unit is calibrated from the thread CPU time of finished renders, per template and over all
+ * templates for templates not rendered yet, with the same moving average as output sizes in
+ * {@link PdfOutputBuffers}. Heap is a fixed amount per unit, as iText keeps a table's cells in
+ * memory until the table is laid out, plus the template's expected output buffer.
+ */
+@Component
+public class RenderCostModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderCostModel.class);
+
+    // Weight of the newest sample in the running estimates
+    private static final double ESTIMATE_WEIGHT = 0.2;
+    // Units of a document rendered from its category instead of a schema, besides its data rows
+    private static final long CATEGORY_DOCUMENT_UNITS = 10;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final TemplateCompiler templateCompiler;
+    private final PdfOutputBuffers pdfOutputBuffers;
+    private final long fixedCpuNanos;
+    private final long fixedMemoryBytes;
+    private final long memoryPerUnit;
+    private final long imageUnits;
+    private final long syncCpuLimitNanos;
+    private final long syncMemoryLimitBytes;
+    private final Map<String, Double> nanosPerUnit = new ConcurrentHashMap<>();
+    private volatile double defaultNanosPerUnit;
+
+    public RenderCostModel(TemplateCompiler templateCompiler, PdfOutputBuffers pdfOutputBuffers) {
+        this(templateCompiler, pdfOutputBuffers, Duration.ofMillis(5), Duration.ofNanos(50_000),
+            DataSize.ofMegabytes(1), DataSize.ofKilobytes(6), 50, Duration.ofSeconds(15), DataSize.ofMegabytes(128));
+    }
+
+    @Autowired
+    public RenderCostModel(TemplateCompiler templateCompiler,
+                           PdfOutputBuffers pdfOutputBuffers,
+                           @Value("${app.pdf.cost.fixed-cpu:5ms}") Duration fixedCpu,
+                           @Value("${app.pdf.cost.cpu-per-unit:50us}") Duration cpuPerUnit,
+                           @Value("${app.pdf.cost.fixed-memory:1MB}") DataSize fixedMemory,
+                           @Value("${app.pdf.cost.memory-per-unit:6KB}") DataSize memoryPerUnit,
+                           @Value("${app.pdf.cost.image-units:50}") long imageUnits,
+                           @Value("${app.pdf.cost.sync-limit.cpu:15s}") Duration syncCpuLimit,
+                           @Value("${app.pdf.cost.sync-limit.memory:128MB}") DataSize syncMemoryLimit) {
+        this.templateCompiler = templateCompiler;
+        this.pdfOutputBuffers = pdfOutputBuffers;
+        this.fixedCpuNanos = fixedCpu.toNanos();
+        this.defaultNanosPerUnit = cpuPerUnit.toNanos();
+        this.fixedMemoryBytes = fixedMemory.toBytes();
+        this.memoryPerUnit = memoryPerUnit.toBytes();
+        this.imageUnits = imageUnits;
+        this.syncCpuLimitNanos = syncCpuLimit.toNanos();
+        this.syncMemoryLimitBytes = syncMemoryLimit.toBytes();
+    }
+
+    /**
+     * Predict the cost of rendering a template with the given data
+     */
+    public RenderCost estimate(Template template, Map<String, Object> data) {
+        return cost(template.getId(), units(template, data != null ? data : Map.of()));
+    }
+
+    /**
+     * Predict the cost of rendering a compiled template with request data already bound to it
+     */
+    public RenderCost estimate(Template template, CompiledTemplate compiled, RenderScope scope) {
+        return cost(template.getId(), units(compiled.getElements(), scope));
+    }
+
+    /**
+     * Calibrate the CPU time per unit from a finished render
+     *
+     * @param cpuNanos CPU time of the render thread, from {@link #threadCpuTime()}
+     */
+    public void record(String templateId, RenderCost estimate, long cpuNanos) {
+        double sample = Math.max(cpuNanos - fixedCpuNanos, 0) / (double) Math.max(estimate.getUnits(), 1);
+        nanosPerUnit.merge(templateId, sample, (previous, next) -> previous + ESTIMATE_WEIGHT * (next - previous));
+        // Concurrent updates may drop a sample, which only slows the default estimate down
+        defaultNanosPerUnit += ESTIMATE_WEIGHT * (sample - defaultNanosPerUnit);
+    }
+
+    /**
+     * CPU time of the current thread, or wall time where the JVM does not measure it
+     */
+    public static long threadCpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private RenderCost cost(String templateId, long units) {
+        double perUnit = nanosPerUnit.getOrDefault(templateId, defaultNanosPerUnit);
+        long cpuNanos = fixedCpuNanos + (long) (units * perUnit);
+        long memoryBytes = fixedMemoryBytes + units * memoryPerUnit + pdfOutputBuffers.estimateSize(templateId);
+        return new RenderCost(units, cpuNanos, memoryBytes,
+            cpuNanos > syncCpuLimitNanos || memoryBytes > syncMemoryLimitBytes);
+    }
+
+    private long units(Template template, Map<String, Object> data) {
+        if (template.getSchema() == null || template.getSchema().isEmpty()) {
+            // Category documents: two cells per value, four per transaction
+            return CATEGORY_DOCUMENT_UNITS + 2L * data.size() + 4L * size(data.get("transactions"));
+        }
+        if (!(template.getSchema().get("elements") instanceof List)) {
+            // Legacy schemas without an element list are rendered as basic content, one row per value
+            return CATEGORY_DOCUMENT_UNITS + 2L * data.size();
+        }
+        try {
+            CompiledTemplate compiled = templateCompiler.compile(template);
+            return units(compiled.getElements(), compiled.bind(data));
+        } catch (IllegalArgumentException e) {
+            // The render fails on the same error before any content is laid out
+            logger.debug("Template {} does not compile: {}", template.getId(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private long units(List<CompiledElement> elements, RenderScope scope) {
+        long units = 0;
+        for (CompiledElement element : elements) {
+            if (!element.isVisible(scope)) {
+                continue;
+            }
+            switch (element.getType()) {
+                case "TABLE" -> {
+                    long rows = element.getEach() != null
+                        ? size(element.getEach().resolve(scope))
+                        : element.getRows().size();
+                    units += (rows + 1) * Math.max(element.getColumns().size(), 1);
+                }
+                case "IMAGE" -> units += imageUnits;
+                case "CONTAINER" -> units += 1 + units(element.getChildren(), scope);
+                // A line per item of the text's each sections
+                default -> units += 1 + (element.getText() != null ? element.getText().countItems(scope) : 0);
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Items of a list or array, 0 for other values
+     */
+    private static long size(Object items) {
+        if (items instanceof Collection) {
+            return ((Collection<?>) items).size();
+        }
+        if (items != null && items.getClass().isArray()) {
+            return Array.getLength(items);
+        }
+        return 0;
+    }
+}
\ No newline at end of file
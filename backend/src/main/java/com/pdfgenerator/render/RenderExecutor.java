@@ -0,0 +1,300 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of render threads fed from priority lanes.
+ *
+ * Each {@link RenderLane} has its own bounded queue. Free threads take the next render with
+ * smooth weighted round robin over the lanes that have work queued: every lane with work gains
+ * its weight in credit, the lane with the most credit is served and pays back the sum of the
+ * weights. With weights 8/4/1 a busy bulk lane gets one render in 13 and interactive renders
+ * eight, and a lane alone in the queue gets every thread. Time spent queued is recorded per lane
+ * as {@code pdf.render.queue.time}, queue length as {@code pdf.render.queue.size}.
+ *
+ * Callers wait until their render's deadline at most. A render whose caller gave up is dropped
+ * if it is still queued and cancelled at its next check if it is running.
+ */
+@Component
+@EnableConfigurationProperties(RenderLaneProperties.class)
+public class RenderExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderExecutor.class);
+
+    private final Map<RenderLane, LaneQueue> queues = new EnumMap<>(RenderLane.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final List<Thread> workers = new ArrayList<>();
+    private boolean shutdown;
+
+    public RenderExecutor() {
+        this(2, new RenderLaneProperties(), new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public RenderExecutor(@Value("${app.pdf.generation.max-concurrent:10}") int threads,
+                          RenderLaneProperties properties,
+                          MeterRegistry meterRegistry) {
+        RenderLaneProperties defaults = new RenderLaneProperties();
+        for (RenderLane lane : RenderLane.values()) {
+            RenderLaneProperties.Lane settings = properties.getLanes()
+                .getOrDefault(lane, defaults.getLanes().get(lane));
+            if (settings.getWeight() < 1 || settings.getQueueCapacity() < 1) {
+                throw new IllegalStateException("Render lane " + lane.getValue() + " needs a weight and queue capacity above 0");
+            }
+            queues.put(lane, new LaneQueue(lane, settings, meterRegistry));
+        }
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, "render-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Queue a render in a lane and wait for it
+     *
+     * @return rendered PDF; the caller must close it
+     * @throws PDFGenerationException if the lane's queue is full
+     */
+    public RenderedPdf render(RenderLane lane, Callable<RenderedPdf> renderer) throws Exception {
+        return render(lane, RenderCancellation.none(), renderer);
+    }
+
+    /**
+     * Queue a render in a lane and wait for it until the render's deadline
+     *
+     * @param cancellation token the renderer checks; cancelled if the caller stops waiting
+     * @return rendered PDF; the caller must close it
+     * @throws PDFGenerationException if the lane's queue is full, or with
+     *         {@link ErrorCode#RENDER_CANCELLED} if the deadline passes first
+     */
+    public RenderedPdf render(RenderLane lane, RenderCancellation cancellation, Callable<RenderedPdf> renderer)
+            throws Exception {
+        cancellation.check();
+        Task task = new Task(renderer, cancellation);
+        LaneQueue queue = queues.get(lane);
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new IllegalStateException("Render executor is shut down");
+            }
+            if (queue.tasks.size() >= queue.capacity) {
+                throw new PDFGenerationException(ErrorCode.RENDER_QUEUE_FULL,
+                    "Too many renders waiting in the " + lane.getValue() + " lane", Map.of("lane", lane.getValue()));
+            }
+            queue.tasks.add(task);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        return await(queue, task);
+    }
+
+    /**
+     * Renders waiting in a lane
+     */
+    public int queued(RenderLane lane) {
+        lock.lock();
+        try {
+            return queues.get(lane).tasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the render threads; queued renders are not run
+     */
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            for (LaneQueue queue : queues.values()) {
+                queue.tasks.forEach(task -> task.result.cancel(false));
+                queue.tasks.clear();
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private RenderedPdf await(LaneQueue queue, Task task) throws Exception {
+        RenderCancellation cancellation = task.cancellation;
+        try {
+            long remaining = cancellation.remainingNanos();
+            return remaining == Long.MAX_VALUE
+                ? task.result.get()
+                : task.result.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(queue, task, RenderCancellation.Reason.DEADLINE_EXCEEDED);
+            throw cancellation.cancelled(RenderCancellation.Reason.DEADLINE_EXCEEDED);
+        } catch (InterruptedException e) {
+            abandon(queue, task, RenderCancellation.Reason.ABANDONED);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (Exception) e.getCause();
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Render executor is shut down", e);
+        }
+    }
+
+    /**
+     * Drop a render whose caller stopped waiting: remove it if it has not started, stop it at its
+     * next check if it is running, close its document if it finishes anyway
+     */
+    private void abandon(LaneQueue queue, Task task, RenderCancellation.Reason reason) {
+        task.cancellation.cancel(reason);
+        lock.lock();
+        try {
+            queue.tasks.remove(task);
+        } finally {
+            lock.unlock();
+        }
+        if (!task.result.cancel(false)) {
+            RenderedPdf pdf = task.result.getNow(null);
+            if (pdf != null) {
+                pdf.close();
+            }
+        }
+    }
+
+    private void work() {
+        while (true) {
+            LaneQueue queue;
+            Task task;
+            lock.lock();
+            try {
+                while ((queue = next()) == null) {
+                    if (shutdown) {
+                        return;
+                    }
+                    available.awaitUninterruptibly();
+                }
+                task = queue.tasks.poll();
+            } finally {
+                lock.unlock();
+            }
+            run(queue, task);
+        }
+    }
+
+    /**
+     * Lane to serve next, by smooth weighted round robin over lanes with work; null if all are empty
+     */
+    private LaneQueue next() {
+        LaneQueue best = null;
+        int total = 0;
+        for (LaneQueue queue : queues.values()) {
+            if (queue.tasks.isEmpty()) {
+                // No credit is saved up while idle
+                queue.credit = 0;
+                continue;
+            }
+            queue.credit += queue.weight;
+            total += queue.weight;
+            if (best == null || queue.credit > best.credit) {
+                best = queue;
+            }
+        }
+        if (best != null) {
+            best.credit -= total;
+        }
+        return best;
+    }
+
+    private void run(LaneQueue queue, Task task) {
+        if (task.result.isDone()) {
+            // Caller gave up while it was queued
+            return;
+        }
+        queue.queueTime.record(System.nanoTime() - task.queuedAt, TimeUnit.NANOSECONDS);
+        try {
+            // Do not start a render whose deadline passed in the queue
+            task.cancellation.check();
+            RenderedPdf pdf = task.renderer.call();
+            if (!task.result.complete(pdf)) {
+                pdf.close();
+            }
+        } catch (Throwable e) {
+            if (!task.result.completeExceptionally(e)) {
+                logger.debug("Render for an abandoned request failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Queue and scheduling state of one lane; guarded by the executor lock
+     */
+    private static final class LaneQueue {
+
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private final int weight;
+        private final int capacity;
+        private final Timer queueTime;
+        private int credit;
+
+        LaneQueue(RenderLane lane, RenderLaneProperties.Lane settings, MeterRegistry meterRegistry) {
+            this.weight = settings.getWeight();
+            this.capacity = settings.getQueueCapacity();
+            this.queueTime = Timer.builder("pdf.render.queue.time")
+                .description("Time renders wait for a render thread")
+                .tag("lane", lane.getValue())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+            Gauge.builder("pdf.render.queue.size", tasks, ArrayDeque::size)
+                .description("Renders waiting for a render thread")
+                .tag("lane", lane.getValue())
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * One queued render
+     */
+    private static final class Task {
+
+        private final Callable<RenderedPdf> renderer;
+        private final RenderCancellation cancellation;
+        private final CompletableFuture<RenderedPdf> result = new CompletableFuture<>();
+        private final long queuedAt = System.nanoTime();
+
+        Task(Callable<RenderedPdf> renderer, RenderCancellation cancellation) {
+            this.renderer = renderer;
+            this.cancellation = cancellation;
+        }
+    }
+}
\ No newline at end of file
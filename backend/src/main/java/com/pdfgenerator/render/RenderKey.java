@@ -0,0 +1,72 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.util.CanonicalJson;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Identity of a render: template version, output profile and a SHA-256 of the data in
+ * canonical JSON form, with map entries sorted by key at every level.
+ *
+ * updatedAt is part of the key because coalesced template saves change the schema without a
+ * new version number.
+ */
+public final class RenderKey {
+
+    private final String templateId;
+    private final Integer version;
+    private final LocalDateTime updatedAt;
+    private final OutputProfile profile;
+    private final byte[] dataHash;
+    private final int hashCode;
+
+    private RenderKey(String templateId, Integer version, LocalDateTime updatedAt, OutputProfile profile, byte[] dataHash) {
+        this.templateId = templateId;
+        this.version = version;
+        this.updatedAt = updatedAt;
+        this.profile = profile;
+        this.dataHash = dataHash;
+        this.hashCode = Objects.hash(templateId, version, updatedAt, profile, Arrays.hashCode(dataHash));
+    }
+
+    /**
+     * Key of a render, or null if the data cannot be written as JSON
+     */
+    public static RenderKey of(String templateId, Integer version, LocalDateTime updatedAt, OutputProfile profile,
+                               Map<String, Object> data) {
+        try {
+            return new RenderKey(templateId, version, updatedAt, profile, CanonicalJson.sha256(data));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RenderKey)) {
+            return false;
+        }
+        RenderKey key = (RenderKey) other;
+        return templateId.equals(key.templateId)
+            && Objects.equals(version, key.version)
+            && Objects.equals(updatedAt, key.updatedAt)
+            && profile == key.profile
+            && Arrays.equals(dataHash, key.dataHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.pdfgenerator.render;
+
+import java.util.Locale;
+
+/**
+ * Priority lanes of the render executor.
+ *
+ * <ul>
+ *   <li>INTERACTIVE - previews and downloads someone is waiting on</li>
+ *   <li>STANDARD - API generation requests</li>
+ *   <li>BULK - batch runs and warm-up renders</li>
+ * </ul>
+ * Lanes share the render threads by weight, so bulk work slows interactive renders down by its
+ * share only, and is itself never starved.
+ */
+public enum RenderLane {
+    INTERACTIVE,
+    STANDARD,
+    BULK;
+
+    /**
+     * Parse a lane name such as "interactive", "standard" or "bulk"
+     * @return lane, or null for a null or blank value
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static RenderLane fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String name = value.trim().toUpperCase(Locale.ROOT);
+        for (RenderLane lane : values()) {
+            if (lane.name().equals(name)) {
+                return lane;
+            }
+        }
+        throw new IllegalArgumentException("Unknown render lane: " + value + ". Supported: interactive, standard, bulk");
+    }
+
+    /**
+     * Lowercase name used in configuration and metric tags
+     */
+    public String getValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.pdfgenerator.render;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Weight and queue size of each render lane, bound from {@code app.pdf.generation.lanes}
+ */
+@ConfigurationProperties(prefix = "app.pdf.generation")
+public class RenderLaneProperties {
+
+    private Map<RenderLane, Lane> lanes = new EnumMap<>(Map.of(
+        RenderLane.INTERACTIVE, new Lane(8, 100),
+        RenderLane.STANDARD, new Lane(4, 500),
+        RenderLane.BULK, new Lane(1, 2000)));
+
+    // Getters and Setters
+    public Map<RenderLane, Lane> getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(Map<RenderLane, Lane> lanes) {
+        this.lanes = lanes;
+    }
+
+    /**
+     * Settings of one lane
+     */
+    public static class Lane {
+
+        private int weight;
+        private int queueCapacity;
+
+        // Constructors
+        public Lane() {
+        }
+
+        public Lane(int weight, int queueCapacity) {
+            this.weight = weight;
+            this.queueCapacity = queueCapacity;
+        }
+
+        // Getters and Setters
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * Share of render threads while other lanes have work queued
+         */
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Renders that may wait in this lane; more are rejected
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.pdfgenerator.render;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Finished PDF held either in a pooled heap buffer or in a spilled temp file.
+ *
+ * Callers must close it to return the buffer to the pool or delete the temp file.
+ * {@link #transferTo(WritableByteChannel)} sends spilled files with
+ * {@link FileChannel#transferTo}, which the OS turns into a zero-copy send when the
+ * target is a file or socket channel.
+ *
+ * {@link #retain()} hands out further handles on the same document, e.g. to requests that
+ * waited for the same render; each handle is closed on its own and the buffer or file is
+ * released with the last one.
+ */
+public final class RenderedPdf implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderedPdf.class);
+
+    private final Content content;
+    private final byte[] buffer;
+    private final Path file;
+    private final long size;
+    private boolean closed;
+
+    private RenderedPdf(Content content) {
+        this.content = content;
+        this.buffer = content.buffer;
+        this.file = content.file;
+        this.size = content.size;
+    }
+
+    /**
+     * PDF in a heap buffer; the release callback gets the buffer back on close
+     */
+    public static RenderedPdf inMemory(byte[] buffer, int length, Consumer<byte[]> release) {
+        return new RenderedPdf(new Content(buffer, release, null, length));
+    }
+
+    /**
+     * PDF in an unpooled byte array
+     */
+    public static RenderedPdf of(byte[] bytes) {
+        return inMemory(bytes, bytes.length, buffer -> { });
+    }
+
+    /**
+     * PDF in a temp file that is deleted on close
+     */
+    public static RenderedPdf spilled(Path file, long size) {
+        return new RenderedPdf(new Content(null, null, file, size));
+    }
+
+    /**
+     * Another handle on this document, to be closed separately
+     */
+    public RenderedPdf retain() {
+        ensureOpen();
+        content.references.incrementAndGet();
+        return new RenderedPdf(content);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Whether the document stayed below the spill threshold
+     */
+    public boolean isInMemory() {
+        return file == null;
+    }
+
+    /**
+     * Copy of the document bytes (avoid for spilled documents)
+     */
+    public byte[] toByteArray() {
+        ensureOpen();
+        if (file == null) {
+            return Arrays.copyOf(buffer, (int) size);
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled PDF", e);
+        }
+    }
+
+    /**
+     * Stream over the document bytes
+     */
+    public InputStream openStream() throws IOException {
+        ensureOpen();
+        return file == null ? new ByteArrayInputStream(buffer, 0, (int) size) : Files.newInputStream(file);
+    }
+
+    /**
+     * Write the whole document to a channel
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        ensureOpen();
+        if (file == null) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, (int) size);
+            while (bytes.hasRemaining()) {
+                target.write(bytes);
+            }
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (content.references.decrementAndGet() == 0) {
+            content.release();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Rendered PDF is already closed");
+        }
+    }
+
+    /**
+     * Buffer or temp file shared by all handles on one document
+     */
+    private static final class Content {
+
+        private final byte[] buffer;
+        private final Consumer<byte[]> release;
+        private final Path file;
+        private final long size;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private Content(byte[] buffer, Consumer<byte[]> release, Path file, long size) {
+            this.buffer = buffer;
+            this.release = release;
+            this.file = file;
+            this.size = size;
+        }
+
+        private void release() {
+            if (file == null) {
+                release.accept(buffer);
+                return;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Failed to delete spilled PDF {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.pdfgenerator.repository;
+
+import com.pdfgenerator.entity.GenerationStatsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GenerationStatsSnapshotRepository extends JpaRepository<GenerationStatsSnapshot, String> {
+
+    /**
+     * Find snapshots of a template starting within the given range, oldest first
+     */
+    List<GenerationStatsSnapshot> findByTemplateIdAndPeriodStartBetweenOrderByPeriodStartAsc(
+            String templateId, LocalDateTime from, LocalDateTime until);
+
+    /**
+     * Find snapshots over all templates starting within the given range, oldest first
+     */
+    List<GenerationStatsSnapshot> findByTemplateIdIsNullAndPeriodStartBetweenOrderByPeriodStartAsc(
+            LocalDateTime from, LocalDateTime until);
+
+    /**
+     * Delete snapshots of periods that ended before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM GenerationStatsSnapshot s WHERE s.periodEnd < :before")
+    int deleteByPeriodEndBefore(@Param("before") LocalDateTime before);
+}
\ No newline at end of file
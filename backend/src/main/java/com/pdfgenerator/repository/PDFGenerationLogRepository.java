@@ -4,6 +4,7 @@ import com.pdfgenerator.entity.PDFGenerationLog;
 import com.pdfgenerator.enums.PDFGenerationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,33 +13,40 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * pdf_generation_logs is range-partitioned by day on created_at. Every query here either bounds
+ * created_at, so only the partitions in range are read, or returns slices in created_at order,
+ * which reads the newest partitions first and stops at the page size. Unbounded counts and
+ * aggregates would read every partition and are deliberately not offered; latency percentiles and
+ * success rates come from the in-memory GenerationStats instead.
+ */
 @Repository
-public interface PDFGenerationLogRepository extends JpaRepository<PDFGenerationLog, String> {
+public interface PDFGenerationLogRepository extends JpaRepository<PDFGenerationLog, String>, PDFGenerationLogRepositoryCustom {
 
     /**
-     * Find logs by template ID
+     * Find logs by template ID created since the given time
      */
-    List<PDFGenerationLog> findByTemplateIdOrderByCreatedAtDesc(String templateId);
+    List<PDFGenerationLog> findByTemplateIdAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(String templateId, LocalDateTime since);
 
     /**
-     * Find logs by template ID with pagination
+     * Find logs by template ID, newest first, one slice at a time
      */
-    Page<PDFGenerationLog> findByTemplateIdOrderByCreatedAtDesc(String templateId, Pageable pageable);
+    Slice<PDFGenerationLog> findByTemplateIdOrderByCreatedAtDesc(String templateId, Pageable pageable);
 
     /**
-     * Find logs by status
+     * Find logs by status created since the given time
      */
-    List<PDFGenerationLog> findByStatusOrderByCreatedAtDesc(PDFGenerationStatus status);
+    List<PDFGenerationLog> findByStatusAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(PDFGenerationStatus status, LocalDateTime since);
 
     /**
-     * Find logs by status with pagination
+     * Find logs by status, newest first, one slice at a time
      */
-    Page<PDFGenerationLog> findByStatusOrderByCreatedAtDesc(PDFGenerationStatus status, Pageable pageable);
+    Slice<PDFGenerationLog> findByStatusOrderByCreatedAtDesc(PDFGenerationStatus status, Pageable pageable);
 
     /**
-     * Find logs created by specific user
+     * Find logs created by specific user since the given time
      */
-    List<PDFGenerationLog> findByCreatedByOrderByCreatedAtDesc(String createdBy);
+    List<PDFGenerationLog> findByCreatedByAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(String createdBy, LocalDateTime since);
 
     /**
      * Find logs within date range
@@ -60,19 +68,19 @@ public interface PDFGenerationLogRepository extends JpaRepository<PDFGenerationL
     );
 
     /**
-     * Count logs by status
+     * Count logs by status since the given time
      */
-    long countByStatus(PDFGenerationStatus status);
+    long countByStatusAndCreatedAtGreaterThanEqual(PDFGenerationStatus status, LocalDateTime since);
 
     /**
-     * Count logs by template ID
+     * Count logs by template ID since the given time
      */
-    long countByTemplateId(String templateId);
+    long countByTemplateIdAndCreatedAtGreaterThanEqual(String templateId, LocalDateTime since);
 
     /**
-     * Count logs by template ID and status
+     * Count logs by template ID and status since the given time
      */
-    long countByTemplateIdAndStatus(String templateId, PDFGenerationStatus status);
+    long countByTemplateIdAndStatusAndCreatedAtGreaterThanEqual(String templateId, PDFGenerationStatus status, LocalDateTime since);
 
     /**
      * Find failed logs for retry
@@ -81,49 +89,8 @@ public interface PDFGenerationLogRepository extends JpaRepository<PDFGenerationL
     List<PDFGenerationLog> findFailedLogsSince(@Param("since") LocalDateTime since);
 
     /**
-     * Calculate average processing time
+     * Find logs since the given time with processing time above threshold
      */
-    @Query("SELECT AVG(log.processingTimeMs) FROM PDFGenerationLog log WHERE log.status = 'COMPLETED' AND log.processingTimeMs IS NOT NULL")
-    Double calculateAverageProcessingTime();
-
-    /**
-     * Calculate average processing time by template
-     */
-    @Query("SELECT AVG(log.processingTimeMs) FROM PDFGenerationLog log WHERE log.templateId = :templateId AND log.status = 'COMPLETED' AND log.processingTimeMs IS NOT NULL")
-    Double calculateAverageProcessingTimeByTemplate(@Param("templateId") String templateId);
-
-    /**
-     * Find logs with processing time above threshold
-     */
-    @Query("SELECT log FROM PDFGenerationLog log WHERE log.processingTimeMs > :thresholdMs ORDER BY log.processingTimeMs DESC")
-    List<PDFGenerationLog> findSlowProcessingLogs(@Param("thresholdMs") Integer thresholdMs);
-
-    /**
-     * Get success rate statistics
-     */
-    @Query("SELECT " +
-           "COUNT(CASE WHEN log.status = 'COMPLETED' THEN 1 END) as completed, " +
-           "COUNT(CASE WHEN log.status = 'FAILED' THEN 1 END) as failed, " +
-           "COUNT(*) as total " +
-           "FROM PDFGenerationLog log WHERE log.createdAt >= :since")
-    Object[] getSuccessRateStatistics(@Param("since") LocalDateTime since);
-
-    /**
-     * Search logs by multiple criteria
-     */
-    @Query("SELECT log FROM PDFGenerationLog log WHERE " +
-           "(:templateId IS NULL OR log.templateId = :templateId) AND " +
-           "(:status IS NULL OR log.status = :status) AND " +
-           "(:createdBy IS NULL OR log.createdBy = :createdBy) AND " +
-           "(:startDate IS NULL OR log.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR log.createdAt <= :endDate) " +
-           "ORDER BY log.createdAt DESC")
-    Page<PDFGenerationLog> searchLogs(
-            @Param("templateId") String templateId,
-            @Param("status") PDFGenerationStatus status,
-            @Param("createdBy") String createdBy,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable
-    );
+    @Query("SELECT log FROM PDFGenerationLog log WHERE log.processingTimeMs > :thresholdMs AND log.createdAt >= :since ORDER BY log.processingTimeMs DESC")
+    List<PDFGenerationLog> findSlowProcessingLogs(@Param("thresholdMs") Integer thresholdMs, @Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.pdfgenerator.repository;
+
+import com.pdfgenerator.dto.GenerationLogSummary;
+import com.pdfgenerator.entity.PDFGenerationLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Log queries that need a Criteria projection, implemented in PDFGenerationLogRepositoryImpl
+ */
+public interface PDFGenerationLogRepositoryCustom {
+
+    /**
+     * Find log summaries matching the specification, newest first in (created_at, id) order
+     * @param limit maximum number of rows
+     */
+    List<GenerationLogSummary> findSummaries(Specification<PDFGenerationLog> specification, int limit);
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.pdfgenerator.repository;
+
+import com.pdfgenerator.dto.GenerationLogSummary;
+import com.pdfgenerator.entity.PDFGenerationLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Criteria implementation of PDFGenerationLogRepositoryCustom.
+ *
+ * Selects summary columns with a constructor projection; JpaSpecificationExecutor would
+ * load whole entities including the request_data document.
+ */
+public class PDFGenerationLogRepositoryImpl implements PDFGenerationLogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GenerationLogSummary> findSummaries(Specification<PDFGenerationLog> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GenerationLogSummary> query = cb.createQuery(GenerationLogSummary.class);
+        Root<PDFGenerationLog> log = query.from(PDFGenerationLog.class);
+
+        query.select(cb.construct(GenerationLogSummary.class,
+            log.get("id"), log.get("templateId"), log.get("status"), log.get("processingTimeMs"),
+            log.get("errorMessage"), log.get("filePath"), log.get("createdAt"), log.get("createdBy")));
+
+        Predicate predicate = specification != null ? specification.toPredicate(log, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(log.get("createdAt")), cb.desc(log.get("id")));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
\ No newline at end of file
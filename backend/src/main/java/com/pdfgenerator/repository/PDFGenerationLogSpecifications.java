@@ -0,0 +1,75 @@
+package com.pdfgenerator.repository;
+
+import com.pdfgenerator.entity.PDFGenerationLog;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.util.KeysetCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predicates for PDF generation log searches.
+ *
+ * Each factory returns null for a missing filter, and Specification.and skips nulls, so a
+ * search only contains the predicates it actually uses. Every filter combination becomes
+ * its own SQL statement that the planner can match to the composite index for it, unlike
+ * a single "(:x IS NULL OR col = :x)" query with one generic plan.
+ */
+public final class PDFGenerationLogSpecifications {
+
+    private PDFGenerationLogSpecifications() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Specification<PDFGenerationLog> hasTemplateId(String templateId) {
+        if (templateId == null || templateId.isBlank()) {
+            return null;
+        }
+        return (log, query, cb) -> cb.equal(log.get("templateId"), templateId);
+    }
+
+    public static Specification<PDFGenerationLog> hasStatus(PDFGenerationStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (log, query, cb) -> cb.equal(log.get("status"), status);
+    }
+
+    public static Specification<PDFGenerationLog> createdBy(String createdBy) {
+        if (createdBy == null || createdBy.isBlank()) {
+            return null;
+        }
+        return (log, query, cb) -> cb.equal(log.get("createdBy"), createdBy);
+    }
+
+    public static Specification<PDFGenerationLog> createdFrom(LocalDateTime from) {
+        if (from == null) {
+            return null;
+        }
+        return (log, query, cb) -> cb.greaterThanOrEqualTo(log.get("createdAt"), from);
+    }
+
+    public static Specification<PDFGenerationLog> createdUntil(LocalDateTime until) {
+        if (until == null) {
+            return null;
+        }
+        return (log, query, cb) -> cb.lessThanOrEqualTo(log.get("createdAt"), until);
+    }
+
+    /**
+     * Rows after the cursor in (created_at DESC, id DESC) order. The leading created_at bound
+     * lets the index scan start at the cursor; the second condition only breaks ties.
+     */
+    public static Specification<PDFGenerationLog> after(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (log, query, cb) -> cb.and(
+            cb.lessThanOrEqualTo(log.get("createdAt"), cursor.getCreatedAt()),
+            cb.or(
+                cb.lessThan(log.get("createdAt"), cursor.getCreatedAt()),
+                cb.lessThan(log.get("id"), cursor.getId())
+            )
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.pdfgenerator.repository;
+
+import com.pdfgenerator.entity.RenderJob;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RenderJobRepository extends JpaRepository<RenderJob, String> {
+
+    /**
+     * Lock the oldest pending job until the end of the transaction, skipping jobs other workers
+     * are claiming at the same time (PostgreSQL)
+     */
+    @Query(value = "SELECT CAST(id AS VARCHAR(36)) FROM render_jobs WHERE status = 'PENDING' " +
+                   "ORDER BY created_at, id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<String> lockNextPending();
+
+    /**
+     * Ids among the given jobs whose lease the worker still holds
+     */
+    @Query("SELECT j.id FROM RenderJob j WHERE j.id IN :ids AND j.leaseOwner = :workerId AND j.status = :status")
+    List<String> findLeasedIds(@Param("ids") Collection<String> ids,
+                               @Param("workerId") String workerId,
+                               @Param("status") PDFGenerationStatus status);
+
+    /**
+     * Extend the leases of jobs the worker holds
+     */
+    @Modifying
+    @Query("UPDATE RenderJob j SET j.leaseExpiresAt = :leaseUntil, j.heartbeatAt = :now " +
+           "WHERE j.id IN :ids AND j.leaseOwner = :workerId AND j.status = :status")
+    int extendLeases(@Param("ids") Collection<String> ids,
+                     @Param("workerId") String workerId,
+                     @Param("status") PDFGenerationStatus status,
+                     @Param("now") LocalDateTime now,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Finish a job, if the worker still holds the lease of the given attempt
+     */
+    @Modifying
+    @Query("UPDATE RenderJob j SET j.status = :status, j.completedAt = :now, j.errorMessage = :errorMessage, " +
+           "j.resultSize = :resultSize, j.requestData = null, j.leaseExpiresAt = null " +
+           "WHERE j.id = :id AND j.leaseOwner = :workerId AND j.attempts = :attempt AND j.status = :processing")
+    int finish(@Param("id") String id,
+               @Param("workerId") String workerId,
+               @Param("attempt") int attempt,
+               @Param("processing") PDFGenerationStatus processing,
+               @Param("status") PDFGenerationStatus status,
+               @Param("now") LocalDateTime now,
+               @Param("errorMessage") String errorMessage,
+               @Param("resultSize") Long resultSize);
+
+    /**
+     * Put jobs whose lease expired back in the queue, unless they have used up their attempts
+     */
+    @Modifying
+    @Query("UPDATE RenderJob j SET j.status = :pending, j.leaseExpiresAt = null " +
+           "WHERE j.status = :processing AND j.leaseExpiresAt < :now AND j.attempts < :maxAttempts")
+    int requeueExpired(@Param("pending") PDFGenerationStatus pending,
+                       @Param("processing") PDFGenerationStatus processing,
+                       @Param("now") LocalDateTime now,
+                       @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Fail jobs whose lease expired on their last attempt
+     */
+    @Modifying
+    @Query("UPDATE RenderJob j SET j.status = :failed, j.completedAt = :now, j.errorMessage = :errorMessage, " +
+           "j.requestData = null, j.leaseExpiresAt = null " +
+           "WHERE j.status = :processing AND j.leaseExpiresAt < :now AND j.attempts >= :maxAttempts")
+    int failExpired(@Param("failed") PDFGenerationStatus failed,
+                    @Param("processing") PDFGenerationStatus processing,
+                    @Param("now") LocalDateTime now,
+                    @Param("maxAttempts") int maxAttempts,
+                    @Param("errorMessage") String errorMessage);
+
+    /**
+     * Return jobs the worker holds to the queue at once, e.g. on shutdown, without counting the attempt
+     */
+    @Modifying
+    @Query("UPDATE RenderJob j SET j.status = :pending, j.leaseExpiresAt = null, j.attempts = j.attempts - 1 " +
+           "WHERE j.id IN :ids AND j.leaseOwner = :workerId AND j.status = :processing")
+    int release(@Param("ids") Collection<String> ids,
+                @Param("workerId") String workerId,
+                @Param("pending") PDFGenerationStatus pending,
+                @Param("processing") PDFGenerationStatus processing);
+
+    /**
+     * Running jobs without a heartbeat since the given time, longest silent first
+     */
+    List<RenderJob> findByStatusAndHeartbeatAtBeforeOrderByHeartbeatAtAsc(PDFGenerationStatus status, LocalDateTime before);
+
+    long countByStatus(PDFGenerationStatus status);
+
+    long countByStatusAndHeartbeatAtBefore(PDFGenerationStatus status, LocalDateTime before);
+
+    /**
+     * Delete jobs that finished before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM RenderJob j WHERE j.completedAt < :before")
+    int deleteByCompletedAtBefore(@Param("before") LocalDateTime before);
+}
\ No newline at end of file
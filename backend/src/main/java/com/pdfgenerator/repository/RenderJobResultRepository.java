@@ -0,0 +1,22 @@
+package com.pdfgenerator.repository;
+
+import com.pdfgenerator.entity.RenderJobResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RenderJobResultRepository extends JpaRepository<RenderJobResult, String> {
+
+    /**
+     * Delete the documents of jobs that finished before the given time
+     */
+    @Modifying
+    @Query("DELETE FROM RenderJobResult r WHERE r.jobId IN " +
+           "(SELECT j.id FROM RenderJob j WHERE j.completedAt < :before)")
+    int deleteByJobCompletedAtBefore(@Param("before") LocalDateTime before);
+}
\ No newline at end of file
@@ -1,17 +1,24 @@
 package com.pdfgenerator.repository;
 
+import com.pdfgenerator.dto.TemplateResponse;
+import com.pdfgenerator.dto.TemplateSummary;
 import com.pdfgenerator.entity.Template;
 import com.pdfgenerator.enums.TemplateCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TemplateRepository extends JpaRepository<Template, String> {
@@ -22,24 +29,105 @@ public interface TemplateRepository extends JpaRepository<Template, String> {
     List<Template> findByActiveTrue();
 
     /**
-     * Find all active templates ordered by creation date descending
+     * Summary columns of a template, selected without the schema and metadata documents
      */
-    List<Template> findByActiveTrueOrderByCreatedAtDesc();
+    String SUMMARY_SELECT = "SELECT new com.pdfgenerator.dto.TemplateSummary(" +
+            "t.id, t.name, t.category, t.description, t.createdAt, t.updatedAt, t.createdBy, t.active, t.version) " +
+            "FROM Template t ";
 
     /**
-     * Find all active templates with pagination ordered by creation date descending
+     * Keyset order of template listings, matching the (created_at, id) indexes
      */
-    Page<Template> findByActiveTrueOrderByCreatedAtDesc(Pageable pageable);
+    String KEYSET_ORDER = "ORDER BY t.createdAt DESC, t.id DESC";
 
     /**
-     * Find templates by category ordered by creation date descending
+     * Rows strictly after the cursor in keyset order; a row value comparison, so the database
+     * starts the index scan at the cursor instead of filtering every row before it
      */
-    List<Template> findByCategoryAndActiveTrueOrderByCreatedAtDesc(TemplateCategory category);
+    String AFTER_CURSOR = "AND (t.createdAt, t.id) < (:createdAt, :id) ";
 
     /**
-     * Find templates by name containing (case insensitive) ordered by creation date descending
+     * Find the first page of active template summaries
      */
-    List<Template> findByNameContainingIgnoreCaseAndActiveTrueOrderByCreatedAtDesc(String name);
+    @Query(SUMMARY_SELECT + "WHERE t.active = true " + KEYSET_ORDER)
+    List<TemplateSummary> findSummaries(Limit limit);
+
+    /**
+     * Find active template summaries after a cursor
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.active = true " + AFTER_CURSOR + KEYSET_ORDER)
+    List<TemplateSummary> findSummariesAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") String id,
+            Limit limit
+    );
+
+    /**
+     * Find summaries of active templates with offset pagination ordered by creation date descending
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE t.active = true " + KEYSET_ORDER,
+           countQuery = "SELECT COUNT(t) FROM Template t WHERE t.active = true")
+    Page<TemplateSummary> findSummariesByActiveTrue(Pageable pageable);
+
+    /**
+     * Find the first page of template summaries in a category
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.category = :category AND t.active = true " + KEYSET_ORDER)
+    List<TemplateSummary> findSummariesByCategory(@Param("category") TemplateCategory category, Limit limit);
+
+    /**
+     * Find template summaries in a category after a cursor
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.category = :category AND t.active = true " + AFTER_CURSOR + KEYSET_ORDER)
+    List<TemplateSummary> findSummariesByCategoryAfter(
+            @Param("category") TemplateCategory category,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") String id,
+            Limit limit
+    );
+
+    /**
+     * Find the first page of template summaries by name containing (case insensitive)
+     */
+    @Query(SUMMARY_SELECT + "WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', :name, '%')) AND t.active = true " +
+           KEYSET_ORDER)
+    List<TemplateSummary> searchSummariesByName(@Param("name") String name, Limit limit);
+
+    /**
+     * Find template summaries by name containing (case insensitive) after a cursor
+     */
+    @Query(SUMMARY_SELECT + "WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', :name, '%')) AND t.active = true " +
+           AFTER_CURSOR + KEYSET_ORDER)
+    List<TemplateSummary> searchSummariesByNameAfter(
+            @Param("name") String name,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") String id,
+            Limit limit
+    );
+
+    /**
+     * Find the summary of a template, active or not
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.id = :id")
+    Optional<TemplateSummary> findSummaryById(@Param("id") String id);
+
+    /**
+     * Stream summaries of all active templates, for building the search index
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SUMMARY_SELECT + "WHERE t.active = true")
+    Stream<TemplateSummary> streamAllSummaries();
+
+    /**
+     * Stream all active templates with their documents for export; must be consumed
+     * inside a transaction and closed. Rows arrive in batches of the fetch size.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT new com.pdfgenerator.dto.TemplateResponse(" +
+           "t.id, t.name, t.category, t.schema, t.metadata, t.description, " +
+           "t.createdAt, t.updatedAt, t.createdBy, t.active, t.version) " +
+           "FROM Template t WHERE t.active = true " + KEYSET_ORDER)
+    Stream<TemplateResponse> streamAllForExport();
 
     /**
      * Check if template exists by ID and active status
@@ -1,9 +1,12 @@
 package com.pdfgenerator.repository;
 
+import com.pdfgenerator.dto.TemplateVersionSummary;
 import com.pdfgenerator.entity.TemplateVersion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,6 +17,9 @@ import java.util.Optional;
 @Repository
 public interface TemplateVersionRepository extends JpaRepository<TemplateVersion, String> {
 
+    String SUMMARY_SELECT = "SELECT new com.pdfgenerator.dto.TemplateVersionSummary(" +
+            "tv.id, tv.templateId, tv.version, tv.snapshot, tv.createdAt, tv.createdBy) FROM TemplateVersion tv ";
+
     /**
      * Find all versions of a template ordered by version number
      */
@@ -41,6 +47,58 @@ public interface TemplateVersionRepository extends JpaRepository<TemplateVersion
     @Query("SELECT MAX(tv.version) FROM TemplateVersion tv WHERE tv.templateId = :templateId")
     Optional<Integer> findMaxVersionByTemplateId(@Param("templateId") String templateId);
 
+    /**
+     * Get the version number of the latest full snapshot of a template
+     */
+    @Query("SELECT MAX(tv.version) FROM TemplateVersion tv WHERE tv.templateId = :templateId AND tv.snapshot = true")
+    Optional<Integer> findLatestSnapshotVersionByTemplateId(@Param("templateId") String templateId);
+
+    /**
+     * Find the snapshot a version is reconstructed from: the latest one at or before it
+     */
+    Optional<TemplateVersion> findFirstByTemplateIdAndSnapshotTrueAndVersionLessThanEqualOrderByVersionDesc(
+            String templateId, Integer version);
+
+    /**
+     * Find the versions of a template from one version to another, oldest first
+     */
+    List<TemplateVersion> findByTemplateIdAndVersionBetweenOrderByVersionAsc(
+            String templateId, Integer fromVersion, Integer toVersion);
+
+    /**
+     * Find the whole history of a template, oldest first
+     */
+    List<TemplateVersion> findByTemplateIdOrderByVersionAscCreatedAtAsc(String templateId);
+
+    /**
+     * First page of version summaries, newest first
+     */
+    @Query(SUMMARY_SELECT + "WHERE tv.templateId = :templateId ORDER BY tv.version DESC")
+    List<TemplateVersionSummary> findSummariesByTemplateId(@Param("templateId") String templateId, Limit limit);
+
+    /**
+     * Next page of version summaries, older than the last version of the previous page
+     */
+    @Query(SUMMARY_SELECT + "WHERE tv.templateId = :templateId AND tv.version < :version ORDER BY tv.version DESC")
+    List<TemplateVersionSummary> findSummariesByTemplateIdBefore(
+            @Param("templateId") String templateId,
+            @Param("version") Integer version,
+            Limit limit
+    );
+
+    /**
+     * Templates that have a version history, for compaction
+     */
+    @Query("SELECT DISTINCT tv.templateId FROM TemplateVersion tv")
+    List<String> findTemplateIdsWithVersions();
+
+    /**
+     * Delete versions by id without loading them
+     */
+    @Modifying
+    @Query("DELETE FROM TemplateVersion tv WHERE tv.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<String> ids);
+
     /**
      * Count versions for a template
      */
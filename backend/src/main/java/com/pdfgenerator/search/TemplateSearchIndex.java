@@ -0,0 +1,513 @@
+package com.pdfgenerator.search;
+
+import com.pdfgenerator.dto.TemplateSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over active template names, descriptions and categories.
+ *
+ * Every word is indexed with the trigrams of "  word " (pg_trgm style padding), so one- and
+ * two-letter queries find word prefixes and longer queries find any substring. A query token
+ * takes its rarest trigram's posting list as candidates and verifies them against the
+ * normalized text, which is cheaper than intersecting lists. Text is folded to lower case
+ * without diacritics, so "kart" matches "Kartı" and "odeme" matches "Ödeme".
+ *
+ * Posting lists are kept in tie-break order (shorter name, then newer), so a scan can stop as
+ * soon as the results are full and no later candidate can score higher. The sorted names and
+ * the name-word prefix keys bound that score, which keeps common terms from scanning their
+ * whole list.
+ *
+ * Reads share a read lock; the index is rebuilt at startup and updated per template by
+ * TemplateService, for edits on other nodes too once their notices arrive.
+ */
+@Component
+public class TemplateSearchIndex {
+
+    // Score of a query token by where it matched, best first
+    private static final int SCORE_NAME_PREFIX = 80;
+    private static final int SCORE_NAME_WORD_PREFIX = 60;
+    private static final int SCORE_NAME_SUBSTRING = 40;
+    private static final int SCORE_CATEGORY = 20;
+    private static final int SCORE_DESCRIPTION = 10;
+
+    // Prefix keys of name words, up to three characters
+    private static final String NAME_WORD_START = "|";
+    private static final int PREFIX_KEY_LENGTH = 3;
+
+    /**
+     * Tie-break order of equally scored templates, also the order of every posting list
+     */
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt((Entry entry) -> entry.name.length())
+        .thenComparing(entry -> entry.template.getCreatedAt(), Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(entry -> entry.template.getId());
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    // Normalized names with their template count, for name prefix lookups
+    private final NavigableMap<String, Integer> names = new TreeMap<>();
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    public TemplateSearchIndex() {
+        this(true);
+    }
+
+    @Autowired
+    public TemplateSearchIndex(@Value("${app.search.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether this node keeps the index; render-only nodes do not
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replace the index contents with the given templates and mark it ready
+     * @return number of indexed templates
+     */
+    public int rebuild(Iterator<TemplateSummary> templates) {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            entries.clear();
+            freeSlots.clear();
+            postings.clear();
+            names.clear();
+            List<Entry> sorted = new ArrayList<>();
+            templates.forEachRemaining(template -> sorted.add(new Entry(template)));
+            // Adding in list order makes every posting insert an append
+            sorted.sort(ORDER);
+            for (Entry entry : sorted) {
+                add(entry);
+            }
+            ready = true;
+            return slotsById.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a template or replace its indexed text; inactive templates are removed
+     */
+    public void put(TemplateSummary template) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeSlot(template.getId());
+            if (template.isActive()) {
+                add(new Entry(template));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String templateId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeSlot(templateId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the startup build has finished; until then searches must go to the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Templates matching every word of the query, best match first: name matches rank above
+     * category and description matches, and prefixes above other substrings
+     * @param limit maximum number of results
+     */
+    public List<TemplateSummary> search(String query, int limit) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        Query prepared = new Query(tokens);
+
+        lock.readLock().lock();
+        try {
+            Postings candidates = candidates(tokens);
+            if (candidates == null) {
+                return List.of();
+            }
+            int maxScore = maxScore(prepared);
+
+            // Keep the best `limit` matches; the worst of them sits at the head
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Match.RANKING.reversed());
+            for (int i = 0; i < candidates.size; i++) {
+                Entry entry = entries.get(candidates.slots[i]);
+                int score = score(entry, prepared);
+                if (score == 0) {
+                    continue;
+                }
+                long key = Match.key(score, entry);
+                if (best.size() == limit) {
+                    // Candidates come in tie-break order, so an equal key ranks below the head too
+                    if (key <= best.peek().key) {
+                        continue;
+                    }
+                    best.poll();
+                }
+                best.add(new Match(entry, key));
+                if (best.size() == limit && Match.score(best.peek().key) >= maxScore) {
+                    break;
+                }
+            }
+
+            Match[] ranked = best.toArray(new Match[0]);
+            Arrays.sort(ranked, Match.RANKING);
+            List<TemplateSummary> results = new ArrayList<>(ranked.length);
+            for (Match match : ranked) {
+                results.add(match.entry.template);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fold text for matching: lower case, no diacritics, dotless i as i, words separated by one space
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = text.replace('ı', 'i').replace('İ', 'I');
+        folded = DIACRITICS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        return NON_WORD.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String[] tokenize(String query) {
+        String normalized = normalize(query);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private void add(Entry entry) {
+        TemplateSummary template = entry.template;
+        Integer slot = freeSlots.poll();
+        if (slot == null) {
+            slot = entries.size();
+            entries.add(entry);
+        } else {
+            entries.set(slot, entry);
+        }
+        slotsById.put(template.getId(), slot);
+        names.merge(entry.name, 1, Integer::sum);
+        for (String key : entry.keys()) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(slot);
+        }
+    }
+
+    private void removeSlot(String templateId) {
+        Integer slot = slotsById.remove(templateId);
+        if (slot == null) {
+            return;
+        }
+        Entry entry = entries.get(slot);
+        for (String key : entry.keys()) {
+            Postings list = postings.get(key);
+            if (list != null && list.remove(slot) && list.size == 0) {
+                postings.remove(key);
+            }
+        }
+        names.computeIfPresent(entry.name, (name, count) -> count == 1 ? null : count - 1);
+        entries.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    /**
+     * Slots that may match all tokens: the shortest posting list among the tokens' trigrams
+     * @return candidate slots, or null if some trigram occurs nowhere
+     */
+    private Postings candidates(String[] tokens) {
+        Postings shortest = null;
+        for (String token : tokens) {
+            for (String trigram : queryTrigrams(token)) {
+                Postings list = postings.get(trigram);
+                if (list == null) {
+                    return null;
+                }
+                if (shortest == null || list.size < shortest.size) {
+                    shortest = list;
+                }
+            }
+        }
+        return shortest;
+    }
+
+    /**
+     * Upper bound of any template's score for the query. Only one token can be the name
+     * prefix, the others at best start a later word.
+     */
+    private int maxScore(Query query) {
+        int total = 0;
+        boolean namePrefix = false;
+        for (String token : query.tokens) {
+            if (!namePrefix && isNamePrefix(token)) {
+                namePrefix = true;
+                total += SCORE_NAME_PREFIX;
+            } else if (postings.containsKey(NAME_WORD_START + token.substring(0, Math.min(token.length(), PREFIX_KEY_LENGTH)))) {
+                total += SCORE_NAME_WORD_PREFIX;
+            } else {
+                total += token.length() >= 3 ? SCORE_NAME_SUBSTRING : SCORE_CATEGORY;
+            }
+        }
+        if (query.tokens.length > 1 && isNamePrefix(query.text)) {
+            total += SCORE_NAME_PREFIX;
+        }
+        return total;
+    }
+
+    private boolean isNamePrefix(String text) {
+        String name = names.ceilingKey(text);
+        return name != null && name.startsWith(text);
+    }
+
+    /**
+     * Trigrams a token must contain: word-prefix trigrams for tokens shorter than three
+     * characters, inner trigrams otherwise
+     */
+    private static List<String> queryTrigrams(String token) {
+        if (token.length() == 1) {
+            return List.of("  " + token);
+        }
+        if (token.length() == 2) {
+            return List.of(" " + token);
+        }
+        List<String> trigrams = new ArrayList<>(token.length() - 2);
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            trigrams.add(token.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * An exact name match needs no extra score: it is the shortest name with that prefix
+     */
+    private static int score(Entry entry, Query query) {
+        int total = 0;
+        for (int i = 0; i < query.tokens.length; i++) {
+            int score = tokenScore(entry, query.tokens[i], query.wordPrefixes[i]);
+            if (score == 0) {
+                return 0;
+            }
+            total += score;
+        }
+        if (query.tokens.length > 1 && entry.name.startsWith(query.text)) {
+            total += SCORE_NAME_PREFIX;
+        }
+        return total;
+    }
+
+    /**
+     * Tokens shorter than three characters only match word prefixes, like their trigrams
+     * @param wordPrefix the token with a leading space, matched against the space-prefixed text
+     */
+    private static int tokenScore(Entry entry, String token, String wordPrefix) {
+        if (entry.name.startsWith(token)) {
+            return SCORE_NAME_PREFIX;
+        }
+        if (entry.spacedName.contains(wordPrefix)) {
+            return SCORE_NAME_WORD_PREFIX;
+        }
+        boolean substrings = token.length() >= 3;
+        if (substrings && entry.name.contains(token)) {
+            return SCORE_NAME_SUBSTRING;
+        }
+        if (entry.spacedCategory.contains(substrings ? token : wordPrefix)) {
+            return SCORE_CATEGORY;
+        }
+        if (entry.spacedDescription.contains(substrings ? token : wordPrefix)) {
+            return SCORE_DESCRIPTION;
+        }
+        return 0;
+    }
+
+    /**
+     * Normalized query tokens with their word-prefix forms, computed once per search
+     */
+    private static final class Query {
+        final String text;
+        final String[] tokens;
+        final String[] wordPrefixes;
+
+        Query(String[] tokens) {
+            this.text = String.join(" ", tokens);
+            this.tokens = tokens;
+            this.wordPrefixes = new String[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                wordPrefixes[i] = " " + tokens[i];
+            }
+        }
+    }
+
+    /**
+     * Indexed template with its normalized text
+     */
+    private static final class Entry {
+        final TemplateSummary template;
+        final String name;
+        // Normalized text with a leading space, so " " + token finds word prefixes
+        final String spacedName;
+        final String spacedCategory;
+        final String spacedDescription;
+
+        Entry(TemplateSummary template) {
+            this.template = template;
+            this.name = normalize(template.getName());
+            this.spacedName = " " + name;
+            this.spacedCategory = template.getCategory() == null ? ""
+                : " " + normalize(template.getCategory().getDisplayName() + " " + template.getCategory().name());
+            this.spacedDescription = " " + normalize(template.getDescription());
+        }
+
+        /**
+         * Posting keys: trigrams of every word plus the name-word prefix keys
+         */
+        Set<String> keys() {
+            Set<String> keys = new LinkedHashSet<>();
+            for (String word : name.split(" ")) {
+                for (int length = 1; length <= Math.min(word.length(), PREFIX_KEY_LENGTH); length++) {
+                    keys.add(NAME_WORD_START + word.substring(0, length));
+                }
+            }
+            for (String text : new String[]{spacedName, spacedCategory, spacedDescription}) {
+                for (String word : text.trim().split(" ")) {
+                    if (word.isEmpty()) {
+                        continue;
+                    }
+                    String padded = "  " + word + " ";
+                    for (int i = 0; i + 3 <= padded.length(); i++) {
+                        keys.add(padded.substring(i, i + 3));
+                    }
+                }
+            }
+            return keys;
+        }
+
+    }
+
+    private static final class Match {
+        static final Comparator<Match> RANKING = Comparator.comparingLong((Match match) -> match.key).reversed()
+            .thenComparing(match -> match.entry, ORDER);
+
+        final Entry entry;
+        // Score in the high bits, shorter names first in the low bits
+        final long key;
+
+        Match(Entry entry, long key) {
+            this.entry = entry;
+            this.key = key;
+        }
+
+        static long key(int score, Entry entry) {
+            return ((long) score << 32) | (Integer.MAX_VALUE - entry.name.length());
+        }
+
+        static int score(long key) {
+            return (int) (key >>> 32);
+        }
+    }
+
+    /**
+     * Growable list of slots in {@link #ORDER} of their entries
+     */
+    private final class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            int index = size == 0 || compare(slots[size - 1], slot) < 0 ? size : -search(slot) - 1;
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int index = search(slot);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        private int search(int slot) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(slots[mid], slot);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private int compare(int slot, int other) {
+            return ORDER.compare(entries.get(slot), entries.get(other));
+        }
+    }
+}
\ No newline at end of file
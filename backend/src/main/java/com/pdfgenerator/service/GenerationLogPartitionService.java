@@ -0,0 +1,275 @@
+package com.pdfgenerator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the daily partitions of pdf_generation_logs.
+ *
+ * Partitions are created {@code days-ahead} days in advance, so inserts never depend on this job
+ * running at midnight, and partitions whose newest possible row is older than the retention period
+ * are detached and dropped whole instead of deleting rows. Runs at startup and hourly; an advisory
+ * lock keeps concurrent nodes from running it at the same time. Does nothing if the table is not
+ * partitioned, e.g. on H2.
+ */
+@Service
+public class GenerationLogPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationLogPartitionService.class);
+
+    static final String TABLE = "pdf_generation_logs";
+
+    private static final long ADVISORY_LOCK_KEY = 0x7064665F6C6F6773L; // "pdf_logs"
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+)\\) TO \\((.+)\\)");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSSSSS]");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int daysAhead;
+    private final Duration retention;
+    private final boolean dropExpired;
+    private final boolean enabled;
+
+    @Autowired
+    public GenerationLogPartitionService(JdbcTemplate jdbcTemplate,
+                                         @Value("${app.generation-logs.partitions.days-ahead:7}") int daysAhead,
+                                         @Value("${app.generation-logs.retention.max-age:90d}") Duration retention,
+                                         @Value("${app.generation-logs.retention.drop:true}") boolean dropExpired,
+                                         @Value("${app.generation-logs.partitions.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.daysAhead = daysAhead;
+        this.retention = retention;
+        this.dropExpired = dropExpired;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    /**
+     * Create upcoming partitions and remove expired ones. Failures are logged; the next run retries.
+     */
+    @Scheduled(cron = "${app.generation-logs.partitions.cron:0 5 * * * *}")
+    public void maintainPartitions() {
+        maintainPartitions(LocalDate.now());
+    }
+
+    /**
+     * Maintenance as if run on the given day
+     */
+    public void maintainPartitions(LocalDate today) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                maintain(connection, today);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Generation log partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Partitions of the log table, oldest first; empty if the table is not partitioned
+     */
+    public List<LogPartition> listPartitions() {
+        return jdbcTemplate.execute((ConnectionCallback<List<LogPartition>>) this::listPartitions);
+    }
+
+    private void maintain(Connection connection, LocalDate today) throws SQLException {
+        if (!isPartitioned(connection)) {
+            logger.debug("{} is not partitioned, skipping partition maintenance", TABLE);
+            return;
+        }
+        if (!queryBoolean(connection, "SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")")) {
+            logger.debug("Partition maintenance is running on another node");
+            return;
+        }
+        try {
+            List<LogPartition> partitions = listPartitions(connection);
+            int created = createUpcoming(connection, partitions, today);
+            int removed = retention.isZero() ? 0 : removeExpired(connection, partitions, today.atStartOfDay().minus(retention));
+            for (LogPartition partition : partitions) {
+                if (partition.isDefault() && queryBoolean(connection, "SELECT EXISTS (SELECT 1 FROM " + partition.getName() + ")")) {
+                    logger.warn("Default partition {} holds rows; they are not covered by retention", partition.getName());
+                }
+            }
+            if (created > 0 || removed > 0) {
+                logger.info("Generation log partitions: {} created, {} {}", created, removed, dropExpired ? "dropped" : "detached");
+            }
+        } finally {
+            queryBoolean(connection, "SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+        }
+    }
+
+    private int createUpcoming(Connection connection, List<LogPartition> partitions, LocalDate today) {
+        int created = 0;
+        for (LocalDate day = today; !day.isAfter(today.plusDays(daysAhead)); day = day.plusDays(1)) {
+            LocalDateTime from = day.atStartOfDay();
+            LocalDateTime to = from.plusDays(1);
+            // Also skips days inside a wider partition, e.g. the attached pre-partitioning table
+            if (partitions.stream().anyMatch(partition -> partition.overlaps(from, to))) {
+                continue;
+            }
+            String name = TABLE + "_p" + day.format(SUFFIX);
+            try {
+                execute(connection, "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE +
+                    " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                created++;
+            } catch (SQLException e) {
+                // Fails when the default partition already holds rows of that day
+                logger.warn("Could not create partition {}: {}", name, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    private int removeExpired(Connection connection, List<LogPartition> partitions, LocalDateTime cutoff) {
+        int removed = 0;
+        for (LogPartition partition : partitions) {
+            if (partition.isDefault() || partition.getTo() == null || partition.getTo().isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                execute(connection, "ALTER TABLE " + TABLE + " DETACH PARTITION " + partition.getName());
+                if (dropExpired) {
+                    execute(connection, "DROP TABLE " + partition.getName());
+                }
+                removed++;
+            } catch (SQLException e) {
+                logger.warn("Could not remove expired partition {}: {}", partition.getName(), e.getMessage());
+            }
+        }
+        return removed;
+    }
+
+    private boolean isPartitioned(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return false;
+        }
+        return queryBoolean(connection, "SELECT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('" + TABLE + "') AND relkind = 'p')");
+    }
+
+    private List<LogPartition> listPartitions(Connection connection) throws SQLException {
+        List<LogPartition> partitions = new ArrayList<>();
+        if (!isPartitioned(connection)) {
+            return partitions;
+        }
+        String sql = "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + TABLE + "'::regclass";
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                partitions.add(LogPartition.parse(rows.getString(1), rows.getString(2)));
+            }
+        }
+        partitions.sort(LogPartition.OLDEST_FIRST);
+        return partitions;
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            return rows.next() && rows.getBoolean(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * One partition and its created_at range; a null bound is unbounded (MINVALUE/MAXVALUE)
+     */
+    public static class LogPartition {
+
+        static final Comparator<LogPartition> OLDEST_FIRST = Comparator
+            .comparing(LogPartition::isDefault)
+            .thenComparing(LogPartition::getFrom, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final String name;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final boolean isDefault;
+
+        LogPartition(String name, LocalDateTime from, LocalDateTime to, boolean isDefault) {
+            this.name = name;
+            this.from = from;
+            this.to = to;
+            this.isDefault = isDefault;
+        }
+
+        /**
+         * @param bound partition bound as printed by pg_get_expr, e.g.
+         *              {@code FOR VALUES FROM ('2024-05-01 00:00:00') TO ('2024-05-02 00:00:00')}
+         */
+        static LogPartition parse(String name, String bound) {
+            if ("DEFAULT".equals(bound)) {
+                return new LogPartition(name, null, null, true);
+            }
+            Matcher matcher = RANGE_BOUND.matcher(bound);
+            if (!matcher.find()) {
+                throw new IllegalStateException("Unexpected bound of partition " + name + ": " + bound);
+            }
+            return new LogPartition(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)), false);
+        }
+
+        private static LocalDateTime parseBound(String value) {
+            if (value.equals("MINVALUE") || value.equals("MAXVALUE")) {
+                return null;
+            }
+            return LocalDateTime.parse(value.replace("'", ""), BOUND_FORMAT);
+        }
+
+        boolean overlaps(LocalDateTime rangeFrom, LocalDateTime rangeTo) {
+            return !isDefault
+                && (from == null || from.isBefore(rangeTo))
+                && (to == null || to.isAfter(rangeFrom));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LocalDateTime getFrom() {
+            return from;
+        }
+
+        public LocalDateTime getTo() {
+            return to;
+        }
+
+        public boolean isDefault() {
+            return isDefault;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.dto.CursorPage;
+import com.pdfgenerator.dto.GenerationLogSummary;
+import com.pdfgenerator.entity.PDFGenerationLog;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.exception.ValidationException;
+import com.pdfgenerator.repository.PDFGenerationLogRepository;
+import com.pdfgenerator.util.KeysetCursor;
+import com.pdfgenerator.util.UUIDGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.pdfgenerator.repository.PDFGenerationLogSpecifications.*;
+
+/**
+ * Search over PDF generation logs with keyset pagination on (created_at, id), and logging of
+ * cancelled generations
+ */
+@Service
+@Transactional(readOnly = true)
+public class GenerationLogService {
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    private static final Logger logger = LoggerFactory.getLogger(GenerationLogService.class);
+    
+    private final PDFGenerationLogRepository logRepository;
+    
+    @Autowired
+    public GenerationLogService(PDFGenerationLogRepository logRepository) {
+        this.logRepository = logRepository;
+    }
+    
+    /**
+     * First or next page of logs matching the given filters, newest first. Null filters are
+     * left out of the query entirely.
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public CursorPage<GenerationLogSummary> searchLogs(String templateId, PDFGenerationStatus status, String createdBy,
+                                                       LocalDateTime from, LocalDateTime until,
+                                                       String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Invalid page size",
+                List.of("size must be between 1 and " + MAX_PAGE_SIZE + ", was " + size));
+        }
+        if (from != null && until != null && from.isAfter(until)) {
+            throw new ValidationException("Invalid time range", List.of("from must not be after until"));
+        }
+        
+        // Log ids are stored as native uuids, so a cursor must carry one
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null && !UUIDGenerator.isValidUUID(after.getId())) {
+            throw new ValidationException("Invalid cursor", List.of("cursor: " + cursor));
+        }
+        
+        Specification<PDFGenerationLog> specification = Specification.where(hasTemplateId(templateId))
+            .and(hasStatus(status))
+            .and(createdBy(createdBy))
+            .and(createdFrom(from))
+            .and(createdUntil(until))
+            .and(after(after));
+        
+        // One extra row tells whether another page follows
+        List<GenerationLogSummary> rows = logRepository.findSummaries(specification, size + 1);
+        return CursorPage.of(rows, size, last -> new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+    
+    /**
+     * Log a generation that was cancelled, with the reason as its error message. Logging is best
+     * effort: save runs in its own transaction, so a failed insert is caught here and not reported
+     * to the caller.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recordCancelled(String templateId, long processingTimeMs, String reason) {
+        PDFGenerationLog log = new PDFGenerationLog(null, templateId, PDFGenerationStatus.CANCELLED);
+        log.setProcessingTimeMs((int) Math.min(processingTimeMs, Integer.MAX_VALUE));
+        log.setErrorMessage(reason);
+        log.setCreatedBy(currentUser());
+        try {
+            logRepository.save(log);
+        } catch (DataAccessException e) {
+            logger.warn("Could not log cancelled generation of template {}: {}", templateId, e.getMessage());
+        }
+    }
+    
+    /**
+     * Name of the authenticated user, or null for anonymous requests
+     */
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.dto.LatencyStats;
+import com.pdfgenerator.entity.GenerationStatsSnapshot;
+import com.pdfgenerator.exception.ValidationException;
+import com.pdfgenerator.repository.GenerationStatsSnapshotRepository;
+import com.pdfgenerator.stats.GenerationStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rotates the in-memory generation stats and keeps their history.
+ *
+ * Every {@code snapshot-interval} the minutes closed since the previous snapshot are written as
+ * one row per template with renders in them, plus one for all templates, with the latency
+ * histogram so periods can be merged later. Snapshots are dropped after {@code retention.max-age}.
+ */
+@Service
+public class GenerationStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationStatsService.class);
+
+    private final GenerationStats generationStats;
+    private final GenerationStatsSnapshotRepository snapshotRepository;
+    private final long snapshotMinutes;
+    private final Duration retention;
+    private final boolean snapshotsEnabled;
+    private long closedMinutes;
+
+    @Autowired
+    public GenerationStatsService(GenerationStats generationStats,
+                                  GenerationStatsSnapshotRepository snapshotRepository,
+                                  @Value("${app.generation-stats.snapshots.interval:5m}") Duration snapshotInterval,
+                                  @Value("${app.generation-stats.snapshots.retention.max-age:30d}") Duration retention,
+                                  @Value("${app.generation-stats.snapshots.enabled:true}") boolean snapshotsEnabled) {
+        this.generationStats = generationStats;
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotMinutes = Math.max(1, snapshotInterval.toMinutes());
+        this.retention = retention;
+        this.snapshotsEnabled = snapshotsEnabled;
+    }
+
+    /**
+     * Advance the rolling windows and persist a snapshot when one is due
+     */
+    @Scheduled(fixedRate = GenerationStats.TICK_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void rotate() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!generationStats.rotate(now) || ++closedMinutes % snapshotMinutes != 0) {
+            return;
+        }
+
+        // Drained even when disabled, so closed minutes do not pile up in memory
+        List<GenerationStatsSnapshot> snapshots = generationStats.drainSnapshots(now);
+        if (!snapshotsEnabled || snapshots.isEmpty()) {
+            return;
+        }
+        try {
+            snapshotRepository.saveAll(snapshots);
+            logger.debug("Persisted {} generation stats snapshots", snapshots.size());
+        } catch (DataAccessException e) {
+            // History only; the in-memory stats are unaffected
+            logger.warn("Failed to persist {} generation stats snapshots: {}", snapshots.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Delete snapshots older than the retention period
+     */
+    @Scheduled(cron = "${app.generation-stats.snapshots.retention.cron:0 45 3 * * *}")
+    @Transactional
+    public void purgeExpiredSnapshots() {
+        if (!snapshotsEnabled || retention.isZero()) {
+            return;
+        }
+        int deleted = snapshotRepository.deleteByPeriodEndBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired generation stats snapshots", deleted);
+        }
+    }
+
+    /**
+     * Persisted stats of one template, or of all templates when templateId is null, oldest first.
+     * Every node writes its own row per period; rows overlapping the first row of a period belong
+     * to other nodes and are merged into it.
+     */
+    @Transactional(readOnly = true)
+    public List<LatencyStats> getHistory(String templateId, LocalDateTime from, LocalDateTime until) {
+        if (from.isAfter(until)) {
+            throw new ValidationException("Invalid time range", List.of("from must not be after until"));
+        }
+        List<GenerationStatsSnapshot> snapshots = templateId != null
+            ? snapshotRepository.findByTemplateIdAndPeriodStartBetweenOrderByPeriodStartAsc(templateId, from, until)
+            : snapshotRepository.findByTemplateIdIsNullAndPeriodStartBetweenOrderByPeriodStartAsc(from, until);
+        
+        List<LatencyStats> history = new ArrayList<>();
+        List<GenerationStatsSnapshot> period = new ArrayList<>();
+        for (GenerationStatsSnapshot snapshot : snapshots) {
+            // A node's next period starts where its previous one ended
+            if (!period.isEmpty() && !snapshot.getPeriodStart().isBefore(period.get(0).getPeriodEnd())) {
+                history.add(GenerationStats.merge(period));
+                period = new ArrayList<>();
+            }
+            period.add(snapshot);
+        }
+        if (!period.isEmpty()) {
+            history.add(GenerationStats.merge(period));
+        }
+        return history;
+    }
+}
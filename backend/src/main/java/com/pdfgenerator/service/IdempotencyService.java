@@ -0,0 +1,177 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import com.pdfgenerator.idempotency.IdempotencyClaim;
+import com.pdfgenerator.idempotency.IdempotencyRecord;
+import com.pdfgenerator.idempotency.IdempotencyStore;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.util.CanonicalJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Idempotency keys for client retries.
+ *
+ * A request sent with an {@value #HEADER} header claims the key, scoped to the operation and the
+ * caller. Repeats of the same request within the retention period get the stored response back
+ * instead of running again; a repeat while the first is still running, or a different request
+ * under the same key, is rejected. Requests that fail release their key so they can be retried.
+ * If the store cannot be reached, requests run without idempotency rather than fail.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String ANONYMOUS = "anonymous";
+
+    private final IdempotencyStore store;
+    private final Duration retention;
+    private final Duration lease;
+    private final long maxBodySize;
+
+    @Autowired
+    public IdempotencyService(IdempotencyStore store,
+                              @Value("${app.idempotency.retention:24h}") Duration retention,
+                              @Value("${app.idempotency.in-progress-timeout:2m}") Duration lease,
+                              @Value("${app.idempotency.max-body-size:1MB}") DataSize maxBodySize) {
+        this.store = store;
+        this.retention = retention;
+        this.lease = lease;
+        this.maxBodySize = maxBodySize.toBytes();
+    }
+
+    /**
+     * Claim an idempotency key for a request
+     *
+     * @param operation operation the key is scoped to, e.g. "generate"
+     * @param key key sent by the client, or null
+     * @param request everything that identifies the request; hashed as canonical JSON
+     * @return null if there is no key to honour, otherwise the claim
+     * @throws PDFGenerationException if the key is invalid, still in use, or was used for another request
+     */
+    public IdempotencyClaim claim(String operation, String key, Object request) {
+        if (key == null) {
+            return null;
+        }
+        validateKey(key);
+
+        String scopedKey = operation + ":" + currentCaller() + ":" + key;
+        String fingerprint = fingerprint(request);
+        IdempotencyRecord existing;
+        try {
+            existing = store.reserve(scopedKey, fingerprint, lease);
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency store unavailable, running request without it: {}", e.getMessage());
+            return null;
+        }
+
+        if (existing == null) {
+            return new IdempotencyClaim(scopedKey, fingerprint, null);
+        }
+        if (!existing.getFingerprint().equals(fingerprint)) {
+            throw new PDFGenerationException(ErrorCode.IDEMPOTENCY_KEY_REUSED,
+                "Idempotency key was already used for a different request", Map.of("idempotencyKey", key));
+        }
+        if (!existing.isCompleted()) {
+            throw new PDFGenerationException(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS,
+                "A request with this idempotency key is still being processed", Map.of("idempotencyKey", key));
+        }
+        logger.debug("Replaying stored response for idempotency key {}", scopedKey);
+        return new IdempotencyClaim(scopedKey, fingerprint, existing);
+    }
+
+    /**
+     * Store a generated PDF as the response of a claim; does nothing without a claim.
+     * Documents above {@code max-body-size} are not stored and release the key instead.
+     */
+    public void complete(IdempotencyClaim claim, String contentType, RenderedPdf pdf) {
+        if (claim == null) {
+            return;
+        }
+        if (pdf.getSize() > maxBodySize) {
+            logger.debug("Response for idempotency key {} is {} bytes, not stored", claim.getKey(), pdf.getSize());
+            release(claim);
+            return;
+        }
+        try {
+            store.complete(claim.getKey(),
+                IdempotencyRecord.completed(claim.getFingerprint(), contentType, pdf.toByteArray()), retention);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to store response for idempotency key {}: {}", claim.getKey(), e.getMessage());
+        }
+    }
+
+    /**
+     * Store the render job a request was queued as, so retries get the same job; does nothing
+     * without a claim
+     */
+    public void completeWithJob(IdempotencyClaim claim, String jobId) {
+        if (claim == null) {
+            return;
+        }
+        try {
+            store.complete(claim.getKey(), IdempotencyRecord.job(claim.getFingerprint(), jobId), retention);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to store job for idempotency key {}: {}", claim.getKey(), e.getMessage());
+        }
+    }
+
+    /**
+     * Give up a claim whose request failed; does nothing without a claim or once it is completed
+     */
+    public void release(IdempotencyClaim claim) {
+        if (claim == null) {
+            return;
+        }
+        try {
+            store.release(claim.getKey(), claim.getFingerprint());
+        } catch (DataAccessException e) {
+            // The reservation expires after the in-progress timeout
+            logger.warn("Failed to release idempotency key {}: {}", claim.getKey(), e.getMessage());
+        }
+    }
+
+    private static void validateKey(String key) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH || !key.chars().allMatch(c -> c > 0x20 && c < 0x7f)) {
+            throw new PDFGenerationException(ErrorCode.INVALID_DATA_FORMAT,
+                "Idempotency key must be 1 to " + MAX_KEY_LENGTH + " printable ASCII characters", Map.of());
+        }
+    }
+
+    private static String fingerprint(Object request) {
+        try {
+            return HexFormat.of().formatHex(CanonicalJson.sha256(request));
+        } catch (IOException e) {
+            throw new PDFGenerationException(ErrorCode.INVALID_DATA_FORMAT,
+                "Request data cannot be written as JSON", e);
+        }
+    }
+
+    private static String currentCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return ANONYMOUS;
+        }
+        return authentication.getName();
+    }
+}
\ No newline at end of file
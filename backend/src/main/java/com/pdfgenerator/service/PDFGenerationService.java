@@ -1,5 +1,6 @@
 package com.pdfgenerator.service;
 
+import com.itextpdf.kernel.events.PdfDocumentEvent;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.geom.PageSize;
@@ -12,21 +13,46 @@ import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.layout.properties.VerticalAlignment;
 import com.itextpdf.io.image.ImageDataFactory;
+import com.pdfgenerator.cache.TemplateCache;
 import com.pdfgenerator.entity.Template;
-import com.pdfgenerator.repository.TemplateRepository;
 import com.pdfgenerator.exception.PDFGenerationException;
 import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.render.HeaderFooterEventHandler;
+import com.pdfgenerator.render.ImageAssets;
+import com.pdfgenerator.render.InFlightRenders;
+import com.pdfgenerator.render.MemoryBudget;
+import com.pdfgenerator.render.OutputProfile;
+import com.pdfgenerator.render.PdfOutputBuffers;
+import com.pdfgenerator.render.PdfOutputSink;
+import com.pdfgenerator.render.RenderCancellation;
+import com.pdfgenerator.render.RenderCost;
+import com.pdfgenerator.render.RenderCostModel;
+import com.pdfgenerator.render.RenderExecutor;
+import com.pdfgenerator.render.RenderKey;
+import com.pdfgenerator.render.RenderLane;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.stats.GenerationStats;
+import com.pdfgenerator.template.CompiledElement;
+import com.pdfgenerator.template.CompiledTemplate;
+import com.pdfgenerator.template.RenderScope;
+import com.pdfgenerator.template.TemplateCompiler;
+import com.pdfgenerator.template.TextTemplate;
+import com.pdfgenerator.template.ValueFormatter;
+import com.pdfgenerator.template.ValueFormatters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Core PDF generation service using iText 7
@@ -37,8 +63,40 @@ public class PDFGenerationService {
     
     private static final Logger logger = LoggerFactory.getLogger(PDFGenerationService.class);
     
+    // Formatters for category-based documents; raw values are formatted, preformatted strings pass through
+    private static final ValueFormatter CURRENCY_FORMAT = ValueFormatters.currency("TRY");
+    private static final ValueFormatter DATE_FORMAT = ValueFormatters.date("dd/MM/yyyy");
+    
+    @Autowired
+    private TemplateCache templateCache;
+    
+    @Autowired
+    private TemplateCompiler templateCompiler;
+    
+    @Autowired
+    private PdfOutputBuffers pdfOutputBuffers;
+    
+    @Autowired
+    private GenerationStats generationStats;
+    
+    @Autowired
+    private InFlightRenders inFlightRenders;
+    
+    @Autowired
+    private RenderExecutor renderExecutor;
+    
+    @Autowired
+    private GenerationLogService generationLogService;
+    
     @Autowired
-    private TemplateRepository templateRepository;
+    private RenderCostModel renderCostModel;
+    
+    @Autowired
+    private MemoryBudget memoryBudget;
+    
+    // Deadline of a request, queue wait included; 0 renders without one
+    @Value("${app.pdf.generation.timeout:30000}")
+    private long timeoutMillis;
     
     /**
      * Generate PDF from template and data
@@ -49,34 +107,159 @@ public class PDFGenerationService {
      * @throws PDFGenerationException if generation fails
      */
     public byte[] generatePDF(String templateId, Map<String, Object> data) {
+        return generatePDF(templateId, data, null);
+    }
+    
+    /**
+     * Generate PDF from template and data with an output profile
+     * 
+     * @param templateId Template identifier
+     * @param data Dynamic data to populate in template
+     * @param outputProfile Compression profile, or null for the template default
+     * @return PDF as byte array
+     * @throws PDFGenerationException if generation fails
+     */
+    public byte[] generatePDF(String templateId, Map<String, Object> data, OutputProfile outputProfile) {
+        return generatePDF(templateId, data, outputProfile, RenderLane.STANDARD);
+    }
+    
+    /**
+     * Generate PDF from template and data in a render lane
+     * 
+     * @param templateId Template identifier
+     * @param data Dynamic data to populate in template
+     * @param outputProfile Compression profile, or null for the template default
+     * @param lane Render lane the request waits in
+     * @return PDF as byte array
+     * @throws PDFGenerationException if generation fails
+     */
+    public byte[] generatePDF(String templateId, Map<String, Object> data, OutputProfile outputProfile, RenderLane lane) {
+        try (RenderedPdf pdf = renderPDF(templateId, data, outputProfile, lane)) {
+            return pdf.toByteArray();
+        }
+    }
+    
+    /**
+     * Render PDF into a pooled buffer or spilled temp file
+     * 
+     * @param templateId Template identifier
+     * @param data Dynamic data to populate in template
+     * @param outputProfile Compression profile, or null for the template default
+     * @return rendered PDF; the caller must close it
+     * @throws PDFGenerationException if generation fails
+     */
+    public RenderedPdf renderPDF(String templateId, Map<String, Object> data, OutputProfile outputProfile) {
+        return renderPDF(templateId, data, outputProfile, RenderLane.STANDARD);
+    }
+    
+    /**
+     * Render PDF into a pooled buffer or spilled temp file in a render lane
+     * 
+     * @param templateId Template identifier
+     * @param data Dynamic data to populate in template
+     * @param outputProfile Compression profile, or null for the template default
+     * @param lane Render lane the request waits in
+     * @return rendered PDF; the caller must close it
+     * @throws PDFGenerationException if generation fails
+     */
+    public RenderedPdf renderPDF(String templateId, Map<String, Object> data, OutputProfile outputProfile,
+                                 RenderLane lane) {
+        return renderPDF(templateId, data, outputProfile, lane, true);
+    }
+    
+    /**
+     * Render PDF into a pooled buffer or spilled temp file. The render runs on the render executor
+     * in the given lane; identical concurrent requests, same template version, profile and data,
+     * share one render and one queue slot. A render still queued or running when the generation
+     * timeout elapses is cancelled and logged as CANCELLED.
+     * 
+     * @param templateId Template identifier
+     * @param data Dynamic data to populate in template
+     * @param outputProfile Compression profile, or null for the template default
+     * @param lane Render lane the request waits in
+     * @param recordStats Whether the render counts towards the generation stats; false for warm-up renders
+     * @return rendered PDF; the caller must close it
+     * @throws PDFGenerationException if generation fails, or with {@link ErrorCode#RENDER_CANCELLED}
+     *         if it does not finish within the generation timeout
+     */
+    public RenderedPdf renderPDF(String templateId, Map<String, Object> data, OutputProfile outputProfile,
+                                 RenderLane lane, boolean recordStats) {
+        return renderPDF(templateId, data, outputProfile, lane, recordStats,
+            RenderCancellation.withTimeout(Duration.ofMillis(timeoutMillis)));
+    }
+    
+    /**
+     * Render PDF with the caller's cancellation token instead of the generation timeout, for
+     * render jobs
+     * 
+     * @param templateId Template identifier
+     * @param data Dynamic data to populate in template
+     * @param outputProfile Compression profile, or null for the template default
+     * @param lane Render lane the request waits in
+     * @param cancellation Deadline of the render, queue and memory wait included; the caller may
+     *        also cancel it, e.g. when its job lease is lost
+     * @return rendered PDF; the caller must close it
+     * @throws PDFGenerationException if generation fails or is cancelled
+     */
+    public RenderedPdf renderPDF(String templateId, Map<String, Object> data, OutputProfile outputProfile,
+                                 RenderLane lane, RenderCancellation cancellation) {
+        return renderPDF(templateId, data, outputProfile, lane, true, cancellation);
+    }
+    
+    /**
+     * Predict the CPU time and peak heap of rendering a template with the given data
+     * 
+     * @throws PDFGenerationException if the template does not exist
+     */
+    public RenderCost estimateCost(String templateId, Map<String, Object> data) {
+        return renderCostModel.estimate(getTemplate(templateId), data);
+    }
+    
+    private RenderedPdf renderPDF(String templateId, Map<String, Object> data, OutputProfile outputProfile,
+                                  RenderLane lane, boolean recordStats, RenderCancellation cancellation) {
         logger.info("Starting PDF generation for template: {}", templateId);
         
+        long started = System.nanoTime();
+        Template template = null;
         try {
             // Fetch template
-            Template template = getTemplate(templateId);
-            
-            // Create PDF document
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            PdfDocument pdfDocument = createPdfDocument(outputStream);
-            Document document = new Document(pdfDocument);
-            
-            // Generate content based on template
-            generateContent(document, template, data);
-            
-            // Close document
-            document.close();
+            template = getTemplate(templateId);
+            Template source = template;
+            OutputProfile profile = outputProfile != null ? outputProfile : getDefaultOutputProfile(template);
+            // Only the bound values are handed to the queued render, not the request data
+            RenderInput input = bind(template, data);
+            RenderCost cost = input.compiled != null
+                ? renderCostModel.estimate(template, input.compiled, input.scope)
+                : renderCostModel.estimate(template, input.data);
+            logger.debug("Estimated cost of template {}: {}", templateId, cost);
             
-            byte[] pdfBytes = outputStream.toByteArray();
-            logger.info("PDF generation completed successfully. Size: {} bytes", pdfBytes.length);
+            RenderKey key = RenderKey.of(templateId, template.getVersion(), template.getUpdatedAt(), profile, data);
+            RenderedPdf pdf = inFlightRenders.render(key, cancellation,
+                () -> admitAndRender(source, input, profile, cost, lane, cancellation));
+            if (recordStats) {
+                generationStats.recordCompleted(templateId, System.nanoTime() - started);
+            }
+            logger.info("PDF generation completed successfully. Size: {} bytes, profile: {}, in memory: {}",
+                pdf.getSize(), profile, pdf.isInMemory());
             
-            return pdfBytes;
+            return pdf;
             
         } catch (PDFGenerationException e) {
+            if (RenderCancellation.isCancellation(e)) {
+                // Not a template failure, so not counted in the stats
+                logger.warn("PDF generation cancelled for template {}: {}", templateId, e.getMessage());
+                if (recordStats) {
+                    recordCancelled(templateId, started, String.valueOf(e.getContext().get("reason")));
+                }
+                throw e;
+            }
             // Re-throw PDF generation exceptions as-is
             logger.error("PDF generation failed for template: {}", templateId, e);
+            recordFailure(template, recordStats);
             throw e;
         } catch (Exception e) {
             logger.error("PDF generation failed for template: {}", templateId, e);
+            recordFailure(template, recordStats);
             throw new PDFGenerationException(
                 ErrorCode.PDF_GENERATION_FAILED, 
                 "Failed to generate PDF: " + e.getMessage(),
@@ -85,11 +268,128 @@ public class PDFGenerationService {
         }
     }
     
+    /**
+     * Log a generation that was cancelled before its document was rendered
+     * 
+     * @param started System.nanoTime() when the request started
+     * @param reason Cancellation reason, such as "deadline_exceeded"
+     */
+    private void recordCancelled(String templateId, long started, String reason) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        generationLogService.recordCancelled(templateId, elapsedMs, reason);
+    }
+    
+    /**
+     * Compile a schema template and bind the request data into its slots, dropping the keys it never
+     * reads. Category templates and legacy schemas without an element list read the request data by
+     * key, so they keep all of it.
+     */
+    private RenderInput bind(Template template, Map<String, Object> data) {
+        Map<String, Object> values = data != null ? data : Map.of();
+        Map<String, Object> schema = template.getSchema();
+        if (schema == null || schema.isEmpty() || !(schema.get("elements") instanceof List)) {
+            return new RenderInput(null, null, values);
+        }
+        // Placeholders and format directives are parsed once per template version
+        CompiledTemplate compiled = compile(template);
+        return new RenderInput(compiled, compiled.bind(values), null);
+    }
+    
+    /**
+     * Reserve the render's predicted heap on the calling thread, then queue it, so a render waiting
+     * for memory never holds a render thread. The reservation passes to the render when it starts;
+     * if it never starts, because the queue is full or the caller stopped waiting, the caller
+     * releases it.
+     */
+    private RenderedPdf admitAndRender(Template template, RenderInput input, OutputProfile profile,
+                                       RenderCost cost, RenderLane lane, RenderCancellation cancellation)
+            throws Exception {
+        MemoryBudget.Reservation reservation = memoryBudget.reserve(cost.getMemoryBytes(), cancellation);
+        AtomicBoolean claimed = new AtomicBoolean();
+        try {
+            return renderExecutor.render(lane, cancellation, () -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    // The caller stopped waiting and released the memory
+                    throw cancellation.cancelled(RenderCancellation.Reason.ABANDONED);
+                }
+                try (reservation) {
+                    return render(template, input, profile, cost, cancellation);
+                }
+            });
+        } finally {
+            if (claimed.compareAndSet(false, true)) {
+                reservation.close();
+            }
+        }
+    }
+    
+    /**
+     * Render the document, releasing the output buffer if that fails or is cancelled. A cancelled
+     * document is dropped without closing it, as closing would still write out its pages. The
+     * render's CPU time calibrates the cost model.
+     */
+    private RenderedPdf render(Template template, RenderInput input, OutputProfile profile, RenderCost cost,
+                               RenderCancellation cancellation) throws IOException {
+        long cpuStarted = RenderCostModel.threadCpuTime();
+        RenderedPdf pdf = render(template, input, profile, cancellation);
+        renderCostModel.record(template.getId(), cost, RenderCostModel.threadCpuTime() - cpuStarted);
+        return pdf;
+    }
+    
+    private RenderedPdf render(Template template, RenderInput input, OutputProfile profile,
+                               RenderCancellation cancellation) throws IOException {
+        PdfOutputSink sink = null;
+        try {
+            // Create PDF document, pre-sized from earlier documents of this template
+            sink = pdfOutputBuffers.open(template.getId());
+            PdfDocument pdfDocument = createPdfDocument(sink, profile);
+            Document document = new Document(pdfDocument);
+            
+            // Generate content based on template
+            HeaderFooterEventHandler headerFooter = generateContent(document, template, input, cancellation);
+            cancellation.check();
+            
+            // Fill deferred total page count before the document is closed
+            if (headerFooter != null) {
+                headerFooter.writeTotalPages();
+            }
+            
+            // Close document
+            document.close();
+            
+            RenderedPdf pdf = sink.finish();
+            pdfOutputBuffers.recordSize(template.getId(), pdf.getSize());
+            return pdf;
+        } catch (Exception e) {
+            discard(sink);
+            throw e;
+        }
+    }
+    
+    /**
+     * Release the output buffer of a failed render
+     */
+    private void discard(PdfOutputSink sink) {
+        if (sink != null) {
+            sink.discard();
+        }
+    }
+    
+    /**
+     * Count a failed render; requests for unknown templates are not counted, so they cannot add
+     * entries to the stats
+     */
+    private void recordFailure(Template template, boolean recordStats) {
+        if (recordStats && template != null) {
+            generationStats.recordFailed(template.getId());
+        }
+    }
+    
     /**
      * Get template by ID
      */
     private Template getTemplate(String templateId) {
-        Optional<Template> templateOpt = templateRepository.findById(templateId);
+        Optional<Template> templateOpt = templateCache.get(templateId);
         if (templateOpt.isEmpty()) {
             throw new PDFGenerationException(
                 ErrorCode.TEMPLATE_NOT_FOUND,
@@ -100,11 +400,30 @@ public class PDFGenerationService {
         return templateOpt.get();
     }
     
+    /**
+     * Output profile configured on the template layout, or the platform default
+     */
+    private OutputProfile getDefaultOutputProfile(Template template) {
+        Object layout = template.getSchema() != null ? template.getSchema().get("layout") : null;
+        if (layout instanceof Map) {
+            Object value = ((Map<?, ?>) layout).get("outputProfile");
+            try {
+                OutputProfile profile = OutputProfile.fromValue(value != null ? value.toString() : null);
+                if (profile != null) {
+                    return profile;
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring output profile of template {}: {}", template.getId(), e.getMessage());
+            }
+        }
+        return OutputProfile.DEFAULT;
+    }
+    
     /**
      * Create PDF document with basic configuration
      */
-    private PdfDocument createPdfDocument(ByteArrayOutputStream outputStream) {
-        PdfWriter writer = new PdfWriter(outputStream);
+    private PdfDocument createPdfDocument(OutputStream outputStream, OutputProfile profile) {
+        PdfWriter writer = new PdfWriter(outputStream, profile.toWriterProperties());
         PdfDocument pdfDocument = new PdfDocument(writer);
         
         // Set document metadata
@@ -117,54 +436,70 @@ public class PDFGenerationService {
     
     /**
      * Generate document content based on template and data
+     * 
+     * @return header/footer handler registered for the document, or null if none
      */
-    private void generateContent(Document document, Template template, Map<String, Object> data) {
+    private HeaderFooterEventHandler generateContent(Document document, Template template, RenderInput input,
+                                                     RenderCancellation cancellation) {
         logger.debug("Generating content for template: {}", template.getName());
         
-        // Handle null data
-        if (data == null) {
-            data = Map.of();
-        }
-        
         // Check if template has schema-based structure
-        if (template.getSchema() != null && !template.getSchema().isEmpty()) {
-            generateSchemaBasedContent(document, template.getSchema(), data);
+        if (input.compiled != null) {
+            return generateSchemaBasedContent(document, input.compiled, input.scope, cancellation);
+        } else if (template.getSchema() != null && !template.getSchema().isEmpty()) {
+            // Schemas saved before validation may have no element list to lay out
+            logger.warn("Template {} has no element list, falling back to basic content", template.getId());
+            generateBasicContent(document, input.data);
+            return null;
         } else {
             // Fallback to category-based generation
-            generateCategoryBasedContent(document, template, data);
+            generateCategoryBasedContent(document, template, input.data, cancellation);
+            return null;
         }
     }
     
     /**
      * Generate content based on template schema structure
      */
-    private void generateSchemaBasedContent(Document document, Map<String, Object> schema, Map<String, Object> data) {
+    private HeaderFooterEventHandler generateSchemaBasedContent(Document document, CompiledTemplate compiled,
+                                                                RenderScope scope, RenderCancellation cancellation) {
         logger.debug("Generating schema-based content");
         
+        // Get layout configuration
+        configureDocumentLayout(document, compiled.getLayout());
+        HeaderFooterEventHandler headerFooter = configureHeaderFooter(document, compiled, scope);
+        
+        // Render each element
+        for (CompiledElement element : compiled.getElements()) {
+            cancellation.check();
+            renderElement(document, element, scope, cancellation);
+        }
+        
+        return headerFooter;
+    }
+    
+    /**
+     * Compile a template's schema, failing the render if its text, paths or format directives are
+     * malformed rather than rendering a different document
+     */
+    private CompiledTemplate compile(Template template) {
         try {
-            // Get layout configuration
-            Map<String, Object> layout = getLayoutFromSchema(schema);
-            configureDocumentLayout(document, layout);
-            
-            // Get elements from schema
-            List<Map<String, Object>> elements = getElementsFromSchema(schema);
-            
-            // Render each element
-            for (Map<String, Object> element : elements) {
-                renderElement(document, element, data);
-            }
-            
-        } catch (Exception e) {
-            logger.warn("Failed to generate schema-based content, falling back to basic content: {}", e.getMessage());
-            // Fallback to basic content generation
-            generateBasicContent(document, data);
+            return templateCompiler.compile(template);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            throw new PDFGenerationException(
+                ErrorCode.TEMPLATE_SCHEMA_INVALID,
+                "Template schema is invalid: " + e.getMessage(),
+                e,
+                Map.of("templateId", template.getId())
+            );
         }
     }
     
     /**
      * Generate content based on template category (fallback method)
      */
-    private void generateCategoryBasedContent(Document document, Template template, Map<String, Object> data) {
+    private void generateCategoryBasedContent(Document document, Template template, Map<String, Object> data,
+                                              RenderCancellation cancellation) {
         logger.debug("Generating category-based content for: {}", template.getCategory());
         
         // Add title
@@ -182,7 +517,7 @@ public class PDFGenerationService {
         // Add basic content based on template category
         switch (template.getCategory()) {
             case CREDIT_CARD_STATEMENT:
-                generateCreditCardContent(document, data);
+                generateCreditCardContent(document, data, cancellation);
                 break;
             case HEALTH_INSURANCE_POLICY:
                 generateInsurancePolicyContent(document, data);
@@ -194,7 +529,7 @@ public class PDFGenerationService {
                 generatePaymentReceiptContent(document, data);
                 break;
             default:
-                generateGenericContent(document, data);
+                generateGenericContent(document, data, cancellation);
                 break;
         }
     }
@@ -202,7 +537,7 @@ public class PDFGenerationService {
     /**
      * Generate credit card statement content
      */
-    private void generateCreditCardContent(Document document, Map<String, Object> data) {
+    private void generateCreditCardContent(Document document, Map<String, Object> data, RenderCancellation cancellation) {
         logger.debug("Generating credit card statement content");
         
         // Customer information table
@@ -223,7 +558,7 @@ public class PDFGenerationService {
         
         // Transaction details
         if (data.containsKey("transactions")) {
-            generateTransactionTable(document, data.get("transactions"));
+            generateTransactionTable(document, data.get("transactions"), cancellation);
         }
     }
     
@@ -242,7 +577,7 @@ public class PDFGenerationService {
         
         addTableRow(policyTable, "Poliçe No", data.get("policy_number"));
         addTableRow(policyTable, "Sigortalı", data.get("insured_name"));
-        addTableRow(policyTable, "Prim Tutarı", data.get("premium_amount"));
+        addTableRow(policyTable, "Prim Tutarı", CURRENCY_FORMAT.format(data.get("premium_amount")));
         
         document.add(policyTable);
     }
@@ -262,7 +597,7 @@ public class PDFGenerationService {
         
         addTableRow(accountTable, "Hesap No", data.get("account_number"));
         addTableRow(accountTable, "Hesap Sahibi", data.get("account_holder"));
-        addTableRow(accountTable, "Bakiye", data.get("balance"));
+        addTableRow(accountTable, "Bakiye", CURRENCY_FORMAT.format(data.get("balance")));
         
         document.add(accountTable);
     }
@@ -282,8 +617,8 @@ public class PDFGenerationService {
         
         addTableRow(paymentTable, "Makbuz No", data.get("receipt_number"));
         addTableRow(paymentTable, "Ödeyen", data.get("payer_name"));
-        addTableRow(paymentTable, "Tutar", data.get("amount"));
-        addTableRow(paymentTable, "Tarih", data.get("payment_date"));
+        addTableRow(paymentTable, "Tutar", CURRENCY_FORMAT.format(data.get("amount")));
+        addTableRow(paymentTable, "Tarih", DATE_FORMAT.format(data.get("payment_date")));
         
         document.add(paymentTable);
     }
@@ -291,7 +626,7 @@ public class PDFGenerationService {
     /**
      * Generate generic content for unknown template types
      */
-    private void generateGenericContent(Document document, Map<String, Object> data) {
+    private void generateGenericContent(Document document, Map<String, Object> data, RenderCancellation cancellation) {
         logger.debug("Generating generic content");
         
         // Simple key-value table for all data
@@ -302,6 +637,7 @@ public class PDFGenerationService {
         dataTable.addHeaderCell(new Cell().add(new Paragraph("Değer").setBold()));
         
         for (Map.Entry<String, Object> entry : data.entrySet()) {
+            cancellation.check();
             addTableRow(dataTable, entry.getKey(), entry.getValue());
         }
         
@@ -311,7 +647,7 @@ public class PDFGenerationService {
     /**
      * Generate transaction table for credit card statements
      */
-    private void generateTransactionTable(Document document, Object transactions) {
+    private void generateTransactionTable(Document document, Object transactions, RenderCancellation cancellation) {
         // Add transaction table title
         document.add(new Paragraph("İşlem Detayları").setBold().setFontSize(14));
         
@@ -325,18 +661,34 @@ public class PDFGenerationService {
         transactionTable.addHeaderCell(new Cell().add(new Paragraph("Tutar").setBold()));
         transactionTable.addHeaderCell(new Cell().add(new Paragraph("Bakiye").setBold()));
         
-        // Add sample transaction if transactions is not a proper list
-        if (transactions != null) {
-            // For now, add a sample row - will be enhanced in later tasks
-            transactionTable.addCell(new Cell().add(new Paragraph("01/01/2025")));
-            transactionTable.addCell(new Cell().add(new Paragraph("Örnek İşlem")));
-            transactionTable.addCell(new Cell().add(new Paragraph("1.000,00 TL")));
-            transactionTable.addCell(new Cell().add(new Paragraph("5.000,00 TL")));
+        if (transactions instanceof List) {
+            // Transactions carry raw values: {date, description, amount, balance}
+            for (Object item : (List<?>) transactions) {
+                cancellation.check();
+                if (item instanceof Map) {
+                    Map<?, ?> transaction = (Map<?, ?>) item;
+                    addTransactionRow(transactionTable, transaction.get("date"), transaction.get("description"),
+                        transaction.get("amount"), transaction.get("balance"));
+                }
+            }
+        } else if (transactions != null) {
+            // Add sample transaction if transactions is not a proper list
+            addTransactionRow(transactionTable, "2025-01-01", "Örnek İşlem", 1000, 5000);
         }
         
         document.add(transactionTable);
     }
     
+    /**
+     * Add transaction row, formatting raw dates and amounts
+     */
+    private void addTransactionRow(Table table, Object date, Object description, Object amount, Object balance) {
+        table.addCell(new Cell().add(new Paragraph(DATE_FORMAT.format(date))));
+        table.addCell(new Cell().add(new Paragraph(description != null ? description.toString() : "")));
+        table.addCell(new Cell().add(new Paragraph(CURRENCY_FORMAT.format(amount))));
+        table.addCell(new Cell().add(new Paragraph(CURRENCY_FORMAT.format(balance))));
+    }
+    
     /**
      * Helper method to add table row
      */
@@ -347,26 +699,6 @@ public class PDFGenerationService {
     
     // ========== Schema-based PDF Generation Methods ==========
     
-    /**
-     * Get layout configuration from schema
-     */
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getLayoutFromSchema(Map<String, Object> schema) {
-        return (Map<String, Object>) schema.getOrDefault("layout", Map.of());
-    }
-    
-    /**
-     * Get elements list from schema
-     */
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> getElementsFromSchema(Map<String, Object> schema) {
-        Object elements = schema.get("elements");
-        if (elements instanceof List) {
-            return (List<Map<String, Object>>) elements;
-        }
-        return List.of();
-    }
-    
     /**
      * Configure document layout based on schema
      */
@@ -387,6 +719,47 @@ public class PDFGenerationService {
         }
     }
     
+    /**
+     * Register running header/footer handler if the template defines a header or footer
+     */
+    private HeaderFooterEventHandler configureHeaderFooter(Document document, CompiledTemplate compiled, RenderScope scope) {
+        HeaderFooterEventHandler.Section header = resolveSection(compiled.getHeader(), scope, TextAlignment.LEFT);
+        HeaderFooterEventHandler.Section footer = resolveSection(compiled.getFooter(), scope, TextAlignment.CENTER);
+        if (header == null && footer == null) {
+            return null;
+        }
+        
+        float[] margins = {
+            document.getTopMargin(), document.getRightMargin(), document.getBottomMargin(), document.getLeftMargin()
+        };
+        HeaderFooterEventHandler handler = new HeaderFooterEventHandler(document.getPdfDocument(), header, footer, margins);
+        document.getPdfDocument().addEventHandler(PdfDocumentEvent.END_PAGE, handler);
+        
+        // Keep body content clear of the header and footer bands
+        document.setTopMargin(handler.getContentTopMargin());
+        document.setBottomMargin(handler.getContentBottomMargin());
+        
+        return handler;
+    }
+    
+    /**
+     * Resolve compiled header or footer against request data (page tokens are kept for the handler)
+     */
+    private HeaderFooterEventHandler.Section resolveSection(CompiledTemplate.Section section, RenderScope scope,
+                                                           TextAlignment defaultAlignment) {
+        if (section == null) {
+            return null;
+        }
+        
+        return new HeaderFooterEventHandler.Section(
+            section.getText().render(scope),
+            section.getLogo() != null ? ImageAssets.get(section.getLogo()) : null,
+            section.getHeight(),
+            section.getFontSize(),
+            getTextAlignment(section.getTextAlign(), defaultAlignment)
+        );
+    }
+    
     /**
      * Get margins from layout configuration
      */
@@ -413,27 +786,33 @@ public class PDFGenerationService {
     /**
      * Render individual element based on type
      */
-    private void renderElement(Document document, Map<String, Object> element, Map<String, Object> data) {
-        String type = (String) element.getOrDefault("type", "TEXT");
+    private void renderElement(Document document, CompiledElement element, RenderScope scope,
+                               RenderCancellation cancellation) {
+        // Conditional elements are skipped before any layout work
+        if (!element.isVisible(scope)) {
+            return;
+        }
+        
+        String type = element.getType();
         
         logger.debug("Rendering element of type: {}", type);
         
-        switch (type.toUpperCase()) {
+        switch (type) {
             case "TEXT":
-                renderTextElement(document, element, data);
+                renderTextElement(document, element, scope);
                 break;
             case "TABLE":
-                renderTableElement(document, element, data);
+                renderTableElement(document, element, scope, cancellation);
                 break;
             case "IMAGE":
-                renderImageElement(document, element, data);
+                renderImageElement(document, element, scope);
                 break;
             case "CONTAINER":
-                renderContainerElement(document, element, data);
+                renderContainerElement(document, element, scope, cancellation);
                 break;
             default:
                 logger.warn("Unknown element type: {}", type);
-                renderTextElement(document, element, data); // Fallback to text
+                renderTextElement(document, element, scope); // Fallback to text
                 break;
         }
     }
@@ -441,16 +820,13 @@ public class PDFGenerationService {
     /**
      * Render text element
      */
-    private void renderTextElement(Document document, Map<String, Object> element, Map<String, Object> data) {
-        Map<String, Object> properties = getElementProperties(element);
-        
-        String text = (String) properties.getOrDefault("text", "");
-        text = replacePlaceholders(text, data);
+    private void renderTextElement(Document document, CompiledElement element, RenderScope scope) {
+        String text = element.getText().render(scope);
         
         Paragraph paragraph = new Paragraph(text);
         
         // Apply text formatting
-        applyTextFormatting(paragraph, properties);
+        applyTextFormatting(paragraph, element.getProperties());
         
         document.add(paragraph);
     }
@@ -458,12 +834,9 @@ public class PDFGenerationService {
     /**
      * Render table element
      */
-    private void renderTableElement(Document document, Map<String, Object> element, Map<String, Object> data) {
-        Map<String, Object> properties = getElementProperties(element);
-        
-        // Get table configuration
-        List<Map<String, Object>> columns = getTableColumns(properties);
-        List<Map<String, Object>> rows = getTableRows(properties);
+    private void renderTableElement(Document document, CompiledElement element, RenderScope scope,
+                                    RenderCancellation cancellation) {
+        List<CompiledElement.Column> columns = element.getColumns();
         
         if (columns.isEmpty()) {
             logger.warn("Table element has no columns defined");
@@ -473,37 +846,42 @@ public class PDFGenerationService {
         // Create table with column widths
         float[] columnWidths = new float[columns.size()];
         for (int i = 0; i < columns.size(); i++) {
-            columnWidths[i] = getIntValue(columns.get(i), "width", 100);
+            columnWidths[i] = columns.get(i).getWidth();
         }
         
         Table table = new Table(UnitValue.createPercentArray(columnWidths))
             .setWidth(UnitValue.createPercentValue(100));
         
         // Add headers
-        for (Map<String, Object> column : columns) {
-            String header = (String) column.getOrDefault("header", "");
-            Cell headerCell = new Cell().add(new Paragraph(header).setBold());
+        for (CompiledElement.Column column : columns) {
+            Cell headerCell = new Cell().add(new Paragraph(column.getHeader()).setBold());
             table.addHeaderCell(headerCell);
         }
         
-        // Add data rows
-        for (Map<String, Object> row : rows) {
-            for (Map<String, Object> column : columns) {
-                String dataKey = (String) column.get("dataKey");
-                String value = "";
-                
-                if (dataKey != null) {
-                    Object dataValue = data.get(dataKey);
-                    value = dataValue != null ? dataValue.toString() : "";
-                } else {
-                    String label = (String) row.get("label");
-                    String valueKey = (String) row.get("value");
-                    if (valueKey != null) {
-                        value = replacePlaceholders(valueKey, data);
+        if (element.getEach() != null) {
+            // One row per list item, column paths resolved relative to the item
+            scope.forEachItem(element.getEach().resolve(scope), element.getRowManifest(), rowScope -> {
+                cancellation.check();
+                for (CompiledElement.Column column : columns) {
+                    String value = column.getPath() != null ? column.render(rowScope) : "";
+                    table.addCell(new Cell().add(new Paragraph(value)));
+                }
+            });
+        } else {
+            // Add data rows
+            for (TextTemplate row : element.getRows()) {
+                cancellation.check();
+                for (CompiledElement.Column column : columns) {
+                    String value;
+                    
+                    if (column.getPath() != null) {
+                        value = column.render(scope);
+                    } else {
+                        value = row.render(scope);
                     }
+                    
+                    table.addCell(new Cell().add(new Paragraph(value)));
                 }
-                
-                table.addCell(new Cell().add(new Paragraph(value)));
             }
         }
         
@@ -513,16 +891,13 @@ public class PDFGenerationService {
     /**
      * Render image element
      */
-    private void renderImageElement(Document document, Map<String, Object> element, Map<String, Object> data) {
-        Map<String, Object> properties = getElementProperties(element);
-        
-        String src = (String) properties.get("src");
-        if (src == null) {
+    private void renderImageElement(Document document, CompiledElement element, RenderScope scope) {
+        if (element.getText().getSource().isEmpty()) {
             logger.warn("Image element has no src property");
             return;
         }
         
-        src = replacePlaceholders(src, data);
+        String src = element.getText().render(scope);
         
         try {
             // For now, we'll skip actual image rendering as it requires file handling
@@ -544,71 +919,12 @@ public class PDFGenerationService {
     /**
      * Render container element (contains child elements)
      */
-    private void renderContainerElement(Document document, Map<String, Object> element, Map<String, Object> data) {
-        List<Map<String, Object>> children = getContainerChildren(element);
-        
-        for (Map<String, Object> child : children) {
-            renderElement(document, child, data);
-        }
-    }
-    
-    /**
-     * Get element properties
-     */
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getElementProperties(Map<String, Object> element) {
-        Object properties = element.get("properties");
-        if (properties instanceof Map) {
-            return (Map<String, Object>) properties;
+    private void renderContainerElement(Document document, CompiledElement element, RenderScope scope,
+                                        RenderCancellation cancellation) {
+        for (CompiledElement child : element.getChildren()) {
+            cancellation.check();
+            renderElement(document, child, scope, cancellation);
         }
-        return Map.of();
-    }
-    
-    /**
-     * Get table columns from properties
-     */
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> getTableColumns(Map<String, Object> properties) {
-        Object columns = properties.get("columns");
-        if (columns instanceof List) {
-            return (List<Map<String, Object>>) columns;
-        }
-        return List.of();
-    }
-    
-    /**
-     * Get table rows from properties
-     */
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> getTableRows(Map<String, Object> properties) {
-        Object rows = properties.get("rows");
-        if (rows instanceof List) {
-            return (List<Map<String, Object>>) rows;
-        }
-        return List.of();
-    }
-    
-    /**
-     * Get container children
-     */
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> getContainerChildren(Map<String, Object> element) {
-        Object children = element.get("children");
-        if (children instanceof List) {
-            return (List<Map<String, Object>>) children;
-        }
-        return List.of();
-    }
-    
-    /**
-     * Get integer value from map with default
-     */
-    private int getIntValue(Map<String, Object> map, String key, int defaultValue) {
-        Object value = map.get(key);
-        if (value instanceof Number) {
-            return ((Number) value).intValue();
-        }
-        return defaultValue;
     }
     
     /**
@@ -630,45 +946,28 @@ public class PDFGenerationService {
         // Text alignment
         String textAlign = (String) properties.get("textAlign");
         if (textAlign != null) {
-            switch (textAlign.toLowerCase()) {
-                case "center":
-                    paragraph.setTextAlignment(TextAlignment.CENTER);
-                    break;
-                case "right":
-                    paragraph.setTextAlignment(TextAlignment.RIGHT);
-                    break;
-                case "justify":
-                    paragraph.setTextAlignment(TextAlignment.JUSTIFIED);
-                    break;
-                default:
-                    paragraph.setTextAlignment(TextAlignment.LEFT);
-                    break;
-            }
+            paragraph.setTextAlignment(getTextAlignment(textAlign, TextAlignment.LEFT));
         }
     }
     
     /**
-     * Replace placeholders in text with actual data
+     * Map schema text alignment to iText alignment
      */
-    private String replacePlaceholders(String text, Map<String, Object> data) {
-        if (text == null || data == null) {
-            return text;
-        }
-        
-        // Pattern to match {{field_name}} placeholders
-        Pattern pattern = Pattern.compile("\\{\\{([^}]+)\\}\\}");
-        Matcher matcher = pattern.matcher(text);
-        
-        StringBuffer result = new StringBuffer();
-        while (matcher.find()) {
-            String fieldName = matcher.group(1).trim();
-            Object value = data.get(fieldName);
-            String replacement = value != null ? value.toString() : "";
-            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    private TextAlignment getTextAlignment(String textAlign, TextAlignment defaultAlignment) {
+        if (textAlign == null) {
+            return defaultAlignment;
+        }
+        
+        switch (textAlign.toLowerCase()) {
+            case "center":
+                return TextAlignment.CENTER;
+            case "right":
+                return TextAlignment.RIGHT;
+            case "justify":
+                return TextAlignment.JUSTIFIED;
+            default:
+                return TextAlignment.LEFT;
         }
-        matcher.appendTail(result);
-        
-        return result.toString();
     }
     
     /**
@@ -702,4 +1001,21 @@ public class PDFGenerationService {
             document.add(dataTable);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Request data prepared for one render: the compiled plan and bound values of a schema template,
+     * or the request data of a category template or legacy schema
+     */
+    private static final class RenderInput {
+        
+        private final CompiledTemplate compiled;
+        private final RenderScope scope;
+        private final Map<String, Object> data;
+        
+        RenderInput(CompiledTemplate compiled, RenderScope scope, Map<String, Object> data) {
+            this.compiled = compiled;
+            this.scope = scope;
+            this.data = data;
+        }
+    }
+}
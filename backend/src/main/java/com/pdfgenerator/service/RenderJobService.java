@@ -0,0 +1,283 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.dto.RenderJobResponse;
+import com.pdfgenerator.entity.RenderJob;
+import com.pdfgenerator.entity.RenderJobResult;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import com.pdfgenerator.render.OutputProfile;
+import com.pdfgenerator.render.RenderCost;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.repository.RenderJobRepository;
+import com.pdfgenerator.repository.RenderJobResultRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous render jobs, queued in the render_jobs table.
+ *
+ * Any node queues jobs and serves their state and documents; nodes with job workers claim them
+ * with {@code FOR UPDATE SKIP LOCKED}, so concurrent workers never wait for each other or claim
+ * the same job. A claim leases the job to its worker, which extends the lease with heartbeats. A
+ * job whose lease expires, because its worker died or stalled, is put back in the queue, or
+ * failed once it has used up its attempts; results are only stored by the worker still holding
+ * the lease of the attempt. Jobs without a heartbeat for two heartbeat intervals are reported as
+ * stuck. Finished jobs and their documents are deleted after the retention period.
+ */
+@Service
+public class RenderJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderJobService.class);
+
+    private final RenderJobRepository renderJobRepository;
+    private final RenderJobResultRepository renderJobResultRepository;
+    private final Duration lease;
+    private final Duration stuckAfter;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final int maxQueued;
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong stuck = new AtomicLong();
+
+    @Autowired
+    public RenderJobService(RenderJobRepository renderJobRepository,
+                            RenderJobResultRepository renderJobResultRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.pdf.jobs.lease:60s}") Duration lease,
+                            @Value("${app.pdf.jobs.heartbeat:15s}") Duration heartbeat,
+                            @Value("${app.pdf.jobs.retention:1h}") Duration retention,
+                            @Value("${app.pdf.jobs.max-attempts:3}") int maxAttempts,
+                            @Value("${app.pdf.jobs.max-queued:1000}") int maxQueued) {
+        if (heartbeat.compareTo(lease) >= 0) {
+            throw new IllegalStateException("app.pdf.jobs.heartbeat must be shorter than app.pdf.jobs.lease");
+        }
+        this.renderJobRepository = renderJobRepository;
+        this.renderJobResultRepository = renderJobResultRepository;
+        this.lease = lease;
+        this.stuckAfter = heartbeat.multipliedBy(2);
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+        this.maxQueued = maxQueued;
+        Gauge.builder("pdf.render.jobs.queued", queued, AtomicLong::get)
+            .description("Render jobs waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("pdf.render.jobs.stuck", stuck, AtomicLong::get)
+            .description("Running render jobs whose worker missed two heartbeats")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a render job
+     *
+     * @param cost Estimated cost of the render, reported with the job
+     * @throws PDFGenerationException if too many jobs are waiting
+     */
+    @Transactional
+    public RenderJobResponse submit(String templateId, Map<String, Object> data, OutputProfile profile, RenderCost cost) {
+        if (renderJobRepository.countByStatus(PDFGenerationStatus.PENDING) >= maxQueued) {
+            throw new PDFGenerationException(ErrorCode.RENDER_QUEUE_FULL, "Too many render jobs waiting",
+                Map.of("maxQueued", maxQueued));
+        }
+        RenderJob job = renderJobRepository.save(
+            new RenderJob(templateId, data, profile, cost.getCpuMillis(), cost.getMemoryBytes()));
+        logger.info("Queued render job {} for template {}: {}", job.getId(), templateId, cost);
+        return convertToResponse(job);
+    }
+
+    /**
+     * Current state of a job
+     *
+     * @throws PDFGenerationException if the job does not exist or has expired
+     */
+    @Transactional(readOnly = true)
+    public RenderJobResponse getJob(String jobId) {
+        return convertToResponse(findJob(jobId));
+    }
+
+    /**
+     * Rendered document of a completed job
+     *
+     * @return the document; the caller must close it
+     * @throws PDFGenerationException if the job does not exist or has not completed
+     */
+    @Transactional(readOnly = true)
+    public RenderedPdf openResult(String jobId) {
+        RenderJob job = findJob(jobId);
+        RenderJobResult result = job.getStatus() == PDFGenerationStatus.COMPLETED
+            ? renderJobResultRepository.findById(jobId).orElse(null)
+            : null;
+        if (result == null) {
+            throw new PDFGenerationException(ErrorCode.JOB_NOT_COMPLETED,
+                "Render job " + jobId + " has no result: " + job.getStatus().name(),
+                Map.of("status", job.getStatus().name()));
+        }
+        return RenderedPdf.of(result.getContent());
+    }
+
+    /**
+     * Running jobs whose worker missed two heartbeats, longest silent first. Their leases expire
+     * unless the worker recovers, and they are then put back in the queue.
+     */
+    @Transactional(readOnly = true)
+    public List<RenderJobResponse> getStuckJobs() {
+        return renderJobRepository.findByStatusAndHeartbeatAtBeforeOrderByHeartbeatAtAsc(
+                PDFGenerationStatus.PROCESSING, LocalDateTime.now().minus(stuckAfter)).stream()
+            .map(this::convertToResponse)
+            .toList();
+    }
+
+    /**
+     * Claim the oldest pending job for a worker
+     *
+     * @return the claimed job, or null if none is waiting
+     */
+    @Transactional
+    public RenderJob claimNext(String workerId) {
+        String jobId = renderJobRepository.lockNextPending().orElse(null);
+        if (jobId == null) {
+            return null;
+        }
+        RenderJob job = renderJobRepository.findById(jobId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        job.setStatus(PDFGenerationStatus.PROCESSING);
+        job.setAttempts(job.getAttempts() + 1);
+        job.setLeaseOwner(workerId);
+        job.setLeaseExpiresAt(now.plus(lease));
+        job.setHeartbeatAt(now);
+        job.setStartedAt(now);
+        return job;
+    }
+
+    /**
+     * Store the document of a job
+     *
+     * @param attempt Attempt of the claim the document was rendered for
+     * @return false if the worker no longer holds the lease; the document is not stored then
+     */
+    @Transactional
+    public boolean complete(String jobId, String workerId, int attempt, RenderedPdf pdf) {
+        byte[] content = pdf.toByteArray();
+        if (renderJobRepository.finish(jobId, workerId, attempt, PDFGenerationStatus.PROCESSING,
+                PDFGenerationStatus.COMPLETED, LocalDateTime.now(), null, (long) content.length) == 0) {
+            return false;
+        }
+        renderJobResultRepository.save(new RenderJobResult(jobId, content));
+        return true;
+    }
+
+    /**
+     * Record a failed or cancelled job
+     *
+     * @return false if the worker no longer holds the lease
+     */
+    @Transactional
+    public boolean fail(String jobId, String workerId, int attempt, PDFGenerationStatus status, String errorMessage) {
+        return renderJobRepository.finish(jobId, workerId, attempt, PDFGenerationStatus.PROCESSING,
+            status, LocalDateTime.now(), errorMessage, null) > 0;
+    }
+
+    /**
+     * Extend the leases of a worker's running jobs
+     *
+     * @return ids of the jobs whose lease the worker still holds
+     */
+    @Transactional
+    public Set<String> extendLeases(String workerId, Collection<String> jobIds) {
+        Set<String> held = new HashSet<>(renderJobRepository.findLeasedIds(jobIds, workerId, PDFGenerationStatus.PROCESSING));
+        if (!held.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            renderJobRepository.extendLeases(held, workerId, PDFGenerationStatus.PROCESSING, now, now.plus(lease));
+        }
+        return held;
+    }
+
+    /**
+     * Put a worker's running jobs back in the queue without counting the attempt
+     */
+    @Transactional
+    public int release(String workerId, Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        return renderJobRepository.release(jobIds, workerId, PDFGenerationStatus.PENDING, PDFGenerationStatus.PROCESSING);
+    }
+
+    /**
+     * Re-queue jobs whose lease expired, fail those out of attempts, and refresh the queue gauges;
+     * runs every heartbeat. Intervals are converted with Spring Boot's duration format, as
+     * {@code @Scheduled} only reads ISO-8601 or milliseconds.
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle)"
+        + ".detectAndParse('${app.pdf.jobs.heartbeat:15s}').toMillis()}")
+    @Transactional
+    public void requeueExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        int requeued = renderJobRepository.requeueExpired(PDFGenerationStatus.PENDING, PDFGenerationStatus.PROCESSING,
+            now, maxAttempts);
+        int failed = renderJobRepository.failExpired(PDFGenerationStatus.FAILED, PDFGenerationStatus.PROCESSING,
+            now, maxAttempts, "Worker lease expired on attempt " + maxAttempts + " of " + maxAttempts);
+        if (requeued > 0 || failed > 0) {
+            logger.warn("Render job leases expired: {} jobs re-queued, {} failed after {} attempts",
+                requeued, failed, maxAttempts);
+        }
+        queued.set(renderJobRepository.countByStatus(PDFGenerationStatus.PENDING));
+        stuck.set(renderJobRepository.countByStatusAndHeartbeatAtBefore(PDFGenerationStatus.PROCESSING,
+            now.minus(stuckAfter)));
+    }
+
+    /**
+     * Drop jobs that finished longer than the retention period ago, with their documents
+     */
+    @Scheduled(fixedDelayString = "#{T(org.springframework.boot.convert.DurationStyle)"
+        + ".detectAndParse('${app.pdf.jobs.eviction-interval:1m}').toMillis()}")
+    @Transactional
+    public void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        renderJobResultRepository.deleteByJobCompletedAtBefore(cutoff);
+        int deleted = renderJobRepository.deleteByCompletedAtBefore(cutoff);
+        if (deleted > 0) {
+            logger.debug("Deleted {} render jobs finished before {}", deleted, cutoff);
+        }
+    }
+
+    private RenderJob findJob(String jobId) {
+        return renderJobRepository.findById(jobId)
+            .orElseThrow(() -> new PDFGenerationException(ErrorCode.JOB_NOT_FOUND, "Render job not found: " + jobId,
+                Map.of("jobId", jobId)));
+    }
+
+    private RenderJobResponse convertToResponse(RenderJob job) {
+        RenderJobResponse response = new RenderJobResponse();
+        response.setId(job.getId());
+        response.setTemplateId(job.getTemplateId());
+        response.setStatus(job.getStatus());
+        response.setEstimatedRenderMs(job.getEstimatedRenderMs());
+        response.setEstimatedMemoryBytes(job.getEstimatedMemoryBytes());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        response.setAttempts(job.getAttempts());
+        response.setWorkerId(job.getLeaseOwner());
+        response.setHeartbeatAt(job.getHeartbeatAt());
+        response.setErrorMessage(job.getErrorMessage());
+        response.setResultSize(job.getResultSize());
+        return response;
+    }
+}
\ No newline at end of file
@@ -1,41 +1,110 @@
 package com.pdfgenerator.service;
 
+import com.pdfgenerator.cache.TemplateCache;
+import com.pdfgenerator.cache.TemplateChangedEvent;
+import com.pdfgenerator.dto.CursorPage;
 import com.pdfgenerator.dto.TemplateRequest;
 import com.pdfgenerator.dto.TemplateResponse;
+import com.pdfgenerator.dto.TemplateSummary;
+import com.pdfgenerator.dto.TemplateVersionResponse;
+import com.pdfgenerator.dto.TemplateVersionSummary;
 import com.pdfgenerator.entity.Template;
-import com.pdfgenerator.entity.TemplateVersion;
 import com.pdfgenerator.enums.TemplateCategory;
 import com.pdfgenerator.exception.TemplateNotFoundException;
+import com.pdfgenerator.exception.ValidationException;
 import com.pdfgenerator.repository.TemplateRepository;
-import com.pdfgenerator.repository.TemplateVersionRepository;
+import com.pdfgenerator.search.TemplateSearchIndex;
+import com.pdfgenerator.util.KeysetCursor;
 import com.pdfgenerator.util.UUIDGenerator;
 import com.pdfgenerator.validation.TemplateValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class TemplateService {
     
+    private static final Logger logger = LoggerFactory.getLogger(TemplateService.class);
+    
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    private static final String SYSTEM_AUTHOR = "system";
+    
     private final TemplateRepository templateRepository;
-    private final TemplateVersionRepository templateVersionRepository;
+    private final TemplateVersionService templateVersionService;
     private final TemplateValidator templateValidator;
+    private final TemplateSearchIndex searchIndex;
+    private final TemplateCache templateCache;
     
     @Autowired
     public TemplateService(TemplateRepository templateRepository,
-                          TemplateVersionRepository templateVersionRepository,
-                          TemplateValidator templateValidator) {
+                          TemplateVersionService templateVersionService,
+                          TemplateValidator templateValidator,
+                          TemplateSearchIndex searchIndex,
+                          TemplateCache templateCache) {
         this.templateRepository = templateRepository;
-        this.templateVersionRepository = templateVersionRepository;
+        this.templateVersionService = templateVersionService;
         this.templateValidator = templateValidator;
+        this.searchIndex = searchIndex;
+        this.templateCache = templateCache;
+    }
+    
+    /**
+     * Build the search index once the context is up; runs before the application reports ready
+     * @return number of indexed templates
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional(readOnly = true)
+    public int rebuildSearchIndex() {
+        if (!searchIndex.isEnabled()) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        try (Stream<TemplateSummary> templates = templateRepository.streamAllSummaries()) {
+            int count = searchIndex.rebuild(templates.iterator());
+            logger.info("Indexed {} templates for search in {} ms", count, System.currentTimeMillis() - start);
+            return count;
+        }
+    }
+    
+    /**
+     * Keep the search index in step with template changes on every node, this one included
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        if (!searchIndex.isEnabled()) {
+            return;
+        }
+        String id = event.getTemplateId();
+        if (id == null) {
+            rebuildSearchIndex();
+            return;
+        }
+        templateRepository.findSummaryById(id)
+            .ifPresentOrElse(searchIndex::put, () -> searchIndex.remove(id));
     }
     
     public TemplateResponse createTemplate(TemplateRequest request) {
@@ -52,14 +121,16 @@ public class TemplateService {
         template.setDescription(request.getDescription());
         template.setActive(true);
         template.setVersion(1);
-        template.setCreatedBy("system"); // TODO: Get from security context
+        template.setCreatedBy(currentAuthor());
         
         // Save template
         Template savedTemplate = templateRepository.save(template);
         
-        // Create initial version
-        createTemplateVersion(savedTemplate);
+        // Record initial version
+        templateVersionService.recordVersion(savedTemplate, null, savedTemplate.getCreatedBy());
         
+        indexAfterCommit(savedTemplate);
+        afterCommit(() -> templateCache.updated(savedTemplate));
         return convertToResponse(savedTemplate);
     }
     
@@ -70,36 +141,81 @@ public class TemplateService {
         return convertToResponse(template);
     }
     
+    /**
+     * First or next page of active templates, newest first
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
     @Transactional(readOnly = true)
-    public List<TemplateResponse> getAllTemplates() {
-        List<Template> templates = templateRepository.findByActiveTrueOrderByCreatedAtDesc();
-        return templates.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+    public CursorPage<TemplateSummary> getAllTemplates(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = pageLimit(size);
+        List<TemplateSummary> rows = after == null
+            ? templateRepository.findSummaries(limit)
+            : templateRepository.findSummariesAfter(after.getCreatedAt(), after.getId(), limit);
+        return toCursorPage(rows, size);
     }
     
+    /**
+     * Offset pagination; deep pages scan every skipped row, prefer {@link #getAllTemplates(String, int)}
+     */
+    @Deprecated
     @Transactional(readOnly = true)
-    public Page<TemplateResponse> getTemplatesPaginated(Pageable pageable) {
-        Page<Template> templates = templateRepository.findByActiveTrueOrderByCreatedAtDesc(pageable);
-        return templates.map(this::convertToResponse);
+    public Page<TemplateSummary> getTemplatesPaginated(Pageable pageable) {
+        return templateRepository.findSummariesByActiveTrue(pageable);
     }
     
     @Transactional(readOnly = true)
-    public List<TemplateResponse> getTemplatesByCategory(TemplateCategory category) {
-        List<Template> templates = templateRepository.findByCategoryAndActiveTrueOrderByCreatedAtDesc(category);
-        return templates.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+    public CursorPage<TemplateSummary> getTemplatesByCategory(TemplateCategory category, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = pageLimit(size);
+        List<TemplateSummary> rows = after == null
+            ? templateRepository.findSummariesByCategory(category, limit)
+            : templateRepository.findSummariesByCategoryAfter(category, after.getCreatedAt(), after.getId(), limit);
+        return toCursorPage(rows, size);
     }
     
+    /**
+     * Search by name, description and category. Served from the in-memory index as one ranked
+     * page (best match first, no next cursor) once it is built; from the database in
+     * keyset order before that or when a database cursor is passed.
+     */
     @Transactional(readOnly = true)
-    public List<TemplateResponse> searchTemplates(String searchTerm) {
-        List<Template> templates = templateRepository.findByNameContainingIgnoreCaseAndActiveTrueOrderByCreatedAtDesc(searchTerm);
-        return templates.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+    public CursorPage<TemplateSummary> searchTemplates(String searchTerm, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = pageLimit(size);
+        if (after == null && searchIndex.isReady()) {
+            return new CursorPage<>(searchIndex.search(searchTerm, size), null);
+        }
+        List<TemplateSummary> rows = after == null
+            ? templateRepository.searchSummariesByName(searchTerm, limit)
+            : templateRepository.searchSummariesByNameAfter(searchTerm, after.getCreatedAt(), after.getId(), limit);
+        return toCursorPage(rows, size);
     }
     
+    /**
+     * Pass every active template, with its schema, to the consumer in listing order.
+     * Rows are streamed from the database in fetch-size batches, so the result set is
+     * never held in memory.
+     * @return number of exported templates
+     */
+    @Transactional(readOnly = true)
+    public long exportTemplates(Consumer<TemplateResponse> consumer) {
+        long count = 0;
+        try (Stream<TemplateResponse> templates = templateRepository.streamAllForExport()) {
+            Iterator<TemplateResponse> iterator = templates.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Save a new revision of the template. Autosaves are cheap: a save without changes writes
+     * nothing, and saves by the same author within the coalescing window update the current
+     * version instead of adding one.
+     */
     public TemplateResponse updateTemplate(String id, TemplateRequest request) {
         // Validate request
         templateValidator.validateTemplateRequest(request);
@@ -108,8 +224,12 @@ public class TemplateService {
         Template existingTemplate = templateRepository.findByIdAndActiveTrue(id)
             .orElseThrow(() -> new TemplateNotFoundException(id));
         
-        // Create version backup before update
-        createTemplateVersion(existingTemplate);
+        if (isUnchanged(existingTemplate, request)) {
+            return convertToResponse(existingTemplate);
+        }
+        
+        String author = currentAuthor();
+        Map<String, Object> previousSchema = existingTemplate.getSchema();
         
         // Update template
         existingTemplate.setName(request.getName());
@@ -117,10 +237,19 @@ public class TemplateService {
         existingTemplate.setSchema(request.getSchema());
         existingTemplate.setMetadata(request.getMetadata());
         existingTemplate.setDescription(request.getDescription());
-        existingTemplate.setVersion(existingTemplate.getVersion() + 1);
         existingTemplate.setUpdatedAt(LocalDateTime.now());
         
+        boolean coalesced = templateVersionService.coalesceVersion(existingTemplate, author);
+        if (!coalesced) {
+            existingTemplate.setVersion(existingTemplate.getVersion() + 1);
+        }
+        
         Template updatedTemplate = templateRepository.save(existingTemplate);
+        if (!coalesced) {
+            templateVersionService.recordVersion(updatedTemplate, previousSchema, author);
+        }
+        indexAfterCommit(updatedTemplate);
+        afterCommit(() -> templateCache.updated(updatedTemplate));
         return convertToResponse(updatedTemplate);
     }
     
@@ -132,6 +261,8 @@ public class TemplateService {
         template.setActive(false);
         template.setUpdatedAt(LocalDateTime.now());
         templateRepository.save(template);
+        afterCommit(() -> searchIndex.remove(id));
+        afterCommit(() -> templateCache.updated(template));
     }
     
     public void permanentDeleteTemplate(String id) {
@@ -139,19 +270,34 @@ public class TemplateService {
             .orElseThrow(() -> new TemplateNotFoundException(id));
         
         // Delete all versions first
-        templateVersionRepository.deleteByTemplateId(id);
+        templateVersionService.deleteVersions(id);
         
         // Delete template
         templateRepository.delete(template);
+        afterCommit(() -> searchIndex.remove(id));
+        afterCommit(() -> templateCache.removed(id));
+    }
+    
+    /**
+     * Version history newest first, without schemas
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TemplateVersionSummary> getTemplateVersions(String templateId, String cursor, int size) {
+        // Verify template exists
+        templateRepository.findByIdAndActiveTrue(templateId)
+            .orElseThrow(() -> new TemplateNotFoundException(templateId));
+        
+        return templateVersionService.listVersions(templateId, cursor, size);
     }
     
     @Transactional(readOnly = true)
-    public List<TemplateVersion> getTemplateVersions(String templateId) {
+    public TemplateVersionResponse getTemplateVersion(String templateId, Integer version) {
         // Verify template exists
         templateRepository.findByIdAndActiveTrue(templateId)
             .orElseThrow(() -> new TemplateNotFoundException(templateId));
         
-        return templateVersionRepository.findByTemplateIdOrderByVersionDesc(templateId);
+        return templateVersionService.getVersion(templateId, version);
     }
     
     public TemplateResponse restoreTemplateVersion(String templateId, Integer version) {
@@ -159,20 +305,19 @@ public class TemplateService {
         Template template = templateRepository.findByIdAndActiveTrue(templateId)
             .orElseThrow(() -> new TemplateNotFoundException(templateId));
         
-        // Find version to restore
-        TemplateVersion templateVersion = templateVersionRepository
-            .findByTemplateIdAndVersion(templateId, version)
-            .orElseThrow(() -> new RuntimeException("Template version not found: " + version));
+        // Rebuild the schema of the version to restore
+        TemplateVersionResponse templateVersion = templateVersionService.getVersion(templateId, version);
+        Map<String, Object> previousSchema = template.getSchema();
         
-        // Create backup of current version
-        createTemplateVersion(template);
-        
-        // Restore from version
+        // Restore as a new version
         template.setSchema(templateVersion.getSchema());
         template.setVersion(template.getVersion() + 1);
         template.setUpdatedAt(LocalDateTime.now());
         
         Template restoredTemplate = templateRepository.save(template);
+        templateVersionService.recordVersion(restoredTemplate, previousSchema, currentAuthor());
+        indexAfterCommit(restoredTemplate);
+        afterCommit(() -> templateCache.updated(restoredTemplate));
         return convertToResponse(restoredTemplate);
     }
     
@@ -191,17 +336,69 @@ public class TemplateService {
         return templateRepository.countByCategoryAndActiveTrue(category);
     }
     
-    private void createTemplateVersion(Template template) {
-        TemplateVersion version = new TemplateVersion();
-        version.setId(UUIDGenerator.generateUUID());
-        version.setTemplateId(template.getId());
-        version.setVersion(template.getVersion());
-        version.setSchema(template.getSchema());
-        version.setCreatedBy(template.getCreatedBy());
-        
-        templateVersionRepository.save(version);
+    private Limit pageLimit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Invalid page size",
+                List.of("size must be between 1 and " + MAX_PAGE_SIZE + ", was " + size));
+        }
+        // One extra row tells whether another page follows
+        return Limit.of(size + 1);
+    }
+    
+    private static CursorPage<TemplateSummary> toCursorPage(List<TemplateSummary> rows, int size) {
+        return CursorPage.of(rows, size,
+            last -> new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+    
+    private void indexAfterCommit(Template template) {
+        TemplateSummary summary = toSummary(template);
+        afterCommit(() -> searchIndex.put(summary));
     }
     
+    /**
+     * Run once the surrounding transaction commits, so rolled back changes never reach the index
+     * or the template cache
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private static boolean isUnchanged(Template template, TemplateRequest request) {
+        return Objects.equals(template.getName(), request.getName())
+            && template.getCategory() == request.getCategory()
+            && Objects.equals(template.getSchema(), request.getSchema())
+            && Objects.equals(template.getMetadata(), request.getMetadata())
+            && Objects.equals(template.getDescription(), request.getDescription());
+    }
+    
+    /**
+     * Name of the authenticated user making the change, or "system" for unauthenticated calls
+     */
+    private static String currentAuthor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return SYSTEM_AUTHOR;
+        }
+        return authentication.getName();
+    }
+    
+    private static TemplateSummary toSummary(Template template) {
+        return new TemplateSummary(template.getId(), template.getName(), template.getCategory(),
+            template.getDescription(), template.getCreatedAt(), template.getUpdatedAt(), template.getCreatedBy(),
+            template.isActive(), template.getVersion());
+    }
+    
+    
     private TemplateResponse convertToResponse(Template template) {
         TemplateResponse response = new TemplateResponse();
         response.setId(template.getId());
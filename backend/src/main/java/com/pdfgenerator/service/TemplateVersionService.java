@@ -0,0 +1,341 @@
+package com.pdfgenerator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.zjsonpatch.JsonDiff;
+import com.flipkart.zjsonpatch.JsonPatch;
+import com.pdfgenerator.dto.CursorPage;
+import com.pdfgenerator.dto.TemplateVersionResponse;
+import com.pdfgenerator.dto.TemplateVersionSummary;
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.entity.TemplateVersion;
+import com.pdfgenerator.exception.TemplateNotFoundException;
+import com.pdfgenerator.exception.ValidationException;
+import com.pdfgenerator.repository.TemplateVersionRepository;
+import com.pdfgenerator.util.UUIDGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Template version history stored as full snapshots plus JSON Patch (RFC 6902) deltas.
+ *
+ * Every version row holds the schema of that version: a snapshot, or the patch from the
+ * previous version. A new snapshot is written at least every {@code snapshot-interval}
+ * versions, so reading any version applies fewer patches than that. Compaction re-encodes
+ * each history in the same way and drops versions outside the retention limits.
+ *
+ * Rapid saves by one author are coalesced: while the latest version was last saved by the same
+ * author within the coalescing window, a save rewrites that version instead of adding one.
+ */
+@Service
+@Transactional
+public class TemplateVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateVersionService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final TypeReference<Map<String, Object>> SCHEMA_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<Map<String, Object>>> PATCH_TYPE = new TypeReference<>() {};
+
+    private final TemplateVersionRepository templateVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int snapshotInterval;
+    private final int maxVersions;
+    private final Duration maxAge;
+    private final boolean compactionEnabled;
+    private final Duration coalesceWindow;
+    private final Duration coalesceMaxSpan;
+
+    @Autowired
+    public TemplateVersionService(TemplateVersionRepository templateVersionRepository,
+                                  ObjectMapper objectMapper,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.template-versions.snapshot-interval:20}") int snapshotInterval,
+                                  @Value("${app.template-versions.retention.max-versions:0}") int maxVersions,
+                                  @Value("${app.template-versions.retention.max-age:0d}") Duration maxAge,
+                                  @Value("${app.template-versions.compaction.enabled:true}") boolean compactionEnabled,
+                                  @Value("${app.template-versions.coalesce.window:2m}") Duration coalesceWindow,
+                                  @Value("${app.template-versions.coalesce.max-span:30m}") Duration coalesceMaxSpan) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("app.template-versions.snapshot-interval must be at least 1");
+        }
+        this.templateVersionRepository = templateVersionRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotInterval = snapshotInterval;
+        this.maxVersions = maxVersions;
+        this.maxAge = maxAge;
+        this.compactionEnabled = compactionEnabled;
+        this.coalesceWindow = coalesceWindow;
+        this.coalesceMaxSpan = coalesceMaxSpan;
+    }
+
+    /**
+     * Record the template's current version and schema
+     * @param previousSchema schema of the version before it, or null for a new template
+     * @param author user who made the change
+     */
+    public TemplateVersion recordVersion(Template template, Map<String, Object> previousSchema, String author) {
+        int version = template.getVersion();
+        TemplateVersion row = new TemplateVersion();
+        row.setId(UUIDGenerator.generateUUIDv7());
+        row.setTemplateId(template.getId());
+        row.setVersion(version);
+        row.setCreatedBy(author);
+        row.setUpdatedAt(LocalDateTime.now());
+
+        List<Map<String, Object>> patch = previousSchema != null && deltaAllowed(template.getId(), version)
+            ? diff(previousSchema, template.getSchema())
+            : null;
+        encode(row, template.getSchema(), patch);
+        return templateVersionRepository.save(row);
+    }
+
+    /**
+     * Fold a save into the template's current version when the same author saved it within the
+     * coalescing window and the version is younger than the maximum span
+     * @param template template with the new content and its current, not yet incremented, version
+     * @return true if the save was coalesced, false if the caller must record a new version
+     */
+    public boolean coalesceVersion(Template template, String author) {
+        if (coalesceWindow.isZero()) {
+            return false;
+        }
+        TemplateVersion pending = templateVersionRepository.findLatestVersionByTemplateId(template.getId()).orElse(null);
+        if (pending == null || !pending.getVersion().equals(template.getVersion())
+                || !Objects.equals(pending.getCreatedBy(), author)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lastSave = pending.getUpdatedAt() != null ? pending.getUpdatedAt() : pending.getCreatedAt();
+        if (lastSave == null || lastSave.plus(coalesceWindow).isBefore(now)
+                || pending.getCreatedAt().plus(coalesceMaxSpan).isBefore(now)) {
+            return false;
+        }
+
+        // A delta is re-diffed against the version before it; a snapshot just takes the new schema
+        List<Map<String, Object>> patch = pending.isSnapshot()
+            ? null
+            : diff(getVersion(template.getId(), pending.getVersion() - 1).getSchema(), template.getSchema());
+        encode(pending, template.getSchema(), patch);
+        pending.setUpdatedAt(now);
+        templateVersionRepository.save(pending);
+        return true;
+    }
+
+    /**
+     * One version with its schema, rebuilt from the latest snapshot at or before it
+     */
+    @Transactional(readOnly = true)
+    public TemplateVersionResponse getVersion(String templateId, int version) {
+        TemplateVersion base = templateVersionRepository
+            .findFirstByTemplateIdAndSnapshotTrueAndVersionLessThanEqualOrderByVersionDesc(templateId, version)
+            .orElseThrow(() -> versionNotFound(templateId, version));
+
+        JsonNode schema = objectMapper.valueToTree(base.getSchema());
+        TemplateVersion current = base;
+        if (base.getVersion() < version) {
+            for (TemplateVersion delta : templateVersionRepository
+                    .findByTemplateIdAndVersionBetweenOrderByVersionAsc(templateId, base.getVersion() + 1, version)) {
+                schema = apply(schema, delta);
+                current = delta;
+            }
+        }
+        if (current.getVersion() != version) {
+            throw versionNotFound(templateId, version);
+        }
+        return new TemplateVersionResponse(templateId, version, objectMapper.convertValue(schema, SCHEMA_TYPE),
+            current.getCreatedAt(), current.getCreatedBy());
+    }
+
+    /**
+     * Version summaries newest first, one page at a time
+     * @param cursor version number from the previous page's nextCursor, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TemplateVersionSummary> listVersions(String templateId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Invalid page size",
+                List.of("size must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        Limit limit = Limit.of(size + 1);
+        List<TemplateVersionSummary> rows = cursor == null || cursor.isBlank()
+            ? templateVersionRepository.findSummariesByTemplateId(templateId, limit)
+            : templateVersionRepository.findSummariesByTemplateIdBefore(templateId, parseCursor(cursor), limit);
+        return CursorPage.of(rows, size, last -> String.valueOf(last.getVersion()));
+    }
+
+    public void deleteVersions(String templateId) {
+        templateVersionRepository.deleteByTemplateId(templateId);
+    }
+
+    /**
+     * Scheduled compaction of every template's history, one transaction per template
+     * @return number of templates whose history changed
+     */
+    @Scheduled(cron = "${app.template-versions.compaction.cron:0 30 3 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int compactAll() {
+        if (!compactionEnabled) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        int changed = 0;
+        for (String templateId : templateVersionRepository.findTemplateIdsWithVersions()) {
+            try {
+                Boolean result = transactionTemplate.execute(status -> compact(templateId));
+                if (Boolean.TRUE.equals(result)) {
+                    changed++;
+                }
+            } catch (RuntimeException e) {
+                // One broken history must not stop the others
+                logger.warn("Version compaction failed for template {}: {}", templateId, e.getMessage());
+            }
+        }
+        logger.info("Compacted version history of {} templates in {} ms", changed, System.currentTimeMillis() - start);
+        return changed;
+    }
+
+    /**
+     * Drop versions outside the retention limits and re-encode the rest: the oldest kept
+     * version and every snapshot-interval-th one after it as snapshots, the others as deltas.
+     * The newest version is always kept.
+     * @return whether any row was rewritten or deleted
+     */
+    public boolean compact(String templateId) {
+        List<TemplateVersion> history = templateVersionRepository.findByTemplateIdOrderByVersionAscCreatedAtAsc(templateId);
+        if (history.isEmpty()) {
+            return false;
+        }
+
+        LocalDateTime cutoff = maxAge.isZero() ? null : LocalDateTime.now().minus(maxAge);
+        // Older histories may hold the same version twice; retention counts versions, not rows
+        List<Integer> versions = history.stream().map(TemplateVersion::getVersion).distinct().toList();
+        int oldestKept = maxVersions > 0 && versions.size() > maxVersions
+            ? versions.get(versions.size() - maxVersions)
+            : versions.get(0);
+
+        List<String> deleted = new ArrayList<>();
+        List<TemplateVersion> rewritten = new ArrayList<>();
+        JsonNode schema = null;
+        Map<String, Object> previousSchema = null;
+        TemplateVersion previousKept = null;
+        Integer lastSnapshot = null;
+
+        for (int i = 0; i < history.size(); i++) {
+            TemplateVersion row = history.get(i);
+            TemplateVersion previous = i > 0 ? history.get(i - 1) : null;
+            boolean duplicate = previous != null && previous.getVersion().equals(row.getVersion());
+            schema = duplicate ? schema : apply(schema, row);
+
+            boolean expired = row.getVersion() < oldestKept
+                || (cutoff != null && row.getCreatedAt() != null && row.getCreatedAt().isBefore(cutoff));
+            if (duplicate || (expired && i < history.size() - 1)) {
+                deleted.add(row.getId());
+                continue;
+            }
+
+            Map<String, Object> current = objectMapper.convertValue(schema, SCHEMA_TYPE);
+            boolean follows = previousKept != null && previousKept.getVersion() == row.getVersion() - 1;
+            boolean deltaAllowed = follows && row.getVersion() - lastSnapshot < snapshotInterval;
+            // Rows already encoded the right way are left untouched
+            if (!deltaAllowed && !row.isSnapshot()) {
+                encode(row, current, null);
+                rewritten.add(row);
+            } else if (deltaAllowed && row.isSnapshot()) {
+                encode(row, current, diff(previousSchema, current));
+                if (!row.isSnapshot()) {
+                    rewritten.add(row);
+                }
+            }
+            if (row.isSnapshot()) {
+                lastSnapshot = row.getVersion();
+            }
+            previousKept = row;
+            previousSchema = current;
+        }
+
+        if (!deleted.isEmpty()) {
+            templateVersionRepository.deleteByIdIn(deleted);
+        }
+        if (!rewritten.isEmpty()) {
+            templateVersionRepository.saveAll(rewritten);
+        }
+        return !deleted.isEmpty() || !rewritten.isEmpty();
+    }
+
+    /**
+     * A delta needs the previous version in the history and a snapshot within the interval
+     */
+    private boolean deltaAllowed(String templateId, int version) {
+        Optional<Integer> latest = templateVersionRepository.findMaxVersionByTemplateId(templateId);
+        if (latest.isEmpty() || latest.get() != version - 1) {
+            return false;
+        }
+        return templateVersionRepository.findLatestSnapshotVersionByTemplateId(templateId)
+            .map(snapshot -> version - snapshot < snapshotInterval)
+            .orElse(false);
+    }
+
+    private List<Map<String, Object>> diff(Map<String, Object> from, Map<String, Object> to) {
+        JsonNode patch = JsonDiff.asJson(objectMapper.valueToTree(from), objectMapper.valueToTree(to));
+        return objectMapper.convertValue(patch, PATCH_TYPE);
+    }
+
+    /**
+     * Store the patch when given and smaller than the schema, the schema otherwise
+     */
+    private void encode(TemplateVersion row, Map<String, Object> schema, List<Map<String, Object>> patch) {
+        boolean delta = patch != null && serializedLength(patch) < serializedLength(schema);
+        row.setSnapshot(!delta);
+        row.setSchema(delta ? null : schema);
+        row.setPatch(delta ? patch : null);
+    }
+
+    private JsonNode apply(JsonNode schema, TemplateVersion row) {
+        if (row.isSnapshot()) {
+            return objectMapper.valueToTree(row.getSchema());
+        }
+        if (schema == null) {
+            throw new IllegalStateException("Version " + row.getVersion() + " of template " + row.getTemplateId()
+                + " is a delta without a preceding snapshot");
+        }
+        return JsonPatch.apply(objectMapper.valueToTree(row.getPatch()), schema);
+    }
+
+    private int serializedLength(Object value) {
+        return objectMapper.valueToTree(value).toString().length();
+    }
+
+    private static int parseCursor(String cursor) {
+        try {
+            return Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid cursor", List.of("cursor must be a version number"));
+        }
+    }
+
+    private static TemplateNotFoundException versionNotFound(String templateId, int version) {
+        return new TemplateNotFoundException("Template version not found: " + templateId + " v" + version, null);
+    }
+}
\ No newline at end of file
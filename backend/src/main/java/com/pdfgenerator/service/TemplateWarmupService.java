@@ -0,0 +1,183 @@
+package com.pdfgenerator.service;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.render.ImageAssets;
+import com.pdfgenerator.render.RenderLane;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.repository.TemplateRepository;
+import com.pdfgenerator.template.CompiledTemplate;
+import com.pdfgenerator.template.TemplateCompiler;
+import com.pdfgenerator.util.SampleData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup warm-up of active templates.
+ *
+ * Runs before the application reports ready: Spring Boot publishes the readiness
+ * state ACCEPTING_TRAFFIC only after all ApplicationRunners return, so the readiness
+ * probe stays down until every active template has been compiled and rendered once
+ * (schema parsing, class loading, fonts, images, JIT) or the time budget expires.
+ */
+@Service
+public class TemplateWarmupService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateWarmupService.class);
+
+    private static final String[] PRELOADED_FONTS = {
+        StandardFonts.HELVETICA, StandardFonts.HELVETICA_BOLD, StandardFonts.HELVETICA_OBLIQUE
+    };
+
+    private final TemplateRepository templateRepository;
+    private final TemplateCompiler templateCompiler;
+    private final PDFGenerationService pdfGenerationService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration timeBudget;
+
+    @Autowired
+    public TemplateWarmupService(TemplateRepository templateRepository,
+                                TemplateCompiler templateCompiler,
+                                PDFGenerationService pdfGenerationService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.warmup.enabled:true}") boolean enabled,
+                                @Value("${app.warmup.time-budget:60s}") Duration timeBudget) {
+        this.templateRepository = templateRepository;
+        this.templateCompiler = templateCompiler;
+        this.pdfGenerationService = pdfGenerationService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.timeBudget = timeBudget;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            logger.info("Template warm-up disabled");
+            return;
+        }
+        warmUp();
+    }
+
+    /**
+     * Warm up all active templates within the time budget
+     * @return true if warm-up completed, false if the budget expired or it failed
+     */
+    public boolean warmUp() {
+        long start = System.nanoTime();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "template-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        String outcome;
+        try {
+            Future<Integer> warmed = executor.submit(() -> warmUpTemplates(cancelled));
+            int count = warmed.get(timeBudget.toMillis(), TimeUnit.MILLISECONDS);
+            outcome = "completed";
+            logger.info("Template warm-up completed: {} templates in {} ms", count, elapsedMillis(start));
+        } catch (TimeoutException e) {
+            cancelled.set(true);
+            outcome = "timeout";
+            logger.warn("Template warm-up exceeded its {} budget, reporting ready anyway", timeBudget);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "failed";
+        } catch (ExecutionException e) {
+            outcome = "failed";
+            logger.warn("Template warm-up failed: {}", e.getCause().getMessage());
+        } finally {
+            executor.shutdown();
+        }
+
+        Timer.builder("pdf.warmup.duration")
+            .description("Startup template warm-up duration")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return "completed".equals(outcome);
+    }
+
+    private int warmUpTemplates(AtomicBoolean cancelled) {
+        preloadFonts();
+
+        List<Template> templates = templateRepository.findByActiveTrue();
+        logger.info("Warming up {} active templates", templates.size());
+
+        int count = 0;
+        for (Template template : templates) {
+            if (cancelled.get()) {
+                break;
+            }
+            if (warmUpTemplate(template)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean warmUpTemplate(Template template) {
+        try {
+            if (template.getSchema() != null && !template.getSchema().isEmpty()) {
+                CompiledTemplate compiled = templateCompiler.compile(template);
+                preloadImages(compiled);
+            }
+
+            try (RenderedPdf pdf = pdfGenerationService.renderPDF(template.getId(), SampleData.create(), null, RenderLane.BULK, false)) {
+                logger.debug("Warmed up template {} ({} bytes)", template.getId(), pdf.getSize());
+            }
+            meterRegistry.counter("pdf.warmup.templates", "result", "ok").increment();
+            return true;
+        } catch (Exception e) {
+            // One broken template must not block readiness
+            logger.warn("Warm-up failed for template {}: {}", template.getId(), e.getMessage());
+            meterRegistry.counter("pdf.warmup.templates", "result", "failed").increment();
+            return false;
+        }
+    }
+
+    private void preloadFonts() {
+        for (String font : PRELOADED_FONTS) {
+            try {
+                PdfFontFactory.createFont(font);
+            } catch (IOException e) {
+                logger.warn("Failed to preload font {}: {}", font, e.getMessage());
+            }
+        }
+    }
+
+    private void preloadImages(CompiledTemplate compiled) {
+        for (CompiledTemplate.Section section : new CompiledTemplate.Section[]{compiled.getHeader(), compiled.getFooter()}) {
+            if (section != null && section.getLogo() != null) {
+                ImageAssets.get(section.getLogo());
+            }
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
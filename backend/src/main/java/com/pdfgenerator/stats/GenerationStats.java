@@ -0,0 +1,140 @@
+package com.pdfgenerator.stats;
+
+import com.pdfgenerator.dto.GenerationStatsResponse;
+import com.pdfgenerator.dto.LatencyStats;
+import com.pdfgenerator.entity.GenerationStatsSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory render latency percentiles, success rates and throughput per template and over all
+ * templates, in rolling 1m, 5m and 1h windows.
+ *
+ * Recording is lock-free, so it can sit on the generation path; reads return the stats published
+ * by the last rotation and never touch the database. GenerationStatsService rotates every
+ * {@link #TICK_SECONDS} seconds and persists the closed minutes as snapshots for history.
+ * Templates without renders for an hour are dropped. Stats are per node.
+ */
+@Component
+public class GenerationStats {
+
+    /**
+     * Seconds between rotations, the step the 1m window moves in
+     */
+    public static final long TICK_SECONDS = 10;
+
+    static final int TICKS_PER_MINUTE = 6;
+    static final List<String> WINDOWS = List.of("1m", "5m", "1h");
+
+    private final ConcurrentMap<String, LatencyWindows> templates = new ConcurrentHashMap<>();
+    private final LatencyWindows overall = new LatencyWindows(LocalDateTime.now());
+    private volatile LocalDateTime lastRotation = LocalDateTime.now();
+    private long ticks;
+
+    /**
+     * Record a completed render
+     */
+    public void recordCompleted(String templateId, long elapsedNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        overall.recordCompleted(micros);
+        windows(templateId).recordCompleted(micros);
+    }
+
+    /**
+     * Record a failed render of an existing template
+     */
+    public void recordFailed(String templateId) {
+        overall.recordFailed();
+        windows(templateId).recordFailed();
+    }
+
+    private LatencyWindows windows(String templateId) {
+        LatencyWindows windows = templates.get(templateId);
+        return windows != null ? windows : templates.computeIfAbsent(templateId, id -> new LatencyWindows(LocalDateTime.now()));
+    }
+
+    /**
+     * Close the current interval of every template and publish new window stats
+     *
+     * @return true if this also closed a minute
+     */
+    public synchronized boolean rotate(LocalDateTime now) {
+        boolean closeMinute = ++ticks % TICKS_PER_MINUTE == 0;
+        overall.rotate(now, closeMinute);
+        Iterator<Map.Entry<String, LatencyWindows>> entries = templates.entrySet().iterator();
+        while (entries.hasNext()) {
+            LatencyWindows windows = entries.next().getValue();
+            windows.rotate(now, closeMinute);
+            // A render racing the removal of a template idle for an hour may go uncounted
+            if (closeMinute && windows.isIdle()) {
+                entries.remove();
+            }
+        }
+        lastRotation = now;
+        return closeMinute;
+    }
+
+    /**
+     * Snapshots of the minutes closed since the last call, for all templates and per template
+     * with renders in them
+     */
+    public synchronized List<GenerationStatsSnapshot> drainSnapshots(LocalDateTime now) {
+        List<GenerationStatsSnapshot> snapshots = new ArrayList<>();
+        GenerationStatsSnapshot all = overall.drainSnapshot(null, now);
+        if (all != null) {
+            snapshots.add(all);
+        }
+        templates.forEach((templateId, windows) -> {
+            GenerationStatsSnapshot snapshot = windows.drainSnapshot(templateId, now);
+            if (snapshot != null) {
+                snapshots.add(snapshot);
+            }
+        });
+        return snapshots;
+    }
+
+    /**
+     * Stats of one snapshot period merged over the nodes that persisted it: counts and throughputs
+     * are summed and percentiles come from the merged latency histograms
+     *
+     * @param snapshots rows of the same template and period, at most one per node
+     */
+    public static LatencyStats merge(List<GenerationStatsSnapshot> snapshots) {
+        return LatencyWindows.merge(snapshots);
+    }
+
+    /**
+     * Stats over all templates
+     */
+    public GenerationStatsResponse getStats() {
+        return new GenerationStatsResponse(null, overall.getWindows());
+    }
+
+    /**
+     * Stats of one template; all zero if it had no renders within the last hour
+     */
+    public GenerationStatsResponse getStats(String templateId) {
+        LatencyWindows windows = templates.get(templateId);
+        return new GenerationStatsResponse(templateId,
+            windows != null ? windows.getWindows() : LatencyWindows.emptyWindows(lastRotation));
+    }
+
+    /**
+     * Stats of every template with renders within the last hour, by template ID
+     */
+    public List<GenerationStatsResponse> getTemplateStats() {
+        return templates.entrySet().stream()
+            .map(entry -> new GenerationStatsResponse(entry.getKey(), entry.getValue().getWindows()))
+            .sorted(Comparator.comparing(GenerationStatsResponse::getTemplateId))
+            .toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,306 @@
+package com.pdfgenerator.stats;
+
+import com.pdfgenerator.dto.LatencyStats;
+import com.pdfgenerator.entity.GenerationStatsSnapshot;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+
+/**
+ * Rolling latency windows of one template, or of all templates.
+ *
+ * Renders record into an HdrHistogram Recorder and a LongAdder, both wait-free for writers.
+ * Every tick the rotating thread swaps out the interval histogram: the 1m window holds the last
+ * six ten-second intervals, the 5m and 1h windows hold the previous 4 and 59 full minutes plus
+ * the current one. Each window keeps a running sum that adds the new slot and subtracts the one
+ * that fell out, so a tick costs a few histogram additions however long the window is. Window
+ * stats are computed once per tick and published for readers; everything except the recorder
+ * and the failure counter belongs to the rotating thread.
+ */
+final class LatencyWindows {
+
+    // 1% precision; histograms resize to the largest latency recorded
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final long SECONDS_PER_MINUTE = 60;
+
+    private static final Slot EMPTY = new Slot(null, 0);
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final LongAdder failures = new LongAdder();
+
+    private Histogram interval;
+    private final RollingWindow lastMinute = new RollingWindow(GenerationStats.TICKS_PER_MINUTE);
+    private final RollingWindow fiveMinutes = new RollingWindow(4);
+    private final RollingWindow hour = new RollingWindow(59);
+
+    // Current minute, added to the minute windows when it closes
+    private final Histogram minute = new Histogram(SIGNIFICANT_DIGITS);
+    private long minuteFailed;
+    private int minuteTicks;
+
+    // Closed minutes since the last persisted snapshot
+    private final Histogram period = new Histogram(SIGNIFICANT_DIGITS);
+    private long periodFailed;
+    private LocalDateTime periodStart;
+
+    private volatile Map<String, LatencyStats> windows;
+
+    LatencyWindows(LocalDateTime created) {
+        this.periodStart = created;
+        this.windows = emptyWindows(created);
+    }
+
+    void recordCompleted(long latencyMicros) {
+        recorder.recordValue(Math.max(latencyMicros, 0));
+    }
+
+    void recordFailed() {
+        failures.increment();
+    }
+
+    /**
+     * Published stats by window name, as of the last rotation
+     */
+    Map<String, LatencyStats> getWindows() {
+        return windows;
+    }
+
+    /**
+     * Close the current interval, and the current minute if requested, and publish new stats
+     */
+    void rotate(LocalDateTime now, boolean closeMinute) {
+        interval = recorder.getIntervalHistogram(interval);
+        Slot slot = Slot.of(interval, failures.sumThenReset());
+        lastMinute.push(slot);
+        slot.addTo(minute);
+        minuteFailed += slot.failed;
+        minuteTicks++;
+
+        if (closeMinute) {
+            Slot closed = Slot.of(minute, minuteFailed);
+            fiveMinutes.push(closed);
+            hour.push(closed);
+            closed.addTo(period);
+            periodFailed += closed.failed;
+            minute.reset();
+            minuteFailed = 0;
+            minuteTicks = 0;
+        }
+
+        Map<String, LatencyStats> published = new LinkedHashMap<>();
+        published.put("1m", summarize(lastMinute.sum, lastMinute.failed,
+            lastMinute.filled * GenerationStats.TICK_SECONDS, now));
+        published.put("5m", withCurrentMinute(fiveMinutes, now));
+        published.put("1h", withCurrentMinute(hour, now));
+        windows = published;
+    }
+
+    /**
+     * Whether nothing was recorded within the last hour, nor since the last snapshot
+     */
+    boolean isIdle() {
+        return lastMinute.isEmpty() && hour.isEmpty() && minute.getTotalCount() == 0 && minuteFailed == 0
+            && period.getTotalCount() == 0 && periodFailed == 0;
+    }
+
+    /**
+     * Snapshot of the minutes closed since the last call, or null if nothing was recorded in them
+     */
+    GenerationStatsSnapshot drainSnapshot(String templateId, LocalDateTime now) {
+        GenerationStatsSnapshot snapshot = null;
+        if (period.getTotalCount() > 0 || periodFailed > 0) {
+            LatencyStats stats = summarize(period, periodFailed, 0, now);
+            snapshot = new GenerationStatsSnapshot(templateId, periodStart, now, stats.getCompleted(), stats.getFailed());
+            snapshot.setP50Ms(stats.getP50Ms());
+            snapshot.setP95Ms(stats.getP95Ms());
+            snapshot.setP99Ms(stats.getP99Ms());
+            snapshot.setMaxMs(stats.getMaxMs());
+            snapshot.setHistogram(encode(period));
+        }
+        period.reset();
+        periodFailed = 0;
+        periodStart = now;
+        return snapshot;
+    }
+
+    /**
+     * Stats of a minute window including the current, partial minute
+     */
+    private LatencyStats withCurrentMinute(RollingWindow window, LocalDateTime now) {
+        Histogram latencies = window.sum;
+        if (minute.getTotalCount() > 0) {
+            latencies = window.sum.copy();
+            latencies.add(minute);
+        }
+        return summarize(latencies, window.failed + minuteFailed,
+            window.filled * SECONDS_PER_MINUTE + minuteTicks * GenerationStats.TICK_SECONDS, now);
+    }
+
+    static Map<String, LatencyStats> emptyWindows(LocalDateTime until) {
+        Map<String, LatencyStats> empty = new LinkedHashMap<>();
+        for (String window : GenerationStats.WINDOWS) {
+            empty.put(window, new LatencyStats(until, until, 0, 0));
+        }
+        return empty;
+    }
+
+    static LatencyStats summarize(AbstractHistogram latencies, long failed, long seconds, LocalDateTime until) {
+        long completed = latencies.getTotalCount();
+        LatencyStats stats = new LatencyStats(until.minusSeconds(seconds), until, completed, failed);
+        if (seconds > 0) {
+            stats.setThroughputPerSecond(Math.round(completed * 1000.0 / seconds) / 1000.0);
+        }
+        setSuccessRate(stats);
+        if (completed > 0) {
+            setPercentiles(stats, latencies);
+        }
+        return stats;
+    }
+
+    /**
+     * Stats of snapshots of one period written by different nodes. Counts and throughputs are
+     * summed and percentiles come from the merged histograms; a single snapshot keeps its own.
+     */
+    static LatencyStats merge(List<GenerationStatsSnapshot> snapshots) {
+        GenerationStatsSnapshot first = snapshots.get(0);
+        LatencyStats stats = new LatencyStats(first.getPeriodStart(), first.getPeriodEnd(), 0, 0);
+        Histogram latencies = new Histogram(SIGNIFICANT_DIGITS);
+        double throughput = 0;
+        for (GenerationStatsSnapshot snapshot : snapshots) {
+            stats.setCompleted(stats.getCompleted() + snapshot.getCompleted());
+            stats.setFailed(stats.getFailed() + snapshot.getFailed());
+            if (snapshot.getPeriodStart().isBefore(stats.getFrom())) {
+                stats.setFrom(snapshot.getPeriodStart());
+            }
+            if (snapshot.getPeriodEnd().isAfter(stats.getUntil())) {
+                stats.setUntil(snapshot.getPeriodEnd());
+            }
+            long seconds = Duration.between(snapshot.getPeriodStart(), snapshot.getPeriodEnd()).getSeconds();
+            if (seconds > 0) {
+                throughput += snapshot.getCompleted() / (double) seconds;
+            }
+            if (snapshots.size() > 1 && snapshot.getHistogram() != null) {
+                latencies.add(decode(snapshot.getHistogram()));
+            }
+        }
+        stats.setThroughputPerSecond(Math.round(throughput * 1000.0) / 1000.0);
+        setSuccessRate(stats);
+        if (snapshots.size() == 1) {
+            stats.setP50Ms(first.getP50Ms());
+            stats.setP95Ms(first.getP95Ms());
+            stats.setP99Ms(first.getP99Ms());
+            stats.setMaxMs(first.getMaxMs());
+        } else if (latencies.getTotalCount() > 0) {
+            setPercentiles(stats, latencies);
+        }
+        return stats;
+    }
+
+    private static void setSuccessRate(LatencyStats stats) {
+        long total = stats.getCompleted() + stats.getFailed();
+        if (total > 0) {
+            stats.setSuccessRate(Math.round(stats.getCompleted() * 10000.0 / total) / 10000.0);
+        }
+    }
+
+    private static void setPercentiles(LatencyStats stats, AbstractHistogram latencies) {
+        stats.setP50Ms(millis(latencies.getValueAtPercentile(50)));
+        stats.setP95Ms(millis(latencies.getValueAtPercentile(95)));
+        stats.setP99Ms(millis(latencies.getValueAtPercentile(99)));
+        stats.setMaxMs(millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    private static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private static Histogram decode(byte[] encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Invalid generation stats histogram", e);
+        }
+    }
+
+    /**
+     * Latencies and failure count of one closed interval or minute. Latencies are kept packed,
+     * as an hour of them stays in memory, and are null if nothing completed.
+     */
+    private static final class Slot {
+
+        private final AbstractHistogram latencies;
+        private final long failed;
+
+        private Slot(AbstractHistogram latencies, long failed) {
+            this.latencies = latencies;
+            this.failed = failed;
+        }
+
+        static Slot of(Histogram latencies, long failed) {
+            if (latencies.getTotalCount() == 0) {
+                return failed == 0 ? EMPTY : new Slot(null, failed);
+            }
+            PackedHistogram packed = new PackedHistogram(SIGNIFICANT_DIGITS);
+            packed.add(latencies);
+            return new Slot(packed, failed);
+        }
+
+        void addTo(Histogram histogram) {
+            if (latencies != null) {
+                histogram.add(latencies);
+            }
+        }
+    }
+
+    /**
+     * Fixed number of slots with a running sum over them
+     */
+    private static final class RollingWindow {
+
+        private final Slot[] slots;
+        private final Histogram sum = new Histogram(SIGNIFICANT_DIGITS);
+        private long failed;
+        private int next;
+        private int filled;
+
+        RollingWindow(int size) {
+            this.slots = new Slot[size];
+            Arrays.fill(slots, EMPTY);
+        }
+
+        void push(Slot slot) {
+            Slot expired = slots[next];
+            slots[next] = slot;
+            next = (next + 1) % slots.length;
+            filled = Math.min(filled + 1, slots.length);
+
+            slot.addTo(sum);
+            failed += slot.failed;
+            if (expired.latencies != null) {
+                sum.subtract(expired.latencies);
+            }
+            failed -= expired.failed;
+        }
+
+        boolean isEmpty() {
+            return sum.getTotalCount() == 0 && failed == 0;
+        }
+    }
+}
\ No newline at end of file
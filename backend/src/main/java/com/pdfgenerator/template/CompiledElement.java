@@ -0,0 +1,135 @@
+package com.pdfgenerator.template;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schema element with its text, bindings and children resolved at compile time
+ */
+public final class CompiledElement {
+
+    private final String type;
+    private final Map<String, Object> properties;
+    private final PathExpression condition;
+    private final TextTemplate text;
+    private final List<Column> columns;
+    private final List<TextTemplate> rows;
+    private final PathExpression each;
+    private final SlotManifest rowManifest;
+    private final List<CompiledElement> children;
+
+    public CompiledElement(String type, Map<String, Object> properties, PathExpression condition, TextTemplate text,
+                           List<Column> columns, List<TextTemplate> rows, PathExpression each,
+                           SlotManifest rowManifest, List<CompiledElement> children) {
+        this.type = type;
+        this.properties = properties;
+        this.condition = condition;
+        this.text = text;
+        this.columns = columns;
+        this.rows = rows;
+        this.each = each;
+        this.rowManifest = rowManifest;
+        this.children = children;
+    }
+
+    /**
+     * Upper-case element type (TEXT, TABLE, IMAGE, CONTAINER, ...)
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Raw element properties, used for styling
+     */
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Whether the element is rendered for this data; elements with a false "if" are skipped entirely
+     */
+    public boolean isVisible(RenderScope scope) {
+        return condition == null || PathExpression.isTruthy(condition.resolve(scope));
+    }
+
+    /**
+     * Compiled text for TEXT elements, or the image source for IMAGE elements
+     */
+    public TextTemplate getText() {
+        return text;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Compiled value template of each static table row
+     */
+    public List<TextTemplate> getRows() {
+        return rows;
+    }
+
+    /**
+     * List binding of a table (one row per item), or null for static rows
+     */
+    public PathExpression getEach() {
+        return each;
+    }
+
+    /**
+     * Slot layout of rows bound from the each list, or null for static rows
+     */
+    public SlotManifest getRowManifest() {
+        return rowManifest;
+    }
+
+    public List<CompiledElement> getChildren() {
+        return children;
+    }
+
+    /**
+     * Table column with its data binding and formatter
+     */
+    public static final class Column {
+
+        private final String header;
+        private final float width;
+        private final PathExpression path;
+        private final ValueFormatter formatter;
+
+        public Column(String header, float width, PathExpression path, ValueFormatter formatter) {
+            this.header = header;
+            this.width = width;
+            this.path = path;
+            this.formatter = formatter;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public float getWidth() {
+            return width;
+        }
+
+        /**
+         * Data path bound to the column, or null when cells come from row values
+         */
+        public PathExpression getPath() {
+            return path;
+        }
+
+        public ValueFormatter getFormatter() {
+            return formatter;
+        }
+
+        /**
+         * Resolve and format the cell value; inside an each binding the path is relative to the row item
+         */
+        public String render(RenderScope scope) {
+            return formatter.format(path.resolve(scope));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.pdfgenerator.template;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Render plan for one template version, built once by {@link TemplateCompiler}
+ * and shared by every document generated from that version.
+ */
+public final class CompiledTemplate {
+
+    private final String templateId;
+    private final Integer version;
+    private final LocalDateTime updatedAt;
+    private final Map<String, Object> layout;
+    private final SlotManifest manifest;
+    private final Section header;
+    private final Section footer;
+    private final List<CompiledElement> elements;
+
+    public CompiledTemplate(String templateId, Integer version, LocalDateTime updatedAt, Map<String, Object> layout,
+                            SlotManifest manifest, Section header, Section footer, List<CompiledElement> elements) {
+        this.templateId = templateId;
+        this.version = version;
+        this.updatedAt = updatedAt;
+        this.layout = layout;
+        this.manifest = manifest;
+        this.header = header;
+        this.footer = footer;
+        this.elements = elements;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    /**
+     * Save time of the compiled schema; coalesced edits change it without a new version
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Raw layout configuration (page size, margins)
+     */
+    public Map<String, Object> getLayout() {
+        return layout;
+    }
+
+    /**
+     * Data keys referenced by the template, in slot order
+     */
+    public SlotManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * Bind request data once into slot arrays; keys the template does not reference are dropped
+     */
+    public RenderScope bind(Map<String, Object> data) {
+        return RenderScope.bind(manifest, data);
+    }
+
+    /**
+     * Running header, or null
+     */
+    public Section getHeader() {
+        return header;
+    }
+
+    /**
+     * Running footer, or null
+     */
+    public Section getFooter() {
+        return footer;
+    }
+
+    public List<CompiledElement> getElements() {
+        return elements;
+    }
+
+    /**
+     * Compiled running header or footer definition
+     */
+    public static final class Section {
+
+        private final TextTemplate text;
+        private final String logo;
+        private final float height;
+        private final float fontSize;
+        private final String textAlign;
+
+        public Section(TextTemplate text, String logo, float height, float fontSize, String textAlign) {
+            this.text = text;
+            this.logo = logo;
+            this.height = height;
+            this.fontSize = fontSize;
+            this.textAlign = textAlign;
+        }
+
+        public TextTemplate getText() {
+            return text;
+        }
+
+        /**
+         * Logo source, or null; never data-dependent, so the decoded image can be shared
+         */
+        public String getLogo() {
+            return logo;
+        }
+
+        public float getHeight() {
+            return height;
+        }
+
+        public float getFontSize() {
+            return fontSize;
+        }
+
+        /**
+         * Alignment from the schema, or null for the section default
+         */
+        public String getTextAlign() {
+            return textAlign;
+        }
+    }
+}
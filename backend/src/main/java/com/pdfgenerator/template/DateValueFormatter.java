@@ -0,0 +1,76 @@
+package com.pdfgenerator.template;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * Thread-safe date formatter backed by an immutable {@link DateTimeFormatter}.
+ * Accepts java.time values, {@link Date}, epoch milliseconds and ISO-8601 strings;
+ * anything it cannot interpret is rendered unchanged.
+ */
+public final class DateValueFormatter implements ValueFormatter {
+
+    private final DateTimeFormatter formatter;
+    private final ZoneId zone;
+
+    public DateValueFormatter(DateTimeFormatter formatter, ZoneId zone) {
+        this.formatter = formatter;
+        this.zone = zone;
+    }
+
+    @Override
+    public String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        try {
+            TemporalAccessor temporal = toTemporal(value);
+            return temporal != null ? formatter.format(temporal) : value.toString();
+        } catch (DateTimeException e) {
+            // Pattern asks for fields the value does not have (e.g. time of a date)
+            return value.toString();
+        }
+    }
+
+    private TemporalAccessor toTemporal(Object value) {
+        if (value instanceof Instant) {
+            return ((Instant) value).atZone(zone);
+        }
+        if (value instanceof TemporalAccessor) {
+            return (TemporalAccessor) value;
+        }
+        if (value instanceof Date) {
+            return ((Date) value).toInstant().atZone(zone);
+        }
+        if (value instanceof Long) {
+            return Instant.ofEpochMilli((Long) value).atZone(zone);
+        }
+        if (value instanceof CharSequence) {
+            return parseIso(value.toString().trim());
+        }
+        return null;
+    }
+
+    private TemporalAccessor parseIso(String text) {
+        // Only attempt a parse when the shape matches, so display strings never throw
+        if (text.length() < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        if (text.length() == 10) {
+            return LocalDate.parse(text);
+        }
+        char last = text.charAt(text.length() - 1);
+        if (last == 'Z' || text.lastIndexOf('+') > 10 || text.lastIndexOf('-') > 10) {
+            return OffsetDateTime.parse(text).atZoneSameInstant(zone);
+        }
+        return LocalDateTime.parse(text);
+    }
+}
@@ -0,0 +1,166 @@
+package com.pdfgenerator.template;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Immutable, thread-safe fixed-point number formatter.
+ *
+ * Unlike {@link java.text.DecimalFormat} it keeps no mutable state, so a single instance
+ * can format every cell of every document concurrently without pooling or per-call setup.
+ * Only grouping, a fixed number of fraction digits and an optional suffix are supported,
+ * which covers amounts such as "1.250,00 TL".
+ */
+public final class LocaleNumberFormat implements ValueFormatter {
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L
+    };
+
+    // Whole numbers below this can be shifted by any supported scale without overflow
+    private static final long MAX_FAST_WHOLE = 1_000_000_000_000L;
+
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final char minusSign;
+    private final int fractionDigits;
+    private final String suffix;
+
+    /**
+     * @param locale locale providing grouping and decimal separators
+     * @param fractionDigits number of fraction digits (0-6)
+     * @param suffix text appended after the number, e.g. " TL"; may be empty
+     */
+    public LocaleNumberFormat(Locale locale, int fractionDigits, String suffix) {
+        if (fractionDigits < 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Fraction digits must be between 0 and " + (POWERS_OF_TEN.length - 1));
+        }
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.minusSign = symbols.getMinusSign();
+        this.fractionDigits = fractionDigits;
+        this.suffix = suffix != null ? suffix : "";
+    }
+
+    /**
+     * Format a numeric value. Strings that are plain numbers are parsed; any other
+     * string (for example an already formatted amount) is returned unchanged.
+     */
+    @Override
+    public String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            long whole = ((Number) value).longValue();
+            if (Math.abs(whole) < MAX_FAST_WHOLE) {
+                return formatUnscaled(whole, 0);
+            }
+        }
+
+        BigDecimal decimal = toBigDecimal(value);
+        if (decimal == null) {
+            return value.toString();
+        }
+
+        BigDecimal scaled = decimal.setScale(fractionDigits, RoundingMode.HALF_UP);
+        BigInteger unscaled = scaled.unscaledValue();
+        if (unscaled.bitLength() < 63) {
+            return formatUnscaled(unscaled.longValue(), fractionDigits);
+        }
+        // Values beyond long range are rare enough to take the slow path
+        String digits = unscaled.abs().toString();
+        if (digits.length() <= fractionDigits) {
+            digits = "0".repeat(fractionDigits + 1 - digits.length()) + digits;
+        }
+        int point = digits.length() - fractionDigits;
+        return format(unscaled.signum() < 0, digits.substring(0, point), digits.substring(point));
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return Double.isFinite(d) ? BigDecimal.valueOf(d) : null;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof CharSequence) {
+            String text = value.toString().trim();
+            return isPlainNumber(text) ? new BigDecimal(text) : null;
+        }
+        return null;
+    }
+
+    private String formatUnscaled(long unscaled, int scale) {
+        // Shift whole numbers so the fraction part is always rendered with fractionDigits
+        long shifted = scale < fractionDigits ? unscaled * POWERS_OF_TEN[fractionDigits - scale] : unscaled;
+        boolean negative = shifted < 0;
+        long abs = Math.abs(shifted);
+        long divisor = POWERS_OF_TEN[fractionDigits];
+        long integerPart = abs / divisor;
+        long fractionPart = abs % divisor;
+
+        String fraction = Long.toString(fractionPart);
+        if (fraction.length() < fractionDigits) {
+            fraction = "0".repeat(fractionDigits - fraction.length()) + fraction;
+        }
+        return format(negative, Long.toString(integerPart), fractionDigits > 0 ? fraction : "");
+    }
+
+    /**
+     * Write integer digits with grouping, the fraction digits and the suffix
+     */
+    private String format(boolean negative, String digits, String fraction) {
+        StringBuilder sb = new StringBuilder(digits.length() + digits.length() / 3 + fraction.length() + suffix.length() + 2);
+        if (negative) {
+            sb.append(minusSign);
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && (digits.length() - i) % 3 == 0) {
+                sb.append(groupingSeparator);
+            }
+            sb.append(digits.charAt(i));
+        }
+        if (!fraction.isEmpty()) {
+            sb.append(decimalSeparator).append(fraction);
+        }
+        sb.append(suffix);
+        return sb.toString();
+    }
+
+    /**
+     * Cheap check so already formatted strings never go through a failing BigDecimal parse
+     */
+    private static boolean isPlainNumber(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        boolean digitSeen = false;
+        boolean dotSeen = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitSeen = true;
+            } else if (c == '.' && !dotSeen) {
+                dotSeen = true;
+            } else if ((c == '-' || c == '+') && i == 0) {
+                continue;
+            } else {
+                return false;
+            }
+        }
+        return digitSeen;
+    }
+}
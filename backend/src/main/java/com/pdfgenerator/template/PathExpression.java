@@ -0,0 +1,195 @@
+package com.pdfgenerator.template;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data path such as {@code customer.address.city} or {@code cards[0].limit}, parsed once
+ * into an accessor chain.
+ *
+ * The first segment is bound to a {@link SlotManifest} slot and read by index; each further
+ * step is either a map key or a list index. Resolution walks maps, lists and arrays
+ * with type checks only, so a missing or mistyped path yields null instead of an exception.
+ * Inside {@code #each} blocks, {@code this} refers to the current item and {@code @index}
+ * to its position.
+ */
+public final class PathExpression {
+
+    public static final String THIS = "this";
+    public static final String INDEX = "@index";
+
+    private static final int CURRENT_SLOT = -1;
+    private static final int INDEX_SLOT = -2;
+
+    private final String source;
+    private final String rootKey;
+    private final int slot;
+    private final Object[] steps;
+
+    private PathExpression(String source, String rootKey, int slot, Object[] steps) {
+        this.source = source;
+        this.rootKey = rootKey;
+        this.slot = slot;
+        this.steps = steps;
+    }
+
+    /**
+     * Parse a path, assigning its first segment a slot in the manifest
+     * @param path dotted path with optional [n] indexes
+     * @param manifest manifest of the scope the path is evaluated in
+     * @return compiled path
+     * @throws IllegalArgumentException if the path is empty or malformed
+     */
+    public static PathExpression compile(String path, SlotManifest manifest) {
+        String trimmed = path != null ? path.trim() : "";
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Empty data path");
+        }
+
+        List<Object> steps = new ArrayList<>();
+        StringBuilder key = new StringBuilder();
+        int i = 0;
+        while (i < trimmed.length()) {
+            char c = trimmed.charAt(i);
+            if (c == '.') {
+                addKey(steps, key, trimmed);
+                i++;
+            } else if (c == '[') {
+                if (key.length() > 0) {
+                    addKey(steps, key, trimmed);
+                }
+                int close = trimmed.indexOf(']', i);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed index in data path: " + trimmed);
+                }
+                steps.add(parseIndex(trimmed.substring(i + 1, close).trim(), trimmed));
+                i = close + 1;
+                if (i < trimmed.length() && trimmed.charAt(i) == '.') {
+                    i++;
+                }
+            } else {
+                key.append(c);
+                i++;
+            }
+        }
+        if (key.length() > 0) {
+            addKey(steps, key, trimmed);
+        }
+
+        Object first = steps.get(0);
+        if (!(first instanceof String)) {
+            throw new IllegalArgumentException("Data path must start with a field name: " + trimmed);
+        }
+
+        // A leading "this" is implicit: "this.amount" and "amount" resolve the same way
+        if (THIS.equals(first) && steps.size() > 1) {
+            steps.remove(0);
+            if (!(steps.get(0) instanceof String)) {
+                steps.add(0, THIS);
+            }
+        }
+
+        String rootKey = (String) steps.get(0);
+        int slot = THIS.equals(rootKey) ? CURRENT_SLOT : INDEX.equals(rootKey) ? INDEX_SLOT : manifest.slot(rootKey);
+        return new PathExpression(trimmed, rootKey, slot, steps.subList(1, steps.size()).toArray());
+    }
+
+    /**
+     * Resolve the path in a scope, or null if any step is missing
+     */
+    public Object resolve(RenderScope scope) {
+        Object value;
+        if (slot >= 0) {
+            value = scope.get(slot);
+        } else if (slot == CURRENT_SLOT) {
+            value = scope.getCurrent();
+        } else {
+            value = scope.getIndex();
+        }
+
+        for (Object step : steps) {
+            if (value == null) {
+                return null;
+            }
+            value = step instanceof String ? field(value, (String) step) : element(value, (Integer) step);
+        }
+        return value;
+    }
+
+    /**
+     * First path segment, i.e. the top-level data key the path depends on
+     */
+    public String getRootKey() {
+        return rootKey;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Template truthiness: null, false, zero, blank strings and empty collections are false
+     */
+    public static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue() != 0;
+        }
+        if (value instanceof CharSequence) {
+            return !value.toString().isBlank();
+        }
+        if (value instanceof Iterable) {
+            return ((Iterable<?>) value).iterator().hasNext();
+        }
+        if (value instanceof Map) {
+            return !((Map<?, ?>) value).isEmpty();
+        }
+        if (value.getClass().isArray()) {
+            return Array.getLength(value) > 0;
+        }
+        return true;
+    }
+
+    private static Object field(Object value, String key) {
+        return value instanceof Map ? ((Map<?, ?>) value).get(key) : null;
+    }
+
+    private static Object element(Object value, int index) {
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            return index < list.size() ? list.get(index) : null;
+        }
+        if (value.getClass().isArray()) {
+            return index < Array.getLength(value) ? Array.get(value, index) : null;
+        }
+        return null;
+    }
+
+    private static void addKey(List<Object> steps, StringBuilder key, String path) {
+        String name = key.toString().trim();
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Empty segment in data path: " + path);
+        }
+        steps.add(name);
+        key.setLength(0);
+    }
+
+    private static Integer parseIndex(String index, String path) {
+        try {
+            int value = Integer.parseInt(index);
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative index in data path: " + path);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid index in data path: " + path, e);
+        }
+    }
+}
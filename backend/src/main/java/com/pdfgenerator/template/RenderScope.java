@@ -0,0 +1,77 @@
+package com.pdfgenerator.template;
+
+import java.lang.reflect.Array;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Slot-bound data for rendering compiled templates.
+ *
+ * The root scope holds the request values referenced by the template, bound once by
+ * {@link SlotManifest}; each {@code #each} iteration pushes a child scope holding the
+ * current item's bound values. Compiled paths read their first segment by slot index.
+ */
+public final class RenderScope {
+
+    private final Object current;
+    private final Object[] slots;
+    private final int index;
+
+    private RenderScope(Object current, Object[] slots, int index) {
+        this.current = current;
+        this.slots = slots;
+        this.index = index;
+    }
+
+    /**
+     * Root scope over request data; keys outside the manifest are not retained
+     */
+    public static RenderScope bind(SlotManifest manifest, Map<String, Object> data) {
+        return new RenderScope(null, manifest.bind(data), 0);
+    }
+
+    /**
+     * Child scope for one loop item
+     */
+    public RenderScope child(SlotManifest itemManifest, Object item, int index) {
+        return new RenderScope(item, itemManifest.bindItem(item, slots), index);
+    }
+
+    /**
+     * Run the consumer with a child scope for each item of a list or array; other values yield no items
+     */
+    public void forEachItem(Object items, SlotManifest itemManifest, Consumer<RenderScope> consumer) {
+        if (items instanceof Iterable) {
+            int position = 0;
+            for (Object item : (Iterable<?>) items) {
+                consumer.accept(child(itemManifest, item, position++));
+            }
+        } else if (items != null && items.getClass().isArray()) {
+            int length = Array.getLength(items);
+            for (int i = 0; i < length; i++) {
+                consumer.accept(child(itemManifest, Array.get(items, i), i));
+            }
+        }
+    }
+
+    /**
+     * Bound value of a slot
+     */
+    public Object get(int slot) {
+        return slots[slot];
+    }
+
+    /**
+     * Current loop item, or null at the root
+     */
+    public Object getCurrent() {
+        return current;
+    }
+
+    /**
+     * Zero-based position of the current loop item
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,129 @@
+package com.pdfgenerator.template;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data keys referenced by a compiled template, each assigned a slot index.
+ *
+ * The root manifest covers top-level request data; every {@code #each} block and table
+ * {@code each} binding gets a child manifest for the fields read from its items. Request
+ * data is bound once into a flat {@code Object[]} (and one array per iterated item), so
+ * renderers read by index instead of hashing the same keys for every cell. Keys the
+ * template never references are not copied and are not retained by the render.
+ */
+public final class SlotManifest {
+
+    private static final Object[] NO_SLOTS = new Object[0];
+
+    private final SlotManifest parent;
+    private final Map<String, Integer> slots = new LinkedHashMap<>();
+    private final List<SlotManifest> children = new ArrayList<>();
+
+    private String[] keys;
+    private int[] parentSlots;
+
+    private SlotManifest(SlotManifest parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Manifest for top-level request data
+     */
+    public static SlotManifest root() {
+        return new SlotManifest(null);
+    }
+
+    /**
+     * Manifest for the items of an iterated list
+     */
+    public SlotManifest child() {
+        SlotManifest child = new SlotManifest(this);
+        children.add(child);
+        return child;
+    }
+
+    /**
+     * Slot index of a key, assigning one if needed.
+     * Keys read inside a loop are registered in the enclosing manifests too, so item
+     * binding can fall back to outer values by index.
+     */
+    public int slot(String key) {
+        if (keys != null) {
+            throw new IllegalStateException("Slot manifest is already frozen");
+        }
+        Integer index = slots.get(key);
+        if (index == null) {
+            index = slots.size();
+            slots.put(key, index);
+            if (parent != null) {
+                parent.slot(key);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Fix the slot layout once compilation is complete
+     */
+    public SlotManifest freeze() {
+        if (keys == null) {
+            keys = slots.keySet().toArray(new String[0]);
+            parentSlots = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                parentSlots[i] = parent != null ? parent.slots.get(keys[i]) : -1;
+            }
+            for (SlotManifest child : children) {
+                child.freeze();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Referenced keys in slot order
+     */
+    public String[] getKeys() {
+        freeze();
+        return keys.clone();
+    }
+
+    /**
+     * Copy referenced top-level values into a slot array; other keys are dropped
+     */
+    public Object[] bind(Map<String, Object> data) {
+        freeze();
+        if (keys.length == 0 || data == null) {
+            return keys.length == 0 ? NO_SLOTS : new Object[keys.length];
+        }
+
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = data.get(keys[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Bind one list item: fields of the item first, enclosing values for keys the item lacks
+     */
+    public Object[] bindItem(Object item, Object[] outer) {
+        freeze();
+        if (keys.length == 0) {
+            return NO_SLOTS;
+        }
+
+        Map<?, ?> fields = item instanceof Map ? (Map<?, ?>) item : Map.of();
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Object value = fields.get(keys[i]);
+            if (value == null && !fields.containsKey(keys[i])) {
+                value = outer[parentSlots[i]];
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+}
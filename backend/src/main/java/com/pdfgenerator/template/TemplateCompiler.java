@@ -0,0 +1,204 @@
+package com.pdfgenerator.template;
+
+import com.pdfgenerator.entity.Template;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles template schemas into reusable render plans.
+ *
+ * Placeholders and format directives are parsed here, once per template version,
+ * instead of on every document. All data keys the template reads are collected in a
+ * {@link SlotManifest} so request data can be bound into slot arrays. Compiled plans are cached by template id and
+ * replaced as soon as a different version or save of it is requested; coalesced edits keep the version number
+ * but change updatedAt.
+ */
+@Component
+public class TemplateCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateCompiler.class);
+
+    public static final String PAGE_NUMBER_KEY = "page";
+    public static final String TOTAL_PAGES_KEY = "pages";
+    public static final String DEFAULT_FOOTER_TEXT = "Sayfa {{" + PAGE_NUMBER_KEY + "}} / {{" + TOTAL_PAGES_KEY + "}}";
+
+    private static final Set<String> PAGE_KEYS = Set.of(PAGE_NUMBER_KEY, TOTAL_PAGES_KEY);
+
+    private final Map<String, CompiledTemplate> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Get the compiled plan for a template, compiling it if this version has not been seen
+     *
+     * @param template template entity with a schema
+     * @return compiled template
+     * @throws IllegalArgumentException if the schema uses unknown format directives
+     */
+    public CompiledTemplate compile(Template template) {
+        if (template.getId() == null) {
+            return doCompile(template);
+        }
+
+        CompiledTemplate cached = cache.get(template.getId());
+        if (cached != null && Objects.equals(cached.getVersion(), template.getVersion())
+                && Objects.equals(cached.getUpdatedAt(), template.getUpdatedAt())) {
+            return cached;
+        }
+
+        CompiledTemplate compiled = doCompile(template);
+        cache.put(template.getId(), compiled);
+        return compiled;
+    }
+
+    /**
+     * Drop the compiled plan of a template
+     */
+    public void evict(String templateId) {
+        cache.remove(templateId);
+    }
+
+    private CompiledTemplate doCompile(Template template) {
+        logger.debug("Compiling template {} version {}", template.getId(), template.getVersion());
+
+        Map<String, Object> schema = template.getSchema();
+        Map<String, Object> layout = asMap(schema.get("layout"));
+        SlotManifest manifest = SlotManifest.root();
+
+        CompiledTemplate compiled = new CompiledTemplate(
+            template.getId(),
+            template.getVersion(),
+            template.getUpdatedAt(),
+            layout,
+            manifest,
+            // The header is laid out once per document, so only the footer keeps page tokens
+            compileSection(layout.get("header"), 40, 10, "", Set.of(), manifest),
+            compileSection(layout.get("footer"), 30, 9, DEFAULT_FOOTER_TEXT, PAGE_KEYS, manifest),
+            compileElements(asList(schema.get("elements")), manifest)
+        );
+
+        // Slot layout is fixed before the plan is shared
+        manifest.freeze();
+        return compiled;
+    }
+
+    private CompiledTemplate.Section compileSection(Object value, float defaultHeight, float defaultFontSize,
+                                                    String defaultText, Set<String> preservedKeys,
+                                                    SlotManifest manifest) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+
+        Map<String, Object> section = asMap(value);
+        String logo = (String) section.get("logo");
+        return new CompiledTemplate.Section(
+            TextTemplate.compile((String) section.getOrDefault("text", defaultText), preservedKeys, manifest),
+            logo,
+            getFloatValue(section, "height", defaultHeight),
+            getFloatValue(section, "fontSize", defaultFontSize),
+            (String) section.get("textAlign")
+        );
+    }
+
+    private List<CompiledElement> compileElements(List<Object> elements, SlotManifest manifest) {
+        List<CompiledElement> compiled = new ArrayList<>(elements.size());
+        for (Object element : elements) {
+            if (element instanceof Map) {
+                compiled.add(compileElement(asMap(element), manifest));
+            }
+        }
+        return compiled;
+    }
+
+    private CompiledElement compileElement(Map<String, Object> element, SlotManifest manifest) {
+        String type = ((String) element.getOrDefault("type", "TEXT")).toUpperCase(Locale.ROOT);
+        Map<String, Object> properties = asMap(element.get("properties"));
+
+        TextTemplate text = TextTemplate.EMPTY;
+        List<CompiledElement.Column> columns = List.of();
+        List<TextTemplate> rows = List.of();
+        PathExpression each = null;
+        SlotManifest rowManifest = null;
+
+        switch (type) {
+            case "TABLE":
+                each = compilePath((String) properties.get("each"), manifest);
+                // Column paths of an each-table read from per-row slot arrays
+                rowManifest = each != null ? manifest.child() : null;
+                columns = compileColumns(asList(properties.get("columns")), rowManifest != null ? rowManifest : manifest);
+                rows = compileRows(asList(properties.get("rows")), manifest);
+                break;
+            case "IMAGE":
+                text = TextTemplate.compile((String) properties.get("src"), Set.of(), manifest);
+                break;
+            case "CONTAINER":
+                break;
+            default:
+                text = TextTemplate.compile((String) properties.getOrDefault("text", ""), Set.of(), manifest);
+                break;
+        }
+
+        return new CompiledElement(type, properties, compilePath((String) element.get("if"), manifest), text,
+            columns, rows, each, rowManifest, compileElements(asList(element.get("children")), manifest));
+    }
+
+    private List<CompiledElement.Column> compileColumns(List<Object> columns, SlotManifest manifest) {
+        List<CompiledElement.Column> compiled = new ArrayList<>(columns.size());
+        for (Object value : columns) {
+            Map<String, Object> column = asMap(value);
+            String dataKey = (String) column.get("dataKey");
+            String directive = null;
+
+            // Bindings accept the same "key|directive" syntax as placeholders
+            if (dataKey != null && dataKey.indexOf('|') >= 0) {
+                directive = dataKey.substring(dataKey.indexOf('|') + 1);
+                dataKey = dataKey.substring(0, dataKey.indexOf('|')).trim();
+            }
+
+            compiled.add(new CompiledElement.Column(
+                (String) column.getOrDefault("header", ""),
+                getFloatValue(column, "width", 100),
+                compilePath(dataKey, manifest),
+                ValueFormatters.forDirective(directive)
+            ));
+        }
+        return compiled;
+    }
+
+    private List<TextTemplate> compileRows(List<Object> rows, SlotManifest manifest) {
+        List<TextTemplate> compiled = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            compiled.add(TextTemplate.compile((String) asMap(row).get("value"), Set.of(), manifest));
+        }
+        return compiled;
+    }
+
+    private static PathExpression compilePath(String path, SlotManifest manifest) {
+        return path != null && !path.isBlank() ? PathExpression.compile(path, manifest) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Map.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asList(Object value) {
+        return value instanceof List ? (List<Object>) value : List.of();
+    }
+
+    private static float getFloatValue(Map<String, Object> map, String key, float defaultValue) {
+        Object value = map.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).floatValue();
+        }
+        return defaultValue;
+    }
+}
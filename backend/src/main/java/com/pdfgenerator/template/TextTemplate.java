@@ -0,0 +1,305 @@
+package com.pdfgenerator.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Template text with placeholders and blocks, parsed once at compile time.
+ *
+ * Supported syntax:
+ * <ul>
+ *   <li>{@code {{customer.address.city}}}, {@code {{cards[0].limit|currency:TRY}}} - value with optional directive</li>
+ *   <li>{@code {{#if path}}...{{else}}...{{/if}}} - conditional section</li>
+ *   <li>{@code {{#each path}}...{{/each}}} - repeated section, with {@code this} and {@code @index}</li>
+ * </ul>
+ * The text is compiled into a tree of segments bound to {@link PathExpression} accessors and
+ * cached {@link ValueFormatter}s, so rendering is a single pass of appends with no regex
+ * matching, path parsing or formatter construction per document. Data keys are registered
+ * in a {@link SlotManifest} and read by slot index.
+ */
+public final class TextTemplate {
+
+    public static final TextTemplate EMPTY = new TextTemplate("", new Segment[]{new Literal("")}, SlotManifest.root().freeze());
+
+    private static final Pattern TAG_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
+
+    private final String source;
+    private final Segment[] segments;
+    private final SlotManifest manifest;
+
+    private TextTemplate(String source, Segment[] segments, SlotManifest manifest) {
+        this.source = source;
+        this.segments = segments;
+        this.manifest = manifest;
+    }
+
+    /**
+     * Compile template text
+     * @param text text with placeholders, may be null
+     * @return compiled text
+     * @throws IllegalArgumentException if a placeholder, path or block is malformed
+     */
+    public static TextTemplate compile(String text) {
+        return compile(text, Set.of());
+    }
+
+    /**
+     * Compile template text, keeping the given placeholder names as literal text
+     * (for tokens resolved later, such as page numbers)
+     */
+    public static TextTemplate compile(String text, Set<String> preservedKeys) {
+        TextTemplate template = compile(text, preservedKeys, SlotManifest.root());
+        template.manifest.freeze();
+        return template;
+    }
+
+    /**
+     * Compile template text into a shared manifest (frozen by the caller once the whole template is compiled)
+     */
+    public static TextTemplate compile(String text, Set<String> preservedKeys, SlotManifest manifest) {
+        if (text == null || text.isEmpty()) {
+            return EMPTY;
+        }
+
+        Deque<Block> blocks = new ArrayDeque<>();
+        Block root = new Block(null, null, manifest);
+        blocks.push(root);
+
+        Matcher matcher = TAG_PATTERN.matcher(text);
+        StringBuilder literal = new StringBuilder();
+        int last = 0;
+        while (matcher.find()) {
+            literal.append(text, last, matcher.start());
+            last = matcher.end();
+
+            String expression = matcher.group(1).trim();
+            if (preservedKeys.contains(expression)) {
+                literal.append("{{").append(expression).append("}}");
+                continue;
+            }
+
+            blocks.peek().addLiteral(literal);
+            if (expression.startsWith("#if ") || expression.startsWith("#each ")) {
+                int space = expression.indexOf(' ');
+                String kind = expression.substring(1, space);
+                SlotManifest outer = blocks.peek().manifest;
+                blocks.push(new Block(kind, PathExpression.compile(expression.substring(space + 1), outer),
+                    "each".equals(kind) ? outer.child() : outer));
+            } else if (expression.equals("else")) {
+                Block block = blocks.peek();
+                if (!"if".equals(block.kind) || block.elseBranch != null) {
+                    throw new IllegalArgumentException("Unexpected {{else}} in template text: " + text);
+                }
+                block.elseBranch = new ArrayList<>();
+            } else if (expression.equals("/if") || expression.equals("/each")) {
+                Block block = blocks.pop();
+                if (!expression.substring(1).equals(block.kind)) {
+                    throw new IllegalArgumentException("Unexpected {{" + expression + "}} in template text: " + text);
+                }
+                blocks.peek().current().add(block.toSegment());
+            } else if (expression.startsWith("#") || expression.startsWith("/")) {
+                throw new IllegalArgumentException("Unknown block {{" + expression + "}} in template text: " + text);
+            } else {
+                int pipe = expression.indexOf('|');
+                String path = pipe < 0 ? expression : expression.substring(0, pipe);
+                String directive = pipe < 0 ? null : expression.substring(pipe + 1);
+                blocks.peek().current().add(new Value(PathExpression.compile(path, blocks.peek().manifest),
+                    ValueFormatters.forDirective(directive)));
+            }
+        }
+        literal.append(text, last, text.length());
+
+        if (blocks.size() > 1) {
+            throw new IllegalArgumentException("Unclosed {{#" + blocks.peek().kind + "}} in template text: " + text);
+        }
+        root.addLiteral(literal);
+
+        List<Segment> segments = root.body;
+        if (segments.isEmpty()) {
+            segments.add(new Literal(""));
+        }
+        return new TextTemplate(text, segments.toArray(new Segment[0]), manifest);
+    }
+
+    /**
+     * Render text against request data
+     */
+    public String render(Map<String, Object> data) {
+        return render(RenderScope.bind(manifest, data));
+    }
+
+    /**
+     * Render text in a scope (e.g. a table row inside an each binding)
+     */
+    public String render(RenderScope scope) {
+        if (isConstant()) {
+            return ((Literal) segments[0]).text;
+        }
+
+        StringBuilder sb = new StringBuilder(source.length() + 32);
+        renderAll(segments, scope, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Items the text's {@code each} sections repeat over in a scope, nested sections included;
+     * sections in branches that are not taken are not counted
+     */
+    public long countItems(RenderScope scope) {
+        return isConstant() ? 0 : countItems(segments, scope);
+    }
+
+    /**
+     * Whether the text has no placeholders or blocks
+     */
+    public boolean isConstant() {
+        return segments.length == 1 && segments[0] instanceof Literal;
+    }
+
+    /**
+     * Original template text
+     */
+    public String getSource() {
+        return source;
+    }
+
+    private static void renderAll(Segment[] segments, RenderScope scope, StringBuilder out) {
+        for (Segment segment : segments) {
+            segment.render(scope, out);
+        }
+    }
+
+    private static long countItems(Segment[] segments, RenderScope scope) {
+        long items = 0;
+        for (Segment segment : segments) {
+            items += segment.countItems(scope);
+        }
+        return items;
+    }
+
+    private interface Segment {
+        void render(RenderScope scope, StringBuilder out);
+
+        default long countItems(RenderScope scope) {
+            return 0;
+        }
+    }
+
+    private static final class Literal implements Segment {
+        private final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(RenderScope scope, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    private static final class Value implements Segment {
+        private final PathExpression path;
+        private final ValueFormatter formatter;
+
+        Value(PathExpression path, ValueFormatter formatter) {
+            this.path = path;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void render(RenderScope scope, StringBuilder out) {
+            out.append(formatter.format(path.resolve(scope)));
+        }
+    }
+
+    private static final class Conditional implements Segment {
+        private final PathExpression condition;
+        private final Segment[] thenBranch;
+        private final Segment[] elseBranch;
+
+        Conditional(PathExpression condition, Segment[] thenBranch, Segment[] elseBranch) {
+            this.condition = condition;
+            this.thenBranch = thenBranch;
+            this.elseBranch = elseBranch;
+        }
+
+        @Override
+        public void render(RenderScope scope, StringBuilder out) {
+            renderAll(PathExpression.isTruthy(condition.resolve(scope)) ? thenBranch : elseBranch, scope, out);
+        }
+
+        @Override
+        public long countItems(RenderScope scope) {
+            return TextTemplate.countItems(PathExpression.isTruthy(condition.resolve(scope)) ? thenBranch : elseBranch, scope);
+        }
+    }
+
+    private static final class Loop implements Segment {
+        private final PathExpression items;
+        private final SlotManifest itemManifest;
+        private final Segment[] body;
+
+        Loop(PathExpression items, SlotManifest itemManifest, Segment[] body) {
+            this.items = items;
+            this.itemManifest = itemManifest;
+            this.body = body;
+        }
+
+        @Override
+        public void render(RenderScope scope, StringBuilder out) {
+            scope.forEachItem(items.resolve(scope), itemManifest, itemScope -> renderAll(body, itemScope, out));
+        }
+
+        @Override
+        public long countItems(RenderScope scope) {
+            long[] count = {0};
+            scope.forEachItem(items.resolve(scope), itemManifest,
+                itemScope -> count[0] += 1 + TextTemplate.countItems(body, itemScope));
+            return count[0];
+        }
+    }
+
+    /**
+     * Block being parsed
+     */
+    private static final class Block {
+        private final String kind;
+        private final PathExpression path;
+        private final SlotManifest manifest;
+        private final List<Segment> body = new ArrayList<>();
+        private List<Segment> elseBranch;
+
+        Block(String kind, PathExpression path, SlotManifest manifest) {
+            this.kind = kind;
+            this.path = path;
+            this.manifest = manifest;
+        }
+
+        List<Segment> current() {
+            return elseBranch != null ? elseBranch : body;
+        }
+
+        void addLiteral(StringBuilder literal) {
+            if (literal.length() > 0) {
+                current().add(new Literal(literal.toString()));
+                literal.setLength(0);
+            }
+        }
+
+        Segment toSegment() {
+            Segment[] thenSegments = body.toArray(new Segment[0]);
+            if ("each".equals(kind)) {
+                return new Loop(path, manifest, thenSegments);
+            }
+            Segment[] elseSegments = elseBranch != null ? elseBranch.toArray(new Segment[0]) : new Segment[0];
+            return new Conditional(path, thenSegments, elseSegments);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.pdfgenerator.template;
+
+/**
+ * Formats a bound data value for display. Implementations are immutable and
+ * shared across threads, so they are created once per directive and cached.
+ */
+@FunctionalInterface
+public interface ValueFormatter {
+
+    /**
+     * Default formatter used by placeholders without a directive
+     */
+    ValueFormatter TO_STRING = value -> value != null ? value.toString() : "";
+
+    /**
+     * Format a value
+     * @param value raw data value, may be null
+     * @return display string, never null
+     */
+    String format(Object value);
+}
@@ -0,0 +1,96 @@
+package com.pdfgenerator.template;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of cached value formatters for placeholder directives.
+ *
+ * Supported directives:
+ * <ul>
+ *   <li>{@code currency:TRY} - tr-TR grouping, 2 fraction digits, currency suffix ("1.250,00 TL")</li>
+ *   <li>{@code number} / {@code number:N} - tr-TR grouping with N fraction digits (default 0)</li>
+ *   <li>{@code date:PATTERN} - {@link DateTimeFormatter} pattern, e.g. {@code date:dd/MM/yyyy}</li>
+ *   <li>{@code upper} / {@code lower} - tr-TR case conversion</li>
+ * </ul>
+ * Each distinct directive is resolved once and shared by every template and thread.
+ */
+public final class ValueFormatters {
+
+    public static final Locale LOCALE = Locale.forLanguageTag("tr-TR");
+    public static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+
+    private static final Map<String, ValueFormatter> cache = new ConcurrentHashMap<>();
+
+    private ValueFormatters() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Resolve formatter for a directive such as {@code currency:TRY}
+     * @param directive formatter directive, may be null for plain toString
+     * @return cached formatter
+     * @throws IllegalArgumentException if the directive is unknown or malformed
+     */
+    public static ValueFormatter forDirective(String directive) {
+        if (directive == null || directive.isBlank()) {
+            return ValueFormatter.TO_STRING;
+        }
+        return cache.computeIfAbsent(directive.trim(), ValueFormatters::create);
+    }
+
+    /**
+     * Cached currency formatter
+     */
+    public static ValueFormatter currency(String currencyCode) {
+        return forDirective("currency:" + currencyCode);
+    }
+
+    /**
+     * Cached date formatter
+     */
+    public static ValueFormatter date(String pattern) {
+        return forDirective("date:" + pattern);
+    }
+
+    private static ValueFormatter create(String directive) {
+        int colon = directive.indexOf(':');
+        String name = (colon < 0 ? directive : directive.substring(0, colon)).trim().toLowerCase(Locale.ROOT);
+        String argument = colon < 0 ? null : directive.substring(colon + 1).trim();
+
+        switch (name) {
+            case "currency":
+                String code = argument != null && !argument.isEmpty() ? argument.toUpperCase(Locale.ROOT) : "TRY";
+                return new LocaleNumberFormat(LOCALE, 2, " " + currencySuffix(code));
+            case "number":
+                int digits = argument != null && !argument.isEmpty() ? parseDigits(argument, directive) : 0;
+                return new LocaleNumberFormat(LOCALE, digits, "");
+            case "date":
+                if (argument == null || argument.isEmpty()) {
+                    throw new IllegalArgumentException("Date directive requires a pattern: " + directive);
+                }
+                return new DateValueFormatter(DateTimeFormatter.ofPattern(argument, LOCALE), ZONE);
+            case "upper":
+                return value -> value != null ? value.toString().toUpperCase(LOCALE) : "";
+            case "lower":
+                return value -> value != null ? value.toString().toLowerCase(LOCALE) : "";
+            default:
+                throw new IllegalArgumentException("Unknown format directive: " + directive);
+        }
+    }
+
+    private static String currencySuffix(String code) {
+        return "TRY".equals(code) ? "TL" : code;
+    }
+
+    private static int parseDigits(String argument, String directive) {
+        try {
+            return Integer.parseInt(argument);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid fraction digits in directive: " + directive, e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.pdfgenerator.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 of a value in canonical JSON form, with map entries sorted by key at every level,
+ * so equal request payloads hash the same whatever order their fields arrived in.
+ */
+public final class CanonicalJson {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+        .findAndAddModules()
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+        .build();
+
+    private CanonicalJson() {
+    }
+
+    /**
+     * Hash of the value, streamed into the digest without building the JSON
+     *
+     * @throws IOException if the value cannot be written as JSON
+     */
+    public static byte[] sha256(Object value) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        MAPPER.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), value);
+        return digest.digest();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.pdfgenerator.util;
+
+import com.pdfgenerator.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque cursor for keyset pagination on (created_at, id).
+ *
+ * Holds the sort key of the last row of a page; the next page continues strictly after it,
+ * so every page is an index range scan no matter how deep it is.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    public KeysetCursor(LocalDateTime createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Encode as a URL-safe token
+     */
+    public String encode() {
+        String key = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     * @return cursor, or null for a null or blank token (first page)
+     * @throws ValidationException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = key.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == key.length() - 1) {
+                throw new IllegalArgumentException("Missing cursor separator");
+            }
+            return new KeysetCursor(LocalDateTime.parse(key.substring(0, separator)), key.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor", List.of("cursor: " + token));
+        }
+    }
+}
\ No newline at end of file
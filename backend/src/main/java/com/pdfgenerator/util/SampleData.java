@@ -0,0 +1,46 @@
+package com.pdfgenerator.util;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sample document data used for previews and template warm-up
+ */
+public class SampleData {
+
+    private SampleData() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Create sample data covering the fields of all built-in categories
+     * @return mutable map of raw sample values
+     */
+    public static Map<String, Object> create() {
+        Map<String, Object> sampleData = new HashMap<>();
+        sampleData.put("title", "Örnek Belge");
+        sampleData.put("customer_name", "Ahmet Yılmaz");
+        sampleData.put("customer_id", "12345678901");
+        sampleData.put("card_number", "**** **** **** 1234");
+        sampleData.put("policy_number", "POL-2025-001");
+        sampleData.put("insured_name", "Mehmet Demir");
+        sampleData.put("premium_amount", new BigDecimal("2500.00"));
+        sampleData.put("account_number", "TR12 3456 7890 1234 5678 90");
+        sampleData.put("account_holder", "Ayşe Kaya");
+        sampleData.put("balance", new BigDecimal("15750.50"));
+        sampleData.put("receipt_number", "RCP-2025-001");
+        sampleData.put("payer_name", "Fatma Özkan");
+        sampleData.put("amount", new BigDecimal("1250.00"));
+        sampleData.put("payment_date", "2025-01-15");
+        // Raw values; the generator applies tr-TR currency and date formatting
+        sampleData.put("transactions", List.of(
+            Map.of("date", "2025-01-10", "description", "Market Alışverişi",
+                "amount", new BigDecimal("-350.25"), "balance", new BigDecimal("16100.75")),
+            Map.of("date", "2025-01-12", "description", "Maaş",
+                "amount", new BigDecimal("12500.00"), "balance", new BigDecimal("28600.75"))
+        ));
+        return sampleData;
+    }
+}
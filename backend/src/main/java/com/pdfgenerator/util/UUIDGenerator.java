@@ -1,12 +1,25 @@
 package com.pdfgenerator.util;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Utility class for generating UUIDs
+ * Utility class for generating UUIDs.
+ *
+ * Random (v4) ids are used where ids are exposed and should not be guessable. High-volume
+ * append-only tables use time-ordered (v7) ids instead, so new rows land on the right-most
+ * B-tree page rather than on a random one.
  */
 public class UUIDGenerator {
 
+    private static final int COUNTER_BITS = 12;
+
+    /**
+     * Last issued (unix millis << 12 | counter), the first 64 bits of a v7 UUID without the version nibble
+     */
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
     private UUIDGenerator() {
         // Private constructor to prevent instantiation
     }
@@ -27,6 +40,32 @@ public class UUIDGenerator {
         return UUID.randomUUID();
     }
 
+    /**
+     * Generate a time-ordered UUID string (RFC 9562 version 7)
+     * @return UUID string
+     */
+    public static String generateUUIDv7() {
+        return generateUUIDv7Object().toString();
+    }
+
+    /**
+     * Generate a time-ordered UUID (RFC 9562 version 7): 48 bits of unix millis, a 12-bit
+     * counter and 62 random bits. Ids from this JVM are strictly increasing; the counter
+     * orders ids within one millisecond, and when it overflows or the clock steps back the
+     * timestamp is advanced past the last id instead. Lock-free.
+     * @return UUID object
+     */
+    public static UUID generateUUIDv7Object() {
+        long candidate = System.currentTimeMillis() << COUNTER_BITS;
+        long next = lastTimestampAndCounter.updateAndGet(last -> Math.max(candidate, last + 1));
+
+        long timestamp = next >>> COUNTER_BITS;
+        long counter = next & ((1L << COUNTER_BITS) - 1);
+        long mostSignificantBits = (timestamp << 16) | 0x7000L | counter;
+        long leastSignificantBits = (ThreadLocalRandom.current().nextLong() >>> 2) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
     /**
      * Validate UUID string format
      * @param uuid UUID string to validate
@@ -1,16 +1,28 @@
 package com.pdfgenerator.validation;
 
 import com.pdfgenerator.dto.TemplateRequest;
+import com.pdfgenerator.entity.Template;
 import com.pdfgenerator.exception.ValidationException;
+import com.pdfgenerator.render.OutputProfile;
+import com.pdfgenerator.template.SlotManifest;
+import com.pdfgenerator.template.TemplateCompiler;
+import com.pdfgenerator.template.TextTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Component
 public class TemplateValidator {
     
+    private final TemplateCompiler templateCompiler;
+    
+    public TemplateValidator(TemplateCompiler templateCompiler) {
+        this.templateCompiler = templateCompiler;
+    }
+    
     public void validateTemplateRequest(TemplateRequest request) {
         List<String> errors = new ArrayList<>();
         
@@ -29,6 +41,9 @@ public class TemplateValidator {
             errors.add("Template schema is required");
         } else {
             validateSchema(request.getSchema(), errors);
+            if (errors.isEmpty()) {
+                validateTemplateText(request.getSchema(), errors);
+            }
         }
         
         if (!errors.isEmpty()) {
@@ -68,6 +83,22 @@ public class TemplateValidator {
         }
     }
     
+    /**
+     * Compile the schema's text, placeholders and bindings, so a malformed block, path or format
+     * directive is rejected on save instead of failing every render
+     */
+    private void validateTemplateText(Map<String, Object> schema, List<String> errors) {
+        Template template = new Template();
+        template.setSchema(schema);
+        try {
+            templateCompiler.compile(template);
+        } catch (IllegalArgumentException e) {
+            errors.add(e.getMessage());
+        } catch (ClassCastException e) {
+            errors.add("Template text, types and data bindings must be strings");
+        }
+    }
+    
     private void validateElements(List<Map<String, Object>> elements, List<String> errors) {
         if (elements.isEmpty()) {
             errors.add("Template must contain at least one element");
@@ -159,6 +190,69 @@ public class TemplateValidator {
                 errors.add("Layout margins must be an object");
             }
         }
+        
+        // Validate output profile
+        if (layout.containsKey("outputProfile")) {
+            try {
+                OutputProfile.fromValue(String.valueOf(layout.get("outputProfile")));
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        
+        // Validate running header and footer
+        validateHeaderFooter(layout, "header", errors);
+        validateHeaderFooter(layout, "footer", errors);
+    }
+    
+    private void validateHeaderFooter(Map<String, Object> layout, String key, List<String> errors) {
+        if (!layout.containsKey(key)) {
+            return;
+        }
+        
+        Object section = layout.get(key);
+        if (!(section instanceof Map)) {
+            errors.add("Layout " + key + " must be an object");
+            return;
+        }
+        
+        @SuppressWarnings("unchecked")
+        Map<String, Object> sectionMap = (Map<String, Object>) section;
+        for (String field : new String[]{"height", "fontSize"}) {
+            if (sectionMap.containsKey(field)) {
+                Object value = sectionMap.get(field);
+                if (!(value instanceof Number) || ((Number) value).doubleValue() <= 0) {
+                    errors.add("Layout " + key + " '" + field + "' must be a positive number");
+                }
+            }
+        }
+        
+        Object text = sectionMap.get("text");
+        if ("header".equals(key) && text != null && readsPageNumbers(text.toString())) {
+            errors.add("Layout header text cannot use {{page}} or {{pages}}; put page numbers in the footer");
+        }
+        
+        Object logo = sectionMap.get("logo");
+        if (logo != null && !(logo.toString().startsWith("classpath:") || logo.toString().startsWith("data:"))) {
+            errors.add("Layout " + key + " logo must be a classpath: or data: URI");
+        } else if (logo != null && logo.toString().contains("{{")) {
+            errors.add("Layout " + key + " logo must not contain placeholders");
+        }
+    }
+    
+    /**
+     * Whether text reads a page token in any placeholder, block or directive form; malformed text
+     * is reported by the schema compile instead
+     */
+    private boolean readsPageNumbers(String text) {
+        SlotManifest manifest = SlotManifest.root();
+        try {
+            TextTemplate.compile(text, Set.of(), manifest);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        List<String> keys = List.of(manifest.getKeys());
+        return keys.contains(TemplateCompiler.PAGE_NUMBER_KEY) || keys.contains(TemplateCompiler.TOTAL_PAGES_KEY);
     }
     
     private void validateMargins(Map<String, Object> margins, List<String> errors) {
@@ -0,0 +1,202 @@
+package com.pdfgenerator.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.enums.TemplateCategory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a Redis server started by the test
+ */
+class RedisTemplateSnapshotStoreTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    private static RedisServer redisServer;
+    private static int port;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplateSnapshotStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = connectionFactory(port);
+        connectionFactory.getConnection().serverCommands().flushAll();
+        store = new RedisTemplateSnapshotStore(new StringRedisTemplate(connectionFactory), objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void put_ShouldRoundTripSnapshot() {
+        // Given
+        TemplateSnapshot snapshot = snapshot(2, UPDATED);
+
+        // When
+        store.put(snapshot, TTL);
+        TemplateSnapshot stored = store.get("tpl-1");
+
+        // Then
+        assertEquals("Statement v2", stored.getName());
+        assertEquals(TemplateCategory.CREDIT_CARD_STATEMENT, stored.getCategory());
+        assertEquals(Map.of("elements", List.of(Map.of("id", "title"))), stored.getSchema());
+        assertEquals(2, stored.getVersion());
+        assertEquals(UPDATED, stored.getUpdatedAt());
+        assertTrue(stored.getActive());
+        assertNull(store.get("tpl-2"));
+    }
+
+    @Test
+    void put_WithOlderSnapshot_ShouldKeepNewerState() {
+        // Given
+        store.put(snapshot(2, UPDATED), TTL);
+
+        // When: a node that read the database before the edit stores its copy late
+        store.put(snapshot(1, UPDATED.plusDays(1)), TTL);
+        store.put(snapshot(2, UPDATED.minusSeconds(1)), TTL);
+
+        // Then
+        assertEquals(UPDATED, store.get("tpl-1").getUpdatedAt());
+    }
+
+    @Test
+    void remove_ShouldLeaveMarkerThatOnlyTheAnnouncedStateReplaces() {
+        // Given
+        store.put(snapshot(1, UPDATED), TTL);
+        TemplateSnapshot edited = snapshot(2, UPDATED.plusMinutes(5));
+
+        // When
+        store.remove(TemplateInvalidation.of(edited), TTL);
+
+        // Then
+        assertNull(store.get("tpl-1"));
+        store.put(snapshot(1, UPDATED), TTL);
+        assertNull(store.get("tpl-1"));
+        store.put(edited, TTL);
+        assertEquals(2, store.get("tpl-1").getVersion());
+        store.remove(TemplateInvalidation.removed("tpl-1"), TTL);
+        store.put(edited, TTL);
+        assertNull(store.get("tpl-1"));
+    }
+
+    @Test
+    void publish_ShouldDeliverNoticeToSubscribers() throws InterruptedException {
+        // Given
+        BlockingQueue<TemplateInvalidation> received = new LinkedBlockingQueue<>();
+        store.subscribe(received::add);
+        TemplateInvalidation invalidation = TemplateInvalidation.of(snapshot(2, UPDATED));
+
+        // When: subscribing completes in the background, so publish until it is delivered
+        TemplateInvalidation delivered = null;
+        for (int attempt = 0; attempt < 50 && delivered == null; attempt++) {
+            store.publish(invalidation);
+            delivered = received.poll(100, TimeUnit.MILLISECONDS);
+        }
+
+        // Then
+        assertNotNull(delivered);
+        assertEquals("tpl-1", delivered.getTemplateId());
+        assertEquals(2, delivered.getVersion());
+        assertEquals(invalidation.getUpdatedAtMillis(), delivered.getUpdatedAtMillis());
+    }
+
+    @Test
+    void ping_WhenRedisStartsAfterTheNode_ShouldFailUntilSubscribed() throws Exception {
+        // Given
+        int laterPort = freePort();
+        LettuceConnectionFactory laterFactory = connectionFactory(laterPort);
+        RedisTemplateSnapshotStore laterStore = new RedisTemplateSnapshotStore(new StringRedisTemplate(laterFactory), objectMapper);
+        BlockingQueue<TemplateInvalidation> received = new LinkedBlockingQueue<>();
+        RedisServer laterServer = new RedisServer(laterPort);
+
+        try {
+            // When: subscribing does not fail while Redis is down
+            laterStore.subscribe(received::add);
+
+            // Then
+            assertThrows(RuntimeException.class, laterStore::ping);
+            assertThrows(RuntimeException.class, () -> laterStore.get("tpl-1"));
+
+            // When
+            laterServer.start();
+            boolean reachable = false;
+            for (int attempt = 0; attempt < 50 && !reachable; attempt++) {
+                try {
+                    laterStore.ping();
+                    reachable = true;
+                } catch (RuntimeException e) {
+                    Thread.sleep(100);
+                }
+            }
+
+            // Then
+            assertTrue(reachable);
+            laterStore.publish(TemplateInvalidation.removed("tpl-1"));
+            assertEquals("tpl-1", received.poll(5, TimeUnit.SECONDS).getTemplateId());
+        } finally {
+            laterStore.destroy();
+            laterFactory.destroy();
+            laterServer.stop();
+        }
+    }
+
+    private static TemplateSnapshot snapshot(int version, LocalDateTime updatedAt) {
+        Template template = new Template("tpl-1", "Statement v" + version, TemplateCategory.CREDIT_CARD_STATEMENT,
+            Map.of("elements", List.of(Map.of("id", "title"))));
+        template.setVersion(version);
+        template.setUpdatedAt(updatedAt);
+        return TemplateSnapshot.of(template);
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
\ No newline at end of file
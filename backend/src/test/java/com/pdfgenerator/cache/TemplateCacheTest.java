@@ -0,0 +1,241 @@
+package com.pdfgenerator.cache;
+
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.enums.TemplateCategory;
+import com.pdfgenerator.repository.TemplateRepository;
+import com.pdfgenerator.template.TemplateCompiler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TemplateCacheTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    private final TemplateRepository templateRepository = mock(TemplateRepository.class);
+    private final SharedStore sharedStore = new SharedStore();
+    private final TemplateCompiler compilerA = spy(new TemplateCompiler());
+    private final TemplateCompiler compilerB = spy(new TemplateCompiler());
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    private TemplateCache nodeA;
+    private TemplateCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node(compilerA);
+        nodeB = node(compilerB);
+        when(templateRepository.findById("tpl-1")).thenReturn(Optional.of(template(1, CREATED, "Statement")));
+    }
+
+    @Test
+    void get_ShouldReadDatabaseOnceAndShareTheCopyWithOtherNodes() {
+        // When
+        Template first = nodeA.get("tpl-1").orElseThrow();
+        Template second = nodeA.get("tpl-1").orElseThrow();
+        Template onOtherNode = nodeB.get("tpl-1").orElseThrow();
+
+        // Then
+        verify(templateRepository, times(1)).findById("tpl-1");
+        assertSame(first, second);
+        assertEquals("Statement", onOtherNode.getName());
+        assertEquals(1, onOtherNode.getVersion());
+        assertEquals(Map.of("elements", List.of()), onOtherNode.getSchema());
+    }
+
+    @Test
+    void updated_ShouldReplaceOlderCopiesAndCompiledPlansOnEveryNode() {
+        // Given
+        nodeA.get("tpl-1");
+        nodeB.get("tpl-1");
+        Template edited = template(2, CREATED.plusMinutes(5), "Statement v2");
+
+        // When
+        nodeA.updated(edited);
+
+        // Then: node B drops its copy and plan, then reads the edit from the shared store
+        verify(compilerB).evict("tpl-1");
+        assertEquals("Statement v2", nodeB.get("tpl-1").orElseThrow().getName());
+        assertEquals("Statement v2", nodeA.get("tpl-1").orElseThrow().getName());
+        verify(templateRepository, times(1)).findById("tpl-1");
+    }
+
+    @Test
+    void updated_WithOlderNoticeArrivingLate_ShouldKeepNewerCopy() {
+        // Given
+        nodeA.updated(template(3, CREATED.plusMinutes(10), "Statement v3"));
+        nodeB.get("tpl-1");
+
+        // When
+        nodeB.onInvalidation(new TemplateInvalidation("tpl-1", 2, 0));
+
+        // Then
+        assertEquals(3, nodeB.get("tpl-1").orElseThrow().getVersion());
+        verify(templateRepository, never()).findById("tpl-1");
+    }
+
+    @Test
+    void removed_ShouldDropTemplateOnEveryNode() {
+        // Given
+        nodeA.get("tpl-1");
+        nodeB.get("tpl-1");
+        when(templateRepository.findById("tpl-1")).thenReturn(Optional.empty());
+
+        // When
+        nodeA.removed("tpl-1");
+
+        // Then
+        assertTrue(nodeB.get("tpl-1").isEmpty());
+        assertTrue(nodeA.get("tpl-1").isEmpty());
+    }
+
+    @Test
+    void get_WhenSharedStoreIsDown_ShouldUseDatabaseAndResendNoticesOnceBack() {
+        // Given
+        nodeB.get("tpl-1");
+        sharedStore.down = true;
+        nodeA.checkSharedStore();
+        nodeB.checkSharedStore();
+
+        // When: an edit on node A cannot be published
+        Template edited = template(2, CREATED.plusMinutes(5), "Statement v2");
+        when(templateRepository.findById("tpl-1")).thenReturn(Optional.of(edited));
+        nodeA.updated(edited);
+
+        // Then: node B keeps copies only for the fallback TTL, which is 0 here
+        assertFalse(nodeA.isSharedAvailable());
+        assertEquals("Statement v2", nodeB.get("tpl-1").orElseThrow().getName());
+        assertEquals("Statement v2", nodeA.get("tpl-1").orElseThrow().getName());
+
+        // When: the store is back
+        sharedStore.down = false;
+        nodeA.checkSharedStore();
+        nodeB.checkSharedStore();
+
+        // Then: the missed notice is resent, so the stale shared copy is not served any more
+        assertTrue(nodeA.isSharedAvailable());
+        assertTrue(nodeB.isSharedAvailable());
+        assertFalse(sharedStore.snapshots.containsKey("tpl-1"));
+        assertEquals(2, nodeB.get("tpl-1").orElseThrow().getVersion());
+    }
+
+    @Test
+    void updated_ShouldAnnounceTheChangeOnEveryNode() {
+        // When
+        nodeA.updated(template(2, CREATED.plusMinutes(5), "Statement v2"));
+        nodeB.removed("tpl-2");
+
+        // Then: one event per node and notice, the writing node included
+        assertEquals(List.of("tpl-1", "tpl-1", "tpl-2", "tpl-2"),
+            events.stream().map(event -> ((TemplateChangedEvent) event).getTemplateId()).toList());
+    }
+
+    @Test
+    void checkSharedStore_WhenBackAfterOutage_ShouldAnnounceMissedChanges() {
+        // Given
+        sharedStore.down = true;
+        nodeA.checkSharedStore();
+
+        // When
+        sharedStore.down = false;
+        nodeA.checkSharedStore();
+        nodeA.checkSharedStore();
+
+        // Then
+        assertEquals(1, events.size());
+        assertNull(((TemplateChangedEvent) events.get(0)).getTemplateId());
+    }
+
+    @Test
+    void checkSharedStore_ShouldForgetNoticesOlderThanTheSharedTtl() {
+        // Given: a node whose shared copies expire at once, and a deleted template imported again under its id
+        TemplateCache node = node(compilerA, Duration.ZERO);
+        node.removed("tpl-1");
+        node.get("tpl-1");
+        assertNotSame(node.get("tpl-1").orElseThrow(), node.get("tpl-1").orElseThrow());
+
+        // When
+        node.checkSharedStore();
+
+        // Then: copies are cached again
+        Template first = node.get("tpl-1").orElseThrow();
+        assertSame(first, node.get("tpl-1").orElseThrow());
+    }
+
+    private TemplateCache node(TemplateCompiler compiler) {
+        return node(compiler, Duration.ofHours(1));
+    }
+
+    private TemplateCache node(TemplateCompiler compiler, Duration sharedTtl) {
+        return new TemplateCache(templateRepository, sharedStore, compiler, events::add, new SimpleMeterRegistry(),
+            sharedTtl, Duration.ofMinutes(5), Duration.ZERO);
+    }
+
+    private static Template template(int version, LocalDateTime updatedAt, String name) {
+        Template template = new Template("tpl-1", name, TemplateCategory.CREDIT_CARD_STATEMENT,
+            Map.of("elements", List.of()));
+        template.setVersion(version);
+        template.setCreatedAt(CREATED);
+        template.setUpdatedAt(updatedAt);
+        return template;
+    }
+
+    /**
+     * Shared store stand-in for several nodes in one JVM
+     */
+    private static class SharedStore implements TemplateSnapshotStore {
+
+        private final Map<String, TemplateSnapshot> snapshots = new ConcurrentHashMap<>();
+        private final List<Consumer<TemplateInvalidation>> listeners = new CopyOnWriteArrayList<>();
+        private volatile boolean down;
+
+        @Override
+        public TemplateSnapshot get(String templateId) {
+            ping();
+            return snapshots.get(templateId);
+        }
+
+        @Override
+        public void put(TemplateSnapshot snapshot, Duration ttl) {
+            ping();
+            snapshots.merge(snapshot.getId(), snapshot, (current, next) -> current.isNewerThan(next) ? current : next);
+        }
+
+        @Override
+        public void remove(TemplateInvalidation invalidation, Duration ttl) {
+            ping();
+            snapshots.computeIfPresent(invalidation.getTemplateId(),
+                (templateId, current) -> invalidation.supersedes(current) ? null : current);
+        }
+
+        @Override
+        public void publish(TemplateInvalidation invalidation) {
+            ping();
+            listeners.forEach(listener -> listener.accept(invalidation));
+        }
+
+        @Override
+        public void subscribe(Consumer<TemplateInvalidation> listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void ping() {
+            if (down) {
+                throw new IllegalStateException("Connection refused");
+            }
+        }
+    }
+}
\ No newline at end of file
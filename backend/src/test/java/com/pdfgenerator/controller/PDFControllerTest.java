@@ -1,9 +1,18 @@
 package com.pdfgenerator.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfgenerator.dto.RenderJobResponse;
+import com.pdfgenerator.enums.PDFGenerationStatus;
 import com.pdfgenerator.exception.PDFGenerationException;
 import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.idempotency.IdempotencyClaim;
+import com.pdfgenerator.idempotency.IdempotencyRecord;
+import com.pdfgenerator.render.RenderCost;
+import com.pdfgenerator.render.RenderLane;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.service.IdempotencyService;
 import com.pdfgenerator.service.PDFGenerationService;
+import com.pdfgenerator.service.RenderJobService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,11 +21,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +46,12 @@ class PDFControllerTest {
     @MockBean
     private PDFGenerationService pdfGenerationService;
     
+    @MockBean
+    private IdempotencyService idempotencyService;
+    
+    @MockBean
+    private RenderJobService renderJobService;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -47,13 +67,15 @@ class PDFControllerTest {
         );
         
         samplePdfBytes = "Sample PDF content".getBytes();
+        
+        when(pdfGenerationService.estimateCost(anyString(), any())).thenReturn(new RenderCost(10, 1_000_000, 1024, false));
     }
     
     @Test
     void generatePDF_WithValidRequest_ShouldReturnPDF() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class)))
-            .thenReturn(samplePdfBytes);
+        when(pdfGenerationService.renderPDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.STANDARD)))
+            .thenReturn(RenderedPdf.of(samplePdfBytes));
         
         // When & Then
         mockMvc.perform(post("/api/pdf/generate/test-template-001")
@@ -64,14 +86,55 @@ class PDFControllerTest {
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"document.pdf\""))
                 .andExpect(content().bytes(samplePdfBytes));
         
-        verify(pdfGenerationService).generatePDF("test-template-001", sampleData);
+        verify(pdfGenerationService).renderPDF("test-template-001", sampleData, null, RenderLane.STANDARD);
+    }
+    
+    @Test
+    void generatePDF_WhenClientDisconnectsWhileSending_ShouldNotRecordCancellation() throws Exception {
+        // Given: the render completed, then the connection drops while the PDF is sent
+        RenderedPdf pdf = mock(RenderedPdf.class);
+        when(pdf.getSize()).thenReturn((long) samplePdfBytes.length);
+        doThrow(new IOException("Broken pipe")).when(pdf).transferTo(any());
+        when(pdfGenerationService.renderPDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.STANDARD)))
+            .thenReturn(pdf);
+        
+        // When & Then
+        mockMvc.perform(post("/api/pdf/generate/test-template-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleData)))
+                .andExpect(status().isOk());
+        
+        verify(pdfGenerationService).estimateCost(eq("test-template-001"), any());
+        verify(pdfGenerationService).renderPDF("test-template-001", sampleData, null, RenderLane.STANDARD);
+        verifyNoMoreInteractions(pdfGenerationService);
+        verify(pdf).close();
+    }
+    
+    @Test
+    void generatePDF_WithRepeatedIdempotencyKey_ShouldReturnStoredPDF() throws Exception {
+        // Given
+        IdempotencyRecord stored = IdempotencyRecord.completed("fp", MediaType.APPLICATION_PDF_VALUE, samplePdfBytes);
+        when(idempotencyService.claim(eq("generate"), eq("retry-1"), any()))
+            .thenReturn(new IdempotencyClaim("generate:anonymous:retry-1", "fp", stored));
+        
+        // When & Then
+        mockMvc.perform(post("/api/pdf/generate/test-template-001")
+                .header(IdempotencyService.HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleData)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(content().bytes(samplePdfBytes));
+        
+        verifyNoInteractions(pdfGenerationService);
     }
     
     @Test
     void generatePDF_WithEmptyData_ShouldReturnPDF() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class)))
-            .thenReturn(samplePdfBytes);
+        when(pdfGenerationService.renderPDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.STANDARD)))
+            .thenReturn(RenderedPdf.of(samplePdfBytes));
         
         // When & Then
         mockMvc.perform(post("/api/pdf/generate/test-template-001")
@@ -80,13 +143,13 @@ class PDFControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF));
         
-        verify(pdfGenerationService).generatePDF(eq("test-template-001"), any(Map.class));
+        verify(pdfGenerationService).renderPDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.STANDARD));
     }
     
     @Test
     void generatePDF_WithTemplateNotFound_ShouldReturnNotFound() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("non-existent"), any(Map.class)))
+        when(pdfGenerationService.renderPDF(eq("non-existent"), any(Map.class), isNull(), eq(RenderLane.STANDARD)))
             .thenThrow(new PDFGenerationException(
                 ErrorCode.TEMPLATE_NOT_FOUND, 
                 "Template not found: non-existent",
@@ -102,13 +165,13 @@ class PDFControllerTest {
                 .andExpect(jsonPath("$.code").value("TMPL_005"))
                 .andExpect(jsonPath("$.message").value("Template not found: non-existent"));
         
-        verify(pdfGenerationService).generatePDF("non-existent", sampleData);
+        verify(pdfGenerationService).renderPDF("non-existent", sampleData, null, RenderLane.STANDARD);
     }
     
     @Test
     void generatePDF_WithInvalidData_ShouldReturnBadRequest() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class)))
+        when(pdfGenerationService.renderPDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.STANDARD)))
             .thenThrow(new PDFGenerationException(
                 ErrorCode.INVALID_DATA_FORMAT, 
                 "Invalid data format",
@@ -124,13 +187,13 @@ class PDFControllerTest {
                 .andExpect(jsonPath("$.code").value("PDF_002"))
                 .andExpect(jsonPath("$.message").value("Invalid data format"));
         
-        verify(pdfGenerationService).generatePDF("test-template-001", sampleData);
+        verify(pdfGenerationService).renderPDF("test-template-001", sampleData, null, RenderLane.STANDARD);
     }
     
     @Test
     void generatePDF_WithGenerationFailure_ShouldReturnInternalServerError() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class)))
+        when(pdfGenerationService.renderPDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.STANDARD)))
             .thenThrow(new PDFGenerationException(
                 ErrorCode.PDF_GENERATION_FAILED, 
                 "PDF generation failed",
@@ -146,13 +209,13 @@ class PDFControllerTest {
                 .andExpect(jsonPath("$.code").value("PDF_001"))
                 .andExpect(jsonPath("$.message").value("PDF generation failed"));
         
-        verify(pdfGenerationService).generatePDF("test-template-001", sampleData);
+        verify(pdfGenerationService).renderPDF("test-template-001", sampleData, null, RenderLane.STANDARD);
     }
     
     @Test
     void generatePreview_WithValidRequest_ShouldReturnPDF() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class)))
+        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.INTERACTIVE)))
             .thenReturn(samplePdfBytes);
         
         // When & Then
@@ -164,13 +227,13 @@ class PDFControllerTest {
                 .andExpect(header().string("Content-Disposition", "inline; filename=\"preview.pdf\""))
                 .andExpect(content().bytes(samplePdfBytes));
         
-        verify(pdfGenerationService).generatePDF(eq("test-template-001"), any(Map.class));
+        verify(pdfGenerationService).generatePDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.INTERACTIVE));
     }
     
     @Test
     void generatePreview_WithoutData_ShouldUseSampleData() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class)))
+        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.INTERACTIVE)))
             .thenReturn(samplePdfBytes);
         
         // When & Then
@@ -180,13 +243,13 @@ class PDFControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF));
         
-        verify(pdfGenerationService).generatePDF(eq("test-template-001"), any(Map.class));
+        verify(pdfGenerationService).generatePDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.INTERACTIVE));
     }
     
     @Test
     void generatePreview_WithEmptyBody_ShouldUseSampleData() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class)))
+        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.INTERACTIVE)))
             .thenReturn(samplePdfBytes);
         
         // When & Then
@@ -194,13 +257,13 @@ class PDFControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF));
         
-        verify(pdfGenerationService).generatePDF(eq("test-template-001"), any(Map.class));
+        verify(pdfGenerationService).generatePDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.INTERACTIVE));
     }
     
     @Test
     void generatePreview_WithTemplateNotFound_ShouldReturnNotFound() throws Exception {
         // Given
-        when(pdfGenerationService.generatePDF(eq("non-existent"), any(Map.class)))
+        when(pdfGenerationService.generatePDF(eq("non-existent"), any(Map.class), isNull(), eq(RenderLane.INTERACTIVE)))
             .thenThrow(new PDFGenerationException(
                 ErrorCode.TEMPLATE_NOT_FOUND, 
                 "Template not found: non-existent"
@@ -214,7 +277,7 @@ class PDFControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.code").value("TMPL_005"));
         
-        verify(pdfGenerationService).generatePDF(eq("non-existent"), any(Map.class));
+        verify(pdfGenerationService).generatePDF(eq("non-existent"), any(Map.class), isNull(), eq(RenderLane.INTERACTIVE));
     }
     
     @Test
@@ -237,8 +300,8 @@ class PDFControllerTest {
             "field3", "value3".repeat(1000)
         );
         
-        when(pdfGenerationService.generatePDF(eq("test-template-001"), any(Map.class)))
-            .thenReturn(samplePdfBytes);
+        when(pdfGenerationService.renderPDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.STANDARD)))
+            .thenReturn(RenderedPdf.of(samplePdfBytes));
         
         // When & Then
         mockMvc.perform(post("/api/pdf/generate/test-template-001")
@@ -247,6 +310,127 @@ class PDFControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF));
         
-        verify(pdfGenerationService).generatePDF(eq("test-template-001"), any(Map.class));
+        verify(pdfGenerationService).renderPDF(eq("test-template-001"), any(Map.class), isNull(), eq(RenderLane.STANDARD));
+    }
+    
+    @Test
+    void generatePDF_AboveSyncLimit_ShouldQueueJobInstead() throws Exception {
+        // Given
+        RenderCost cost = new RenderCost(200_000, 60_000_000_000L, 1L << 30, true);
+        when(pdfGenerationService.estimateCost(eq("test-template-001"), any())).thenReturn(cost);
+        RenderJobResponse job = new RenderJobResponse();
+        job.setId("job-1");
+        job.setStatus(PDFGenerationStatus.PENDING);
+        when(renderJobService.submit("test-template-001", sampleData, null, cost)).thenReturn(job);
+        
+        // When & Then
+        mockMvc.perform(post("/api/pdf/generate/test-template-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleData)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/pdf/jobs/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+        
+        verify(pdfGenerationService, never()).renderPDF(anyString(), any(), any(), any(RenderLane.class));
+    }
+    
+    @Test
+    void generatePDF_AboveSyncLimitWithRepeatedIdempotencyKey_ShouldReturnTheSameJob() throws Exception {
+        // Given
+        RenderCost cost = new RenderCost(200_000, 60_000_000_000L, 1L << 30, true);
+        when(pdfGenerationService.estimateCost(eq("test-template-001"), any())).thenReturn(cost);
+        RenderJobResponse job = new RenderJobResponse();
+        job.setId("job-1");
+        job.setStatus(PDFGenerationStatus.PROCESSING);
+        IdempotencyClaim claim = new IdempotencyClaim("generate:anonymous:retry-1", "fp", null);
+        IdempotencyClaim replay = new IdempotencyClaim("generate:anonymous:retry-1", "fp",
+            IdempotencyRecord.job("fp", "job-1"));
+        when(idempotencyService.claim(eq("generate"), eq("retry-1"), any())).thenReturn(claim, replay);
+        when(renderJobService.submit("test-template-001", sampleData, null, cost)).thenReturn(job);
+        when(renderJobService.getJob("job-1")).thenReturn(job);
+        
+        // When & Then
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/pdf/generate/test-template-001")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(IdempotencyService.HEADER, "retry-1")
+                    .content(objectMapper.writeValueAsString(sampleData)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "http://localhost/api/pdf/jobs/job-1"))
+                    .andExpect(jsonPath("$.id").value("job-1"));
+        }
+        
+        verify(renderJobService, times(1)).submit(anyString(), any(), any(), any());
+        verify(idempotencyService).completeWithJob(claim, "job-1");
+    }
+    
+    @Test
+    void submitJob_WithRepeatedIdempotencyKey_ShouldReturnTheSameJob() throws Exception {
+        // Given
+        RenderCost cost = new RenderCost(100, 10_000_000L, 1L << 20, false);
+        when(pdfGenerationService.estimateCost(eq("test-template-001"), any())).thenReturn(cost);
+        RenderJobResponse job = new RenderJobResponse();
+        job.setId("job-2");
+        job.setStatus(PDFGenerationStatus.PENDING);
+        IdempotencyClaim claim = new IdempotencyClaim("jobs:anonymous:retry-2", "fp", null);
+        IdempotencyClaim replay = new IdempotencyClaim("jobs:anonymous:retry-2", "fp",
+            IdempotencyRecord.job("fp", "job-2"));
+        when(idempotencyService.claim(eq("jobs"), eq("retry-2"), any())).thenReturn(claim, replay);
+        when(renderJobService.submit("test-template-001", sampleData, null, cost)).thenReturn(job);
+        when(renderJobService.getJob("job-2")).thenReturn(job);
+        
+        // When & Then
+        mockMvc.perform(post("/api/pdf/jobs/test-template-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyService.HEADER, "retry-2")
+                .content(objectMapper.writeValueAsString(sampleData)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job-2"));
+        mockMvc.perform(post("/api/pdf/jobs/test-template-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyService.HEADER, "retry-2")
+                .content(objectMapper.writeValueAsString(sampleData)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value("job-2"));
+        
+        verify(renderJobService, times(1)).submit(anyString(), any(), any(), any());
+        verify(idempotencyService).completeWithJob(claim, "job-2");
+    }
+    
+    @Test
+    void getJobResult_WhenCompleted_ShouldReturnPDF() throws Exception {
+        // Given
+        when(renderJobService.openResult("job-1")).thenReturn(RenderedPdf.of(samplePdfBytes));
+        when(renderJobService.openResult("job-2")).thenThrow(new PDFGenerationException(
+            ErrorCode.JOB_NOT_COMPLETED, "Render job job-2 has no result: PROCESSING", Map.of("status", "PROCESSING")));
+        
+        // When & Then
+        mockMvc.perform(get("/api/pdf/jobs/job-1/result"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().bytes(samplePdfBytes));
+        mockMvc.perform(get("/api/pdf/jobs/job-2/result"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("JOB_002"));
+    }
+    
+    @Test
+    void getStuckJobs_ShouldListJobsWithTheirWorker() throws Exception {
+        // Given
+        RenderJobResponse job = new RenderJobResponse();
+        job.setId("job-3");
+        job.setStatus(PDFGenerationStatus.PROCESSING);
+        job.setAttempts(1);
+        job.setWorkerId("4711@render-2");
+        when(renderJobService.getStuckJobs()).thenReturn(List.of(job));
+        
+        // When & Then
+        mockMvc.perform(get("/api/pdf/jobs/stuck"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("job-3"))
+                .andExpect(jsonPath("$[0].workerId").value("4711@render-2"));
+        verify(renderJobService, never()).getJob(anyString());
     }
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.pdfgenerator.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfgenerator.dto.CursorPage;
 import com.pdfgenerator.dto.TemplateRequest;
 import com.pdfgenerator.dto.TemplateResponse;
-import com.pdfgenerator.entity.TemplateVersion;
+import com.pdfgenerator.dto.TemplateSummary;
+import com.pdfgenerator.dto.TemplateVersionResponse;
+import com.pdfgenerator.dto.TemplateVersionSummary;
 import com.pdfgenerator.enums.TemplateCategory;
 import com.pdfgenerator.exception.TemplateNotFoundException;
 import com.pdfgenerator.exception.ValidationException;
@@ -18,9 +21,11 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -41,6 +46,7 @@ class TemplateControllerTest {
     
     private TemplateRequest validRequest;
     private TemplateResponse sampleResponse;
+    private TemplateSummary sampleSummary;
     private Map<String, Object> sampleSchema;
     
     @BeforeEach
@@ -70,6 +76,10 @@ class TemplateControllerTest {
         sampleResponse.setVersion(1);
         sampleResponse.setCreatedAt(LocalDateTime.now());
         sampleResponse.setCreatedBy("system");
+        
+        // Sample list item
+        sampleSummary = new TemplateSummary("test-id", "Test Template", TemplateCategory.CREDIT_CARD_STATEMENT,
+            "Test description", sampleResponse.getCreatedAt(), null, "system", true, 1);
     }
     
     @Test
@@ -140,57 +150,76 @@ class TemplateControllerTest {
     @Test
     void getAllTemplates_ShouldReturnAllTemplates() throws Exception {
         // Given
-        List<TemplateResponse> templates = Arrays.asList(sampleResponse);
-        when(templateService.getAllTemplates()).thenReturn(templates);
+        CursorPage<TemplateSummary> templates = new CursorPage<>(Arrays.asList(sampleSummary), null);
+        when(templateService.getAllTemplates(null, 20)).thenReturn(templates);
         
         // When & Then
         mockMvc.perform(get("/api/templates"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].id").value("test-id"))
-                .andExpect(jsonPath("$[0].name").value("Test Template"));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].id").value("test-id"))
+                .andExpect(jsonPath("$.items[0].name").value("Test Template"))
+                .andExpect(jsonPath("$.items[0].schema").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false));
         
-        verify(templateService).getAllTemplates();
+        verify(templateService).getAllTemplates(null, 20);
+    }
+    
+    @Test
+    void getAllTemplates_WithCursor_ShouldReturnNextPage() throws Exception {
+        // Given
+        CursorPage<TemplateSummary> templates = new CursorPage<>(Arrays.asList(sampleSummary), "next-cursor");
+        when(templateService.getAllTemplates("page-cursor", 5)).thenReturn(templates);
+        
+        // When & Then
+        mockMvc.perform(get("/api/templates?cursor=page-cursor&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value("test-id"))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+        
+        verify(templateService).getAllTemplates("page-cursor", 5);
     }
     
     @Test
     void getAllTemplates_WithSearchParameter_ShouldReturnSearchResults() throws Exception {
         // Given
-        List<TemplateResponse> templates = Arrays.asList(sampleResponse);
-        when(templateService.searchTemplates("test")).thenReturn(templates);
+        CursorPage<TemplateSummary> templates = new CursorPage<>(Arrays.asList(sampleSummary), null);
+        when(templateService.searchTemplates("test", null, 20)).thenReturn(templates);
         
         // When & Then
         mockMvc.perform(get("/api/templates?search=test"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].name").value("Test Template"));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].name").value("Test Template"));
         
-        verify(templateService).searchTemplates("test");
-        verify(templateService, never()).getAllTemplates();
-        verify(templateService, never()).getTemplatesByCategory(any());
+        verify(templateService).searchTemplates("test", null, 20);
+        verify(templateService, never()).getAllTemplates(any(), anyInt());
+        verify(templateService, never()).getTemplatesByCategory(any(), any(), anyInt());
     }
     
     @Test
     void getAllTemplates_WithCategoryParameter_ShouldReturnCategoryTemplates() throws Exception {
         // Given
-        List<TemplateResponse> templates = Arrays.asList(sampleResponse);
-        when(templateService.getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT)).thenReturn(templates);
+        CursorPage<TemplateSummary> templates = new CursorPage<>(Arrays.asList(sampleSummary), null);
+        when(templateService.getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT, null, 20)).thenReturn(templates);
         
         // When & Then
         mockMvc.perform(get("/api/templates?category=CREDIT_CARD_STATEMENT"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].category").value("CREDIT_CARD_STATEMENT"));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].category").value("CREDIT_CARD_STATEMENT"));
         
-        verify(templateService).getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT);
-        verify(templateService, never()).getAllTemplates();
-        verify(templateService, never()).searchTemplates(any());
+        verify(templateService).getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT, null, 20);
+        verify(templateService, never()).getAllTemplates(any(), anyInt());
+        verify(templateService, never()).searchTemplates(any(), any(), anyInt());
     }
     
     @Test
+    @SuppressWarnings("deprecation") // Covers the legacy page-number listing
     void getTemplatesPaginated_ShouldReturnPagedResults() throws Exception {
         // Given
-        Page<TemplateResponse> templatePage = new PageImpl<>(Arrays.asList(sampleResponse), PageRequest.of(0, 10), 1);
+        Page<TemplateSummary> templatePage = new PageImpl<>(Arrays.asList(sampleSummary), PageRequest.of(0, 10), 1);
         when(templateService.getTemplatesPaginated(any())).thenReturn(templatePage);
         
         // When & Then
@@ -208,31 +237,56 @@ class TemplateControllerTest {
     @Test
     void getTemplatesByCategory_ShouldReturnCategoryTemplates() throws Exception {
         // Given
-        List<TemplateResponse> templates = Arrays.asList(sampleResponse);
-        when(templateService.getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT)).thenReturn(templates);
+        CursorPage<TemplateSummary> templates = new CursorPage<>(Arrays.asList(sampleSummary), null);
+        when(templateService.getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT, null, 20)).thenReturn(templates);
         
         // When & Then
         mockMvc.perform(get("/api/templates/category/CREDIT_CARD_STATEMENT"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].category").value("CREDIT_CARD_STATEMENT"));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].category").value("CREDIT_CARD_STATEMENT"));
         
-        verify(templateService).getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT);
+        verify(templateService).getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT, null, 20);
     }
     
     @Test
     void searchTemplates_ShouldReturnSearchResults() throws Exception {
         // Given
-        List<TemplateResponse> templates = Arrays.asList(sampleResponse);
-        when(templateService.searchTemplates("test")).thenReturn(templates);
+        CursorPage<TemplateSummary> templates = new CursorPage<>(Arrays.asList(sampleSummary), null);
+        when(templateService.searchTemplates("test", null, 20)).thenReturn(templates);
         
         // When & Then
         mockMvc.perform(get("/api/templates/search?q=test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].name").value("Test Template"));
+        
+        verify(templateService).searchTemplates("test", null, 20);
+    }
+    
+    @Test
+    void exportTemplates_ShouldStreamJsonArrayOfFullTemplates() throws Exception {
+        // Given
+        when(templateService.exportTemplates(any())).thenAnswer(invocation -> {
+            Consumer<TemplateResponse> consumer = invocation.getArgument(0);
+            consumer.accept(sampleResponse);
+            consumer.accept(sampleResponse);
+            return 2L;
+        });
+        
+        // When
+        MvcResult result = mockMvc.perform(get("/api/templates/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].name").value("Test Template"));
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].schema.layout.pageSize").value("A4"));
         
-        verify(templateService).searchTemplates("test");
+        verify(templateService).exportTemplates(any());
     }
     
     @Test
@@ -278,23 +332,37 @@ class TemplateControllerTest {
     @Test
     void getTemplateVersions_ShouldReturnVersions() throws Exception {
         // Given
-        TemplateVersion version = new TemplateVersion();
-        version.setId("version-1");
-        version.setTemplateId("test-id");
-        version.setVersion(1);
+        TemplateVersionSummary version = new TemplateVersionSummary("version-1", "test-id", 1, true,
+            LocalDateTime.now(), "system");
         
-        List<TemplateVersion> versions = Arrays.asList(version);
-        when(templateService.getTemplateVersions("test-id")).thenReturn(versions);
+        CursorPage<TemplateVersionSummary> versions = new CursorPage<>(List.of(version), null);
+        when(templateService.getTemplateVersions("test-id", null, 20)).thenReturn(versions);
         
         // When & Then
         mockMvc.perform(get("/api/templates/test-id/versions"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].id").value("version-1"))
-                .andExpect(jsonPath("$[0].templateId").value("test-id"))
-                .andExpect(jsonPath("$[0].version").value(1));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].id").value("version-1"))
+                .andExpect(jsonPath("$.items[0].templateId").value("test-id"))
+                .andExpect(jsonPath("$.items[0].version").value(1))
+                .andExpect(jsonPath("$.items[0].schema").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false));
+        
+        verify(templateService).getTemplateVersions("test-id", null, 20);
+    }
+    
+    @Test
+    void getTemplateVersion_ShouldReturnReconstructedSchema() throws Exception {
+        // Given
+        TemplateVersionResponse version = new TemplateVersionResponse("test-id", 3,
+            Map.of("layout", Map.of("pageSize", "A4")), LocalDateTime.now(), "system");
+        when(templateService.getTemplateVersion("test-id", 3)).thenReturn(version);
         
-        verify(templateService).getTemplateVersions("test-id");
+        // When & Then
+        mockMvc.perform(get("/api/templates/test-id/versions/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(3))
+                .andExpect(jsonPath("$.schema.layout.pageSize").value("A4"));
     }
     
     @Test
@@ -0,0 +1,73 @@
+package com.pdfgenerator.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalIdempotencyStoreTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(2);
+    private static final Duration RETENTION = Duration.ofHours(24);
+
+    private Instant now = Instant.parse("2024-01-15T10:00:00Z");
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @Test
+    void reserve_ShouldExpireLeasesAndCompletedResponses() {
+        // Given
+        LocalIdempotencyStore store = new LocalIdempotencyStore(100, 1024, clock);
+        assertNull(store.reserve("abandoned", "fp", LEASE));
+        assertNull(store.reserve("done", "fp", LEASE));
+        store.complete("done", IdempotencyRecord.completed("fp", "application/pdf", new byte[10]), RETENTION);
+
+        // When: the lease of the abandoned request runs out
+        now = now.plus(LEASE).plusSeconds(1);
+
+        // Then
+        assertNull(store.reserve("abandoned", "fp", LEASE));
+        assertTrue(store.reserve("done", "fp", LEASE).isCompleted());
+        now = now.plus(RETENTION);
+        assertNull(store.reserve("done", "fp", LEASE));
+    }
+
+    @Test
+    void complete_OverSizeOrEntryLimit_ShouldEvictOldestKeys() {
+        // Given
+        LocalIdempotencyStore store = new LocalIdempotencyStore(3, 100, clock);
+        for (String key : new String[] {"a", "b", "c"}) {
+            store.reserve(key, "fp", LEASE);
+            store.complete(key, IdempotencyRecord.completed("fp", "application/pdf", new byte[40]), RETENTION);
+        }
+
+        // When
+        store.reserve("d", "fp", LEASE);
+        store.reserve("e", "fp", LEASE);
+
+        // Then: "a" went when "c" passed 100 bytes, "b" when "e" passed 3 keys
+        assertEquals(3, store.size());
+        assertTrue(store.reserve("c", "fp", LEASE).isCompleted());
+        store.release("c", "fp");
+        assertTrue(store.reserve("c", "fp", LEASE).isCompleted());
+        assertNull(store.reserve("b", "fp", LEASE));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.pdfgenerator.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisIdempotencyStoreTest {
+
+    @Test
+    void encode_ShouldRoundTripReservationsAndResponses() {
+        // Given
+        byte[] body = {'%', 'P', 'D', 'F', '\n', ' ', 0, -1};
+        IdempotencyRecord completed = IdempotencyRecord.completed("ab12", "application/json; charset=UTF-8", body);
+
+        // When
+        IdempotencyRecord decoded = RedisIdempotencyStore.decode(RedisIdempotencyStore.encode(completed));
+        IdempotencyRecord reservation = RedisIdempotencyStore.decode(
+            RedisIdempotencyStore.encode(IdempotencyRecord.inProgress("ab12")));
+
+        // Then
+        assertTrue(decoded.isCompleted());
+        assertEquals("ab12", decoded.getFingerprint());
+        assertEquals("application/json; charset=UTF-8", decoded.getContentType());
+        assertArrayEquals(body, decoded.getBody());
+        assertFalse(reservation.isCompleted());
+        assertEquals("ab12", reservation.getFingerprint());
+        assertNull(reservation.getBody());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.pdfgenerator.job;
+
+import com.pdfgenerator.entity.RenderJob;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import com.pdfgenerator.render.RenderCancellation;
+import com.pdfgenerator.render.RenderLane;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.service.PDFGenerationService;
+import com.pdfgenerator.service.RenderJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RenderJobWorkerTest {
+
+    private static final byte[] DOCUMENT = "%PDF-1.7 test".getBytes();
+    private static final String WORKER = "42@worker-1";
+
+    @Mock
+    private RenderJobService renderJobService;
+
+    @Mock
+    private PDFGenerationService pdfGenerationService;
+
+    private RenderJobWorker worker;
+    private RenderJob job;
+
+    @BeforeEach
+    void setUp() {
+        worker = new RenderJobWorker(renderJobService, pdfGenerationService, 1, Duration.ofMinutes(10),
+            Duration.ofSeconds(15), Duration.ofSeconds(1), WORKER);
+        job = new RenderJob("t1", Map.of("name", "Ayşe"), null, 100, 1 << 20);
+        job.prePersist();
+        job.setStatus(PDFGenerationStatus.PROCESSING);
+        job.setAttempts(2);
+        job.setLeaseOwner(WORKER);
+    }
+
+    @Test
+    void runNext_ShouldRenderClaimedJobInBulkLaneAndStoreDocument() {
+        // Given
+        when(renderJobService.claimNext(WORKER)).thenReturn(job, (RenderJob) null);
+        when(pdfGenerationService.renderPDF(eq("t1"), eq(job.getRequestData()), isNull(), eq(RenderLane.BULK), any(RenderCancellation.class)))
+            .thenReturn(RenderedPdf.of(DOCUMENT));
+        when(renderJobService.complete(eq(job.getId()), eq(WORKER), eq(2), any())).thenReturn(true);
+
+        // When & Then
+        assertTrue(worker.runNext());
+        assertFalse(worker.runNext());
+        verify(renderJobService, never()).fail(any(), any(), anyInt(), any(), any());
+        assertEquals(0, worker.getRunningCount());
+    }
+
+    @Test
+    void runNext_WhenRenderFails_ShouldRecordFailureForAttempt() {
+        // Given
+        when(renderJobService.claimNext(WORKER)).thenReturn(job);
+        when(pdfGenerationService.renderPDF(any(), any(), any(), any(), any(RenderCancellation.class)))
+            .thenThrow(new PDFGenerationException(ErrorCode.TEMPLATE_NOT_FOUND, "Template not found: t1", Map.of()));
+
+        // When
+        worker.runNext();
+
+        // Then
+        verify(renderJobService).fail(job.getId(), WORKER, 2, PDFGenerationStatus.FAILED, "Template not found: t1");
+        verify(renderJobService, never()).complete(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void heartbeat_WhenLeaseWasLost_ShouldCancelRenderAndLeaveJobToNewOwner() throws Exception {
+        // Given: a render that runs until it is cancelled
+        CountDownLatch rendering = new CountDownLatch(1);
+        when(renderJobService.claimNext(WORKER)).thenReturn(job);
+        when(pdfGenerationService.renderPDF(any(), any(), any(), any(), any(RenderCancellation.class))).thenAnswer(invocation -> {
+            RenderCancellation cancellation = invocation.getArgument(4);
+            rendering.countDown();
+            while (true) {
+                cancellation.check();
+                Thread.sleep(10);
+            }
+        });
+        when(renderJobService.extendLeases(WORKER, List.of(job.getId()))).thenReturn(Set.of());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> run = executor.submit(worker::runNext);
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+
+            // When: the job was re-queued after missed heartbeats
+            worker.heartbeat();
+
+            // Then
+            assertTrue(run.get(5, TimeUnit.SECONDS));
+            verify(renderJobService, never()).complete(any(), any(), anyInt(), any());
+            verify(renderJobService, never()).fail(any(), any(), anyInt(), any(), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void heartbeat_ShouldNotCancelJobClaimedWhileLeasesAreExtended() throws Exception {
+        // Given: a running job, and a second job claimed while the heartbeat is in the database
+        RenderJob next = new RenderJob("t1", Map.of("name", "Zeynep"), null, 100, 1 << 20);
+        next.prePersist();
+        next.setAttempts(1);
+        CountDownLatch rendering = new CountDownLatch(2);
+        CountDownLatch finish = new CountDownLatch(1);
+        Map<String, RenderCancellation> cancellations = new ConcurrentHashMap<>();
+        when(renderJobService.claimNext(WORKER)).thenReturn(job, next);
+        when(pdfGenerationService.renderPDF(any(), any(), any(), any(), any(RenderCancellation.class))).thenAnswer(invocation -> {
+            cancellations.put((String) ((Map<?, ?>) invocation.getArgument(1)).get("name"), invocation.getArgument(4));
+            rendering.countDown();
+            finish.await();
+            return RenderedPdf.of(DOCUMENT);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        when(renderJobService.extendLeases(WORKER, List.of(job.getId()))).thenAnswer(invocation -> {
+            executor.submit(worker::runNext);
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            return Set.of(job.getId());
+        });
+        try {
+            executor.submit(worker::runNext);
+            while (cancellations.isEmpty()) {
+                Thread.sleep(10);
+            }
+
+            // When
+            worker.heartbeat();
+
+            // Then
+            assertEquals(2, worker.getRunningCount());
+            assertFalse(cancellations.get("Ayşe").isCancelled());
+            assertFalse(cancellations.get("Zeynep").isCancelled());
+        } finally {
+            finish.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.pdfgenerator.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pdfgenerator.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Endpoint generate = new RateLimitProperties.Endpoint("/api/pdf/generate/", List.of("POST"));
+        generate.setAnonymous(new RateLimitProperties.Limit(1, 0.01));
+        generate.getRoles().put(UserRole.USER, new RateLimitProperties.Limit(2, 0.01));
+        generate.getRoles().put(UserRole.ADMIN, new RateLimitProperties.Limit(5, 0.01));
+        RateLimitProperties.Endpoint preview = new RateLimitProperties.Endpoint("/api/pdf/preview/", List.of());
+        preview.setAnonymous(new RateLimitProperties.Limit(1, 1000));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEndpoints().put("generate", generate);
+        properties.getEndpoints().put("preview", preview);
+        properties.setIdleEviction(Duration.ZERO);
+        filter = new RateLimitFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_OverLimit_ShouldRejectWithRateLimitHeaders() throws Exception {
+        // Given
+        signIn("ayse", "ROLE_USER");
+
+        // When
+        MockHttpServletResponse first = generate();
+        MockHttpServletResponse second = generate();
+        MockHttpServletResponse third = generate();
+
+        // Then
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", first.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("0", second.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(429, third.getStatus());
+        assertEquals("100", third.getHeader("Retry-After"));
+        assertEquals("200", third.getHeader(RateLimitFilter.RESET_HEADER));
+        assertTrue(third.getContentAsString().contains("RATE_001"));
+    }
+
+    @Test
+    void doFilter_ShouldLimitEachCallerByItsHighestRole() throws Exception {
+        // Given
+        signIn("admin", "ROLE_VIEWER", "ROLE_ADMIN");
+
+        // When & Then: admins get five, each anonymous address gets one
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, generate().getStatus());
+        }
+        assertEquals(429, generate().getStatus());
+        SecurityContextHolder.clearContext();
+        assertEquals(200, generate().getStatus());
+        assertEquals(429, generate().getStatus());
+        MockHttpServletRequest otherClient = new MockHttpServletRequest("POST", "/api/api/pdf/generate/t1");
+        otherClient.setContextPath("/api");
+        otherClient.setRemoteAddr("10.0.0.2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(otherClient, response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void doFilter_OtherEndpoints_ShouldNotBeLimitedAndIdleBucketsShouldBeEvicted() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/api/pdf/logs");
+        request.setContextPath("/api");
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        }
+
+        // Then: a bucket that has been refilled is dropped, one still in use is kept
+        generate();
+        MockHttpServletRequest preview = new MockHttpServletRequest("POST", "/api/api/pdf/preview/t1");
+        preview.setContextPath("/api");
+        filter.doFilter(preview, new MockHttpServletResponse(), new MockFilterChain());
+        assertEquals(2, filter.size());
+        Thread.sleep(5);
+        filter.evictIdleBuckets();
+        assertEquals(1, filter.size());
+    }
+
+    private MockHttpServletResponse generate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/api/pdf/generate/t1");
+        request.setContextPath("/api");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void signIn(String name, String... roles) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(name, "n/a", AuthorityUtils.createAuthorityList(roles)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.pdfgenerator.render;
+
+import com.itextpdf.io.image.ImageData;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageAssetsTest {
+
+    // 1x1 grayscale PNG
+    private static final String PNG = "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAAAAAA6fptVAAAACklEQVR4nGNgAAAAAgABSK+kcQAAAABJRU5ErkJggg==";
+
+    @Test
+    void get_ShouldDecodeOnceAndReuseImage() {
+        // Given
+        String src = "data:image/png;base64," + PNG;
+
+        // When
+        ImageData first = ImageAssets.get(src);
+        ImageData second = ImageAssets.get(src);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, first.getWidth());
+    }
+
+    @Test
+    void get_WithManyDistinctSources_ShouldKeepCacheBounded() {
+        // When
+        for (int i = 0; i < 1000; i++) {
+            ImageAssets.get("data:image/png;n=" + i + ";base64," + PNG);
+        }
+
+        // Then
+        assertTrue(ImageAssets.size() <= 256);
+    }
+
+    @Test
+    void get_WithUnsupportedSource_ShouldThrow() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> ImageAssets.get("http://example.com/logo.png"));
+    }
+}
\ No newline at end of file
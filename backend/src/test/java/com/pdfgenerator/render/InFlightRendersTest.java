@@ -0,0 +1,262 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightRendersTest {
+
+    private static final byte[] DOCUMENT = "%PDF-1.7 test".getBytes();
+
+    private final InFlightRenders inFlightRenders = new InFlightRenders();
+    private final RenderKey key = RenderKey.of("t1", 1, null, OutputProfile.BALANCED, Map.of("name", "Ayşe"));
+    private final AtomicInteger renders = new AtomicInteger();
+    private final AtomicInteger releases = new AtomicInteger();
+    private final CountDownLatch rendering = new CountDownLatch(1);
+    private final CountDownLatch finish = new CountDownLatch(1);
+
+    @Test
+    void render_ConcurrentIdenticalRequests_ShouldRenderOnceAndShareDocument() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Given: a running render and three identical requests waiting for it
+            Future<RenderedPdf> leader = executor.submit(() -> inFlightRenders.render(key, this::blockingRender));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            List<Future<RenderedPdf>> waiters = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                waiters.add(executor.submit(() -> inFlightRenders.render(key, this::blockingRender)));
+            }
+            awaitWaiting(3);
+
+            // When
+            finish.countDown();
+            List<RenderedPdf> results = new ArrayList<>(List.of(leader.get(5, TimeUnit.SECONDS)));
+            for (Future<RenderedPdf> waiter : waiters) {
+                results.add(waiter.get(5, TimeUnit.SECONDS));
+            }
+
+            // Then: one render, every caller has its own handle and the buffer goes back once
+            assertEquals(1, renders.get());
+            assertEquals(0, inFlightRenders.size());
+            for (RenderedPdf pdf : results) {
+                assertArrayEquals(DOCUMENT, pdf.toByteArray());
+                assertEquals(0, releases.get());
+                pdf.close();
+            }
+            assertEquals(1, releases.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void render_WhenRenderFails_ShouldFailWaitersAndRenderAgainNextTime() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Given
+            Future<RenderedPdf> leader = executor.submit(() -> inFlightRenders.render(key, () -> {
+                rendering.countDown();
+                finish.await();
+                throw new PDFGenerationException(ErrorCode.PDF_GENERATION_FAILED, "boom", Map.of());
+            }));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            Future<RenderedPdf> waiter = executor.submit(() -> inFlightRenders.render(key, this::blockingRender));
+            awaitWaiting(1);
+
+            // When
+            finish.countDown();
+
+            // Then
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception waiterError = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertSame(leaderError.getCause(), waiterError.getCause());
+            assertInstanceOf(PDFGenerationException.class, waiterError.getCause());
+            assertEquals(0, inFlightRenders.size());
+            try (RenderedPdf pdf = inFlightRenders.render(key, this::blockingRender)) {
+                assertEquals(1, renders.get());
+            }
+            assertEquals(1, releases.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void render_WhenWaiterIsInterrupted_ShouldStillReleaseDocument() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Given
+            Future<RenderedPdf> leader = executor.submit(() -> inFlightRenders.render(key, this::blockingRender));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            AtomicReference<Exception> waiterError = new AtomicReference<>();
+            Thread waiter = new Thread(() -> {
+                try {
+                    inFlightRenders.render(key, this::blockingRender).close();
+                } catch (Exception e) {
+                    waiterError.set(e);
+                }
+            });
+            waiter.start();
+            awaitWaiting(1);
+
+            // When: the waiter gives up before the render finishes
+            waiter.interrupt();
+            waiter.join(5000);
+            finish.countDown();
+            RenderedPdf pdf = leader.get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertInstanceOf(InterruptedException.class, waiterError.get());
+            assertEquals(0, releases.get());
+            pdf.close();
+            assertEquals(1, releases.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void render_WhenLeaderIsCancelled_ShouldRenderAgainForWaiters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Given: the leading request's render is cancelled while another request waits for it
+            Future<RenderedPdf> leader = executor.submit(() -> inFlightRenders.render(key, () -> {
+                rendering.countDown();
+                finish.await();
+                throw RenderCancellation.withTimeout(Duration.ofSeconds(1)).cancelled(RenderCancellation.Reason.DEADLINE_EXCEEDED);
+            }));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            Future<RenderedPdf> waiter = executor.submit(() -> inFlightRenders.render(key, this::blockingRender));
+            awaitWaiting(1);
+
+            // When
+            finish.countDown();
+
+            // Then: only the leader sees the cancellation
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertTrue(RenderCancellation.isCancellation(leaderError.getCause()));
+            try (RenderedPdf pdf = waiter.get(5, TimeUnit.SECONDS)) {
+                assertArrayEquals(DOCUMENT, pdf.toByteArray());
+            }
+            assertEquals(1, renders.get());
+            assertEquals(1, releases.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void render_WhenWaiterDeadlinePasses_ShouldStopWaitingWithoutReleasingTheDocument() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Given: a running render and an identical request with a short deadline
+            Future<RenderedPdf> leader = executor.submit(() -> inFlightRenders.render(key, this::blockingRender));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            RenderCancellation deadline = RenderCancellation.withTimeout(Duration.ofMillis(200));
+            Future<RenderedPdf> waiter = executor.submit(() -> inFlightRenders.render(key, deadline, this::blockingRender));
+
+            // When
+            Exception waiterError = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            finish.countDown();
+
+            // Then: the waiter gave up on its own deadline, the leader still gets the document
+            assertTrue(RenderCancellation.isCancellation(waiterError.getCause()));
+            assertEquals("deadline_exceeded", ((PDFGenerationException) waiterError.getCause()).getContext().get("reason"));
+            RenderedPdf pdf = leader.get(5, TimeUnit.SECONDS);
+            assertArrayEquals(DOCUMENT, pdf.toByteArray());
+            assertEquals(1, renders.get());
+            pdf.close();
+            assertEquals(1, releases.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void render_WhenLeaderIsCancelledAfterWaiterWasCancelled_ShouldNotRenderAgain() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Given: a waiter whose own request is cancelled while the leading render runs
+            Future<RenderedPdf> leader = executor.submit(() -> inFlightRenders.render(key, () -> {
+                rendering.countDown();
+                finish.await();
+                throw RenderCancellation.withTimeout(Duration.ofSeconds(1)).cancelled(RenderCancellation.Reason.DEADLINE_EXCEEDED);
+            }));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            RenderCancellation cancellation = RenderCancellation.none();
+            Future<RenderedPdf> waiter = executor.submit(() -> inFlightRenders.render(key, cancellation, this::blockingRender));
+            awaitWaiting(1);
+            cancellation.cancel(RenderCancellation.Reason.LEASE_LOST);
+
+            // When
+            finish.countDown();
+
+            // Then
+            assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception waiterError = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertEquals("lease_lost", ((PDFGenerationException) waiterError.getCause()).getContext().get("reason"));
+            assertEquals(0, renders.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void renderKey_ShouldIgnoreMapOrderButNotValues() {
+        // Given
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("a", 1);
+        first.put("b", Map.of("x", "1", "y", "2"));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("b", new LinkedHashMap<>(Map.of("y", "2", "x", "1")));
+        second.put("a", 1);
+
+        // When & Then
+        assertEquals(RenderKey.of("t1", 1, null, OutputProfile.FAST, first), RenderKey.of("t1", 1, null, OutputProfile.FAST, second));
+        assertNotEquals(RenderKey.of("t1", 1, null, OutputProfile.FAST, first), RenderKey.of("t1", 2, null, OutputProfile.FAST, first));
+        assertNotEquals(RenderKey.of("t1", 1, null, OutputProfile.FAST, first), RenderKey.of("t1", 1, null, OutputProfile.FAST, Map.of("a", 2)));
+    }
+
+    private RenderedPdf blockingRender() throws InterruptedException {
+        renders.incrementAndGet();
+        rendering.countDown();
+        finish.await();
+        return RenderedPdf.inMemory(DOCUMENT.clone(), DOCUMENT.length, buffer -> releases.incrementAndGet());
+    }
+
+    /**
+     * Wait until the given number of pool threads are parked on a running render
+     */
+    private static void awaitWaiting(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            long waiting = Thread.getAllStackTraces().entrySet().stream()
+                .filter(entry -> entry.getKey().getState() == Thread.State.WAITING
+                    || entry.getKey().getState() == Thread.State.TIMED_WAITING)
+                .filter(entry -> Arrays.stream(entry.getValue())
+                    .anyMatch(frame -> frame.getMethodName().equals("await") && frame.getClassName().endsWith("InFlightRenders$Flight")))
+                .count();
+            if (waiting >= count) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Requests did not start waiting");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryBudgetTest {
+
+    private final MemoryBudget memoryBudget = new MemoryBudget(DataSize.ofBytes(100), new SimpleMeterRegistry());
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void reserve_WhenBudgetIsInUse_ShouldAdmitWaitersInArrivalOrder() throws Exception {
+        // Given: 80 of 100 bytes reserved, then a 50 byte render, then a 10 byte one that would fit
+        MemoryBudget.Reservation running = memoryBudget.reserve(80, RenderCancellation.none());
+        List<Long> admitted = Collections.synchronizedList(new ArrayList<>());
+        Future<?> large = callers.submit(() -> reserveAndRecord(50, admitted));
+        Thread.sleep(100);
+        Future<?> small = callers.submit(() -> reserveAndRecord(10, admitted));
+        Thread.sleep(100);
+        assertTrue(admitted.isEmpty());
+
+        // When
+        running.close();
+        large.get(5, TimeUnit.SECONDS);
+        small.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(List.of(50L, 10L), admitted);
+        assertEquals(0, memoryBudget.getReserved());
+    }
+
+    @Test
+    void reserve_WhenDeadlinePassesWhileWaiting_ShouldCancel() throws Exception {
+        // Given: a render predicted above the whole budget takes all of it
+        MemoryBudget.Reservation running = memoryBudget.reserve(500, RenderCancellation.none());
+        assertEquals(100, running.getAmount());
+
+        // When
+        PDFGenerationException cancelled = assertThrows(PDFGenerationException.class,
+            () -> memoryBudget.reserve(1, RenderCancellation.withTimeout(Duration.ofMillis(50))));
+
+        // Then
+        assertEquals(ErrorCode.RENDER_CANCELLED, cancelled.getErrorCode());
+        running.close();
+        running.close();
+        assertEquals(0, memoryBudget.getReserved());
+        memoryBudget.reserve(100, RenderCancellation.none()).close();
+    }
+
+    private Void reserveAndRecord(long bytes, List<Long> admitted) throws InterruptedException {
+        try (MemoryBudget.Reservation reservation = memoryBudget.reserve(bytes, RenderCancellation.none())) {
+            admitted.add(bytes);
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.template.TemplateCompiler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderCostModelTest {
+
+    private final PdfOutputBuffers pdfOutputBuffers = new PdfOutputBuffers();
+    private final RenderCostModel costModel = new RenderCostModel(new TemplateCompiler(), pdfOutputBuffers);
+
+    @Test
+    void estimate_ShouldSizeEachTablesFromRequestData() {
+        // Given: a title and a three-column table with one row per statement line
+        Template template = statementTemplate("t1");
+
+        // When
+        RenderCost small = costModel.estimate(template, Map.of("lines", lines(1000)));
+        RenderCost large = costModel.estimate(template, Map.of("lines", lines(10000)));
+
+        // Then: header row included; 30k cells at 6 KB exceed the 128 MB sync limit
+        assertEquals(1 + 1001 * 3, small.getUnits());
+        assertEquals((1 << 20) + 3004L * 6 * 1024 + pdfOutputBuffers.estimateSize("t1"), small.getMemoryBytes());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5) + 3004L * 50_000, small.getCpuNanos());
+        assertFalse(small.isAboveSyncLimit());
+        assertEquals(1 + 10001 * 3, large.getUnits());
+        assertTrue(large.isAboveSyncLimit());
+    }
+
+    @Test
+    void estimate_ShouldSizeEachSectionsInTextFromRequestData() {
+        // Given: a text listing each statement line, with a nested loop over its tags
+        Template template = new Template();
+        template.setId("t3");
+        template.setSchema(Map.of("elements", List.of(Map.of("type", "TEXT", "properties", Map.of(
+            "text", "{{#each lines}}{{description}}{{#each tags}} {{this}}{{/each}}\n{{/each}}")))));
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lines.add(Map.of("description", "Market " + i, "tags", List.of("food", "card")));
+        }
+
+        // When
+        RenderCost cost = costModel.estimate(template, Map.of("lines", lines));
+        RenderCost empty = costModel.estimate(template, Map.of());
+
+        // Then: one unit per line and per tag
+        assertEquals(1 + 500 * 3, cost.getUnits());
+        assertEquals(1, empty.getUnits());
+    }
+
+    @Test
+    void record_ShouldCalibrateCpuPerUnitFromFinishedRenders() {
+        // Given: renders of t1 take 200 µs per unit instead of the assumed 50
+        Template measured = statementTemplate("t1");
+        Template unmeasured = statementTemplate("t2");
+        RenderCost cost = costModel.estimate(measured, Map.of("lines", lines(1000)));
+        long observed = TimeUnit.MILLISECONDS.toNanos(5) + cost.getUnits() * 200_000;
+
+        // When
+        for (int i = 0; i < 30; i++) {
+            costModel.record("t1", cost, observed);
+        }
+
+        // Then: t1 is predicted from its own renders, other templates from all renders
+        assertEquals(observed, costModel.estimate(measured, Map.of("lines", lines(1000))).getCpuNanos(), observed * 0.01);
+        assertEquals(observed, costModel.estimate(unmeasured, Map.of("lines", lines(1000))).getCpuNanos(), observed * 0.01);
+    }
+
+    private static Template statementTemplate(String id) {
+        Template template = new Template();
+        template.setId(id);
+        template.setVersion(1);
+        template.setSchema(Map.of("elements", List.of(
+            Map.of("type", "TEXT", "properties", Map.of("text", "Ekstre {{customer}}")),
+            Map.of("type", "TABLE", "properties", Map.of(
+                "each", "lines",
+                "columns", List.of(
+                    Map.of("header", "Tarih", "width", 30, "dataKey", "date"),
+                    Map.of("header", "Açıklama", "width", 40, "dataKey", "description"),
+                    Map.of("header", "Tutar", "width", 30, "dataKey", "amount|currency:TRY")
+                )
+            ))
+        )));
+        return template;
+    }
+
+    private static List<Map<String, Object>> lines(int count) {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(Map.of("date", "2024-01-15", "description", "Market " + i, "amount", i));
+        }
+        return lines;
+    }
+}
\ No newline at end of file
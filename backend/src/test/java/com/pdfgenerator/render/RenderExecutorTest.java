@@ -0,0 +1,167 @@
+package com.pdfgenerator.render;
+
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RenderLane> order = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService callers;
+    private RenderExecutor renderExecutor;
+
+    @BeforeEach
+    void setUp() {
+        RenderLaneProperties properties = new RenderLaneProperties();
+        properties.getLanes().put(RenderLane.BULK, new RenderLaneProperties.Lane(1, 2));
+        renderExecutor = new RenderExecutor(1, properties, meterRegistry);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        renderExecutor.shutdown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void render_WithAllLanesQueued_ShouldServeLanesByWeight() throws Exception {
+        // Given: the only render thread is busy while every lane fills up
+        List<Future<RenderedPdf>> results = new ArrayList<>();
+        results.add(submit(RenderLane.STANDARD, this::blockingRender));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 12; i++) {
+            results.add(submit(RenderLane.INTERACTIVE, () -> render(RenderLane.INTERACTIVE)));
+            results.add(submit(RenderLane.STANDARD, () -> render(RenderLane.STANDARD)));
+        }
+        results.add(submit(RenderLane.BULK, () -> render(RenderLane.BULK)));
+        awaitQueued(RenderLane.INTERACTIVE, 12);
+        awaitQueued(RenderLane.STANDARD, 12);
+        awaitQueued(RenderLane.BULK, 1);
+
+        // When
+        release.countDown();
+        for (Future<RenderedPdf> result : results) {
+            result.get(5, TimeUnit.SECONDS).close();
+        }
+
+        // Then: weights 8/4/1 give 8 interactive, 4 standard and the bulk render in the first 13
+        List<RenderLane> firstRound = order.subList(1, 14);
+        assertEquals(8, Collections.frequency(firstRound, RenderLane.INTERACTIVE));
+        assertEquals(4, Collections.frequency(firstRound, RenderLane.STANDARD));
+        assertEquals(1, Collections.frequency(firstRound, RenderLane.BULK));
+        assertEquals(12, meterRegistry.get("pdf.render.queue.time").tag("lane", "interactive").timer().count());
+        assertEquals(1, meterRegistry.get("pdf.render.queue.time").tag("lane", "bulk").timer().count());
+    }
+
+    @Test
+    void render_WhenLaneQueueIsFull_ShouldRejectOnlyThatLane() throws Exception {
+        // Given
+        Future<RenderedPdf> busy = submit(RenderLane.STANDARD, this::blockingRender);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Future<RenderedPdf> first = submit(RenderLane.BULK, () -> render(RenderLane.BULK));
+        Future<RenderedPdf> second = submit(RenderLane.BULK, () -> render(RenderLane.BULK));
+        awaitQueued(RenderLane.BULK, 2);
+
+        // When
+        PDFGenerationException rejected = assertThrows(PDFGenerationException.class,
+            () -> renderExecutor.render(RenderLane.BULK, () -> render(RenderLane.BULK)));
+        Future<RenderedPdf> interactive = submit(RenderLane.INTERACTIVE, () -> render(RenderLane.INTERACTIVE));
+        awaitQueued(RenderLane.INTERACTIVE, 1);
+        release.countDown();
+
+        // Then
+        assertEquals(ErrorCode.RENDER_QUEUE_FULL, rejected.getErrorCode());
+        assertEquals(Map.of("lane", "bulk"), rejected.getContext());
+        for (Future<RenderedPdf> result : List.of(busy, first, second, interactive)) {
+            result.get(5, TimeUnit.SECONDS).close();
+        }
+        assertEquals(2, Collections.frequency(order, RenderLane.BULK));
+    }
+
+    @Test
+    void render_WhenCallerIsInterruptedWhileQueued_ShouldSkipRender() throws Exception {
+        // Given
+        Future<RenderedPdf> busy = submit(RenderLane.STANDARD, this::blockingRender);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Future<RenderedPdf> abandoned = submit(RenderLane.BULK, () -> render(RenderLane.BULK));
+        awaitQueued(RenderLane.BULK, 1);
+
+        // When
+        abandoned.cancel(true);
+        awaitQueued(RenderLane.BULK, 0);
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS).close();
+        renderExecutor.render(RenderLane.INTERACTIVE, () -> render(RenderLane.INTERACTIVE)).close();
+
+        // Then
+        assertEquals(List.of(RenderLane.STANDARD, RenderLane.INTERACTIVE), order);
+    }
+
+    @Test
+    void render_WhenDeadlinePassesWhileQueued_ShouldCancelAndSkipRender() throws Exception {
+        // Given
+        Future<RenderedPdf> busy = submit(RenderLane.STANDARD, this::blockingRender);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        RenderCancellation cancellation = RenderCancellation.withTimeout(Duration.ofMillis(50));
+
+        // When
+        PDFGenerationException cancelled = assertThrows(PDFGenerationException.class,
+            () -> renderExecutor.render(RenderLane.BULK, cancellation, () -> render(RenderLane.BULK)));
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS).close();
+        renderExecutor.render(RenderLane.INTERACTIVE, () -> render(RenderLane.INTERACTIVE)).close();
+
+        // Then
+        assertEquals(ErrorCode.RENDER_CANCELLED, cancelled.getErrorCode());
+        assertEquals(RenderCancellation.Reason.DEADLINE_EXCEEDED, cancellation.getReason());
+        assertEquals(0, renderExecutor.queued(RenderLane.BULK));
+        assertEquals(List.of(RenderLane.STANDARD, RenderLane.INTERACTIVE), order);
+    }
+
+    private Future<RenderedPdf> submit(RenderLane lane, Callable<RenderedPdf> renderer) {
+        return callers.submit(() -> renderExecutor.render(lane, renderer));
+    }
+
+    private RenderedPdf blockingRender() throws InterruptedException {
+        running.countDown();
+        release.await();
+        return render(RenderLane.STANDARD);
+    }
+
+    private RenderedPdf render(RenderLane lane) {
+        order.add(lane);
+        return RenderedPdf.of(new byte[] {1});
+    }
+
+    private void awaitQueued(RenderLane lane, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (renderExecutor.queued(lane) != count) {
+            if (System.nanoTime() > deadline) {
+                fail("Renders were not queued in " + lane);
+            }
+            Thread.sleep(5);
+        }
+    }
+}
\ No newline at end of file
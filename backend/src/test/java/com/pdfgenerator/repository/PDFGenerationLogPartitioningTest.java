@@ -0,0 +1,205 @@
+package com.pdfgenerator.repository;
+
+import com.pdfgenerator.entity.PDFGenerationLog;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.service.GenerationLogPartitionService;
+import com.pdfgenerator.service.GenerationLogPartitionService.LogPartition;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partition maintenance and partition pruning of the generation log queries, against a PostgreSQL
+ * server started by the test with the schema from docker/postgres/init.sql
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PDFGenerationLogPartitioningTest {
+
+    private static final EmbeddedPostgres postgres = startPostgres();
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector", SqlCapture.class::getName);
+    }
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    private PDFGenerationLogRepository logRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    private GenerationLogPartitionService partitionService;
+
+    @BeforeEach
+    void setUp() {
+        partitionService = new GenerationLogPartitionService(jdbcTemplate, 2, Duration.ofDays(30), true, true);
+        jdbcTemplate.update("INSERT INTO templates (id, name, category, schema) VALUES ('t1', 'T', 'REPORT', '{}') ON CONFLICT DO NOTHING");
+    }
+
+    @Test
+    void maintainPartitions_ShouldCreateUpcomingDaysAndDropExpiredOnes() {
+        // Given
+        jdbcTemplate.execute("CREATE TABLE pdf_generation_logs_p20200101 PARTITION OF pdf_generation_logs " +
+            "FOR VALUES FROM ('2020-01-01') TO ('2020-01-02')");
+
+        // When
+        partitionService.maintainPartitions(today);
+
+        // Then
+        List<String> names = partitionService.listPartitions().stream().map(LogPartition::getName).toList();
+        assertEquals(List.of(partition(today), partition(today.plusDays(1)), partition(today.plusDays(2)),
+            "pdf_generation_logs_default"), names);
+
+        // A second run finds nothing to do
+        partitionService.maintainPartitions(today);
+        assertEquals(4, partitionService.listPartitions().size());
+    }
+
+    @Test
+    void maintainPartitions_ShouldRemoveOnlyPartitionsEndingByTheRetentionCutoff() {
+        // Given: with 30 days of retention, rows from before the start of the day 30 days ago are expired
+        LocalDate expired = today.minusDays(31);
+        LocalDate kept = today.minusDays(30);
+        for (LocalDate day : List.of(expired, kept)) {
+            jdbcTemplate.execute("CREATE TABLE " + partition(day) + " PARTITION OF pdf_generation_logs " +
+                "FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+        }
+
+        // When
+        new GenerationLogPartitionService(jdbcTemplate, 0, Duration.ofDays(30), false, true).maintainPartitions(today);
+
+        // Then: the expired partition is detached, and kept as a table since dropping is off
+        List<String> names = partitionService.listPartitions().stream().map(LogPartition::getName).toList();
+        assertEquals(List.of(partition(kept), partition(today), "pdf_generation_logs_default"), names);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM pg_class WHERE relname = ?",
+            Integer.class, partition(expired)));
+    }
+
+    @Test
+    void queriesBoundedOnCreatedAt_ShouldOnlyReadPartitionsInRange() throws Exception {
+        // Given: a partition per day from two days ago
+        partitionService.maintainPartitions(today.minusDays(2));
+        for (int daysAgo = 0; daysAgo <= 2; daysAgo++) {
+            PDFGenerationLog log = new PDFGenerationLog(null, "t1", PDFGenerationStatus.COMPLETED);
+            logRepository.saveAndFlush(log);
+            jdbcTemplate.update("UPDATE pdf_generation_logs SET created_at = ? WHERE id = ?::uuid",
+                today.minusDays(daysAgo).atTime(12, 0), log.getId());
+        }
+        LocalDateTime since = today.atStartOfDay();
+
+        // When
+        SqlCapture.statements.clear();
+        assertEquals(1, logRepository.findByCreatedAtBetween(since, since.plusHours(23)).size());
+        String between = SqlCapture.last();
+        assertEquals(1, logRepository.countByStatusAndCreatedAtGreaterThanEqual(PDFGenerationStatus.COMPLETED, since));
+        String count = SqlCapture.last();
+        logRepository.findSlowProcessingLogs(0, since);
+        String slow = SqlCapture.last();
+
+        // Then: earlier days are pruned from every plan
+        String betweenPlan = explain(between, since, since.plusHours(23));
+        // A closed range within created partitions skips the default partition too; open-ended
+        // ranges keep it, as it may hold rows beyond the newest partition
+        assertFalse(betweenPlan.contains("pdf_generation_logs_default"), betweenPlan);
+        for (String plan : List.of(
+                betweenPlan,
+                explain(count, PDFGenerationStatus.COMPLETED.name(), since),
+                explain(slow, 0, since))) {
+            assertTrue(plan.contains(partition(today)), plan);
+            assertFalse(plan.contains(partition(today.minusDays(1))), plan);
+            assertFalse(plan.contains(partition(today.minusDays(2))), plan);
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres server = EmbeddedPostgres.start();
+            try (Connection connection = server.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute(Files.readString(Path.of("../docker/postgres/init.sql")));
+            }
+            return server;
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("Cannot start PostgreSQL for the test", e);
+        }
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private static String partition(LocalDate day) {
+        return "pdf_generation_logs_p" + day.format(SUFFIX);
+    }
+
+    /**
+     * Records the SQL Hibernate sends, so the test explains exactly what the repository runs
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        static String last() {
+            return statements.get(statements.size() - 1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.pdfgenerator.search;
+
+import com.pdfgenerator.dto.TemplateSummary;
+import com.pdfgenerator.enums.TemplateCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateSearchIndexTest {
+    
+    private TemplateSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new TemplateSearchIndex();
+        index.rebuild(List.of(
+            summary("card", "Kredi Kartı Ekstresi", TemplateCategory.CREDIT_CARD_STATEMENT, "Aylık kart ekstresi"),
+            summary("receipt", "Ödeme Makbuzu", TemplateCategory.PAYMENT_RECEIPT, "EFT ve havale dekontu"),
+            summary("invoice", "E-Fatura", TemplateCategory.INVOICE, "Kart ile ödenen faturalar"),
+            summary("report", "Aylık Rapor", TemplateCategory.REPORT, null)
+        ).iterator());
+    }
+    
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        // When
+        List<String> ids = ids(index.search("kart", 10));
+        
+        // Then
+        assertEquals(List.of("card", "invoice"), ids);
+    }
+    
+    @Test
+    void search_ShouldIgnoreCaseAndTurkishDiacritics() {
+        // When & Then
+        assertEquals(List.of("receipt"), ids(index.search("odeme makbuz", 10)));
+        assertEquals(List.of("card"), ids(index.search("KARTI", 10)));
+        assertEquals(List.of("report", "card"), ids(index.search("ayli", 10)));
+    }
+    
+    @Test
+    void search_WithShortQuery_ShouldMatchWordPrefixesOnly() {
+        // When & Then
+        assertEquals(List.of("invoice"), ids(index.search("fa", 10)));
+        assertTrue(index.search("tu", 10).isEmpty());
+    }
+    
+    @Test
+    void search_ShouldMatchCategoryAndSubstrings() {
+        // When & Then
+        assertEquals(List.of("invoice"), ids(index.search("atur", 10)));
+        assertEquals(List.of("card"), ids(index.search("credit card", 10)));
+    }
+    
+    @Test
+    void putAndRemove_ShouldUpdateIndexIncrementally() {
+        // Given
+        TemplateSummary renamed = summary("report", "Yıllık Sigorta Raporu", TemplateCategory.REPORT, null);
+        
+        // When
+        index.put(renamed);
+        index.remove("card");
+        
+        // Then
+        assertEquals(List.of("report"), ids(index.search("sigorta", 10)));
+        assertTrue(index.search("aylik rapor", 10).isEmpty());
+        assertEquals(List.of("invoice"), ids(index.search("kart", 10)));
+        assertEquals(3, index.size());
+    }
+    
+    @Test
+    void search_WithLimit_ShouldKeepShortestThenNewestNames() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        index.put(new TemplateSummary("old", "Kredi Kartı Özeti", TemplateCategory.CREDIT_CARD_STATEMENT, null, now.minusDays(2), null, "system", true, 1));
+        index.put(new TemplateSummary("new", "Kredi Kartı Limit", TemplateCategory.CREDIT_CARD_STATEMENT, null, now.plusDays(1), null, "system", true, 1));
+        index.put(new TemplateSummary("exact", "Kredi", TemplateCategory.OTHER, null, now.minusDays(5), null, "system", true, 1));
+        
+        // When
+        List<String> ids = ids(index.search("kredi", 3));
+        
+        // Then
+        assertEquals(List.of("exact", "new", "old"), ids);
+    }
+    
+    @Test
+    void put_WithInactiveTemplate_ShouldRemoveItFromIndex() {
+        // Given
+        TemplateSummary inactive = summary("receipt", "Ödeme Makbuzu", TemplateCategory.PAYMENT_RECEIPT, null);
+        inactive.setActive(false);
+        
+        // When
+        index.put(inactive);
+        
+        // Then
+        assertTrue(index.search("makbuz", 10).isEmpty());
+    }
+    
+    private static TemplateSummary summary(String id, String name, TemplateCategory category, String description) {
+        return new TemplateSummary(id, name, category, description, LocalDateTime.now(), null, "system", true, 1);
+    }
+    
+    private static List<String> ids(List<TemplateSummary> results) {
+        return results.stream().map(TemplateSummary::getId).collect(Collectors.toList());
+    }
+}
\ No newline at end of file
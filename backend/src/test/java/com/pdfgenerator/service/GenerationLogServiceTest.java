@@ -0,0 +1,75 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.dto.CursorPage;
+import com.pdfgenerator.dto.GenerationLogSummary;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.exception.ValidationException;
+import com.pdfgenerator.repository.PDFGenerationLogRepository;
+import com.pdfgenerator.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenerationLogServiceTest {
+    
+    @Mock
+    private PDFGenerationLogRepository logRepository;
+    
+    @InjectMocks
+    private GenerationLogService generationLogService;
+    
+    @Test
+    void searchLogs_WithMoreRowsThanPageSize_ShouldReturnCursorOfLastRow() {
+        // Given
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        GenerationLogSummary first = new GenerationLogSummary("log-2", "template-1", PDFGenerationStatus.FAILED,
+            120, "Timeout", null, now, "system");
+        GenerationLogSummary second = new GenerationLogSummary("log-1", "template-1", PDFGenerationStatus.FAILED,
+            80, "Timeout", null, now.minusSeconds(1), "system");
+        when(logRepository.findSummaries(any(), eq(2))).thenReturn(List.of(first, second));
+        
+        // When
+        CursorPage<GenerationLogSummary> page = generationLogService.searchLogs(
+            "template-1", PDFGenerationStatus.FAILED, null, now.minusDays(1), null, null, 1);
+        
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertEquals("log-2", page.getItems().get(0).getId());
+        assertTrue(page.isHasMore());
+        
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(now, cursor.getCreatedAt());
+        assertEquals("log-2", cursor.getId());
+        
+        verify(logRepository).findSummaries(notNull(), eq(2));
+    }
+    
+    @Test
+    void searchLogs_WithInvalidParameters_ShouldThrowValidationException() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        
+        // When & Then
+        assertThrows(ValidationException.class,
+            () -> generationLogService.searchLogs(null, null, null, null, null, null, 0));
+        assertThrows(ValidationException.class,
+            () -> generationLogService.searchLogs(null, null, null, now, now.minusHours(1), null, 50));
+        assertThrows(ValidationException.class,
+            () -> generationLogService.searchLogs(null, null, null, null, null, "%%%", 50));
+        String notUuidCursor = new KeysetCursor(now, "log-1").encode();
+        assertThrows(ValidationException.class,
+            () -> generationLogService.searchLogs(null, null, null, null, null, notUuidCursor, 50));
+        
+        verifyNoInteractions(logRepository);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.dto.LatencyStats;
+import com.pdfgenerator.entity.GenerationStatsSnapshot;
+import com.pdfgenerator.exception.ValidationException;
+import com.pdfgenerator.repository.GenerationStatsSnapshotRepository;
+import com.pdfgenerator.stats.GenerationStats;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenerationStatsServiceTest {
+
+    @Mock
+    private GenerationStatsSnapshotRepository snapshotRepository;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rotate_ShouldPersistSnapshotOncePerSnapshotInterval() {
+        // Given
+        GenerationStats generationStats = new GenerationStats();
+        GenerationStatsService service = new GenerationStatsService(generationStats, snapshotRepository,
+            Duration.ofMinutes(2), Duration.ofDays(30), true);
+        generationStats.recordCompleted("t1", TimeUnit.MILLISECONDS.toNanos(40));
+
+        // When: one minute, then a second one
+        for (int i = 0; i < 6; i++) {
+            service.rotate();
+        }
+        verifyNoInteractions(snapshotRepository);
+        for (int i = 0; i < 6; i++) {
+            service.rotate();
+        }
+
+        // Then
+        ArgumentCaptor<List<GenerationStatsSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(saved.capture());
+        assertEquals(List.of(1L, 1L), saved.getValue().stream().map(GenerationStatsSnapshot::getCompleted).toList());
+    }
+
+    @Test
+    void getHistory_ShouldDeriveRatesFromSnapshots() {
+        // Given
+        GenerationStatsService service = new GenerationStatsService(new GenerationStats(), snapshotRepository,
+            Duration.ofMinutes(5), Duration.ofDays(30), true);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 15, 10, 0);
+        GenerationStatsSnapshot snapshot = new GenerationStatsSnapshot("t1", start, start.plusMinutes(5), 600, 150);
+        snapshot.setP99Ms(120.0);
+        when(snapshotRepository.findByTemplateIdAndPeriodStartBetweenOrderByPeriodStartAsc("t1", start, start.plusHours(1)))
+            .thenReturn(List.of(snapshot));
+
+        // When
+        List<LatencyStats> history = service.getHistory("t1", start, start.plusHours(1));
+
+        // Then
+        assertEquals(1, history.size());
+        assertEquals(2.0, history.get(0).getThroughputPerSecond());
+        assertEquals(0.8, history.get(0).getSuccessRate());
+        assertEquals(120.0, history.get(0).getP99Ms());
+        assertThrows(ValidationException.class, () -> service.getHistory(null, start, start.minusMinutes(1)));
+    }
+
+    @Test
+    void getHistory_ShouldMergeTheRowsOfEveryNodeInAPeriod() {
+        // Given: two nodes offset by 30s, one fast and one slow, over two periods
+        GenerationStatsService service = new GenerationStatsService(new GenerationStats(), snapshotRepository,
+            Duration.ofMinutes(5), Duration.ofDays(30), true);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 15, 10, 0);
+        List<GenerationStatsSnapshot> rows = List.of(
+            snapshot(start, 300, 10),
+            snapshot(start.plusSeconds(30), 300, 200),
+            snapshot(start.plusMinutes(5), 300, 10),
+            snapshot(start.plusMinutes(5).plusSeconds(30), 300, 200)
+        );
+        when(snapshotRepository.findByTemplateIdIsNullAndPeriodStartBetweenOrderByPeriodStartAsc(start, start.plusHours(1)))
+            .thenReturn(rows);
+
+        // When
+        List<LatencyStats> history = service.getHistory(null, start, start.plusHours(1));
+
+        // Then
+        assertEquals(2, history.size());
+        LatencyStats first = history.get(0);
+        assertEquals(start, first.getFrom());
+        assertEquals(start.plusMinutes(5).plusSeconds(30), first.getUntil());
+        assertEquals(600, first.getCompleted());
+        assertEquals(2.0, first.getThroughputPerSecond());
+        assertEquals(10.0, first.getP50Ms(), 0.1);
+        assertEquals(200.0, first.getP95Ms(), 2.0);
+        assertEquals(start.plusMinutes(5), history.get(1).getFrom());
+    }
+
+    private static GenerationStatsSnapshot snapshot(LocalDateTime start, int completed, long latencyMs) {
+        Histogram latencies = new Histogram(2);
+        latencies.recordValueWithCount(TimeUnit.MILLISECONDS.toMicros(latencyMs), completed);
+        ByteBuffer buffer = ByteBuffer.allocate(latencies.getNeededByteBufferCapacity());
+        int length = latencies.encodeIntoCompressedByteBuffer(buffer);
+
+        GenerationStatsSnapshot snapshot = new GenerationStatsSnapshot(null, start, start.plusMinutes(5), completed, 0);
+        snapshot.setP50Ms((double) latencyMs);
+        snapshot.setHistogram(Arrays.copyOf(buffer.array(), length));
+        return snapshot;
+    }
+}
@@ -0,0 +1,118 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import com.pdfgenerator.idempotency.IdempotencyClaim;
+import com.pdfgenerator.idempotency.IdempotencyStore;
+import com.pdfgenerator.idempotency.LocalIdempotencyStore;
+import com.pdfgenerator.render.RenderedPdf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    private static final byte[] DOCUMENT = "%PDF-1.7 test".getBytes();
+
+    private IdempotencyService idempotencyService;
+    private List<Object> request;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = service(new LocalIdempotencyStore(100, DataSize.ofMegabytes(1)), DataSize.ofKilobytes(1));
+        request = List.of("t1", Map.of("name", "Ayşe", "amount", 10));
+    }
+
+    @Test
+    void claim_AfterCompletion_ShouldReplayStoredResponse() {
+        // Given
+        IdempotencyClaim first = idempotencyService.claim("generate", "key-1", request);
+        idempotencyService.complete(first, "application/pdf", RenderedPdf.of(DOCUMENT));
+
+        // When: the same request with its map fields in another order
+        IdempotencyClaim repeat = idempotencyService.claim("generate", "key-1",
+            List.of("t1", Map.of("amount", 10, "name", "Ayşe")));
+
+        // Then
+        assertFalse(first.isReplay());
+        assertTrue(repeat.isReplay());
+        assertEquals("application/pdf", repeat.getReplay().getContentType());
+        assertArrayEquals(DOCUMENT, repeat.getReplay().getBody());
+        assertFalse(idempotencyService.claim("other-operation", "key-1", request).isReplay());
+    }
+
+    @Test
+    void completeWithJob_ShouldReplayTheSameJob() {
+        // Given
+        IdempotencyClaim first = idempotencyService.claim("jobs", "key-1", request);
+        idempotencyService.completeWithJob(first, "job-1");
+
+        // When
+        IdempotencyClaim repeat = idempotencyService.claim("jobs", "key-1", request);
+
+        // Then: released after a job was stored, the key still replays it
+        idempotencyService.release(repeat);
+        assertTrue(repeat.isReplay());
+        assertEquals("job-1", repeat.getReplay().getJobId());
+        assertEquals("job-1", idempotencyService.claim("jobs", "key-1", request).getReplay().getJobId());
+        idempotencyService.complete(idempotencyService.claim("generate", "key-1", request),
+            "application/pdf", RenderedPdf.of(DOCUMENT));
+        assertNull(idempotencyService.claim("generate", "key-1", request).getReplay().getJobId());
+    }
+
+    @Test
+    void claim_WhileRunningOrWithOtherPayload_ShouldBeRejected() {
+        // Given
+        idempotencyService.claim("generate", "key-1", request);
+
+        // When
+        PDFGenerationException inProgress = assertThrows(PDFGenerationException.class,
+            () -> idempotencyService.claim("generate", "key-1", request));
+        PDFGenerationException reused = assertThrows(PDFGenerationException.class,
+            () -> idempotencyService.claim("generate", "key-1", List.of("t1", Map.of("name", "Mehmet"))));
+
+        // Then
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS, inProgress.getErrorCode());
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, reused.getErrorCode());
+        assertNull(idempotencyService.claim("generate", null, request));
+        assertThrows(PDFGenerationException.class, () -> idempotencyService.claim("generate", "bad key", request));
+    }
+
+    @Test
+    void release_AfterFailureOrForLargeDocument_ShouldLetRetryRunAgain() {
+        // Given
+        IdempotencyClaim failed = idempotencyService.claim("generate", "key-1", request);
+        IdempotencyClaim large = idempotencyService.claim("generate", "key-2", request);
+
+        // When
+        idempotencyService.release(failed);
+        idempotencyService.complete(large, "application/pdf", RenderedPdf.of(new byte[2048]));
+
+        // Then
+        assertFalse(idempotencyService.claim("generate", "key-1", request).isReplay());
+        assertFalse(idempotencyService.claim("generate", "key-2", request).isReplay());
+    }
+
+    @Test
+    void claim_WhenStoreIsUnavailable_ShouldRunWithoutIdempotency() {
+        // Given
+        IdempotencyStore store = mock(IdempotencyStore.class);
+        when(store.reserve(anyString(), anyString(), any())).thenThrow(new QueryTimeoutException("Redis timed out"));
+
+        // When & Then
+        assertNull(service(store, DataSize.ofMegabytes(1)).claim("generate", "key-1", request));
+    }
+
+    private static IdempotencyService service(IdempotencyStore store, DataSize maxBodySize) {
+        return new IdempotencyService(store, Duration.ofHours(24), Duration.ofMinutes(2), maxBodySize);
+    }
+}
\ No newline at end of file
@@ -1,24 +1,65 @@
 package com.pdfgenerator.service;
 
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.pdfgenerator.cache.LocalTemplateSnapshotStore;
+import com.pdfgenerator.cache.TemplateCache;
 import com.pdfgenerator.entity.Template;
 import com.pdfgenerator.enums.TemplateCategory;
 import com.pdfgenerator.exception.PDFGenerationException;
 import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.render.InFlightRenders;
+import com.pdfgenerator.render.MemoryBudget;
+import com.pdfgenerator.render.OutputProfile;
+import com.pdfgenerator.render.PdfOutputBuffers;
+import com.pdfgenerator.render.RenderCancellation;
+import com.pdfgenerator.render.RenderCostModel;
+import com.pdfgenerator.render.RenderExecutor;
+import com.pdfgenerator.render.RenderLane;
+import com.pdfgenerator.render.RenderedPdf;
 import com.pdfgenerator.repository.TemplateRepository;
+import com.pdfgenerator.stats.GenerationStats;
+import com.pdfgenerator.template.CompiledTemplate;
+import com.pdfgenerator.template.RenderScope;
+import com.pdfgenerator.template.TemplateCompiler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,6 +71,25 @@ class PDFGenerationServiceTest {
     @Mock
     private TemplateRepository templateRepository;
     
+    @Spy
+    private TemplateCompiler templateCompiler = new TemplateCompiler();
+    
+    @Spy
+    private PdfOutputBuffers pdfOutputBuffers = new PdfOutputBuffers();
+    
+    @Spy
+    private GenerationStats generationStats = new GenerationStats();
+    
+    @Spy
+    private InFlightRenders inFlightRenders = new InFlightRenders();
+    
+    @Mock
+    private GenerationLogService generationLogService;
+    
+    private final RenderExecutor renderExecutor = new RenderExecutor();
+    
+    private final MemoryBudget memoryBudget = new MemoryBudget();
+    
     @InjectMocks
     private PDFGenerationService pdfGenerationService;
     
@@ -38,6 +98,14 @@ class PDFGenerationServiceTest {
     
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(pdfGenerationService, "renderExecutor", renderExecutor);
+        ReflectionTestUtils.setField(pdfGenerationService, "memoryBudget", memoryBudget);
+        ReflectionTestUtils.setField(pdfGenerationService, "renderCostModel",
+            new RenderCostModel(templateCompiler, pdfOutputBuffers));
+        ReflectionTestUtils.setField(pdfGenerationService, "templateCache",
+            new TemplateCache(templateRepository, new LocalTemplateSnapshotStore(), templateCompiler, event -> { },
+                new SimpleMeterRegistry(), Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofSeconds(5)));
+        
         sampleTemplate = new Template();
         sampleTemplate.setId("test-template-001");
         sampleTemplate.setName("Test Template");
@@ -53,6 +121,11 @@ class PDFGenerationServiceTest {
         );
     }
     
+    @AfterEach
+    void tearDown() {
+        renderExecutor.shutdown();
+    }
+    
     @Test
     void generatePDF_WithValidTemplateAndData_ShouldReturnPDFBytes() {
         // Given
@@ -345,7 +418,7 @@ class PDFGenerationServiceTest {
     }
     
     @Test
-    void generatePDF_WithInvalidSchema_ShouldFallbackToBasicContent() {
+    void generatePDF_WithInvalidSchema_ShouldFallbackToBasicContent() throws Exception {
         // Given
         Map<String, Object> invalidSchema = Map.of(
             "elements", "invalid_elements_format" // Should be a list, not string
@@ -361,5 +434,455 @@ class PDFGenerationServiceTest {
         assertNotNull(result);
         assertTrue(result.length > 0);
         // Should fallback to basic content generation when schema parsing fails
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)))) {
+            assertTrue(PdfTextExtractor.getTextFromPage(pdf.getPage(1)).contains("Generated Document"));
+        }
+    }
+    
+    @Test
+    void generatePDF_WithMalformedTemplateText_ShouldFailInsteadOfFallingBack() {
+        // Given: a template saved before its text was validated
+        Map<String, Object> schema = Map.of(
+            "layout", Map.of("pageSize", "A4"),
+            "elements", List.of(
+                Map.of("type", "TEXT", "properties", Map.of("text", "Customer: {{customer_name}}")),
+                Map.of("type", "TEXT", "properties", Map.of("text", "{{#if customer_id}}Known customer"))
+            )
+        );
+        sampleTemplate.setSchema(schema);
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        
+        // When
+        PDFGenerationException exception = assertThrows(PDFGenerationException.class,
+            () -> pdfGenerationService.generatePDF("test-template-001", sampleData));
+        
+        // Then
+        assertEquals(ErrorCode.TEMPLATE_SCHEMA_INVALID, exception.getErrorCode());
+        assertTrue(exception.getMessage().contains("Unclosed {{#if}}"));
+        verify(generationStats).recordFailed("test-template-001");
+    }
+    
+    @Test
+    void generatePDF_WithHeaderAndFooter_ShouldStampEveryPageWithPageXOfY() throws Exception {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(Map.of("label", "Satır " + i, "value", "{{customer_id}}"));
+        }
+        Map<String, Object> schema = Map.of(
+            "layout", Map.of(
+                "pageSize", "A4",
+                "header", Map.of("text", "Customer: {{customer_name}}", "textAlign", "right"),
+                "footer", Map.of("text", "Sayfa {{page}} / {{pages}}")
+            ),
+            "elements", List.of(
+                Map.of(
+                    "type", "TABLE",
+                    "properties", Map.of(
+                        "columns", List.of(
+                            Map.of("header", "Alan", "width", 30),
+                            Map.of("header", "Değer", "width", 70)
+                        ),
+                        "rows", rows
+                    )
+                )
+            )
+        );
+        
+        sampleTemplate.setSchema(schema);
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        
+        Map<String, Object> testData = Map.of(
+            "customer_name", "Ahmet",
+            "customer_id", "12345678901"
+        );
+        
+        // When
+        byte[] result = pdfGenerationService.generatePDF("test-template-001", testData);
+        
+        // Then
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)))) {
+            int pages = pdf.getNumberOfPages();
+            assertTrue(pages > 1);
+            for (int page = 1; page <= pages; page++) {
+                String text = PdfTextExtractor.getTextFromPage(pdf.getPage(page));
+                assertTrue(text.contains("Customer: Ahmet"), "header missing on page " + page);
+                assertTrue(text.contains("Sayfa " + page + " / " + pages), "footer missing on page " + page);
+            }
+        }
+    }
+    
+    @Test
+    void generatePDF_WithPageTokenInHeader_ShouldNotPrintLiteralToken() throws Exception {
+        // Given: saved before the validator rejected page tokens in headers
+        sampleTemplate.setSchema(Map.of(
+            "layout", Map.of("pageSize", "A4", "header", Map.of("text", "Page {{page}}")),
+            "elements", List.of(Map.of("type", "TEXT", "content", "Body"))
+        ));
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        
+        // When
+        byte[] result = pdfGenerationService.generatePDF("test-template-001", Map.of());
+        
+        // Then
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)))) {
+            assertFalse(PdfTextExtractor.getTextFromPage(pdf.getPage(1)).contains("{{page}}"));
+        }
+    }
+    
+    @Test
+    void generatePDF_WithFormatDirectives_ShouldFormatValuesForTurkishLocale() throws Exception {
+        // Given
+        Map<String, Object> schema = Map.of(
+            "elements", List.of(
+                Map.of(
+                    "type", "TEXT",
+                    "properties", Map.of("text", "Tutar: {{amount|currency:TRY}} Tarih: {{payment_date|date:dd/MM/yyyy}}")
+                ),
+                Map.of(
+                    "type", "TEXT",
+                    "properties", Map.of("text", "Toplam: {{total|currency:TRY}}")
+                ),
+                Map.of(
+                    "type", "TABLE",
+                    "properties", Map.of(
+                        "columns", List.of(Map.of("header", "Limit", "width", 100, "dataKey", "limit|number:2")),
+                        "rows", List.of(Map.of("value", "-"))
+                    )
+                )
+            )
+        );
+        
+        sampleTemplate.setSchema(schema);
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        
+        Map<String, Object> testData = Map.of(
+            "amount", new BigDecimal("1250"),
+            "payment_date", "2025-01-15",
+            "limit", 25000.5,
+            "total", new BigDecimal("-123456789012345678.505")
+        );
+        
+        // When
+        byte[] first = pdfGenerationService.generatePDF("test-template-001", testData);
+        pdfGenerationService.generatePDF("test-template-001", testData);
+        
+        // Then
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(first)))) {
+            String text = PdfTextExtractor.getTextFromPage(pdf.getPage(1));
+            assertTrue(text.contains("Tutar: 1.250,00 TL"));
+            assertTrue(text.contains("Tarih: 15/01/2025"));
+            assertTrue(text.contains("25.000,50"));
+            // Amounts beyond long range use the same separators
+            assertTrue(text.contains("Toplam: -123.456.789.012.345.678,51 TL"));
+        }
+        // Same template version is compiled once and reused
+        assertSame(templateCompiler.compile(sampleTemplate), templateCompiler.compile(sampleTemplate));
+    }
+    
+    @Test
+    void generatePDF_WithNestedPathsLoopsAndConditionals_ShouldResolveCompiledExpressions() throws Exception {
+        // Given
+        Map<String, Object> schema = Map.of(
+            "elements", List.of(
+                Map.of(
+                    "type", "TEXT",
+                    "properties", Map.of("text", "City: {{customer.address.city}} Limit: {{cards[0].limit|currency:TRY}}")
+                ),
+                Map.of(
+                    "type", "TEXT",
+                    "properties", Map.of("text",
+                        "{{#if customer.vip}}VIP{{else}}Standard{{/if}} Cards:{{#each cards}} {{@index}}-{{number}}{{/each}}")
+                ),
+                Map.of(
+                    "type", "TEXT",
+                    "if", "customer.missing.flag",
+                    "properties", Map.of("text", "HIDDEN SECTION")
+                ),
+                Map.of(
+                    "type", "TABLE",
+                    "properties", Map.of(
+                        "each", "cards",
+                        "columns", List.of(
+                            Map.of("header", "Kart", "width", 50, "dataKey", "number"),
+                            Map.of("header", "Limit", "width", 50, "dataKey", "limit|number:2")
+                        )
+                    )
+                ),
+                Map.of(
+                    "type", "TEXT",
+                    "properties", Map.of("text", "Missing: [{{customer.phone.mobile}}] [{{cards[5].limit}}]")
+                )
+            )
+        );
+        
+        sampleTemplate.setSchema(schema);
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        
+        Map<String, Object> testData = Map.of(
+            "customer", Map.of("vip", true, "address", Map.of("city", "Izmir")),
+            "cards", List.of(
+                Map.of("number", "**** 1111", "limit", 15000),
+                Map.of("number", "**** 2222", "limit", new BigDecimal("7500.5"))
+            )
+        );
+        
+        // When
+        byte[] result = pdfGenerationService.generatePDF("test-template-001", testData);
+        
+        // Then
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)))) {
+            String text = PdfTextExtractor.getTextFromPage(pdf.getPage(1));
+            assertTrue(text.contains("City: Izmir Limit: 15.000,00 TL"));
+            assertTrue(text.contains("VIP Cards: 0-**** 1111 1-**** 2222"));
+            assertFalse(text.contains("HIDDEN SECTION"));
+            assertTrue(text.contains("7.500,50"));
+            assertTrue(text.contains("Missing: [] []"));
+        }
+    }
+    
+    @Test
+    void compiledTemplate_ShouldBindOnlyReferencedKeysIntoSlots() {
+        // Given
+        Map<String, Object> schema = Map.of(
+            "elements", List.of(
+                Map.of("type", "TEXT", "properties", Map.of("text", "{{customer.name}} {{#each cards}}{{number}}{{/each}}")),
+                Map.of(
+                    "type", "TABLE",
+                    "properties", Map.of(
+                        "each", "cards",
+                        "columns", List.of(Map.of("header", "Limit", "width", 100, "dataKey", "limit"))
+                    )
+                )
+            )
+        );
+        sampleTemplate.setSchema(schema);
+        
+        Map<String, Object> data = Map.of(
+            "customer", Map.of("name", "Ahmet"),
+            "cards", List.of(Map.of("number", "1111", "limit", 100)),
+            "unused_payload", "x".repeat(1024)
+        );
+        
+        // When
+        CompiledTemplate compiled = templateCompiler.compile(sampleTemplate);
+        RenderScope scope = compiled.bind(data);
+        
+        // Then
+        assertArrayEquals(new String[]{"customer", "cards", "number", "limit"}, compiled.getManifest().getKeys());
+        assertEquals(data.get("customer"), scope.get(0));
+        assertEquals(data.get("cards"), scope.get(1));
+        assertNull(scope.get(2));
+        assertEquals("Ahmet 1111", compiled.getElements().get(0).getText().render(scope));
+    }
+    
+    @Test
+    void generatePDF_WithOutputProfiles_ShouldTradeSizeForSpeed() throws Exception {
+        // Given
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            rows.add(Map.of("value", "Transaction {{customer_id}} row " + i));
+        }
+        Map<String, Object> schema = Map.of(
+            "layout", Map.of("pageSize", "A4", "outputProfile", "archival-small"),
+            "elements", List.of(
+                Map.of(
+                    "type", "TABLE",
+                    "properties", Map.of(
+                        "columns", List.of(Map.of("header", "Detail", "width", 100)),
+                        "rows", rows
+                    )
+                )
+            )
+        );
+        sampleTemplate.setSchema(schema);
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        
+        // When
+        byte[] fast = pdfGenerationService.generatePDF("test-template-001", sampleData, OutputProfile.FAST);
+        byte[] templateDefault = pdfGenerationService.generatePDF("test-template-001", sampleData);
+        
+        // Then
+        assertTrue(new String(fast, 0, 8).startsWith("%PDF-1.4"));
+        assertTrue(new String(templateDefault, 0, 8).startsWith("%PDF-1.7"));
+        assertTrue(templateDefault.length < fast.length);
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(templateDefault)))) {
+            assertTrue(PdfTextExtractor.getTextFromPage(pdf.getPage(1)).contains("Transaction 12345678901 row 0"));
+        }
+    }
+    
+    @Test
+    void renderPDF_AboveMemoryThreshold_ShouldSpillToTempFileAndTransfer(@TempDir Path tempDir) throws Exception {
+        // Given
+        Path spillDir = Files.createDirectory(tempDir.resolve("spill"));
+        ReflectionTestUtils.setField(pdfGenerationService, "pdfOutputBuffers",
+            new PdfOutputBuffers(4 * 1024, 4, spillDir.toString()));
+        
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            rows.add(Map.of("value", "Transaction {{customer_id}} row " + i));
+        }
+        sampleTemplate.setSchema(Map.of(
+            "layout", Map.of("pageSize", "A4"),
+            "elements", List.of(Map.of(
+                "type", "TABLE",
+                "properties", Map.of("columns", List.of(Map.of("header", "Detail", "width", 100)), "rows", rows)
+            ))
+        ));
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        Path target = tempDir.resolve("out.pdf");
+        
+        // When
+        try (RenderedPdf pdf = pdfGenerationService.renderPDF("test-template-001", sampleData, OutputProfile.FAST);
+             FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            assertFalse(pdf.isInMemory());
+            pdf.transferTo(channel);
+            assertEquals(pdf.getSize(), Files.size(target));
+        }
+        
+        // Then
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(target.toString()))) {
+            assertTrue(pdf.getNumberOfPages() > 1);
+        }
+        try (var spilled = Files.list(spillDir)) {
+            assertEquals(0, spilled.count());
+        }
+    }
+    
+    @Test
+    void renderPDF_BelowMemoryThreshold_ShouldReturnBufferToPool() {
+        // Given
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        
+        // When
+        long size;
+        try (RenderedPdf pdf = pdfGenerationService.renderPDF("test-template-001", sampleData, null)) {
+            assertTrue(pdf.isInMemory());
+            size = pdf.getSize();
+        }
+        
+        // Then
+        assertEquals(1, pdfOutputBuffers.getIdleBufferCount());
+        assertTrue(pdfOutputBuffers.estimateSize("test-template-001") >= size);
+    }
+    
+    @Test
+    void renderPDF_ShouldRecordStatsForExistingTemplatesOnly() {
+        // Given
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        when(templateRepository.findById("non-existent")).thenReturn(Optional.empty());
+        
+        // When
+        pdfGenerationService.renderPDF("test-template-001", sampleData, null).close();
+        pdfGenerationService.renderPDF("test-template-001", sampleData, null, RenderLane.BULK, false).close();
+        assertThrows(PDFGenerationException.class, () -> pdfGenerationService.renderPDF("non-existent", sampleData, null));
+        generationStats.rotate(LocalDateTime.now());
+        
+        // Then: the warm-up style render and the unknown template are not counted
+        assertEquals(1, generationStats.getStats().getWindows().get("1m").getCompleted());
+        assertEquals(0, generationStats.getStats().getWindows().get("1m").getFailed());
+        assertEquals(List.of("test-template-001"),
+            generationStats.getTemplateStats().stream().map(stats -> stats.getTemplateId()).toList());
+    }
+    
+    @Test
+    void renderPDF_WhenTimeoutElapses_ShouldCancelRenderAndLogItAsCancelled() throws Exception {
+        // Given: a render that is still opening its output buffer when the 300 ms deadline passes
+        ReflectionTestUtils.setField(pdfGenerationService, "timeoutMillis", 300L);
+        sampleTemplate.setSchema(Map.of("elements", List.of(Map.of("type", "TEXT", "properties", Map.of("text", "Late")))));
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        CountDownLatch opening = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            opening.countDown();
+            Thread.sleep(600);
+            return invocation.callRealMethod();
+        }).when(pdfOutputBuffers).open(anyString());
+        
+        // When
+        PDFGenerationException exception = assertThrows(PDFGenerationException.class,
+            () -> pdfGenerationService.renderPDF("test-template-001", sampleData, null));
+        
+        // Then: the caller stops waiting, the render stops at its next check and drops its buffer
+        assertTrue(opening.await(5, TimeUnit.SECONDS));
+        assertEquals(ErrorCode.RENDER_CANCELLED, exception.getErrorCode());
+        assertEquals("deadline_exceeded", exception.getContext().get("reason"));
+        verify(generationLogService).recordCancelled(eq("test-template-001"), anyLong(), eq("deadline_exceeded"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pdfOutputBuffers.getIdleBufferCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, pdfOutputBuffers.getIdleBufferCount());
+        verify(pdfOutputBuffers, never()).recordSize(anyString(), anyLong());
+        generationStats.rotate(LocalDateTime.now());
+        assertEquals(0, generationStats.getStats().getWindows().get("1m").getFailed());
+    }
+    
+    @Test
+    void renderPDF_WaitingForMemory_ShouldNotHoldRenderThreads() throws Exception {
+        // Given: the memory budget is taken, so renders wait for memory on their callers' threads
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        MemoryBudget.Reservation taken = memoryBudget.reserve(memoryBudget.getCapacity(), RenderCancellation.none());
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        List<Future<RenderedPdf>> waiting = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                Map<String, Object> data = Map.of("customer_id", String.valueOf(i));
+                waiting.add(callers.submit(() -> pdfGenerationService.renderPDF("test-template-001", data, null)));
+            }
+            Thread.sleep(200);
+            
+            // When: both render threads would be taken if the renders waited for memory on them
+            RenderedPdf other = RenderedPdf.of(new byte[0]);
+            RenderedPdf result = renderExecutor.render(RenderLane.INTERACTIVE,
+                RenderCancellation.withTimeout(Duration.ofSeconds(1)), () -> other);
+            
+            // Then
+            assertSame(other, result);
+            assertFalse(waiting.get(0).isDone());
+            taken.close();
+            for (Future<RenderedPdf> render : waiting) {
+                try (RenderedPdf pdf = render.get(5, TimeUnit.SECONDS)) {
+                    assertTrue(pdf.getSize() > 0);
+                }
+            }
+            assertEquals(0, memoryBudget.getReserved());
+        } finally {
+            taken.close();
+            callers.shutdownNow();
+        }
+    }
+    
+    @Test
+    void renderPDF_WithSchemaTemplate_ShouldNotHandRequestDataToTheRender() throws Exception {
+        // Given: request data that records the threads reading it
+        sampleTemplate.setSchema(Map.of(
+            "elements", List.of(Map.of("type", "TEXT", "properties", Map.of("text", "Customer: {{customer_name}}")))
+        ));
+        when(templateRepository.findById("test-template-001")).thenReturn(Optional.of(sampleTemplate));
+        Set<Thread> readers = ConcurrentHashMap.newKeySet();
+        Map<String, Object> data = new LinkedHashMap<>() {
+            @Override
+            public Object get(Object key) {
+                readers.add(Thread.currentThread());
+                return super.get(key);
+            }
+            
+            @Override
+            public Set<Map.Entry<String, Object>> entrySet() {
+                readers.add(Thread.currentThread());
+                return super.entrySet();
+            }
+        };
+        data.put("customer_name", "Ahmet Yilmaz");
+        data.put("statement_archive", "x".repeat(100_000));
+        
+        // When
+        try (RenderedPdf pdf = pdfGenerationService.renderPDF("test-template-001", data, null);
+             PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf.toByteArray())))) {
+            
+            // Then: values are bound on the caller's thread; the render thread reads only its slots
+            assertTrue(PdfTextExtractor.getTextFromPage(document.getPage(1)).contains("Customer: Ahmet Yilmaz"));
+            assertEquals(Set.of(Thread.currentThread()), readers);
+        }
     }
-}
\ No newline at end of file
+}
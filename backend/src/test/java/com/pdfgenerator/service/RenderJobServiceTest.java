@@ -0,0 +1,179 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.dto.RenderJobResponse;
+import com.pdfgenerator.entity.RenderJob;
+import com.pdfgenerator.entity.RenderJobResult;
+import com.pdfgenerator.enums.PDFGenerationStatus;
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import com.pdfgenerator.render.OutputProfile;
+import com.pdfgenerator.render.RenderCost;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.repository.RenderJobRepository;
+import com.pdfgenerator.repository.RenderJobResultRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RenderJobServiceTest {
+
+    private static final byte[] DOCUMENT = "%PDF-1.7 test".getBytes();
+    private static final RenderCost COST = new RenderCost(30003, 20_000_000_000L, 190_000_000, true);
+
+    @Mock
+    private RenderJobRepository renderJobRepository;
+
+    @Mock
+    private RenderJobResultRepository renderJobResultRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RenderJobService renderJobService;
+
+    @BeforeEach
+    void setUp() {
+        renderJobService = new RenderJobService(renderJobRepository, renderJobResultRepository, meterRegistry,
+            Duration.ofSeconds(60), Duration.ofSeconds(15), Duration.ofHours(1), 3, 10);
+    }
+
+    @Test
+    void submit_ShouldQueuePendingJobWithEstimatedCost() {
+        // Given
+        when(renderJobRepository.save(any(RenderJob.class))).thenAnswer(invocation -> {
+            RenderJob job = invocation.getArgument(0);
+            job.prePersist();
+            return job;
+        });
+
+        // When
+        RenderJobResponse queued = renderJobService.submit("t1", Map.of("name", "Ayşe"), OutputProfile.FAST, COST);
+
+        // Then
+        assertNotNull(queued.getId());
+        assertEquals(PDFGenerationStatus.PENDING, queued.getStatus());
+        assertEquals(20_000, queued.getEstimatedRenderMs());
+        assertEquals(0, queued.getAttempts());
+
+        // A full queue is rejected
+        when(renderJobRepository.countByStatus(PDFGenerationStatus.PENDING)).thenReturn(10L);
+        PDFGenerationException full = assertThrows(PDFGenerationException.class,
+            () -> renderJobService.submit("t1", Map.of(), null, COST));
+        assertEquals(ErrorCode.RENDER_QUEUE_FULL, full.getErrorCode());
+    }
+
+    @Test
+    void claimNext_ShouldLeaseOldestPendingJobToWorker() {
+        // Given
+        RenderJob pending = job(PDFGenerationStatus.PENDING);
+        when(renderJobRepository.lockNextPending()).thenReturn(Optional.of(pending.getId()), Optional.empty());
+        when(renderJobRepository.findById(pending.getId())).thenReturn(Optional.of(pending));
+
+        // When
+        RenderJob claimed = renderJobService.claimNext("42@worker-1");
+
+        // Then
+        assertEquals(PDFGenerationStatus.PROCESSING, claimed.getStatus());
+        assertEquals(1, claimed.getAttempts());
+        assertEquals("42@worker-1", claimed.getLeaseOwner());
+        assertEquals(60, Duration.between(claimed.getHeartbeatAt(), claimed.getLeaseExpiresAt()).toSeconds());
+        assertNull(renderJobService.claimNext("42@worker-1"));
+    }
+
+    @Test
+    void complete_WhenLeaseWasLost_ShouldNotStoreDocument() {
+        // Given: the first attempt's lease expired and the job was claimed again
+        when(renderJobRepository.finish(eq("job-1"), eq("42@worker-1"), eq(1), eq(PDFGenerationStatus.PROCESSING),
+            eq(PDFGenerationStatus.COMPLETED), any(), isNull(), eq((long) DOCUMENT.length))).thenReturn(0);
+        when(renderJobRepository.finish(eq("job-1"), eq("43@worker-2"), eq(2), eq(PDFGenerationStatus.PROCESSING),
+            eq(PDFGenerationStatus.COMPLETED), any(), isNull(), eq((long) DOCUMENT.length))).thenReturn(1);
+
+        // When
+        boolean stale = renderJobService.complete("job-1", "42@worker-1", 1, RenderedPdf.of(DOCUMENT));
+        boolean current = renderJobService.complete("job-1", "43@worker-2", 2, RenderedPdf.of(DOCUMENT));
+
+        // Then
+        assertFalse(stale);
+        assertTrue(current);
+        verify(renderJobResultRepository, times(1)).save(argThat(result -> result.getJobId().equals("job-1")));
+    }
+
+    @Test
+    void requeueExpiredLeases_ShouldRequeueOrFailAndPublishQueueGauges() {
+        // Given
+        when(renderJobRepository.requeueExpired(eq(PDFGenerationStatus.PENDING), eq(PDFGenerationStatus.PROCESSING), any(), eq(3)))
+            .thenReturn(2);
+        when(renderJobRepository.failExpired(eq(PDFGenerationStatus.FAILED), eq(PDFGenerationStatus.PROCESSING), any(), eq(3), anyString()))
+            .thenReturn(1);
+        when(renderJobRepository.countByStatus(PDFGenerationStatus.PENDING)).thenReturn(7L);
+        when(renderJobRepository.countByStatusAndHeartbeatAtBefore(eq(PDFGenerationStatus.PROCESSING), any())).thenReturn(1L);
+
+        // When
+        renderJobService.requeueExpiredLeases();
+
+        // Then: stuck means no heartbeat for two heartbeat intervals
+        verify(renderJobRepository).countByStatusAndHeartbeatAtBefore(eq(PDFGenerationStatus.PROCESSING),
+            argThat(before -> Duration.between(before, LocalDateTime.now()).toSeconds() == 30));
+        assertEquals(7.0, meterRegistry.get("pdf.render.jobs.queued").gauge().value());
+        assertEquals(1.0, meterRegistry.get("pdf.render.jobs.stuck").gauge().value());
+    }
+
+    @Test
+    void openResult_ShouldReturnDocumentOfCompletedJobsOnly() throws Exception {
+        // Given
+        RenderJob completed = job(PDFGenerationStatus.COMPLETED);
+        RenderJob running = job(PDFGenerationStatus.PROCESSING);
+        when(renderJobRepository.findById(completed.getId())).thenReturn(Optional.of(completed));
+        when(renderJobRepository.findById(running.getId())).thenReturn(Optional.of(running));
+        when(renderJobResultRepository.findById(completed.getId()))
+            .thenReturn(Optional.of(new RenderJobResult(completed.getId(), DOCUMENT)));
+
+        // When & Then
+        try (RenderedPdf pdf = renderJobService.openResult(completed.getId())) {
+            assertArrayEquals(DOCUMENT, pdf.toByteArray());
+        }
+        PDFGenerationException notCompleted = assertThrows(PDFGenerationException.class,
+            () -> renderJobService.openResult(running.getId()));
+        assertEquals(ErrorCode.JOB_NOT_COMPLETED, notCompleted.getErrorCode());
+        assertEquals("PROCESSING", notCompleted.getContext().get("status"));
+        PDFGenerationException notFound = assertThrows(PDFGenerationException.class,
+            () -> renderJobService.getJob("missing"));
+        assertEquals(ErrorCode.JOB_NOT_FOUND, notFound.getErrorCode());
+    }
+
+    @Test
+    void extendLeases_ShouldOnlyExtendLeasesStillHeld() {
+        // Given
+        when(renderJobRepository.findLeasedIds(List.of("job-1", "job-2"), "42@worker-1", PDFGenerationStatus.PROCESSING))
+            .thenReturn(List.of("job-2"));
+
+        // When
+        Set<String> held = renderJobService.extendLeases("42@worker-1", List.of("job-1", "job-2"));
+
+        // Then
+        assertEquals(Set.of("job-2"), held);
+        verify(renderJobRepository).extendLeases(eq(Set.of("job-2")), eq("42@worker-1"),
+            eq(PDFGenerationStatus.PROCESSING), any(), any());
+    }
+
+    private static RenderJob job(PDFGenerationStatus status) {
+        RenderJob job = new RenderJob("t1", Map.of("name", "Ayşe"), null, 100, 1 << 20);
+        job.prePersist();
+        job.setStatus(status);
+        return job;
+    }
+}
\ No newline at end of file
@@ -1,21 +1,27 @@
 package com.pdfgenerator.service;
 
+import com.pdfgenerator.cache.TemplateCache;
+import com.pdfgenerator.cache.TemplateChangedEvent;
+import com.pdfgenerator.dto.CursorPage;
 import com.pdfgenerator.dto.TemplateRequest;
 import com.pdfgenerator.dto.TemplateResponse;
+import com.pdfgenerator.dto.TemplateSummary;
+import com.pdfgenerator.dto.TemplateVersionSummary;
 import com.pdfgenerator.entity.Template;
-import com.pdfgenerator.entity.TemplateVersion;
 import com.pdfgenerator.enums.TemplateCategory;
 import com.pdfgenerator.exception.TemplateNotFoundException;
 import com.pdfgenerator.exception.ValidationException;
 import com.pdfgenerator.repository.TemplateRepository;
-import com.pdfgenerator.repository.TemplateVersionRepository;
+import com.pdfgenerator.search.TemplateSearchIndex;
 import com.pdfgenerator.validation.TemplateValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,6 +29,8 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,16 +43,23 @@ class TemplateServiceTest {
     private TemplateRepository templateRepository;
     
     @Mock
-    private TemplateVersionRepository templateVersionRepository;
+    private TemplateVersionService templateVersionService;
     
     @Mock
     private TemplateValidator templateValidator;
     
+    @Spy
+    private TemplateSearchIndex searchIndex = new TemplateSearchIndex();
+    
+    @Mock
+    private TemplateCache templateCache;
+    
     @InjectMocks
     private TemplateService templateService;
     
     private TemplateRequest validRequest;
     private Template sampleTemplate;
+    private TemplateSummary sampleSummary;
     private Map<String, Object> sampleSchema;
     
     @BeforeEach
@@ -74,6 +89,10 @@ class TemplateServiceTest {
         sampleTemplate.setVersion(1);
         sampleTemplate.setCreatedAt(LocalDateTime.now());
         sampleTemplate.setCreatedBy("system");
+        
+        // Sample list item
+        sampleSummary = new TemplateSummary("test-id", "Test Template", TemplateCategory.CREDIT_CARD_STATEMENT,
+            "Test description", sampleTemplate.getCreatedAt(), null, "system", true, 1);
     }
     
     @Test
@@ -81,7 +100,6 @@ class TemplateServiceTest {
         // Given
         doNothing().when(templateValidator).validateTemplateRequest(validRequest);
         when(templateRepository.save(any(Template.class))).thenReturn(sampleTemplate);
-        when(templateVersionRepository.save(any(TemplateVersion.class))).thenReturn(new TemplateVersion());
         
         // When
         TemplateResponse response = templateService.createTemplate(validRequest);
@@ -96,7 +114,8 @@ class TemplateServiceTest {
         
         verify(templateValidator).validateTemplateRequest(validRequest);
         verify(templateRepository).save(any(Template.class));
-        verify(templateVersionRepository).save(any(TemplateVersion.class));
+        verify(templateVersionService).recordVersion(sampleTemplate, null, "system");
+        verify(templateCache).updated(sampleTemplate);
     }
     
     @Test
@@ -148,31 +167,73 @@ class TemplateServiceTest {
     }
     
     @Test
-    void getAllTemplates_ShouldReturnAllActiveTemplates() {
+    void getAllTemplates_ShouldReturnFirstPageOfActiveTemplates() {
         // Given
-        List<Template> templates = Arrays.asList(sampleTemplate);
-        when(templateRepository.findByActiveTrueOrderByCreatedAtDesc()).thenReturn(templates);
+        List<TemplateSummary> summaries = Arrays.asList(sampleSummary);
+        when(templateRepository.findSummaries(Limit.of(21))).thenReturn(summaries);
         
         // When
-        List<TemplateResponse> responses = templateService.getAllTemplates();
+        CursorPage<TemplateSummary> page = templateService.getAllTemplates(null, 20);
         
         // Then
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        assertEquals("Test Template", responses.get(0).getName());
+        assertNotNull(page);
+        assertEquals(1, page.getItems().size());
+        assertEquals("Test Template", page.getItems().get(0).getName());
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasMore());
+        
+        verify(templateRepository).findSummaries(Limit.of(21));
+        verify(templateRepository, never()).findAll();
+    }
+    
+    @Test
+    void getAllTemplates_WithCursor_ShouldContinueAfterLastRowOfPreviousPage() {
+        // Given
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        TemplateSummary first = new TemplateSummary("id-3", "Third", TemplateCategory.CREDIT_CARD_STATEMENT,
+            null, now, null, "system", true, 1);
+        TemplateSummary second = new TemplateSummary("id-2", "Second", TemplateCategory.CREDIT_CARD_STATEMENT,
+            null, now, null, "system", true, 1);
+        TemplateSummary third = new TemplateSummary("id-1", "First", TemplateCategory.CREDIT_CARD_STATEMENT,
+            null, now.minusDays(1), null, "system", true, 1);
+        when(templateRepository.findSummaries(Limit.of(3))).thenReturn(Arrays.asList(first, second, third));
+        when(templateRepository.findSummariesAfter(now, "id-2", Limit.of(3))).thenReturn(Arrays.asList(third));
         
-        verify(templateRepository).findByActiveTrueOrderByCreatedAtDesc();
+        // When
+        CursorPage<TemplateSummary> firstPage = templateService.getAllTemplates(null, 2);
+        CursorPage<TemplateSummary> secondPage = templateService.getAllTemplates(firstPage.getNextCursor(), 2);
+        
+        // Then
+        assertEquals(2, firstPage.getItems().size());
+        assertTrue(firstPage.isHasMore());
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals("id-1", secondPage.getItems().get(0).getId());
+        assertFalse(secondPage.isHasMore());
+        
+        verify(templateRepository).findSummariesAfter(now, "id-2", Limit.of(3));
+    }
+    
+    @Test
+    void getAllTemplates_WithInvalidCursorOrSize_ShouldThrowValidationException() {
+        // When & Then
+        assertThrows(ValidationException.class, () -> templateService.getAllTemplates("not-a-cursor", 20));
+        assertThrows(ValidationException.class, () -> templateService.getAllTemplates(null, 0));
+        assertThrows(ValidationException.class,
+            () -> templateService.getAllTemplates(null, TemplateService.MAX_PAGE_SIZE + 1));
+        
+        verifyNoInteractions(templateRepository);
     }
     
     @Test
+    @SuppressWarnings("deprecation") // Covers the legacy page-number listing
     void getTemplatesPaginated_ShouldReturnPagedResults() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Template> templatePage = new PageImpl<>(Arrays.asList(sampleTemplate), pageable, 1);
-        when(templateRepository.findByActiveTrueOrderByCreatedAtDesc(pageable)).thenReturn(templatePage);
+        Page<TemplateSummary> summaryPage = new PageImpl<>(Arrays.asList(sampleSummary), pageable, 1);
+        when(templateRepository.findSummariesByActiveTrue(pageable)).thenReturn(summaryPage);
         
         // When
-        Page<TemplateResponse> responses = templateService.getTemplatesPaginated(pageable);
+        Page<TemplateSummary> responses = templateService.getTemplatesPaginated(pageable);
         
         // Then
         assertNotNull(responses);
@@ -180,43 +241,115 @@ class TemplateServiceTest {
         assertEquals(1, responses.getContent().size());
         assertEquals("Test Template", responses.getContent().get(0).getName());
         
-        verify(templateRepository).findByActiveTrueOrderByCreatedAtDesc(pageable);
+        verify(templateRepository).findSummariesByActiveTrue(pageable);
     }
     
     @Test
     void getTemplatesByCategory_ShouldReturnTemplatesOfSpecificCategory() {
         // Given
-        List<Template> templates = Arrays.asList(sampleTemplate);
-        when(templateRepository.findByCategoryAndActiveTrueOrderByCreatedAtDesc(TemplateCategory.CREDIT_CARD_STATEMENT))
-            .thenReturn(templates);
+        List<TemplateSummary> summaries = Arrays.asList(sampleSummary);
+        when(templateRepository.findSummariesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT, Limit.of(21)))
+            .thenReturn(summaries);
         
         // When
-        List<TemplateResponse> responses = templateService.getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT);
+        List<TemplateSummary> responses = templateService.getTemplatesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT, null, 20).getItems();
         
         // Then
         assertNotNull(responses);
         assertEquals(1, responses.size());
         assertEquals(TemplateCategory.CREDIT_CARD_STATEMENT, responses.get(0).getCategory());
         
-        verify(templateRepository).findByCategoryAndActiveTrueOrderByCreatedAtDesc(TemplateCategory.CREDIT_CARD_STATEMENT);
+        verify(templateRepository).findSummariesByCategory(TemplateCategory.CREDIT_CARD_STATEMENT, Limit.of(21));
     }
     
     @Test
     void searchTemplates_ShouldReturnMatchingTemplates() {
         // Given
-        List<Template> templates = Arrays.asList(sampleTemplate);
-        when(templateRepository.findByNameContainingIgnoreCaseAndActiveTrueOrderByCreatedAtDesc("test"))
-            .thenReturn(templates);
+        List<TemplateSummary> summaries = Arrays.asList(sampleSummary);
+        when(templateRepository.searchSummariesByName("test", Limit.of(21)))
+            .thenReturn(summaries);
         
         // When
-        List<TemplateResponse> responses = templateService.searchTemplates("test");
+        List<TemplateSummary> responses = templateService.searchTemplates("test", null, 20).getItems();
         
         // Then
         assertNotNull(responses);
         assertEquals(1, responses.size());
         assertTrue(responses.get(0).getName().toLowerCase().contains("test"));
         
-        verify(templateRepository).findByNameContainingIgnoreCaseAndActiveTrueOrderByCreatedAtDesc("test");
+        verify(templateRepository).searchSummariesByName("test", Limit.of(21));
+    }
+    
+    @Test
+    void searchTemplates_WhenIndexIsReady_ShouldNotQueryDatabase() {
+        // Given
+        when(templateRepository.streamAllSummaries()).thenReturn(Stream.of(sampleSummary));
+        templateService.rebuildSearchIndex();
+        
+        // When
+        CursorPage<TemplateSummary> page = templateService.searchTemplates("TEST", null, 20);
+        
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertEquals(sampleSummary.getId(), page.getItems().get(0).getId());
+        assertNull(page.getNextCursor());
+        verify(templateRepository, never()).searchSummariesByName(anyString(), any(Limit.class));
+    }
+    
+    @Test
+    void onTemplateChanged_ShouldReloadTheTemplateChangedOnAnotherNode() {
+        // Given
+        when(templateRepository.streamAllSummaries()).thenReturn(Stream.of(sampleSummary));
+        templateService.rebuildSearchIndex();
+        TemplateSummary created = new TemplateSummary("other-id", "Statement Other", TemplateCategory.CREDIT_CARD_STATEMENT,
+            null, LocalDateTime.now(), null, "system", true, 1);
+        TemplateSummary deactivated = new TemplateSummary("test-id", "Test Template", TemplateCategory.CREDIT_CARD_STATEMENT,
+            "Test description", sampleTemplate.getCreatedAt(), LocalDateTime.now(), "system", false, 1);
+        when(templateRepository.findSummaryById("other-id")).thenReturn(Optional.of(created));
+        when(templateRepository.findSummaryById("test-id")).thenReturn(Optional.of(deactivated));
+        
+        // When
+        templateService.onTemplateChanged(TemplateChangedEvent.of("other-id"));
+        templateService.onTemplateChanged(TemplateChangedEvent.of("test-id"));
+        
+        // Then
+        assertEquals(List.of("other-id"),
+            searchIndex.search("statement", 20).stream().map(TemplateSummary::getId).toList());
+        assertTrue(searchIndex.search("test", 20).isEmpty());
+    }
+    
+    @Test
+    void onTemplateChanged_AfterMissedNotices_ShouldRebuildTheIndex() {
+        // Given
+        when(templateRepository.streamAllSummaries()).thenReturn(Stream.of(), Stream.of(sampleSummary));
+        templateService.rebuildSearchIndex();
+        
+        // When
+        templateService.onTemplateChanged(TemplateChangedEvent.missed());
+        
+        // Then
+        assertEquals(1, searchIndex.search("test", 20).size());
+        verify(templateRepository, never()).findSummaryById(anyString());
+    }
+    
+    @Test
+    void exportTemplates_ShouldPassStreamedTemplatesToConsumerAndCloseStream() {
+        // Given
+        TemplateResponse exported = new TemplateResponse("test-id", "Test Template",
+            TemplateCategory.CREDIT_CARD_STATEMENT, sampleSchema, LocalDateTime.now());
+        AtomicBoolean closed = new AtomicBoolean();
+        when(templateRepository.streamAllForExport())
+            .thenReturn(Stream.of(exported, exported).onClose(() -> closed.set(true)));
+        List<TemplateResponse> received = new ArrayList<>();
+        
+        // When
+        long count = templateService.exportTemplates(received::add);
+        
+        // Then
+        assertEquals(2, count);
+        assertEquals(2, received.size());
+        assertEquals(sampleSchema, received.get(0).getSchema());
+        assertTrue(closed.get());
     }
     
     @Test
@@ -225,9 +358,10 @@ class TemplateServiceTest {
         when(templateRepository.findByIdAndActiveTrue("test-id")).thenReturn(Optional.of(sampleTemplate));
         doNothing().when(templateValidator).validateTemplateRequest(validRequest);
         when(templateRepository.save(any(Template.class))).thenReturn(sampleTemplate);
-        when(templateVersionRepository.save(any(TemplateVersion.class))).thenReturn(new TemplateVersion());
+        Map<String, Object> previousSchema = sampleTemplate.getSchema();
         
         validRequest.setName("Updated Template");
+        validRequest.setSchema(Map.of("layout", Map.of("pageSize", "A5")));
         
         // When
         TemplateResponse response = templateService.updateTemplate("test-id", validRequest);
@@ -237,7 +371,44 @@ class TemplateServiceTest {
         verify(templateValidator).validateTemplateRequest(validRequest);
         verify(templateRepository).findByIdAndActiveTrue("test-id");
         verify(templateRepository).save(any(Template.class));
-        verify(templateVersionRepository).save(any(TemplateVersion.class));
+        // The new version is recorded against the schema it replaced
+        verify(templateVersionService).recordVersion(sampleTemplate, previousSchema, "system");
+        assertEquals(2, sampleTemplate.getVersion());
+        verify(templateCache).updated(sampleTemplate);
+    }
+    
+    @Test
+    void updateTemplate_WithinCoalescingWindow_ShouldKeepCurrentVersion() {
+        // Given
+        when(templateRepository.findByIdAndActiveTrue("test-id")).thenReturn(Optional.of(sampleTemplate));
+        when(templateRepository.save(any(Template.class))).thenReturn(sampleTemplate);
+        when(templateVersionService.coalesceVersion(sampleTemplate, "system")).thenReturn(true);
+        
+        validRequest.setName("Autosaved Template");
+        
+        // When
+        TemplateResponse response = templateService.updateTemplate("test-id", validRequest);
+        
+        // Then
+        assertEquals("Autosaved Template", response.getName());
+        assertEquals(1, response.getVersion());
+        verify(templateRepository).save(sampleTemplate);
+        verify(templateVersionService, never()).recordVersion(any(), any(), any());
+    }
+    
+    @Test
+    void updateTemplate_WithoutChanges_ShouldNotWriteAnything() {
+        // Given
+        when(templateRepository.findByIdAndActiveTrue("test-id")).thenReturn(Optional.of(sampleTemplate));
+        
+        // When
+        TemplateResponse response = templateService.updateTemplate("test-id", validRequest);
+        
+        // Then
+        assertEquals(1, response.getVersion());
+        verify(templateRepository, never()).save(any(Template.class));
+        verifyNoInteractions(templateVersionService);
+        verifyNoInteractions(templateCache);
     }
     
     @Test
@@ -252,13 +423,13 @@ class TemplateServiceTest {
         // Then
         verify(templateRepository).findByIdAndActiveTrue("test-id");
         verify(templateRepository).save(argThat(template -> !template.isActive()));
+        verify(templateCache).updated(sampleTemplate);
     }
     
     @Test
     void permanentDeleteTemplate_WithExistingId_ShouldDeleteTemplateAndVersions() {
         // Given
         when(templateRepository.findById("test-id")).thenReturn(Optional.of(sampleTemplate));
-        doNothing().when(templateVersionRepository).deleteByTemplateId("test-id");
         doNothing().when(templateRepository).delete(sampleTemplate);
         
         // When
@@ -266,8 +437,9 @@ class TemplateServiceTest {
         
         // Then
         verify(templateRepository).findById("test-id");
-        verify(templateVersionRepository).deleteByTemplateId("test-id");
+        verify(templateVersionService).deleteVersions("test-id");
         verify(templateRepository).delete(sampleTemplate);
+        verify(templateCache).removed("test-id");
     }
     
     @Test
@@ -275,24 +447,21 @@ class TemplateServiceTest {
         // Given
         when(templateRepository.findByIdAndActiveTrue("test-id")).thenReturn(Optional.of(sampleTemplate));
         
-        TemplateVersion version1 = new TemplateVersion();
-        version1.setId("version-1");
-        version1.setTemplateId("test-id");
-        version1.setVersion(1);
-        
-        List<TemplateVersion> versions = Arrays.asList(version1);
-        when(templateVersionRepository.findByTemplateIdOrderByVersionDesc("test-id")).thenReturn(versions);
+        TemplateVersionSummary version1 = new TemplateVersionSummary("version-1", "test-id", 1, true,
+            LocalDateTime.now(), "system");
+        CursorPage<TemplateVersionSummary> versions = new CursorPage<>(List.of(version1), null);
+        when(templateVersionService.listVersions("test-id", null, 20)).thenReturn(versions);
         
         // When
-        List<TemplateVersion> result = templateService.getTemplateVersions("test-id");
+        CursorPage<TemplateVersionSummary> result = templateService.getTemplateVersions("test-id", null, 20);
         
         // Then
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("version-1", result.get(0).getId());
+        assertEquals(1, result.getItems().size());
+        assertEquals("version-1", result.getItems().get(0).getId());
         
         verify(templateRepository).findByIdAndActiveTrue("test-id");
-        verify(templateVersionRepository).findByTemplateIdOrderByVersionDesc("test-id");
+        verify(templateVersionService).listVersions("test-id", null, 20);
     }
     
     @Test
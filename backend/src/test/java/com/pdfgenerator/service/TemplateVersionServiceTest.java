@@ -0,0 +1,207 @@
+package com.pdfgenerator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfgenerator.dto.TemplateVersionResponse;
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.entity.TemplateVersion;
+import com.pdfgenerator.enums.TemplateCategory;
+import com.pdfgenerator.exception.TemplateNotFoundException;
+import com.pdfgenerator.repository.TemplateVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TemplateVersionServiceTest {
+
+    private static final int SNAPSHOT_INTERVAL = 3;
+
+    @Mock
+    private TemplateVersionRepository templateVersionRepository;
+
+    private TemplateVersionService templateVersionService;
+
+    @BeforeEach
+    void setUp() {
+        templateVersionService = service(0);
+    }
+
+    @Test
+    void recordVersion_WithinSnapshotInterval_ShouldStorePatchOnly() {
+        // Given
+        when(templateVersionRepository.findMaxVersionByTemplateId("test-id")).thenReturn(Optional.of(1));
+        when(templateVersionRepository.findLatestSnapshotVersionByTemplateId("test-id")).thenReturn(Optional.of(1));
+        when(templateVersionRepository.save(any(TemplateVersion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        TemplateVersion version = templateVersionService.recordVersion(template(2, schema(2)), schema(1), "editor");
+
+        // Then
+        assertFalse(version.isSnapshot());
+        assertEquals("editor", version.getCreatedBy());
+        assertNull(version.getSchema());
+        assertEquals(List.of(Map.of("op", "replace", "path", "/title", "value", "Title 2")), version.getPatch());
+    }
+
+    @Test
+    void recordVersion_AtSnapshotInterval_ShouldStoreFullSchema() {
+        // Given
+        when(templateVersionRepository.findMaxVersionByTemplateId("test-id")).thenReturn(Optional.of(3));
+        when(templateVersionRepository.findLatestSnapshotVersionByTemplateId("test-id")).thenReturn(Optional.of(1));
+        when(templateVersionRepository.save(any(TemplateVersion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        TemplateVersion version = templateVersionService.recordVersion(template(4, schema(4)), schema(3), "editor");
+
+        // Then
+        assertTrue(version.isSnapshot());
+        assertEquals(schema(4), version.getSchema());
+        assertNull(version.getPatch());
+    }
+
+    @Test
+    void coalesceVersion_BySameAuthorWithinWindow_ShouldRediffPendingVersion() {
+        // Given
+        TemplateVersion pending = delta(2);
+        pending.setCreatedBy("editor");
+        pending.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        pending.setUpdatedAt(LocalDateTime.now().minusSeconds(30));
+        when(templateVersionRepository.findLatestVersionByTemplateId("test-id")).thenReturn(Optional.of(pending));
+        when(templateVersionRepository.findFirstByTemplateIdAndSnapshotTrueAndVersionLessThanEqualOrderByVersionDesc("test-id", 1))
+            .thenReturn(Optional.of(snapshot(1)));
+        Map<String, Object> edited = schema(2);
+        edited.put("footer", "Sayfa 1");
+
+        // When
+        boolean coalesced = templateVersionService.coalesceVersion(template(2, edited), "editor");
+
+        // Then
+        assertTrue(coalesced);
+        assertFalse(pending.isSnapshot());
+        assertEquals(2, pending.getPatch().size());
+        assertTrue(pending.getUpdatedAt().isAfter(LocalDateTime.now().minusSeconds(5)));
+        verify(templateVersionRepository).save(pending);
+    }
+
+    @Test
+    void coalesceVersion_ByOtherAuthorOrAfterWindow_ShouldReturnFalse() {
+        // Given
+        TemplateVersion pending = snapshot(2);
+        pending.setCreatedBy("editor");
+        pending.setCreatedAt(LocalDateTime.now().minusMinutes(10));
+        pending.setUpdatedAt(LocalDateTime.now().minusMinutes(3));
+        when(templateVersionRepository.findLatestVersionByTemplateId("test-id")).thenReturn(Optional.of(pending));
+
+        // When & Then
+        assertFalse(templateVersionService.coalesceVersion(template(2, schema(2)), "reviewer"));
+        assertFalse(templateVersionService.coalesceVersion(template(2, schema(2)), "editor"));
+        verify(templateVersionRepository, never()).save(any());
+    }
+
+    @Test
+    void getVersion_ShouldApplyDeltasToLatestSnapshot() {
+        // Given
+        when(templateVersionRepository.findFirstByTemplateIdAndSnapshotTrueAndVersionLessThanEqualOrderByVersionDesc("test-id", 3))
+            .thenReturn(Optional.of(snapshot(1)));
+        when(templateVersionRepository.findByTemplateIdAndVersionBetweenOrderByVersionAsc("test-id", 2, 3))
+            .thenReturn(List.of(delta(2), delta(3)));
+
+        // When
+        TemplateVersionResponse version = templateVersionService.getVersion("test-id", 3);
+
+        // Then
+        assertEquals(3, version.getVersion());
+        assertEquals(schema(3), version.getSchema());
+    }
+
+    @Test
+    void getVersion_WithMissingVersion_ShouldThrowNotFoundException() {
+        // Given
+        when(templateVersionRepository.findFirstByTemplateIdAndSnapshotTrueAndVersionLessThanEqualOrderByVersionDesc("test-id", 5))
+            .thenReturn(Optional.of(snapshot(1)));
+        when(templateVersionRepository.findByTemplateIdAndVersionBetweenOrderByVersionAsc("test-id", 2, 5))
+            .thenReturn(List.of(delta(2)));
+
+        // When & Then
+        assertThrows(TemplateNotFoundException.class, () -> templateVersionService.getVersion("test-id", 5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compact_ShouldDropExpiredVersionsAndReencodeFullCopiesAsDeltas() {
+        // Given
+        templateVersionService = service(4);
+        TemplateVersion duplicate = snapshot(1);
+        List<TemplateVersion> history = new ArrayList<>(List.of(snapshot(1), duplicate));
+        for (int version = 2; version <= 6; version++) {
+            history.add(snapshot(version));
+        }
+        when(templateVersionRepository.findByTemplateIdOrderByVersionAscCreatedAtAsc("test-id")).thenReturn(history);
+
+        // When
+        boolean changed = templateVersionService.compact("test-id");
+
+        // Then
+        assertTrue(changed);
+        ArgumentCaptor<List<String>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(templateVersionRepository).deleteByIdIn(deleted.capture());
+        assertEquals(List.of(history.get(0).getId(), duplicate.getId(), history.get(2).getId()), deleted.getValue());
+
+        // Versions 3..6 are kept: 3 and 6 stay snapshots, 4 and 5 become deltas
+        ArgumentCaptor<List<TemplateVersion>> rewritten = ArgumentCaptor.forClass(List.class);
+        verify(templateVersionRepository).saveAll(rewritten.capture());
+        assertEquals(List.of(4, 5), rewritten.getValue().stream().map(TemplateVersion::getVersion).toList());
+        assertTrue(rewritten.getValue().stream().noneMatch(TemplateVersion::isSnapshot));
+        assertTrue(history.get(3).isSnapshot());
+        assertTrue(history.get(6).isSnapshot());
+    }
+
+    private TemplateVersionService service(int maxVersions) {
+        return new TemplateVersionService(templateVersionRepository, new ObjectMapper(), null,
+            SNAPSHOT_INTERVAL, maxVersions, Duration.ZERO, true, Duration.ofMinutes(2), Duration.ofMinutes(30));
+    }
+
+    private static Template template(int version, Map<String, Object> schema) {
+        Template template = new Template("test-id", "Test Template", TemplateCategory.REPORT, schema);
+        template.setVersion(version);
+        template.setCreatedBy("system");
+        return template;
+    }
+
+    // Large enough that a one-field patch is smaller than the schema
+    private static Map<String, Object> schema(int version) {
+        Map<String, Object> schema = new HashMap<>();
+        schema.put("title", "Title " + version);
+        schema.put("layout", Map.of("pageSize", "A4", "orientation", "PORTRAIT", "margins", Map.of("top", 20, "bottom", 20)));
+        schema.put("sections", List.of(Map.of("type", "table", "columns", List.of("date", "description", "amount"))));
+        return schema;
+    }
+
+    private static TemplateVersion snapshot(int version) {
+        TemplateVersion row = new TemplateVersion("v" + version + "-" + System.nanoTime(), "test-id", version, schema(version));
+        row.setCreatedAt(LocalDateTime.now().minusDays(10 - version));
+        return row;
+    }
+
+    private static TemplateVersion delta(int version) {
+        TemplateVersion row = new TemplateVersion("v" + version, "test-id", version, null);
+        row.setSnapshot(false);
+        row.setPatch(List.of(Map.of("op", "replace", "path", "/title", "value", "Title " + version)));
+        return row;
+    }
+}
\ No newline at end of file
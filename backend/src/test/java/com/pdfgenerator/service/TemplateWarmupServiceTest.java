@@ -0,0 +1,109 @@
+package com.pdfgenerator.service;
+
+import com.pdfgenerator.entity.Template;
+import com.pdfgenerator.enums.TemplateCategory;
+import com.pdfgenerator.exception.ErrorCode;
+import com.pdfgenerator.exception.PDFGenerationException;
+import com.pdfgenerator.render.RenderLane;
+import com.pdfgenerator.render.RenderedPdf;
+import com.pdfgenerator.repository.TemplateRepository;
+import com.pdfgenerator.template.TemplateCompiler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TemplateWarmupService
+ */
+@ExtendWith(MockitoExtension.class)
+class TemplateWarmupServiceTest {
+    
+    @Mock
+    private TemplateRepository templateRepository;
+    
+    @Mock
+    private PDFGenerationService pdfGenerationService;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private Template schemaTemplate;
+    private Template brokenTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        
+        schemaTemplate = new Template();
+        schemaTemplate.setId("template-001");
+        schemaTemplate.setName("Statement");
+        schemaTemplate.setCategory(TemplateCategory.ACCOUNT_STATEMENT);
+        schemaTemplate.setVersion(1);
+        schemaTemplate.setSchema(Map.of(
+            "layout", Map.of("pageSize", "A4"),
+            "elements", List.of(Map.of("type", "TEXT", "properties", Map.of("text", "{{customer_name}}")))
+        ));
+        
+        brokenTemplate = new Template();
+        brokenTemplate.setId("template-002");
+        brokenTemplate.setName("Broken");
+        brokenTemplate.setCategory(TemplateCategory.OTHER);
+        brokenTemplate.setSchema(Map.of());
+    }
+    
+    @Test
+    void warmUp_WithActiveTemplates_ShouldRenderEachAndReportCompleted() {
+        // Given
+        TemplateCompiler templateCompiler = spy(new TemplateCompiler());
+        when(templateRepository.findByActiveTrue()).thenReturn(List.of(schemaTemplate, brokenTemplate));
+        when(pdfGenerationService.renderPDF(eq("template-001"), any(Map.class), isNull(), eq(RenderLane.BULK), eq(false)))
+            .thenReturn(RenderedPdf.of("pdf".getBytes()));
+        when(pdfGenerationService.renderPDF(eq("template-002"), any(Map.class), isNull(), eq(RenderLane.BULK), eq(false)))
+            .thenThrow(new PDFGenerationException(ErrorCode.PDF_GENERATION_FAILED, "boom", Map.of()));
+        TemplateWarmupService warmupService = new TemplateWarmupService(
+            templateRepository, templateCompiler, pdfGenerationService, meterRegistry, true, Duration.ofSeconds(10));
+        
+        // When
+        boolean completed = warmupService.warmUp();
+        
+        // Then
+        assertTrue(completed);
+        verify(templateCompiler).compile(schemaTemplate);
+        assertEquals(1.0, meterRegistry.counter("pdf.warmup.templates", "result", "ok").count());
+        assertEquals(1.0, meterRegistry.counter("pdf.warmup.templates", "result", "failed").count());
+        assertEquals(1, meterRegistry.timer("pdf.warmup.duration", "outcome", "completed").count());
+    }
+    
+    @Test
+    void warmUp_ExceedingTimeBudget_ShouldStopWaitingAndReportTimeout() {
+        // Given
+        // The warm-up thread may still be loading fonts when the budget expires
+        lenient().when(templateRepository.findByActiveTrue()).thenReturn(List.of(schemaTemplate));
+        lenient().when(pdfGenerationService.renderPDF(eq("template-001"), any(Map.class), isNull(), eq(RenderLane.BULK), eq(false))).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return RenderedPdf.of("pdf".getBytes());
+        });
+        TemplateWarmupService warmupService = new TemplateWarmupService(
+            templateRepository, new TemplateCompiler(), pdfGenerationService, meterRegistry, true, Duration.ofMillis(100));
+        
+        // When
+        long start = System.nanoTime();
+        boolean completed = warmupService.warmUp();
+        
+        // Then
+        assertFalse(completed);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+        assertEquals(1, meterRegistry.timer("pdf.warmup.duration", "outcome", "timeout").count());
+    }
+}
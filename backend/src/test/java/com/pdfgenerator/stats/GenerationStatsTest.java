@@ -0,0 +1,111 @@
+package com.pdfgenerator.stats;
+
+import com.pdfgenerator.dto.LatencyStats;
+import com.pdfgenerator.entity.GenerationStatsSnapshot;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationStatsTest {
+
+    private GenerationStats generationStats;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        generationStats = new GenerationStats();
+        now = LocalDateTime.of(2024, 1, 15, 10, 0);
+    }
+
+    @Test
+    void rotate_ShouldPublishPercentilesSuccessRateAndThroughput() {
+        // Given
+        for (int millis = 1; millis <= 100; millis++) {
+            generationStats.recordCompleted("t1", TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        generationStats.recordFailed("t1");
+
+        // When
+        generationStats.rotate(tick());
+
+        // Then
+        LatencyStats lastMinute = generationStats.getStats("t1").getWindows().get("1m");
+        assertEquals(100, lastMinute.getCompleted());
+        assertEquals(1, lastMinute.getFailed());
+        assertEquals(0.9901, lastMinute.getSuccessRate());
+        assertEquals(10.0, lastMinute.getThroughputPerSecond());
+        assertEquals(50.0, lastMinute.getP50Ms(), 0.5);
+        assertEquals(95.0, lastMinute.getP95Ms(), 1.0);
+        assertEquals(99.0, lastMinute.getP99Ms(), 1.0);
+        assertEquals(100.0, lastMinute.getMaxMs(), 1.0);
+        assertEquals(now.minusSeconds(10), lastMinute.getFrom());
+        assertEquals(100, generationStats.getStats().getWindows().get("1h").getCompleted());
+        assertEquals(0, generationStats.getStats("t2").getWindows().get("1m").getCompleted());
+        assertNull(generationStats.getStats("t2").getWindows().get("1m").getP50Ms());
+    }
+
+    @Test
+    void rotate_ShouldDropExpiredIntervalsFromEachWindow() {
+        // Given: a slow render in the first interval and a fast one in the second
+        generationStats.recordCompleted("t1", TimeUnit.MILLISECONDS.toNanos(500));
+        generationStats.rotate(tick());
+        generationStats.recordCompleted("t1", TimeUnit.MILLISECONDS.toNanos(10));
+
+        // When: six more intervals, closing the first minute
+        for (int i = 0; i < 6; i++) {
+            generationStats.rotate(tick());
+        }
+
+        // Then
+        LatencyStats lastMinute = generationStats.getStats("t1").getWindows().get("1m");
+        assertEquals(1, lastMinute.getCompleted());
+        assertEquals(10.0, lastMinute.getMaxMs(), 0.1);
+        LatencyStats fiveMinutes = generationStats.getStats("t1").getWindows().get("5m");
+        assertEquals(2, fiveMinutes.getCompleted());
+        assertEquals(500.0, fiveMinutes.getMaxMs(), 5.0);
+        assertEquals(now.minusSeconds(70), fiveMinutes.getFrom());
+    }
+
+    @Test
+    void drainSnapshots_ShouldReturnClosedMinutesOnceAndIdleTemplatesShouldBeDropped() throws Exception {
+        // Given
+        generationStats.recordCompleted("t1", TimeUnit.MILLISECONDS.toNanos(20));
+        generationStats.recordFailed("t1");
+        for (int i = 0; i < 6; i++) {
+            generationStats.rotate(tick());
+        }
+
+        // When
+        List<GenerationStatsSnapshot> snapshots = generationStats.drainSnapshots(now);
+
+        // Then: one for all templates, one for t1
+        assertEquals(2, snapshots.size());
+        GenerationStatsSnapshot template = snapshots.get(1);
+        assertEquals("t1", template.getTemplateId());
+        assertEquals(1, template.getCompleted());
+        assertEquals(1, template.getFailed());
+        assertEquals(now, template.getPeriodEnd());
+        Histogram histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(template.getHistogram()), 0);
+        assertEquals(1, histogram.getTotalCount());
+        assertEquals(TimeUnit.MILLISECONDS.toMicros(20), histogram.getMaxValue(), 200);
+        assertTrue(generationStats.drainSnapshots(now).isEmpty());
+
+        // After an idle hour the template is gone
+        for (int i = 0; i < 60 * 6; i++) {
+            generationStats.rotate(tick());
+        }
+        assertTrue(generationStats.getTemplateStats().isEmpty());
+    }
+
+    private LocalDateTime tick() {
+        now = now.plusSeconds(GenerationStats.TICK_SECONDS);
+        return now;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.pdfgenerator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UUIDGeneratorTest {
+
+    @Test
+    void generateUUIDv7_ShouldSetVersionVariantAndCurrentTimestamp() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID uuid = UUIDGenerator.generateUUIDv7Object();
+
+        // Then
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void generateUUIDv7_ShouldBeStrictlyIncreasingInStringOrder() {
+        // Given
+        String previous = UUIDGenerator.generateUUIDv7();
+
+        // When & Then: far more ids than fit in one millisecond's counter
+        for (int i = 0; i < 100_000; i++) {
+            String next = UUIDGenerator.generateUUIDv7();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void generateUUIDv7_FromConcurrentThreads_ShouldBeUnique() throws Exception {
+        // Given
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(UUIDGenerator.generateUUIDv7());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(160_000, ids.size());
+    }
+}
\ No newline at end of file
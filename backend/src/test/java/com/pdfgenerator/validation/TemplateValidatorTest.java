@@ -3,6 +3,7 @@ package com.pdfgenerator.validation;
 import com.pdfgenerator.dto.TemplateRequest;
 import com.pdfgenerator.enums.TemplateCategory;
 import com.pdfgenerator.exception.ValidationException;
+import com.pdfgenerator.template.TemplateCompiler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -20,7 +21,7 @@ class TemplateValidatorTest {
     
     @BeforeEach
     void setUp() {
-        templateValidator = new TemplateValidator();
+        templateValidator = new TemplateValidator(new TemplateCompiler());
         
         // Valid schema
         validSchema = new HashMap<>();
@@ -361,4 +362,129 @@ class TemplateValidatorTest {
         assertTrue(exception.getErrors().stream()
             .anyMatch(error -> error.contains("Margin 'top' must be non-negative")));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void validateLayout_WithInvalidFooter_ShouldThrowValidationException() {
+        // Given
+        Map<String, Object> layoutWithInvalidFooter = Map.of(
+            "pageSize", "A4",
+            "header", Map.of("text", "{{customer_name}}", "logo", "http://example.com/logo.png"),
+            "footer", Map.of("text", "Sayfa {{page}} / {{pages}}", "height", 0)
+        );
+        
+        Map<String, Object> schemaWithInvalidLayout = new HashMap<>(validSchema);
+        schemaWithInvalidLayout.put("layout", layoutWithInvalidFooter);
+        validRequest.setSchema(schemaWithInvalidLayout);
+        
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> templateValidator.validateTemplateRequest(validRequest));
+        
+        assertTrue(exception.getErrors().contains("Layout footer 'height' must be a positive number"));
+        assertTrue(exception.getErrors().contains("Layout header logo must be a classpath: or data: URI"));
+    }
+    
+    @Test
+    void validateLayout_WithPlaceholderInLogo_ShouldThrowValidationException() {
+        // Given
+        Map<String, Object> schemaWithDataLogo = new HashMap<>(validSchema);
+        schemaWithDataLogo.put("layout", Map.of("pageSize", "A4",
+            "header", Map.of("logo", "classpath:{{logo_path}}")));
+        validRequest.setSchema(schemaWithDataLogo);
+        
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> templateValidator.validateTemplateRequest(validRequest));
+        
+        assertTrue(exception.getErrors().contains("Layout header logo must not contain placeholders"));
+    }
+    
+    @Test
+    void validateLayout_WithPageNumberInHeader_ShouldThrowValidationException() {
+        // Given
+        Map<String, Object> schemaWithPagedHeader = new HashMap<>(validSchema);
+        schemaWithPagedHeader.put("layout", Map.of("pageSize", "A4",
+            "header", Map.of("text", "Page {{page}}"),
+            "footer", Map.of("text", "Sayfa {{page}} / {{pages}}")));
+        validRequest.setSchema(schemaWithPagedHeader);
+        
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> templateValidator.validateTemplateRequest(validRequest));
+        
+        assertEquals(List.of("Layout header text cannot use {{page}} or {{pages}}; put page numbers in the footer"),
+            exception.getErrors());
+    }
+    
+    @Test
+    void validateLayout_WithPageNumberExpressionInHeader_ShouldThrowValidationException() {
+        for (String text : List.of("Page {{ page }}", "Page {{page|number:0}}", "{{#if pages}}of {{pages}}{{/if}}")) {
+            // Given
+            Map<String, Object> schemaWithPagedHeader = new HashMap<>(validSchema);
+            schemaWithPagedHeader.put("layout", Map.of("pageSize", "A4", "header", Map.of("text", text)));
+            validRequest.setSchema(schemaWithPagedHeader);
+            
+            // When & Then
+            ValidationException exception = assertThrows(ValidationException.class,
+                () -> templateValidator.validateTemplateRequest(validRequest), text);
+            
+            assertEquals(List.of("Layout header text cannot use {{page}} or {{pages}}; put page numbers in the footer"),
+                exception.getErrors(), text);
+        }
+    }
+    
+    @Test
+    void validateLayout_WithUnknownOutputProfile_ShouldThrowValidationException() {
+        // Given
+        Map<String, Object> schemaWithInvalidProfile = new HashMap<>(validSchema);
+        schemaWithInvalidProfile.put("layout", Map.of("pageSize", "A4", "outputProfile", "tiny"));
+        validRequest.setSchema(schemaWithInvalidProfile);
+        
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> templateValidator.validateTemplateRequest(validRequest));
+        
+        assertTrue(exception.getErrors().contains(
+            "Unknown output profile: tiny. Supported: fast, balanced, archival-small"));
+    }
+    
+    @Test
+    void validateSchema_WithMalformedTemplateText_ShouldThrowValidationException() {
+        // Given: an unclosed block, a bad path and a misspelled directive
+        for (String text : List.of("{{#if vip}}VIP", "{{cards[}}", "{{amount|curency:TRY}}")) {
+            Map<String, Object> schema = new HashMap<>(validSchema);
+            schema.put("elements", List.of(Map.of(
+                "id", "title",
+                "type", "TEXT",
+                "position", Map.of("x", 0, "y", 0, "width", 100, "height", 10),
+                "properties", Map.of("text", text)
+            )));
+            validRequest.setSchema(schema);
+            
+            // When & Then
+            ValidationException exception = assertThrows(ValidationException.class,
+                () -> templateValidator.validateTemplateRequest(validRequest), text);
+            assertEquals(1, exception.getErrors().size(), text);
+        }
+    }
+    
+    @Test
+    void validateSchema_WithUnknownColumnDirective_ShouldThrowValidationException() {
+        // Given
+        Map<String, Object> schema = new HashMap<>(validSchema);
+        schema.put("elements", List.of(Map.of(
+            "id", "cards",
+            "type", "TABLE",
+            "position", Map.of("x", 0, "y", 0, "width", 100, "height", 10),
+            "properties", Map.of("each", "cards",
+                "columns", List.of(Map.of("header", "Limit", "dataKey", "limit|curency:TRY")))
+        )));
+        validRequest.setSchema(schema);
+        
+        // When & Then
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> templateValidator.validateTemplateRequest(validRequest));
+        
+        assertEquals(List.of("Unknown format directive: curency:TRY"), exception.getErrors());
+    }
+}
@@ -17,27 +17,129 @@ CREATE TABLE IF NOT EXISTS templates (
     version INTEGER DEFAULT 1
 );
 
--- Template versions for history
+-- Template versions for history: full snapshots, with JSON Patch deltas from the previous version in between
 CREATE TABLE IF NOT EXISTS template_versions (
-    id VARCHAR(36) PRIMARY KEY DEFAULT uuid_generate_v4(),
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
     template_id VARCHAR(36) REFERENCES templates(id),
     version INTEGER NOT NULL,
-    schema JSONB NOT NULL,
+    snapshot BOOLEAN NOT NULL DEFAULT true,
+    schema JSONB,
+    patch JSONB,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
     created_by VARCHAR(36)
 );
 
--- PDF generation logs
+-- Existing histories hold full copies only; the nightly compaction re-encodes them as deltas
+ALTER TABLE template_versions ADD COLUMN IF NOT EXISTS snapshot BOOLEAN NOT NULL DEFAULT true;
+ALTER TABLE template_versions ADD COLUMN IF NOT EXISTS patch JSONB;
+ALTER TABLE template_versions ALTER COLUMN schema DROP NOT NULL;
+-- Last save coalesced into a version
+ALTER TABLE template_versions ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+
+-- Log and version ids are time-ordered v7 UUIDs generated by the application. Convert ids of
+-- existing databases from text to native uuid (16 bytes instead of 37); ids that are not UUIDs are
+-- replaced by their md5. This rewrites the tables and their indexes, so run it in a maintenance window
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_name = 'template_versions' AND column_name = 'id') = 'character varying' THEN
+        ALTER TABLE template_versions ALTER COLUMN id DROP DEFAULT;
+        ALTER TABLE template_versions ALTER COLUMN id TYPE UUID
+            USING CASE WHEN id ~* '^[0-9a-f]{8}-([0-9a-f]{4}-){3}[0-9a-f]{12}$' THEN id::uuid ELSE md5(id)::uuid END;
+        ALTER TABLE template_versions ALTER COLUMN id SET DEFAULT uuid_generate_v4();
+    END IF;
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_name = 'pdf_generation_logs' AND column_name = 'id') = 'character varying' THEN
+        ALTER TABLE pdf_generation_logs ALTER COLUMN id DROP DEFAULT;
+        ALTER TABLE pdf_generation_logs ALTER COLUMN id TYPE UUID
+            USING CASE WHEN id ~* '^[0-9a-f]{8}-([0-9a-f]{4}-){3}[0-9a-f]{12}$' THEN id::uuid ELSE md5(id)::uuid END;
+        ALTER TABLE pdf_generation_logs ALTER COLUMN id SET DEFAULT uuid_generate_v4();
+    END IF;
+END $$;
+
+-- Pre-partitioning log table: moved aside here and attached below as a single partition
+DO $$
+DECLARE
+    primary_key TEXT;
+    idx RECORD;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('pdf_generation_logs')) = 'r' THEN
+        ALTER TABLE pdf_generation_logs RENAME TO pdf_generation_logs_unpartitioned;
+        SELECT conname INTO primary_key FROM pg_constraint
+        WHERE conrelid = 'pdf_generation_logs_unpartitioned'::regclass AND contype = 'p';
+        IF primary_key IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE pdf_generation_logs_unpartitioned DROP CONSTRAINT %I', primary_key);
+        END IF;
+        FOR idx IN SELECT indexname FROM pg_indexes
+                   WHERE tablename = 'pdf_generation_logs_unpartitioned' AND indexname LIKE 'idx_pdf_logs_%' LOOP
+            EXECUTE format('ALTER INDEX %I RENAME TO %I', idx.indexname, idx.indexname || '_legacy');
+        END LOOP;
+    END IF;
+END $$;
+
+-- PDF generation logs, range-partitioned by day on created_at. GenerationLogPartitionService creates
+-- partitions ahead of time and drops whole partitions after the retention period, and every query
+-- bounded on created_at only reads the partitions it needs. The primary key must include the
+-- partition key
 CREATE TABLE IF NOT EXISTS pdf_generation_logs (
-    id VARCHAR(36) PRIMARY KEY DEFAULT uuid_generate_v4(),
+    id UUID NOT NULL DEFAULT uuid_generate_v4(),
     template_id VARCHAR(36) REFERENCES templates(id),
     request_data JSONB,
     status VARCHAR(20) NOT NULL,
     file_path VARCHAR(500),
     processing_time_ms INTEGER,
     error_message TEXT,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    created_by VARCHAR(36)
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(36),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside the created partitions, should partition maintenance fall behind
+CREATE TABLE IF NOT EXISTS pdf_generation_logs_default PARTITION OF pdf_generation_logs DEFAULT;
+
+-- Generation stats history: one row per node, snapshot period and template (NULL = all templates),
+-- with the HdrHistogram of completed render latencies so periods can be merged
+CREATE TABLE IF NOT EXISTS generation_stats_snapshots (
+    id UUID PRIMARY KEY,
+    template_id VARCHAR(36),
+    period_start TIMESTAMP NOT NULL,
+    period_end TIMESTAMP NOT NULL,
+    completed BIGINT NOT NULL,
+    failed BIGINT NOT NULL,
+    p50_ms DOUBLE PRECISION,
+    p95_ms DOUBLE PRECISION,
+    p99_ms DOUBLE PRECISION,
+    max_ms DOUBLE PRECISION,
+    histogram BYTEA
+);
+
+-- Render job queue. Workers claim the oldest PENDING job with SELECT ... FOR UPDATE SKIP LOCKED and
+-- hold a lease on it until lease_expires_at, extended by heartbeats; a job whose lease expires goes
+-- back to PENDING until max attempts. Documents of completed jobs are kept in render_job_results, so
+-- claiming and polling never read them
+CREATE TABLE IF NOT EXISTS render_jobs (
+    id UUID PRIMARY KEY,
+    template_id VARCHAR(36) NOT NULL,
+    profile VARCHAR(20),
+    request_data JSONB,
+    status VARCHAR(20) NOT NULL,
+    estimated_render_ms BIGINT NOT NULL,
+    estimated_memory_bytes BIGINT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP,
+    heartbeat_at TIMESTAMP,
+    error_message TEXT,
+    result_size BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS render_job_results (
+    job_id UUID PRIMARY KEY,
+    content BYTEA NOT NULL
 );
 
 -- Users table for authentication
@@ -58,13 +160,45 @@ CREATE TABLE IF NOT EXISTS users (
 CREATE INDEX IF NOT EXISTS idx_templates_category ON templates(category);
 CREATE INDEX IF NOT EXISTS idx_templates_created_by ON templates(created_by);
 CREATE INDEX IF NOT EXISTS idx_templates_active ON templates(active);
+-- Keyset pagination of template listings on (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_templates_active_created_at ON templates(active, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_templates_category_created_at ON templates(category, active, created_at DESC, id DESC);
 CREATE INDEX IF NOT EXISTS idx_template_versions_template_id ON template_versions(template_id);
-CREATE INDEX IF NOT EXISTS idx_pdf_logs_template_id ON pdf_generation_logs(template_id);
-CREATE INDEX IF NOT EXISTS idx_pdf_logs_created_at ON pdf_generation_logs(created_at);
-CREATE INDEX IF NOT EXISTS idx_pdf_logs_status ON pdf_generation_logs(status);
+CREATE INDEX IF NOT EXISTS idx_template_versions_template_version ON template_versions(template_id, version DESC);
+-- Log search: one (filter columns, created_at, id) index per filter combination used by ops,
+-- so every search is an index range scan in keyset order
+CREATE INDEX IF NOT EXISTS idx_pdf_logs_created_at ON pdf_generation_logs(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_pdf_logs_template_created_at ON pdf_generation_logs(template_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_pdf_logs_template_status_created_at ON pdf_generation_logs(template_id, status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_pdf_logs_status_created_at ON pdf_generation_logs(status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_pdf_logs_created_by_created_at ON pdf_generation_logs(created_by, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_generation_stats_template_period ON generation_stats_snapshots(template_id, period_start);
+-- Claiming (oldest PENDING first), lease expiry and retention of render jobs
+CREATE INDEX IF NOT EXISTS idx_render_jobs_status_created_at ON render_jobs(status, created_at);
+CREATE INDEX IF NOT EXISTS idx_render_jobs_status_lease ON render_jobs(status, lease_expires_at);
+CREATE INDEX IF NOT EXISTS idx_render_jobs_completed_at ON render_jobs(completed_at);
 CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
 CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
 
+-- Attach the pre-partitioning log table as one partition holding everything up to today; retention
+-- drops it as a whole once its newest rows expire. The CHECK constraint lets SET NOT NULL and ATTACH
+-- skip their validation scans, and its indexes matching the keyset indexes above are reused
+DO $$
+DECLARE
+    upper_bound TIMESTAMP := date_trunc('day', LOCALTIMESTAMP) + interval '1 day';
+BEGIN
+    IF to_regclass('pdf_generation_logs_unpartitioned') IS NOT NULL THEN
+        UPDATE pdf_generation_logs_unpartitioned SET created_at = LOCALTIMESTAMP WHERE created_at IS NULL;
+        EXECUTE format('ALTER TABLE pdf_generation_logs_unpartitioned ADD CONSTRAINT pdf_generation_logs_legacy_bound '
+                       'CHECK (created_at IS NOT NULL AND created_at < %L)', upper_bound);
+        ALTER TABLE pdf_generation_logs_unpartitioned ALTER COLUMN created_at SET NOT NULL;
+        EXECUTE format('ALTER TABLE pdf_generation_logs ATTACH PARTITION pdf_generation_logs_unpartitioned '
+                       'FOR VALUES FROM (MINVALUE) TO (%L)', upper_bound);
+        ALTER TABLE pdf_generation_logs_unpartitioned DROP CONSTRAINT pdf_generation_logs_legacy_bound;
+        ALTER TABLE pdf_generation_logs_unpartitioned RENAME TO pdf_generation_logs_legacy;
+    END IF;
+END $$;
+
 -- Insert default admin user (password: admin123)
 INSERT INTO users (username, email, password_hash, first_name, last_name, role) 
 VALUES ('admin', 'admin@pdfgenerator.com', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9P2.nRuNWDbNWKy', 'Admin', 'User', 'ADMIN')